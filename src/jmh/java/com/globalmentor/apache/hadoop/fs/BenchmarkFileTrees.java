@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.nio.charset.StandardCharsets.*;
+import static java.nio.file.Files.*;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.*;
+
+/**
+ * Utilities for generating and accessing the file trees and file systems used by the benchmarks.
+ * @implNote Generated trees are kept in the system temporary directory (or the directory indicated by the {@value #BENCHMARK_DIRECTORY_PROPERTY} system
+ *           property) and reused across benchmark forks and runs, as generating a directory of a million entries is much more expensive than listing it.
+ * @author Garret Wilson
+ */
+public final class BenchmarkFileTrees {
+
+	/** The system property for specifying the base directory for generated benchmark trees. */
+	public static final String BENCHMARK_DIRECTORY_PROPERTY = "benchmark.directory";
+
+	/** The name of the marker file indicating that a tree was generated completely. */
+	private static final String COMPLETE_MARKER_FILENAME = ".complete";
+
+	private BenchmarkFileTrees() {
+	}
+
+	/** @return The base directory in which benchmark trees are generated. */
+	public static java.nio.file.Path getBaseDirectory() {
+		final String benchmarkDirectory = System.getProperty(BENCHMARK_DIRECTORY_PROPERTY);
+		return benchmarkDirectory != null ? Paths.get(benchmarkDirectory)
+				: Paths.get(System.getProperty("java.io.tmpdir")).resolve("hadoop-bare-naked-local-fs-benchmark");
+	}
+
+	/**
+	 * Returns a flat directory containing the given number of small files, generating it if needed.
+	 * @param entryCount The number of files the directory should contain.
+	 * @return The directory containing the files <code>file-0.txt</code> through <code>file-<var>n-1</var>.txt</code>.
+	 * @throws IOException If an I/O error occurs generating the tree.
+	 */
+	public static java.nio.file.Path flatDirectory(final int entryCount) throws IOException {
+		final java.nio.file.Path directory = getBaseDirectory().resolve("flat-" + entryCount);
+		if(!exists(directory.resolve(COMPLETE_MARKER_FILENAME))) {
+			createDirectories(directory);
+			final byte[] content = "foobar".getBytes(UTF_8);
+			for(int i = 0; i < entryCount; i++) {
+				final java.nio.file.Path file = directory.resolve(fileName(i));
+				if(!exists(file)) {
+					write(file, content);
+				}
+			}
+			createFile(directory.resolve(COMPLETE_MARKER_FILENAME));
+		}
+		return directory;
+	}
+
+	/**
+	 * Returns a file of pseudorandom data of the given size, generating it if needed.
+	 * @param size The size of the file in bytes.
+	 * @return The data file.
+	 * @throws IOException If an I/O error occurs generating the file.
+	 */
+	public static java.nio.file.Path dataFile(final long size) throws IOException {
+		final java.nio.file.Path file = getBaseDirectory().resolve("data-" + size + ".bin");
+		if(!exists(file) || size(file) != size) {
+			createDirectories(file.getParent());
+			final java.nio.file.Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+			final Random random = new Random(size);
+			final byte[] chunk = new byte[1 << 20];
+			try (final OutputStream outputStream = newOutputStream(tempFile)) {
+				for(long remaining = size; remaining > 0; remaining -= chunk.length) {
+					random.nextBytes(chunk);
+					outputStream.write(chunk, 0, (int)Math.min(chunk.length, remaining));
+				}
+			}
+			move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		return file;
+	}
+
+	/**
+	 * Returns the name of a file in a generated tree.
+	 * @param index The index of the file.
+	 * @return The name of the file at the given index.
+	 */
+	public static String fileName(final int index) {
+		return "file-" + index + ".txt";
+	}
+
+	/**
+	 * Creates and initializes a local file system instance of the given implementation.
+	 * @param implementation The simple name of the class to instantiate, one of {@link NakedLocalFileSystem}, {@link BareLocalFileSystem},
+	 *          {@link RawLocalFileSystem}, or {@link LocalFileSystem}.
+	 * @param configuration The configuration with which to initialize the file system.
+	 * @return The initialized file system.
+	 * @throws IllegalArgumentException if the implementation is not recognized.
+	 * @throws IOException If an error occurs initializing the file system.
+	 */
+	public static FileSystem createFileSystem(final String implementation, final Configuration configuration) throws IOException {
+		final FileSystem fileSystem;
+		switch(implementation) {
+			case "NakedLocalFileSystem":
+				fileSystem = new NakedLocalFileSystem();
+				break;
+			case "BareLocalFileSystem":
+				fileSystem = new BareLocalFileSystem();
+				break;
+			case "RawLocalFileSystem":
+				fileSystem = new RawLocalFileSystem();
+				break;
+			case "LocalFileSystem":
+				fileSystem = new LocalFileSystem();
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown file system implementation: " + implementation);
+		}
+		fileSystem.initialize(URI.create("file:///"), configuration);
+		return fileSystem;
+	}
+
+	/**
+	 * Converts a Java NIO path to a Hadoop path.
+	 * @param nioPath The Java NIO path.
+	 * @return The equivalent Hadoop path.
+	 */
+	public static Path toHadoopPath(final java.nio.file.Path nioPath) {
+		return new Path(nioPath.toUri());
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of copying large files within the local file system using {@link FileSystem#copyFromLocalFile(boolean, boolean, Path, Path)}. Besides the number
+ * of copies per second, the copy throughput in bytes per second is reported as the <code>bytesCopied</code> secondary result.
+ * @apiNote Copying the largest file requires around 9 GiB of free space in the benchmark directory; a single size may be benchmarked using e.g.
+ *          <code>-p fileSize=1073741824</code>.
+ * @author Garret Wilson
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CopyBenchmark {
+
+	@Param({"NakedLocalFileSystem", "BareLocalFileSystem", "RawLocalFileSystem", "LocalFileSystem"})
+	public String implementation;
+
+	/** The size of the file being copied: 1 GiB, and 4 GiB to exceed the range of an <code>int</code>. */
+	@Param({"1073741824", "4294967296"})
+	public long fileSize;
+
+	private FileSystem fileSystem;
+
+	private Path sourcePath;
+
+	private Path targetPath;
+
+	@Setup
+	public void setup() throws IOException {
+		fileSystem = BenchmarkFileTrees.createFileSystem(implementation, new Configuration());
+		final java.nio.file.Path sourceFile = BenchmarkFileTrees.dataFile(fileSize);
+		sourcePath = BenchmarkFileTrees.toHadoopPath(sourceFile);
+		targetPath = BenchmarkFileTrees.toHadoopPath(sourceFile.resolveSibling("copy-" + sourceFile.getFileName()));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		fileSystem.delete(targetPath, false);
+		fileSystem.close();
+	}
+
+	/** The counter of bytes copied, reported by JMH normalized to the benchmark time. */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class ByteCounter {
+
+		public long bytesCopied;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			bytesCopied = 0;
+		}
+
+	}
+
+	@Benchmark
+	public Path copyFromLocalFile(final ByteCounter byteCounter) throws IOException {
+		fileSystem.copyFromLocalFile(false, true, sourcePath, targetPath);
+		byteCounter.bytesCopied += fileSize;
+		return targetPath;
+	}
+
+}
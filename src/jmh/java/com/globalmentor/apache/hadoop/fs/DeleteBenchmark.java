@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static com.globalmentor.apache.hadoop.fs.BenchmarkFileTrees.*;
+import static java.nio.charset.StandardCharsets.*;
+import static java.nio.file.Files.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of recursively deleting a directory tree using {@link FileSystem#delete(Path, boolean)}. A new tree of subdirectories each containing files is
+ * generated before each measurement, which consists of a single deletion.
+ * @see NakedLocalFileSystem#PARALLELISM_KEY
+ * @author Garret Wilson
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeleteBenchmark {
+
+	@Param({"NakedLocalFileSystem", "RawLocalFileSystem"})
+	public String implementation;
+
+	/** The parallelism; only relevant to {@link NakedLocalFileSystem}. */
+	@Param({"1", "4"})
+	public int parallelism;
+
+	@Param({"100"})
+	public int directoryCount;
+
+	@Param({"100"})
+	public int fileCountPerDirectory;
+
+	private FileSystem fileSystem;
+
+	private java.nio.file.Path treeDirectory;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.PARALLELISM_KEY, parallelism);
+		fileSystem = createFileSystem(implementation, configuration);
+		treeDirectory = getBaseDirectory().resolve("delete-tree");
+	}
+
+	@Setup(Level.Iteration)
+	public void generateTree() throws IOException {
+		final byte[] content = "foobar".getBytes(UTF_8);
+		for(int i = 0; i < directoryCount; i++) {
+			final java.nio.file.Path directory = createDirectories(treeDirectory.resolve("dir-" + i));
+			for(int j = 0; j < fileCountPerDirectory; j++) {
+				write(directory.resolve(fileName(j)), content);
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown() throws IOException {
+		fileSystem.delete(toHadoopPath(treeDirectory), true);
+		fileSystem.close();
+	}
+
+	@Benchmark
+	public boolean delete() throws IOException {
+		return fileSystem.delete(toHadoopPath(treeDirectory), true);
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static com.globalmentor.apache.hadoop.fs.BenchmarkFileTrees.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.*;
+import org.apache.hadoop.fs.permission.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of {@link NakedLocalFileSystem} and {@link BareLocalFileSystem} metadata operations compared with the stock {@link RawLocalFileSystem} and
+ * {@link LocalFileSystem}.
+ * @author Garret Wilson
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileSystemMetadataBenchmark {
+
+	@Param({"NakedLocalFileSystem", "BareLocalFileSystem", "RawLocalFileSystem", "LocalFileSystem"})
+	public String implementation;
+
+	@Param({"10", "10000", "1000000"})
+	public int entryCount;
+
+	private FileSystem fileSystem;
+
+	private Path directory;
+
+	private Path file;
+
+	private final FsPermission permission1 = new FsPermission(FsAction.READ_WRITE, FsAction.READ, FsAction.READ);
+
+	private final FsPermission permission2 = new FsPermission(FsAction.READ_WRITE, FsAction.READ, FsAction.NONE);
+
+	private boolean permissionToggle;
+
+	private String owner;
+
+	private String group;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		final java.nio.file.Path nioDirectory = flatDirectory(entryCount);
+		directory = toHadoopPath(nioDirectory);
+		file = toHadoopPath(nioDirectory.resolve(fileName(entryCount / 2)));
+		final PosixFileAttributes posixFileAttributes = Files.readAttributes(nioDirectory.resolve(fileName(entryCount / 2)), PosixFileAttributes.class);
+		owner = posixFileAttributes.owner().getName();
+		group = posixFileAttributes.group().getName();
+		fileSystem = createFileSystem(implementation, new Configuration());
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown() throws IOException {
+		fileSystem.close();
+	}
+
+	@Benchmark
+	public FileStatus getFileStatus() throws IOException {
+		return fileSystem.getFileStatus(file);
+	}
+
+	@Benchmark
+	public FileStatus[] listStatus() throws IOException {
+		return fileSystem.listStatus(directory);
+	}
+
+	@Benchmark
+	public void setPermission(final Blackhole blackhole) throws IOException {
+		permissionToggle = !permissionToggle;
+		fileSystem.setPermission(file, permissionToggle ? permission1 : permission2);
+		blackhole.consume(permissionToggle);
+	}
+
+	/** Sets the owner and group of the file to their existing values, as changing ownership to another user generally requires special privileges. */
+	@Benchmark
+	public void setOwner() throws IOException {
+		fileSystem.setOwner(file, owner, group);
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static com.globalmentor.apache.hadoop.fs.BenchmarkFileTrees.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of {@link NakedLocalFileSystem#listStatus(Path)} for large directories with varying parallelism.
+ * @see NakedLocalFileSystem#PARALLELISM_KEY
+ * @author Garret Wilson
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListStatusParallelismBenchmark {
+
+	@Param({"1", "2", "4", "8", "16"})
+	public int parallelism;
+
+	@Param({"10000", "1000000"})
+	public int entryCount;
+
+	private NakedLocalFileSystem fileSystem;
+
+	private Path directory;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		directory = toHadoopPath(flatDirectory(entryCount));
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.PARALLELISM_KEY, parallelism);
+		fileSystem = (NakedLocalFileSystem)createFileSystem("NakedLocalFileSystem", configuration);
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown() throws IOException {
+		fileSystem.close();
+	}
+
+	@Benchmark
+	public FileStatus[] listStatus() throws IOException {
+		return fileSystem.listStatus(directory);
+	}
+
+}
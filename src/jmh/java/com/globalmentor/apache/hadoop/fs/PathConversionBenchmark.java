@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the {@link NakedLocalFileSystem} conversion of Hadoop paths to Java NIO paths, compared to the original conversion via
+ * {@link java.io.File}.
+ * @author Garret Wilson
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PathConversionBenchmark {
+
+	@Param({"/tmp/foo", "/tmp/benchmark/directory/with/several/levels/file-000042.dat"})
+	public String path;
+
+	private NakedLocalFileSystem fileSystem;
+
+	private Path hadoopPath;
+
+	@Setup
+	public void setup() throws IOException {
+		fileSystem = (NakedLocalFileSystem)BenchmarkFileTrees.createFileSystem(NakedLocalFileSystem.class.getSimpleName(), new Configuration());
+		hadoopPath = fileSystem.makeQualified(new Path(path));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		fileSystem.close();
+	}
+
+	@Benchmark
+	public java.nio.file.Path toNioPath() {
+		return fileSystem.toNioPath(hadoopPath);
+	}
+
+	@Benchmark
+	public java.nio.file.Path pathToFile() {
+		return fileSystem.pathToFile(hadoopPath).toPath();
+	}
+
+}
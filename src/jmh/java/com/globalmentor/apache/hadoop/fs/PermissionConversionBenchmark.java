@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import java.nio.file.attribute.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.fs.permission.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the {@link NakedLocalFileSystem} conversions between Hadoop and Java NIO permissions.
+ * @author Garret Wilson
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PermissionConversionBenchmark {
+
+	@Param({"---------", "rw-r--r--", "rwxr-x---", "rwxrwxrwx"})
+	public String permissions;
+
+	private Set<PosixFilePermission> nioPosixFilePermissions;
+
+	private FsPermission fsPermission;
+
+	private int mode;
+
+	@Setup
+	public void setup() {
+		nioPosixFilePermissions = PosixFilePermissions.fromString(permissions);
+		fsPermission = NakedLocalFileSystem.toFsPermission(nioPosixFilePermissions);
+		mode = fsPermission.toShort();
+	}
+
+	@Benchmark
+	public FsPermission toFsPermission() {
+		return NakedLocalFileSystem.toFsPermission(nioPosixFilePermissions);
+	}
+
+	@Benchmark
+	public FsPermission toFsPermissionFromMode() {
+		return NakedLocalFileSystem.toFsPermission(mode);
+	}
+
+	@Benchmark
+	public Set<PosixFilePermission> toNioPosixFilePermissions() {
+		return NakedLocalFileSystem.toNioPosixFilePermissions(fsPermission);
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of concurrent positional reads from a single shared input stream, as performed by columnar readers such as Parquet and ORC.
+ * @author Garret Wilson
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class PositionedReadBenchmark {
+
+	/** The size of the file being read. */
+	private static final long FILE_SIZE = 64L << 20;
+
+	@Param({"NakedLocalFileSystem", "RawLocalFileSystem"})
+	public String implementation;
+
+	@Param({"4096", "65536"})
+	public int readSize;
+
+	/** The memory mapping threshold; only relevant to {@link NakedLocalFileSystem}, for which <code>0</code> disables memory mapping. */
+	@Param({"0", "1"})
+	public String mmapThreshold;
+
+	private FileSystem fileSystem;
+
+	private FSDataInputStream inputStream;
+
+	/** Per-thread buffers for reading. */
+	@State(Scope.Thread)
+	public static class Buffers {
+
+		byte[] bytes;
+
+		ByteBuffer directBuffer;
+
+		@Setup
+		public void setup(final PositionedReadBenchmark benchmark) {
+			bytes = new byte[benchmark.readSize];
+			directBuffer = ByteBuffer.allocateDirect(benchmark.readSize);
+		}
+
+	}
+
+	@Setup
+	public void setup() throws IOException {
+		final Configuration configuration = new Configuration();
+		configuration.set(NakedLocalFileSystem.MMAP_THRESHOLD_KEY, mmapThreshold);
+		fileSystem = BenchmarkFileTrees.createFileSystem(implementation, configuration);
+		inputStream = fileSystem.open(BenchmarkFileTrees.toHadoopPath(BenchmarkFileTrees.dataFile(FILE_SIZE)));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		inputStream.close();
+		fileSystem.close();
+	}
+
+	/** @return A random position from which a full read may be made. */
+	private long randomPosition() {
+		return ThreadLocalRandom.current().nextLong(FILE_SIZE - readSize);
+	}
+
+	@Benchmark
+	public byte[] readFully(final Buffers buffers) throws IOException {
+		inputStream.readFully(randomPosition(), buffers.bytes);
+		return buffers.bytes;
+	}
+
+	/** Reads into a direct buffer; for implementations not supporting {@link ByteBufferPositionedReadable} this reads into an array and copies. */
+	@Benchmark
+	public ByteBuffer readFullyByteBuffer(final Buffers buffers) throws IOException {
+		final ByteBuffer directBuffer = buffers.directBuffer;
+		directBuffer.clear();
+		if(inputStream.hasCapability(StreamCapabilities.PREADBYTEBUFFER)) {
+			inputStream.readFully(randomPosition(), directBuffer);
+		} else {
+			inputStream.readFully(randomPosition(), buffers.bytes);
+			directBuffer.put(buffers.bytes);
+		}
+		return directBuffer;
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of vectored reads of many small ranges, as issued by columnar readers for the column chunks of a row group.
+ * @author Garret Wilson
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VectoredReadBenchmark {
+
+	/** The size of the file being read. */
+	private static final long FILE_SIZE = 64L << 20;
+
+	/** The number of ranges in each vectored read. */
+	private static final int RANGE_COUNT = 64;
+
+	@Param({"NakedLocalFileSystem", "RawLocalFileSystem"})
+	public String implementation;
+
+	/** The size of each range. */
+	@Param({"16384"})
+	public int rangeSize;
+
+	/** The gap between successive ranges; small gaps allow ranges to be merged. */
+	@Param({"1024", "65536"})
+	public int rangeGap;
+
+	private FileSystem fileSystem;
+
+	private FSDataInputStream inputStream;
+
+	private long rangesOffset;
+
+	@Setup
+	public void setup() throws IOException {
+		fileSystem = BenchmarkFileTrees.createFileSystem(implementation, new Configuration());
+		inputStream = fileSystem.open(BenchmarkFileTrees.toHadoopPath(BenchmarkFileTrees.dataFile(FILE_SIZE)));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		inputStream.close();
+		fileSystem.close();
+	}
+
+	@Benchmark
+	public long readVectored() throws Exception {
+		final List<FileRange> ranges = new ArrayList<>(RANGE_COUNT);
+		final long span = (long)RANGE_COUNT * (rangeSize + rangeGap);
+		rangesOffset = (rangesOffset + span) % (FILE_SIZE - span); //vary the ranges so that reads don't always hit the same pages
+		for(int i = 0; i < RANGE_COUNT; i++) {
+			ranges.add(FileRange.createFileRange(rangesOffset + (long)i * (rangeSize + rangeGap), rangeSize));
+		}
+		inputStream.readVectored(ranges, ByteBuffer::allocate);
+		long total = 0;
+		for(final FileRange range : ranges) {
+			total += range.getData().get().remaining();
+		}
+		return total;
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of reusable direct buffers aligned for direct I/O, all of the same capacity.
+ * @implSpec This implementation is thread safe. Buffers are allocated when the pool is empty; released buffers beyond the maximum pool size are discarded.
+ * @author Garret Wilson
+ */
+final class AlignedBufferPool {
+
+	private final int bufferSize;
+
+	/** @return The capacity of each buffer, a multiple of the alignment. */
+	int getBufferSize() {
+		return bufferSize;
+	}
+
+	private final int alignment;
+
+	/** @return The alignment of each buffer's address and capacity. */
+	int getAlignment() {
+		return alignment;
+	}
+
+	private final int maxPooledCount;
+
+	private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+	/** The number of buffers in the pool, tracked separately as {@link ConcurrentLinkedQueue#size()} is not a constant-time operation. */
+	private final AtomicInteger pooledCount = new AtomicInteger();
+
+	/**
+	 * Constructor.
+	 * @param bufferSize The minimum capacity of each buffer; the actual capacity will be rounded up to a multiple of the alignment.
+	 * @param alignment The alignment of each buffer's address and capacity, typically the block size of the file store.
+	 * @param maxPooledCount The maximum number of released buffers to retain for reuse.
+	 * @throws IllegalArgumentException if the buffer size or alignment is not positive.
+	 */
+	AlignedBufferPool(final int bufferSize, final int alignment, final int maxPooledCount) {
+		if(bufferSize <= 0) {
+			throw new IllegalArgumentException("Aligned buffer size must be positive: " + bufferSize);
+		}
+		if(alignment <= 0) {
+			throw new IllegalArgumentException("Buffer alignment must be positive: " + alignment);
+		}
+		this.alignment = alignment;
+		this.bufferSize = (bufferSize + alignment - 1) / alignment * alignment;
+		this.maxPooledCount = maxPooledCount;
+	}
+
+	/**
+	 * Acquires a cleared buffer from the pool, allocating a new one if none is available.
+	 * @return An aligned direct buffer with its position at zero and its limit at its capacity.
+	 * @throws UnsupportedOperationException if direct I/O is not supported.
+	 */
+	ByteBuffer acquire() {
+		final ByteBuffer buffer = buffers.poll();
+		if(buffer == null) {
+			return DirectIo.allocateAligned(bufferSize, alignment);
+		}
+		pooledCount.decrementAndGet();
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Returns a buffer to the pool for reuse. The buffer must no longer be used by the caller.
+	 * @param buffer A buffer previously acquired from this pool.
+	 */
+	void release(final ByteBuffer buffer) {
+		if(pooledCount.incrementAndGet() <= maxPooledCount) {
+			buffers.offer(buffer);
+		} else {
+			pooledCount.decrementAndGet();
+		}
+	}
+
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static org.apache.hadoop.fs.VectoredReadUtils.*;
+
+import java.io.*;
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+import java.util.zip.Checksum;
+
+import javax.annotation.*;
+
+import org.apache.hadoop.fs.*;
+import org.apache.hadoop.fs.impl.CombinedFileRange;
+import org.apache.hadoop.fs.statistics.*;
+import org.apache.hadoop.io.IOUtils;
+import org.apache.hadoop.util.DataChecksum;
+
+/**
+ * An input stream reading a file and verifying its contents against the checksums of its checksum file, mirroring the stream of {@link ChecksumFileSystem}.
+ * <p>
+ * Checksum files are read in either the original format written by {@link ChecksumFileSystem}, using CRC32, or the format written by
+ * {@link BareLocalFileOutputStream}, which records the type of checksum. If the checksum file is missing or cannot be read, the file is read without
+ * verification. If there is no checksum file, the checksums are read from the checksum attribute of the file if present.
+ * </p>
+ * <p>
+ * Vectored reads verify the checksums of each range in bulk, computing checksums in place over the buffers read, which on Java 10+ does not copy the
+ * contents of direct buffers to the heap.
+ * </p>
+ * @author Garret Wilson
+ * @see BareLocalFileSystem#readChecksumFileHeader(DataInput)
+ * @see BareLocalFileSystem#findChecksumAttribute(Path)
+ */
+public class BareLocalFileInputStream extends FSInputChecker implements IOStatisticsSource, StreamCapabilities {
+
+	private final BareLocalFileSystem fileSystem;
+
+	private final FSDataInputStream dataInputStream;
+
+	/** The stream of the checksum file, or <code>null</code> if there is no checksum file and the contents are not being verified. */
+	@Nullable
+	private final FSDataInputStream checksumInputStream;
+
+	private final long fileLength;
+
+	/** The type of checksum, or <code>null</code> if the contents are not being verified. */
+	@Nullable
+	private final DataChecksum.Type checksumType;
+
+	private final int bytesPerChecksum;
+
+	/** @return The number of bytes per checksum, which will be <code>1</code> if the contents are not being verified. */
+	public int getBytesPerChecksum() {
+		return bytesPerChecksum;
+	}
+
+	/**
+	 * Constructor.
+	 * @param fileSystem The checksummed file system, which provides the raw file system for reading the file and its checksum file.
+	 * @param file The file to read.
+	 * @param bufferSize The size of the buffer to use for reading.
+	 * @param verifyChecksum Whether the checksums should be verified.
+	 * @throws FileNotFoundException if the file does not exist.
+	 * @throws IOException if an I/O error occurs opening the file.
+	 */
+	public BareLocalFileInputStream(@Nonnull final BareLocalFileSystem fileSystem, @Nonnull final Path file, final int bufferSize,
+			final boolean verifyChecksum) throws IOException {
+		super(file, 1);
+		this.fileSystem = fileSystem;
+		final FileSystem rawFileSystem = fileSystem.getRawFileSystem();
+		this.dataInputStream = rawFileSystem.open(file, bufferSize);
+		try {
+			this.fileLength = rawFileSystem.getFileStatus(file).getLen();
+		} catch(final IOException ioException) {
+			dataInputStream.close();
+			throw ioException;
+		}
+		FSDataInputStream checksumInputStream = null;
+		DataChecksum.Type checksumType = null;
+		int bytesPerChecksum = 1;
+		try {
+			boolean isChecksumAttribute = false;
+			try {
+				checksumInputStream = rawFileSystem.open(fileSystem.getChecksumFile(file), bufferSize);
+			} catch(final FileNotFoundException fileNotFoundException) {
+				final Optional<byte[]> foundChecksumAttribute = fileSystem.findChecksumAttribute(file);
+				if(!foundChecksumAttribute.isPresent()) {
+					throw fileNotFoundException;
+				}
+				checksumInputStream = new FSDataInputStream(new ByteArrayFSInputStream(foundChecksumAttribute.get()));
+				isChecksumAttribute = true;
+			}
+			final DataChecksum dataChecksum = BareLocalFileSystem.readChecksumFileHeader(checksumInputStream);
+			checksumType = dataChecksum.getChecksumType();
+			bytesPerChecksum = dataChecksum.getBytesPerChecksum();
+			//an attribute stays with the file even if it is overwritten without checksums, so make sure the attribute at least matches the file length
+			if(isChecksumAttribute && checksumInputStream.available() != CHECKSUM_SIZE * ((fileLength + bytesPerChecksum - 1) / bytesPerChecksum)) {
+				throw new IOException(String.format("Checksum attribute of file `%s` does not match its length %d.", file, fileLength));
+			}
+			set(verifyChecksum, Checksums.newChecksum(checksumType), bytesPerChecksum, CHECKSUM_SIZE);
+		} catch(final IOException ioException) {
+			//as with `ChecksumFileSystem`, don't warn of a missing checksum file, but permission errors may be reported as a missing file
+			if(!(ioException instanceof FileNotFoundException) || ioException.getMessage().endsWith(" (Permission denied)")) {
+				LOG.warn("Problem opening checksum file: " + file + ".  Ignoring exception: ", ioException);
+			}
+			IOUtils.closeStream(checksumInputStream);
+			checksumInputStream = null;
+			checksumType = null;
+			bytesPerChecksum = 1;
+			set(verifyChecksum, null, 1, 0);
+		}
+		this.checksumInputStream = checksumInputStream;
+		this.checksumType = checksumType;
+		this.bytesPerChecksum = bytesPerChecksum;
+	}
+
+	/**
+	 * Determines the position in the checksum file of the checksum for the chunk containing the given position.
+	 * @param position The position in the file.
+	 * @return The position in the checksum file of the corresponding checksum.
+	 */
+	private long getChecksumPosition(final long position) {
+		return BareLocalFileSystem.CHECKSUM_FILE_HEADER_LENGTH + CHECKSUM_SIZE * (position / bytesPerChecksum);
+	}
+
+	@Override
+	protected long getChunkPosition(final long position) {
+		return position / bytesPerChecksum * bytesPerChecksum;
+	}
+
+	@Override
+	public synchronized int available() throws IOException {
+		return dataInputStream.available() + super.available();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation does not allow seeking past the end of the file.
+	 * @throws EOFException if the position is past the end of the file.
+	 */
+	@Override
+	public synchronized void seek(final long position) throws IOException {
+		if(position > fileLength) {
+			throw new EOFException(FSExceptionMessages.CANNOT_SEEK_PAST_EOF + ": " + file);
+		}
+		super.seek(position);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation skips no further than the end of the file.
+	 */
+	@Override
+	public synchronized long skip(final long n) throws IOException {
+		return super.skip(Math.min(n, fileLength - getPos()));
+	}
+
+	@Override
+	public synchronized boolean seekToNewSource(final long targetPosition) throws IOException {
+		final long checksumPosition = getChecksumPosition(targetPosition);
+		fileSystem.reportChecksumFailure(file, dataInputStream, targetPosition, checksumInputStream, checksumPosition);
+		final boolean isNewDataSource = dataInputStream.seekToNewSource(targetPosition);
+		return (checksumInputStream != null && checksumInputStream.seekToNewSource(checksumPosition)) || isNewDataSource;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implNote This implementation follows that of the {@link ChecksumFileSystem} stream.
+	 */
+	@Override
+	protected int readChunk(final long position, final byte[] buffer, final int offset, int length, final byte[] checksum) throws IOException {
+		boolean eof = false;
+		if(needChecksum()) {
+			assert checksumInputStream != null;
+			final int checksumsToRead = Math.min(length / bytesPerChecksum, checksum.length / CHECKSUM_SIZE);
+			final long checksumPosition = getChecksumPosition(position);
+			if(checksumPosition != checksumInputStream.getPos()) {
+				checksumInputStream.seek(checksumPosition);
+			}
+			final int checksumLengthRead = checksumInputStream.read(checksum, 0, CHECKSUM_SIZE * checksumsToRead);
+			if(checksumLengthRead >= 0 && checksumLengthRead % CHECKSUM_SIZE != 0) {
+				throw new ChecksumException("Checksum file not a length multiple of checksum size in " + file + " at " + position + " checksumpos: "
+						+ checksumPosition + " sumLenread: " + checksumLengthRead, position);
+			}
+			if(checksumLengthRead <= 0) { //end of the checksum file
+				eof = true;
+			} else { //read only as much data as there are checksums
+				length = Math.min(length, bytesPerChecksum * (checksumLengthRead / CHECKSUM_SIZE));
+			}
+		}
+		if(position != dataInputStream.getPos()) {
+			dataInputStream.seek(position);
+		}
+		final int readCount = readFully(dataInputStream, buffer, offset, length);
+		if(eof && readCount > 0) {
+			throw new ChecksumException("Checksum error: " + file + " at " + position, position);
+		}
+		return readCount;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If the checksums are being verified, this implementation merges the ranges on chunk boundaries, reads the merged data ranges and the
+	 *           corresponding checksum ranges using vectored reads of the raw streams, and verifies each data range in bulk using
+	 *           {@link #verifyChunkedChecksums(DataChecksum.Type, ByteBuffer, long, ByteBuffer, long, int, Path)} once both it and its checksums have been read.
+	 * @implNote This implementation follows that of the {@link ChecksumFileSystem} stream.
+	 */
+	@Override
+	public void readVectored(final List<? extends FileRange> ranges, final IntFunction<ByteBuffer> allocate) throws IOException {
+		for(final FileRange range : ranges) {
+			validateRangeRequest(range);
+			if(range.getOffset() + range.getLength() > fileLength) {
+				throw new EOFException(String.format("Requested range [%d, %d) is beyond EOF for path %s", range.getOffset(), range.getLength(), file));
+			}
+		}
+		if(!needChecksum()) {
+			dataInputStream.readVectored(ranges, allocate);
+			return;
+		}
+		assert checksumInputStream != null && checksumType != null;
+		final int minSeek = minSeekForVectorReads();
+		final int maxSize = maxReadSizeForVectorReads();
+		final List<CombinedFileRange> dataRanges = mergeSortedRanges(Arrays.asList(sortRanges(ranges)), bytesPerChecksum, minSeek, maxSize);
+		for(final CombinedFileRange dataRange : dataRanges) { //ranges rounded to chunk boundaries may extend past the end of the file
+			if(dataRange.getOffset() + dataRange.getLength() > fileLength) {
+				dataRange.setLength((int)(fileLength - dataRange.getOffset()));
+			}
+		}
+		final List<CombinedFileRange> checksumRanges = new ArrayList<>();
+		CombinedFileRange currentChecksumRange = null;
+		for(final CombinedFileRange dataRange : dataRanges) {
+			final long checksumOffset = getChecksumPosition(dataRange.getOffset());
+			final long checksumEnd = getChecksumPosition(dataRange.getOffset() + dataRange.getLength() + bytesPerChecksum - 1);
+			if(currentChecksumRange == null || !currentChecksumRange.merge(checksumOffset, checksumEnd, dataRange, minSeek, maxSize)) {
+				currentChecksumRange = new CombinedFileRange(checksumOffset, checksumEnd, dataRange);
+				checksumRanges.add(currentChecksumRange);
+			}
+		}
+		checksumInputStream.readVectored(checksumRanges, allocate);
+		dataInputStream.readVectored(dataRanges, allocate);
+		for(final CombinedFileRange checksumRange : checksumRanges) {
+			for(final FileRange dataRange : checksumRange.getUnderlying()) {
+				final CompletableFuture<ByteBuffer> result = checksumRange.getData().thenCombineAsync(dataRange.getData(),
+						(checksumBuffer, dataBuffer) -> verifyChunkedChecksums(checksumType, checksumBuffer, checksumRange.getOffset(), dataBuffer,
+								dataRange.getOffset(), bytesPerChecksum, file));
+				for(final FileRange original : ((CombinedFileRange)dataRange).getUnderlying()) {
+					original.setData(result.thenApply(buffer -> sliceTo(buffer, dataRange.getOffset(), original)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Verifies data against the checksums of its chunks, computing the checksum of each chunk in place over the data buffer.
+	 * @param checksumType The type of checksum.
+	 * @param checksumBuffer The buffer containing checksums read from the checksum file.
+	 * @param checksumBufferPosition The position in the checksum file of the start of the checksum buffer.
+	 * @param dataBuffer The buffer containing the data to verify.
+	 * @param dataPosition The position in the file of the start of the data, which must be on a chunk boundary.
+	 * @param bytesPerChecksum The number of bytes per checksum.
+	 * @param file The file being read, for reporting errors.
+	 * @return The data buffer, with its position and limit unchanged.
+	 * @throws CompletionException wrapping a {@link ChecksumException} if a chunk does not match its checksum.
+	 */
+	static ByteBuffer verifyChunkedChecksums(final DataChecksum.Type checksumType, final ByteBuffer checksumBuffer, final long checksumBufferPosition,
+			final ByteBuffer dataBuffer, final long dataPosition, final int bytesPerChecksum, final Path file) {
+		final IntBuffer checksums = checksumBuffer.asIntBuffer();
+		checksums.position((int)(BareLocalFileSystem.CHECKSUM_FILE_HEADER_LENGTH + CHECKSUM_SIZE * (dataPosition / bytesPerChecksum) - checksumBufferPosition)
+				/ CHECKSUM_SIZE);
+		final Checksum checksum = Checksums.newChecksum(checksumType);
+		final ByteBuffer chunk = dataBuffer.duplicate();
+		final int start = dataBuffer.position();
+		final int end = dataBuffer.limit();
+		for(int chunkStart = start; chunkStart < end; chunkStart += bytesPerChecksum) {
+			chunk.limit(Math.min(chunkStart + bytesPerChecksum, end)).position(chunkStart);
+			checksum.reset();
+			Checksums.update(checksum, chunk);
+			final int expected = checksums.get();
+			final int calculated = (int)checksum.getValue();
+			if(calculated != expected) {
+				final long errorPosition = dataPosition + (chunkStart - start);
+				throw new CompletionException(
+						new ChecksumException("Checksum error: " + file + " at " + errorPosition + " exp: " + expected + " got: " + calculated, errorPosition));
+			}
+		}
+		return dataBuffer;
+	}
+
+	@Override
+	public boolean hasCapability(final String capability) {
+		return dataInputStream.hasCapability(capability);
+	}
+
+	@Override
+	public IOStatistics getIOStatistics() {
+		return IOStatisticsSupport.retrieveIOStatistics(dataInputStream);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		set(false, null, 1, 0);
+		//close both streams even if one fails to close, reporting the first failure
+		final IOException exception = BareLocalFileSystem.closeStream(dataInputStream, BareLocalFileSystem.closeStream(checksumInputStream, null));
+		if(exception != null) {
+			throw exception;
+		}
+	}
+
+}
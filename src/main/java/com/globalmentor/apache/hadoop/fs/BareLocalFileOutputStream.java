@@ -0,0 +1,265 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.util.zip.Checksum;
+
+import javax.annotation.*;
+
+import org.apache.hadoop.fs.*;
+import org.apache.hadoop.fs.impl.StoreImplementationUtils;
+import org.apache.hadoop.fs.statistics.*;
+import org.apache.hadoop.util.*;
+
+/**
+ * An output stream writing a file along with a checksum file containing a checksum for each chunk of the file, in the format read by
+ * {@link BareLocalFileInputStream}.
+ * <p>
+ * Unlike {@link ChecksumFileSystem}, which uses a fixed number of bytes per checksum, this stream tunes the size of the chunks to the size of the file. The
+ * checksum of each chunk is computed as the bytes are written, using a single checksum calculator over runs of bytes as long as the chunk. The checksums are
+ * collected in a table; each time the table fills up, pairs of adjacent checksums are combined mathematically to form the checksums of chunks twice as long,
+ * without reading the file contents again, until the maximum number of bytes per checksum is reached. Thus small files retain small chunks, suitable for
+ * random access, while large files have fewer and larger chunks, and a correspondingly smaller checksum file. The checksum file header, which records the
+ * number of bytes per checksum, is written once the chunk size is final: when the stream is closed, or when the maximum chunk size has been reached, after
+ * which checksums are written as their table fills.
+ * </p>
+ * @implNote As with {@link ChecksumFileSystem}, this stream is not {@link Syncable}, as checksums cannot be synchronized with partial chunks.
+ * @author Garret Wilson
+ * @see CrcUtil#composeWithMonomial(int, int, int, int)
+ */
+public class BareLocalFileOutputStream extends OutputStream implements IOStatisticsSource, StreamCapabilities {
+
+	/** The number of checksums collected before adjacent pairs are combined, or before they are written if the maximum chunk size has been reached. */
+	static final int CHECKSUM_TABLE_LENGTH = 4096;
+
+	/**
+	 * Determines the number of bytes per checksum with which a file of the given length will be written, which is the initial number of bytes per checksum
+	 * doubled as many times as needed for fewer than {@value #CHECKSUM_TABLE_LENGTH} complete chunks, without exceeding the maximum.
+	 * @param fileLength The length of the file.
+	 * @param bytesPerChecksum The initial number of bytes per checksum.
+	 * @param maxBytesPerChecksum The maximum number of bytes per checksum.
+	 * @return The number of bytes per checksum in the checksum file of a file of the given length.
+	 */
+	public static int getBytesPerChecksum(final long fileLength, int bytesPerChecksum, final int maxBytesPerChecksum) {
+		while(fileLength / bytesPerChecksum >= CHECKSUM_TABLE_LENGTH && bytesPerChecksum <= maxBytesPerChecksum / 2) {
+			bytesPerChecksum *= 2;
+		}
+		return bytesPerChecksum;
+	}
+
+	private final FSDataOutputStream dataOutputStream;
+
+	private final FSDataOutputStream checksumOutputStream;
+
+	private final DataChecksum.Type checksumType;
+
+	/** The CRC polynomial of the checksum type, for combining checksums. */
+	private final int crcPolynomial;
+
+	private final Checksum checksum;
+
+	private final int maxBytesPerChecksum;
+
+	private int bytesPerChecksum;
+
+	/** @return The current number of bytes per checksum, which may increase as more bytes are written. */
+	public synchronized int getBytesPerChecksum() {
+		return bytesPerChecksum;
+	}
+
+	/** The number of bytes of the current chunk that have been added to the checksum. */
+	private int chunkLength = 0;
+
+	/** The checksums of the chunks not yet written to the checksum file, or <code>null</code> if the stream has been closed. */
+	@Nullable
+	private int[] checksums = new int[CHECKSUM_TABLE_LENGTH];
+
+	private int checksumCount = 0;
+
+	private boolean isChecksumHeaderWritten = false;
+
+	/**
+	 * Constructor.
+	 * @param dataOutputStream The stream to which to write the file contents. The stream will be closed when this stream is closed.
+	 * @param checksumOutputStream The stream to which to write the checksum file. The stream will be closed when this stream is closed.
+	 * @param checksumType The type of checksum, either {@link DataChecksum.Type#CRC32} or {@link DataChecksum.Type#CRC32C}.
+	 * @param bytesPerChecksum The initial number of bytes per checksum.
+	 * @param maxBytesPerChecksum The maximum number of bytes per checksum; if not greater than the initial number of bytes per checksum, the number of bytes
+	 *          per checksum will not be tuned.
+	 * @throws IllegalArgumentException if the type of checksum is not supported, or if the number of bytes per checksum is not positive.
+	 * @throws IOException if the type of checksum has no known CRC polynomial.
+	 */
+	public BareLocalFileOutputStream(@Nonnull final FSDataOutputStream dataOutputStream, @Nonnull final FSDataOutputStream checksumOutputStream,
+			@Nonnull final DataChecksum.Type checksumType, final int bytesPerChecksum, final int maxBytesPerChecksum) throws IOException {
+		if(bytesPerChecksum <= 0) {
+			throw new IllegalArgumentException("Bytes per checksum must be positive: " + bytesPerChecksum);
+		}
+		this.dataOutputStream = requireNonNull(dataOutputStream);
+		this.checksumOutputStream = requireNonNull(checksumOutputStream);
+		this.checksumType = requireNonNull(checksumType);
+		this.checksum = Checksums.newChecksum(checksumType);
+		this.crcPolynomial = DataChecksum.getCrcPolynomialForType(checksumType);
+		this.bytesPerChecksum = bytesPerChecksum;
+		this.maxBytesPerChecksum = maxBytesPerChecksum;
+	}
+
+	/**
+	 * Returns the table of checksums, ensuring that the stream is open.
+	 * @return The checksums of the chunks not yet written to the checksum file.
+	 * @throws IOException if the stream has been closed.
+	 */
+	private int[] getChecksums() throws IOException {
+		final int[] checksums = this.checksums;
+		if(checksums == null) {
+			throw new IOException(FSExceptionMessages.STREAM_IS_CLOSED);
+		}
+		return checksums;
+	}
+
+	@Override
+	public synchronized void write(final int b) throws IOException {
+		getChecksums();
+		checksum.update(b);
+		dataOutputStream.write(b);
+		if(++chunkLength == bytesPerChecksum) {
+			endChunk();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation adds the bytes to the checksum of each chunk they span, and then writes the bytes to the data stream in a single write.
+	 */
+	@Override
+	public synchronized void write(final byte[] bytes, final int offset, final int length) throws IOException {
+		if(offset < 0 || length < 0 || length > bytes.length - offset) {
+			throw new IndexOutOfBoundsException();
+		}
+		getChecksums();
+		int chunkOffset = offset;
+		final int end = offset + length;
+		while(chunkOffset < end) {
+			final int count = Math.min(end - chunkOffset, bytesPerChecksum - chunkLength);
+			checksum.update(bytes, chunkOffset, count);
+			chunkOffset += count;
+			chunkLength += count;
+			if(chunkLength == bytesPerChecksum) {
+				endChunk();
+			}
+		}
+		dataOutputStream.write(bytes, offset, length);
+	}
+
+	/**
+	 * Records the checksum of the current chunk and starts a new chunk. If the table of checksums is full, pairs of adjacent checksums are combined if the
+	 * maximum number of bytes per checksum would not be exceeded; otherwise the checksums are written to the checksum file.
+	 * @implNote As the number of checksums in a full table is even, a chunk in progress always starts on a boundary of the larger chunks, and continues to
+	 *           accumulate its checksum until reaching the new chunk size.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void endChunk() throws IOException {
+		final int[] checksums = getChecksums();
+		checksums[checksumCount++] = (int)checksum.getValue();
+		checksum.reset();
+		chunkLength = 0;
+		if(checksumCount == checksums.length) {
+			if(bytesPerChecksum <= maxBytesPerChecksum / 2) {
+				final int monomial = CrcUtil.getMonomial(bytesPerChecksum, crcPolynomial);
+				for(int i = 0; i < checksumCount / 2; i++) {
+					checksums[i] = CrcUtil.composeWithMonomial(checksums[i * 2], checksums[i * 2 + 1], monomial, crcPolynomial);
+				}
+				checksumCount /= 2;
+				bytesPerChecksum *= 2;
+			} else {
+				writeChecksums(checksums);
+			}
+		}
+	}
+
+	/**
+	 * Writes the collected checksums to the checksum file, first writing the checksum file header if it has not already been written.
+	 * @param checksums The table of checksums.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeChecksums(final int[] checksums) throws IOException {
+		if(!isChecksumHeaderWritten) {
+			BareLocalFileSystem.writeChecksumFileHeader(checksumOutputStream, checksumType, bytesPerChecksum);
+			isChecksumHeaderWritten = true;
+		}
+		for(int i = 0; i < checksumCount; i++) {
+			checksumOutputStream.writeInt(checksums[i]);
+		}
+		checksumCount = 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation flushes the data stream. Checksums are not written until the size of chunks is final.
+	 */
+	@Override
+	public synchronized void flush() throws IOException {
+		getChecksums();
+		dataOutputStream.flush();
+	}
+
+	@Override
+	public boolean hasCapability(final String capability) {
+		if(StoreImplementationUtils.isProbeForSyncable(capability)) {
+			return false;
+		}
+		return dataOutputStream.hasCapability(capability);
+	}
+
+	@Override
+	public IOStatistics getIOStatistics() {
+		return IOStatisticsSupport.retrieveIOStatistics(dataOutputStream);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation records the checksum of any final partial chunk, writes the remaining checksums, and closes the checksum stream and the data
+	 *           stream. Closing a stream more than once has no effect.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		final int[] checksums = this.checksums;
+		if(checksums == null) {
+			return;
+		}
+		IOException exception = null;
+		try {
+			if(chunkLength > 0) { //the table always has room, as it is emptied whenever it fills
+				checksums[checksumCount++] = (int)checksum.getValue();
+			}
+			writeChecksums(checksums);
+		} catch(final IOException ioException) {
+			exception = ioException;
+		} finally {
+			this.checksums = null;
+			//close both streams even if writing or closing fails, reporting the first failure
+			exception = BareLocalFileSystem.closeStream(checksumOutputStream, exception);
+			exception = BareLocalFileSystem.closeStream(dataOutputStream, exception);
+		}
+		if(exception != null) {
+			throw exception;
+		}
+	}
+
+}
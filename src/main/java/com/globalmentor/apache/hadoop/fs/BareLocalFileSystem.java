@@ -16,10 +16,39 @@
 
 package com.globalmentor.apache.hadoop.fs;
 
+import static java.lang.String.format;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.*;
+import java.util.function.Predicate;
+
+import javax.annotation.*;
+
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.*;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.apache.hadoop.util.DataChecksum;
+import org.apache.hadoop.util.Progressable;
+import org.apache.hadoop.util.functional.RemoteIterators;
 
 /**
  * Implementation of the Hadoop {@link FileSystem} API for the checksummed local file system.
+ * <p>
+ * Files are written with checksum files using {@link BareLocalFileOutputStream}, which by default uses CRC32 (optionally CRC32C), and which tunes the number
+ * of bytes per checksum to the size of each file. Checksum files are read using {@link BareLocalFileInputStream}, which also reads the
+ * checksum files written by {@link ChecksumFileSystem}. Checksum files using CRC32 are written in the original format of {@link ChecksumFileSystem}; checksum
+ * files using CRC32C are ignored by {@link ChecksumFileSystem}, which will read the corresponding files without verification.
+ * </p>
+ * <p>
+ * Optionally the contents of each checksum file may instead be stored in a user-defined attribute of the file itself, avoiding a separate checksum file
+ * entry and its accesses. Files are read with either layout; a checksum file, such as one written by {@link ChecksumFileSystem}, takes precedence.
+ * </p>
  * @implSpec This implementation creates an instance of {@link NakedLocalFileSystem} to serve as the decorated raw local file system.
  * @implNote This class along with {@link NakedLocalFileSystem} mirror and extend the {@link LocalFileSystem}/{@link RawLocalFileSystem} classes, overriding any
  *           shell access and instead directly accessing the Java NIO file system API.
@@ -27,6 +56,92 @@
  */
 public class BareLocalFileSystem extends LocalFileSystem {
 
+	/**
+	 * The configuration key for the type of checksum with which to write files, either <code>CRC32</code> or <code>CRC32C</code>.
+	 * @apiNote CRC32C is faster to compute on Java 10 and later, but {@link ChecksumFileSystem} cannot verify CRC32C checksum files and reads the corresponding
+	 *          files without verification, so it should only be chosen if the files will not be read using {@link LocalFileSystem}.
+	 */
+	public static final String CHECKSUM_TYPE_KEY = "fs.bare.local.checksum.type";
+
+	/** The default type of checksum, which is CRC32 for compatibility with the checksum files of {@link ChecksumFileSystem}. */
+	public static final DataChecksum.Type CHECKSUM_TYPE_DEFAULT = DataChecksum.Type.CRC32;
+
+	/**
+	 * The configuration key for the maximum number of bytes per checksum to which the initial number of bytes per checksum may be increased for large files. A
+	 * value not greater than the initial number of bytes per checksum disables tuning.
+	 * @see LocalFileSystemConfigKeys#LOCAL_FS_BYTES_PER_CHECKSUM_KEY
+	 */
+	public static final String MAX_BYTES_PER_CHECKSUM_KEY = "fs.bare.local.checksum.max-bytes-per-checksum";
+
+	/** The default maximum number of bytes per checksum. */
+	public static final int MAX_BYTES_PER_CHECKSUM_DEFAULT = 64 * 1024;
+
+	/**
+	 * The configuration key for whether checksums should be stored in a user-defined attribute of each file rather than in a separate checksum file. Checksums
+	 * are nevertheless written to a checksum file if the file store does not support user-defined attributes, or if the checksums exceed
+	 * {@value #CHECKSUM_ATTRIBUTE_MAX_LENGTH} bytes.
+	 * @see #CHECKSUM_ATTRIBUTE_NAME
+	 */
+	public static final String CHECKSUM_ATTRIBUTE_KEY = "fs.bare.local.checksum.xattr";
+
+	/** The default for storing checksums in attributes, which is to use checksum files. */
+	public static final boolean CHECKSUM_ATTRIBUTE_DEFAULT = false;
+
+	/**
+	 * The name of the user-defined attribute in which the contents of a checksum file are stored, which on Linux is the extended attribute
+	 * <code>user.hadoop.crc</code>.
+	 * @see UserDefinedFileAttributeView
+	 */
+	public static final String CHECKSUM_ATTRIBUTE_NAME = "hadoop.crc";
+
+	/** The maximum length of checksums to store in an attribute, which is the maximum size of an extended attribute value on Linux. */
+	static final int CHECKSUM_ATTRIBUTE_MAX_LENGTH = 64 * 1024;
+
+	/** The bytes with which a checksum file begins, followed by a byte indicating the type of checksum. */
+	private static final byte[] CHECKSUM_FILE_MAGIC = {'c', 'r', 'c'};
+
+	/** The checksum type byte of checksum files in the original {@link ChecksumFileSystem} format, which always use CRC32. */
+	private static final byte CHECKSUM_FILE_TYPE_LEGACY_CRC32 = 0;
+
+	/** The length of the checksum file header: the magic bytes, the checksum type byte, and the number of bytes per checksum. */
+	static final int CHECKSUM_FILE_HEADER_LENGTH = 8;
+
+	private DataChecksum.Type checksumType = CHECKSUM_TYPE_DEFAULT;
+
+	/**
+	 * @return The type of checksum with which files are written.
+	 * @see #CHECKSUM_TYPE_KEY
+	 */
+	public DataChecksum.Type getChecksumType() {
+		return checksumType;
+	}
+
+	private int maxBytesPerChecksum = MAX_BYTES_PER_CHECKSUM_DEFAULT;
+
+	/**
+	 * @return The maximum number of bytes per checksum for large files.
+	 * @see #MAX_BYTES_PER_CHECKSUM_KEY
+	 */
+	public int getMaxBytesPerChecksum() {
+		return maxBytesPerChecksum;
+	}
+
+	private boolean checksumAttributeEnabled = CHECKSUM_ATTRIBUTE_DEFAULT;
+
+	/**
+	 * @return Whether checksums are stored in a user-defined attribute of each file when possible.
+	 * @see #CHECKSUM_ATTRIBUTE_KEY
+	 */
+	public boolean isChecksumAttributeEnabled() {
+		return checksumAttributeEnabled;
+	}
+
+	/** Whether checksums are verified when reading; tracked here as {@link ChecksumFileSystem} provides no access to its own flag. */
+	private boolean verifyChecksum = true;
+
+	/** Whether checksums are written; tracked here as {@link ChecksumFileSystem} provides no access to its own flag. */
+	private boolean writeChecksum = true;
+
 	/**
 	 * No-args constructor.
 	 * @implSpec This implementation creates and decorates an instance of {@link NakedLocalFileSystem}.
@@ -43,9 +158,523 @@ protected BareLocalFileSystem(final FileSystem rawLocalFileSystem) {
 		super(rawLocalFileSystem);
 	}
 
+	@Override
+	public void initialize(final URI uri, final Configuration conf) throws IOException {
+		super.initialize(uri, conf);
+		final String checksumTypeName = conf.getTrimmed(CHECKSUM_TYPE_KEY);
+		if(checksumTypeName != null) {
+			final DataChecksum.Type checksumType;
+			try {
+				checksumType = DataChecksum.Type.valueOf(checksumTypeName.toUpperCase(Locale.ROOT));
+			} catch(final IllegalArgumentException illegalArgumentException) {
+				throw new IllegalArgumentException(format("Unknown checksum type `%s`.", checksumTypeName), illegalArgumentException);
+			}
+			if(checksumType != DataChecksum.Type.CRC32 && checksumType != DataChecksum.Type.CRC32C) {
+				throw new IllegalArgumentException(format("Unsupported checksum type `%s`.", checksumTypeName));
+			}
+			this.checksumType = checksumType;
+		}
+		this.maxBytesPerChecksum = (int)Math.min(Integer.MAX_VALUE, conf.getLongBytes(MAX_BYTES_PER_CHECKSUM_KEY, MAX_BYTES_PER_CHECKSUM_DEFAULT));
+		this.checksumAttributeEnabled = conf.getBoolean(CHECKSUM_ATTRIBUTE_KEY, CHECKSUM_ATTRIBUTE_DEFAULT);
+	}
+
+	@Override
+	public void setVerifyChecksum(final boolean verifyChecksum) {
+		super.setVerifyChecksum(verifyChecksum);
+		this.verifyChecksum = verifyChecksum;
+	}
+
+	@Override
+	public void setWriteChecksum(final boolean writeChecksum) {
+		super.setWriteChecksum(writeChecksum);
+		this.writeChecksum = writeChecksum;
+	}
+
 	@Override
 	public boolean supportsSymlinks() {
 		return getRawFileSystem().supportsSymlinks();
 	}
 
+	/** A filter of directory entries rejecting checksum files by name. */
+	protected static final DirectoryStream.Filter<java.nio.file.Path> NON_CHECKSUM_FILE_FILTER = nioPath -> !isChecksumFilename(nioPath.getFileName().toString());
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If the raw file system is a {@link NakedLocalFileSystem}, this implementation lists the statuses using
+	 *           {@link NakedLocalFileSystem#listStatus(java.nio.file.Path, DirectoryStream.Filter)}, rejecting checksum files by name before their statuses are
+	 *           retrieved. Otherwise this implementation delegates to the {@link ChecksumFileSystem} implementation.
+	 * @see #NON_CHECKSUM_FILE_FILTER
+	 */
+	@Override
+	public FileStatus[] listStatus(final Path path) throws IOException {
+		final FileSystem rawFileSystem = getRawFileSystem();
+		if(!(rawFileSystem instanceof NakedLocalFileSystem)) {
+			return super.listStatus(path);
+		}
+		final NakedLocalFileSystem nakedLocalFileSystem = (NakedLocalFileSystem)rawFileSystem;
+		return nakedLocalFileSystem.listStatus(nakedLocalFileSystem.toNioPath(path), NON_CHECKSUM_FILE_FILTER);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If the raw file system is a {@link NakedLocalFileSystem}, this implementation lists the statuses using
+	 *           {@link NakedLocalFileSystem#listStatus(java.nio.file.Path, DirectoryStream.Filter)}, rejecting checksum files by name and applying the filter
+	 *           before the statuses are retrieved. Otherwise this implementation delegates to the default implementation.
+	 * @see #NON_CHECKSUM_FILE_FILTER
+	 */
+	@Override
+	public FileStatus[] listStatus(final Path path, final PathFilter filter) throws IOException {
+		final FileSystem rawFileSystem = getRawFileSystem();
+		if(!(rawFileSystem instanceof NakedLocalFileSystem)) {
+			return super.listStatus(path, filter);
+		}
+		final NakedLocalFileSystem nakedLocalFileSystem = (NakedLocalFileSystem)rawFileSystem;
+		final DirectoryStream.Filter<java.nio.file.Path> pathFilter = nakedLocalFileSystem.toDirectoryStreamFilter(filter);
+		return nakedLocalFileSystem.listStatus(nakedLocalFileSystem.toNioPath(path),
+				nioPath -> NON_CHECKSUM_FILE_FILTER.accept(nioPath) && pathFilter.accept(nioPath));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #globStatus(Path, PathFilter)}, accepting all paths.
+	 */
+	@Override
+	public FileStatus[] globStatus(final Path pathPattern) throws IOException {
+		return globStatus(pathPattern, __ -> true);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If the raw file system is a {@link NakedLocalFileSystem}, this implementation matches the pattern using
+	 *           {@link NakedLocalFileSystem#globStatus(Path, PathFilter, DirectoryStream.Filter)}, rejecting checksum files matched by wildcards by name before
+	 *           their statuses are retrieved. Otherwise this implementation delegates to the default implementation.
+	 * @see #NON_CHECKSUM_FILE_FILTER
+	 */
+	@Override
+	public FileStatus[] globStatus(final Path pathPattern, final PathFilter filter) throws IOException {
+		final FileSystem rawFileSystem = getRawFileSystem();
+		if(!(rawFileSystem instanceof NakedLocalFileSystem)) {
+			return super.globStatus(pathPattern, filter);
+		}
+		return ((NakedLocalFileSystem)rawFileSystem).globStatus(pathPattern, filter, NON_CHECKSUM_FILE_FILTER);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If the raw file system is a {@link NakedLocalFileSystem}, this implementation iterates the statuses using
+	 *           {@link NakedLocalFileSystem#listStatusIterator(java.nio.file.Path, DirectoryStream.Filter)}, rejecting checksum files by name before their
+	 *           statuses are retrieved. Otherwise this implementation filters checksum files from the iterator of the raw file system, rather than using the
+	 *           {@link ChecksumFileSystem} implementation which loads all the directory entries in a single batch.
+	 * @see #NON_CHECKSUM_FILE_FILTER
+	 * @see ChecksumFileSystem#isChecksumFile(Path)
+	 */
+	@Override
+	public RemoteIterator<FileStatus> listStatusIterator(final Path path) throws IOException {
+		final FileSystem rawFileSystem = getRawFileSystem();
+		if(!(rawFileSystem instanceof NakedLocalFileSystem)) {
+			return RemoteIterators.filteringRemoteIterator(rawFileSystem.listStatusIterator(path), fileStatus -> !isChecksumFile(fileStatus.getPath()));
+		}
+		final NakedLocalFileSystem nakedLocalFileSystem = (NakedLocalFileSystem)rawFileSystem;
+		return nakedLocalFileSystem.listStatusIterator(nakedLocalFileSystem.toNioPath(path), NON_CHECKSUM_FILE_FILTER);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If the raw file system is a {@link NakedLocalFileSystem}, this implementation iterates the statuses using
+	 *           {@link NakedLocalFileSystem#listLocatedStatus(java.nio.file.Path, DirectoryStream.Filter)}, rejecting checksum files by name before their
+	 *           statuses are retrieved. Otherwise this implementation delegates to the {@link ChecksumFileSystem} implementation.
+	 * @see #NON_CHECKSUM_FILE_FILTER
+	 */
+	@Override
+	public RemoteIterator<LocatedFileStatus> listLocatedStatus(final Path path) throws IOException {
+		final FileSystem rawFileSystem = getRawFileSystem();
+		if(!(rawFileSystem instanceof NakedLocalFileSystem)) {
+			return super.listLocatedStatus(path);
+		}
+		final NakedLocalFileSystem nakedLocalFileSystem = (NakedLocalFileSystem)rawFileSystem;
+		return nakedLocalFileSystem.listLocatedStatus(nakedLocalFileSystem.toNioPath(path), NON_CHECKSUM_FILE_FILTER);
+	}
+
+	/**
+	 * Determines whether a filename is that of a checksum file, using the same criteria as {@link ChecksumFileSystem#isChecksumFile(Path)}.
+	 * @param filename The filename to check.
+	 * @return <code>true</code> if the filename is that of a checksum file.
+	 */
+	protected static boolean isChecksumFilename(final String filename) {
+		return filename.startsWith(".") && filename.endsWith(".crc");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation determines the length using the number of bytes per checksum with which a file of the given size would be written.
+	 * @see BareLocalFileOutputStream#getBytesPerChecksum(long, int, int)
+	 */
+	@Override
+	public long getChecksumFileLength(final Path file, final long fileSize) {
+		return getChecksumLength(fileSize, BareLocalFileOutputStream.getBytesPerChecksum(fileSize, getBytesPerSum(), maxBytesPerChecksum));
+	}
+
+	/**
+	 * Reads the header of a checksum file, in either the original {@link ChecksumFileSystem} format or the format written by
+	 * {@link #writeChecksumFileHeader(DataOutput, DataChecksum.Type, int)}.
+	 * @param input The input positioned at the start of the checksum file.
+	 * @return A description of the checksum type and the number of bytes per checksum.
+	 * @throws IOException if the input is not a checksum file or uses an unsupported type of checksum, or if an I/O error occurs.
+	 */
+	static DataChecksum readChecksumFileHeader(final DataInput input) throws IOException {
+		final byte[] magic = new byte[CHECKSUM_FILE_MAGIC.length];
+		input.readFully(magic);
+		if(!Arrays.equals(magic, CHECKSUM_FILE_MAGIC)) {
+			throw new IOException("Not a checksum file.");
+		}
+		final byte checksumTypeId = input.readByte();
+		final DataChecksum.Type checksumType;
+		if(checksumTypeId == CHECKSUM_FILE_TYPE_LEGACY_CRC32 || checksumTypeId == DataChecksum.Type.CRC32.id) {
+			checksumType = DataChecksum.Type.CRC32;
+		} else if(checksumTypeId == DataChecksum.Type.CRC32C.id) {
+			checksumType = DataChecksum.Type.CRC32C;
+		} else {
+			throw new IOException(format("Unsupported checksum file type %d.", checksumTypeId));
+		}
+		final int bytesPerChecksum = input.readInt();
+		if(bytesPerChecksum <= 0) {
+			throw new IOException("Checksum file bytes per checksum must be positive: " + bytesPerChecksum);
+		}
+		return DataChecksum.newDataChecksum(checksumType, bytesPerChecksum);
+	}
+
+	/**
+	 * Writes the header of a checksum file.
+	 * @implSpec A CRC32 checksum file header is written in the original {@link ChecksumFileSystem} format, so that it may be read by
+	 *           {@link ChecksumFileSystem}. The header of other checksum types replaces the version byte of the original format with the identifier of the
+	 *           checksum type.
+	 * @param output The output to which to write the header.
+	 * @param checksumType The type of checksum, either {@link DataChecksum.Type#CRC32} or {@link DataChecksum.Type#CRC32C}.
+	 * @param bytesPerChecksum The number of bytes per checksum.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	static void writeChecksumFileHeader(final DataOutput output, final DataChecksum.Type checksumType, final int bytesPerChecksum) throws IOException {
+		output.write(CHECKSUM_FILE_MAGIC);
+		output.writeByte(checksumType == DataChecksum.Type.CRC32 ? CHECKSUM_FILE_TYPE_LEGACY_CRC32 : checksumType.id);
+		output.writeInt(bytesPerChecksum);
+	}
+
+	/**
+	 * Closes a data stream or checksum stream, continuing an ongoing close of several streams even if a previous stream failed to close.
+	 * @param closeable The stream to close, or <code>null</code> if there is no stream to close.
+	 * @param exception The exception thrown by a previous step, or <code>null</code> if no exception has been thrown.
+	 * @return The given exception, if any, to which any exception closing the stream has been added as suppressed; otherwise any exception closing the stream.
+	 */
+	@Nullable
+	static IOException closeStream(@Nullable final Closeable closeable, @Nullable final IOException exception) {
+		if(closeable != null) {
+			try {
+				closeable.close();
+			} catch(final IOException ioException) {
+				if(exception == null) {
+					return ioException;
+				}
+				exception.addSuppressed(ioException);
+			}
+		}
+		return exception;
+	}
+
+	/**
+	 * Retrieves the checksums stored in the user-defined attribute of a file, in the same format as the contents of a checksum file.
+	 * @param file The checksummed file.
+	 * @return The stored checksums, which will not be present if the file has no checksum attribute or the file store does not support user-defined
+	 *         attributes.
+	 * @throws IOException if an I/O error occurs.
+	 * @see #CHECKSUM_ATTRIBUTE_NAME
+	 */
+	protected Optional<byte[]> findChecksumAttribute(final Path file) throws IOException {
+		final UserDefinedFileAttributeView attributeView = Files.getFileAttributeView(pathToFile(file).toPath(), UserDefinedFileAttributeView.class);
+		if(attributeView == null) {
+			return Optional.empty();
+		}
+		final ByteBuffer value;
+		try {
+			value = ByteBuffer.allocate(attributeView.size(CHECKSUM_ATTRIBUTE_NAME));
+			attributeView.read(CHECKSUM_ATTRIBUTE_NAME, value);
+		} catch(final FileSystemException fileSystemException) { //no such attribute, or user-defined attributes not supported
+			return Optional.empty();
+		}
+		return Optional.of(Arrays.copyOf(value.array(), value.position()));
+	}
+
+	/**
+	 * Stores checksums in the user-defined attribute of a file.
+	 * @param file The checksummed file.
+	 * @param checksums The checksums, in the same format as the contents of a checksum file.
+	 * @throws IOException if the file store does not support user-defined attributes or attributes of the given length, or if an I/O error occurs.
+	 * @see #CHECKSUM_ATTRIBUTE_NAME
+	 */
+	protected void writeChecksumAttribute(final Path file, final ByteBuffer checksums) throws IOException {
+		final java.nio.file.Path nioPath = pathToFile(file).toPath();
+		final UserDefinedFileAttributeView attributeView = Files.getFileAttributeView(nioPath, UserDefinedFileAttributeView.class);
+		if(attributeView == null) {
+			throw new IOException(format("User-defined attributes not supported for file `%s`.", nioPath));
+		}
+		attributeView.write(CHECKSUM_ATTRIBUTE_NAME, checksums);
+	}
+
+	/**
+	 * Removes any checksums stored in the user-defined attribute of a file.
+	 * @param file The file for which checksums should no longer be stored.
+	 * @throws IOException if an I/O error occurs.
+	 * @see #CHECKSUM_ATTRIBUTE_NAME
+	 */
+	protected void removeChecksumAttribute(final Path file) throws IOException {
+		final UserDefinedFileAttributeView attributeView = Files.getFileAttributeView(pathToFile(file).toPath(), UserDefinedFileAttributeView.class);
+		if(attributeView != null) {
+			try {
+				attributeView.delete(CHECKSUM_ATTRIBUTE_NAME);
+			} catch(final FileSystemException fileSystemException) {
+				//no such attribute, or user-defined attributes not supported
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If checksums are being verified, this implementation returns a {@link BareLocalFileInputStream}; otherwise the file is opened directly using
+	 *           the raw file system.
+	 */
+	@Override
+	public FSDataInputStream open(final Path path, final int bufferSize) throws IOException {
+		if(!verifyChecksum) {
+			return getRawFileSystem().open(path, bufferSize);
+		}
+		return new FSDataInputStream(new BareLocalFileInputStream(this, path, bufferSize, true));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #create(Path, FsPermission, boolean, boolean, int, short, long, Progressable)}.
+	 */
+	@Override
+	public FSDataOutputStream create(final Path path, final FsPermission permission, final boolean overwrite, final int bufferSize, final short replication,
+			final long blockSize, final Progressable progress) throws IOException {
+		return create(path, permission, overwrite, true, bufferSize, replication, blockSize, progress);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #create(Path, FsPermission, boolean, boolean, int, short, long, Progressable)}.
+	 */
+	@Override
+	public FSDataOutputStream create(final Path path, final FsPermission permission, final EnumSet<CreateFlag> flags, final int bufferSize,
+			final short replication, final long blockSize, final Progressable progress, final Options.ChecksumOpt checksumOpt) throws IOException {
+		return create(path, permission, flags.contains(CreateFlag.OVERWRITE), true, bufferSize, replication, blockSize, progress);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #create(Path, FsPermission, boolean, boolean, int, short, long, Progressable)}.
+	 */
+	@Override
+	public FSDataOutputStream createNonRecursive(final Path path, final FsPermission permission, final boolean overwrite, final int bufferSize,
+			final short replication, final long blockSize, final Progressable progress) throws IOException {
+		return create(path, permission, overwrite, false, bufferSize, replication, blockSize, progress);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #create(Path, FsPermission, boolean, boolean, int, short, long, Progressable)}.
+	 */
+	@Override
+	public FSDataOutputStream createNonRecursive(final Path path, final FsPermission permission, final EnumSet<CreateFlag> flags, final int bufferSize,
+			final short replication, final long blockSize, final Progressable progress) throws IOException {
+		return create(path, permission, flags.contains(CreateFlag.OVERWRITE), false, bufferSize, replication, blockSize, progress);
+	}
+
+	/**
+	 * Creates a file, along with its checksum file if checksums are being written, following the semantics of {@link ChecksumFileSystem}.
+	 * @implSpec If checksums are being written, this implementation returns a {@link BareLocalFileOutputStream} writing the file and its checksum file using
+	 *           the configured checksum type, starting with the configured bytes per checksum. If checksum attributes are enabled, the checksum file contents
+	 *           are stored in an attribute of the file if possible using a {@link ChecksumAttributeOutputStream}. Otherwise the file is created using the raw
+	 *           file system, and any existing checksum file or attribute is deleted.
+	 * @param path The path of the file to create.
+	 * @param permission The permission of the file.
+	 * @param overwrite Whether an existing file should be overwritten.
+	 * @param createParent Whether missing parent directories should be created.
+	 * @param bufferSize The size of the buffer to use for writing.
+	 * @param replication The replication factor, which is ignored by the local file system.
+	 * @param blockSize The block size.
+	 * @param progress The progress reporter, or <code>null</code> if progress need not be reported.
+	 * @return A stream for writing the file.
+	 * @throws FileNotFoundException if the parent directory does not exist and is not to be created.
+	 * @throws IOException if an I/O error occurs.
+	 * @see #getChecksumType()
+	 * @see #getBytesPerSum()
+	 * @see #getMaxBytesPerChecksum()
+	 */
+	protected FSDataOutputStream create(final Path path, final FsPermission permission, final boolean overwrite, final boolean createParent,
+			final int bufferSize, final short replication, final long blockSize, final Progressable progress) throws IOException {
+		final Path parent = path.getParent();
+		if(parent != null) {
+			if(createParent) {
+				if(!mkdirs(parent)) {
+					throw new IOException("Mkdirs failed to create " + parent);
+				}
+			} else if(!exists(parent)) {
+				throw new FileNotFoundException(format("Parent directory `%s` does not exist.", parent));
+			}
+		}
+		final FileSystem rawFileSystem = getRawFileSystem();
+		final Path checksumFile = getChecksumFile(path);
+		if(!writeChecksum) {
+			final FSDataOutputStream outputStream = rawFileSystem.create(path, permission, overwrite, bufferSize, replication, blockSize, progress);
+			rawFileSystem.delete(checksumFile, false); //remove any stale checksum file
+			if(overwrite) {
+				removeChecksumAttribute(path);
+			}
+			return outputStream;
+		}
+		final FSDataOutputStream dataOutputStream = rawFileSystem.create(path, permission, overwrite, bufferSize, replication, blockSize, progress);
+		try {
+			final FSDataOutputStream checksumOutputStream = checksumAttributeEnabled
+					? new FSDataOutputStream(new ChecksumAttributeOutputStream(this, path,
+							() -> rawFileSystem.create(checksumFile, permission, true, bufferSize, replication, blockSize, null)), null)
+					: rawFileSystem.create(checksumFile, permission, true, bufferSize, replication, blockSize, null);
+			try {
+				return new FSDataOutputStream(
+						new BareLocalFileOutputStream(dataOutputStream, checksumOutputStream, checksumType, getBytesPerSum(), maxBytesPerChecksum), null);
+			} catch(final IOException | RuntimeException exception) {
+				checksumOutputStream.close();
+				throw exception;
+			}
+		} catch(final IOException | RuntimeException exception) {
+			dataOutputStream.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation copies directly using {@link #copy(Path, Path, boolean, boolean, boolean)}, including checksum files.
+	 */
+	@Override
+	public void copyFromLocalFile(final boolean delSrc, final Path src, final Path dst) throws IOException {
+		copy(src, dst, delSrc, true, true);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation copies directly using {@link #copy(Path, Path, boolean, boolean, boolean)}, including checksum files.
+	 */
+	@Override
+	public void copyFromLocalFile(final boolean delSrc, final boolean overwrite, final Path src, final Path dst) throws IOException {
+		copy(src, dst, delSrc, overwrite, true);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation copies each source directly using {@link #copy(Path, Path, boolean, boolean, boolean)}, including checksum files,
+	 *           following the semantics of {@link FileUtil#copy(FileSystem, Path[], FileSystem, Path, boolean, boolean, org.apache.hadoop.conf.Configuration)}.
+	 */
+	@Override
+	public void copyFromLocalFile(final boolean delSrc, final boolean overwrite, final Path[] srcs, final Path dst) throws IOException {
+		if(srcs.length == 1) {
+			copy(srcs[0], dst, delSrc, overwrite, true);
+			return;
+		}
+		final FileStatus dstStatus;
+		try {
+			dstStatus = getFileStatus(dst);
+		} catch(final FileNotFoundException fileNotFoundException) {
+			throw new IOException(String.format("Destination directory `%s` does not exist.", dst), fileNotFoundException);
+		}
+		if(!dstStatus.isDirectory()) {
+			throw new IOException(String.format("Copying multiple files, but destination `%s` is not a directory.", dst));
+		}
+		final StringBuilder exceptionMessages = new StringBuilder();
+		for(final Path src : srcs) {
+			try {
+				copy(src, dst, delSrc, overwrite, true);
+			} catch(final IOException ioException) {
+				exceptionMessages.append(ioException.getMessage()).append('\n');
+			}
+		}
+		if(exceptionMessages.length() > 0) {
+			throw new IOException(exceptionMessages.toString());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation copies directly using {@link #copy(Path, Path, boolean, boolean, boolean)}, including checksum files.
+	 */
+	@Override
+	public void copyToLocalFile(final boolean delSrc, final Path src, final Path dst) throws IOException {
+		copy(src, dst, delSrc, true, true);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation copies directly using {@link #copy(Path, Path, boolean, boolean, boolean)}, including checksum files unless the raw local
+	 *           file system is requested.
+	 */
+	@Override
+	public void copyToLocalFile(final boolean delSrc, final Path src, final Path dst, final boolean useRawLocalFileSystem) throws IOException {
+		copy(src, dst, delSrc, true, !useRawLocalFileSystem);
+	}
+
+	/**
+	 * Copies a file or directory tree within the local file system, following the semantics of
+	 * {@link FileUtil#copy(FileSystem, Path, FileSystem, Path, boolean, boolean, org.apache.hadoop.conf.Configuration)}, copying the existing checksum files
+	 * rather than recalculating the checksums.
+	 * @implSpec If the raw file system is a {@link NakedLocalFileSystem}, this implementation delegates to
+	 *           {@link NakedLocalFileSystem#copy(Path, Path, boolean, boolean, java.nio.file.DirectoryStream.Filter, Predicate)}, which copies file contents
+	 *           without reading them into the Java heap, along with any checksum attribute if checksums are to be copied. When a single file is copied, its
+	 *           checksum file is copied as well if present; otherwise any existing checksum file of the destination is removed, and the destination will be
+	 *           read without verification unless it has a checksum attribute. Otherwise this implementation delegates to
+	 *           {@link FileUtil#copy(FileSystem, Path, FileSystem, Path, boolean, boolean, org.apache.hadoop.conf.Configuration)}.
+	 * @param source The file or directory to copy.
+	 * @param destination The destination path; if this is an existing directory, the source will be copied into it using the source name.
+	 * @param deleteSource Whether the source should be deleted after being copied.
+	 * @param overwrite Whether existing destination files should be overwritten.
+	 * @param copyChecksums Whether checksum files should be copied; if not, the destination will have no checksum files.
+	 * @return <code>true</code> if the source was copied and, if requested, deleted.
+	 * @throws FileNotFoundException if the source does not exist.
+	 * @throws PathExistsException if the destination exists and overwriting is not requested.
+	 * @throws IOException if the source is a directory containing the destination, or if an I/O error occurs.
+	 */
+	protected boolean copy(final Path source, Path destination, final boolean deleteSource, final boolean overwrite, final boolean copyChecksums)
+			throws IOException {
+		final FileSystem rawFileSystem = getRawFileSystem();
+		if(!(rawFileSystem instanceof NakedLocalFileSystem)) {
+			return FileUtil.copy(this, source, copyChecksums ? this : rawFileSystem, destination, deleteSource, overwrite, getConf());
+		}
+		final NakedLocalFileSystem nakedLocalFileSystem = (NakedLocalFileSystem)rawFileSystem;
+		final Predicate<String> attributeNameFilter = copyChecksums ? __ -> true : name -> !name.equals(CHECKSUM_ATTRIBUTE_NAME);
+		if(nakedLocalFileSystem.getFileStatus(source).isDirectory()) {
+			return nakedLocalFileSystem.copy(source, destination, deleteSource, overwrite, copyChecksums ? __ -> true : NON_CHECKSUM_FILE_FILTER,
+					attributeNameFilter);
+		}
+		try {
+			if(nakedLocalFileSystem.getFileStatus(destination).isDirectory()) {
+				destination = new Path(destination, source.getName());
+			}
+		} catch(final FileNotFoundException fileNotFoundException) {
+			//the destination will be created
+		}
+		nakedLocalFileSystem.copy(source, destination, false, overwrite, __ -> true, attributeNameFilter);
+		final Path destinationChecksumFile = getChecksumFile(destination);
+		boolean isChecksumFileCopied = false;
+		if(copyChecksums) {
+			try {
+				nakedLocalFileSystem.copy(getChecksumFile(source), destinationChecksumFile, false, true);
+				isChecksumFileCopied = true;
+			} catch(final FileNotFoundException fileNotFoundException) {
+				//the source has no checksum file
+			}
+		}
+		if(!isChecksumFileCopied) {
+			nakedLocalFileSystem.delete(destinationChecksumFile, false); //remove any stale checksum file
+		}
+		return deleteSource ? delete(source, false) : true;
+	}
+
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.util.Objects.*;
+
+import java.io.*;
+
+import javax.annotation.*;
+
+import org.apache.hadoop.fs.*;
+
+/**
+ * A seekable input stream of bytes held in memory, allowing data such as a checksum table read from an attribute to be read in the same way as the contents
+ * of a file.
+ * @author Garret Wilson
+ */
+final class ByteArrayFSInputStream extends FSInputStream {
+
+	private final byte[] bytes;
+
+	private int position = 0;
+
+	/**
+	 * Constructor.
+	 * @param bytes The bytes to read; the array is not copied.
+	 */
+	public ByteArrayFSInputStream(@Nonnull final byte[] bytes) {
+		this.bytes = requireNonNull(bytes);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws EOFException if the position is negative or past the end of the bytes.
+	 */
+	@Override
+	public synchronized void seek(final long position) throws IOException {
+		if(position < 0) {
+			throw new EOFException(FSExceptionMessages.NEGATIVE_SEEK);
+		}
+		if(position > bytes.length) {
+			throw new EOFException(FSExceptionMessages.CANNOT_SEEK_PAST_EOF);
+		}
+		this.position = (int)position;
+	}
+
+	@Override
+	public synchronized long getPos() {
+		return position;
+	}
+
+	@Override
+	public boolean seekToNewSource(final long targetPosition) {
+		return false;
+	}
+
+	@Override
+	public synchronized int available() {
+		return bytes.length - position;
+	}
+
+	@Override
+	public synchronized int read() {
+		return position < bytes.length ? bytes[position++] & 0xFF : -1;
+	}
+
+	@Override
+	public synchronized int read(final byte[] buffer, final int offset, final int length) {
+		if(offset < 0 || length < 0 || length > buffer.length - offset) {
+			throw new IndexOutOfBoundsException();
+		}
+		if(length == 0) {
+			return 0;
+		}
+		if(position >= bytes.length) {
+			return -1;
+		}
+		final int count = Math.min(length, bytes.length - position);
+		System.arraycopy(bytes, position, buffer, offset, count);
+		position += count;
+		return count;
+	}
+
+}
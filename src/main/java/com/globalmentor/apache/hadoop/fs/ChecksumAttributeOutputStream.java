@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+import javax.annotation.*;
+
+import org.apache.hadoop.fs.*;
+import org.apache.hadoop.util.functional.CallableRaisingIOE;
+
+/**
+ * An output stream collecting the contents of a checksum file in memory so that they can be stored in a user-defined attribute of the checksummed file,
+ * falling back to writing a checksum file if the contents grow too large or the attribute cannot be written.
+ * @author Garret Wilson
+ * @see BareLocalFileSystem#CHECKSUM_ATTRIBUTE_NAME
+ */
+class ChecksumAttributeOutputStream extends OutputStream {
+
+	private final BareLocalFileSystem fileSystem;
+
+	private final Path file;
+
+	private final CallableRaisingIOE<FSDataOutputStream> checksumFileCreator;
+
+	/** The collected checksum file contents, or <code>null</code> if a checksum file is being written instead. */
+	@Nullable
+	private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+	/** The stream of the checksum file, or <code>null</code> if a checksum file is not being written. */
+	@Nullable
+	private FSDataOutputStream checksumFileOutputStream = null;
+
+	private boolean isClosed = false;
+
+	/**
+	 * Constructor.
+	 * @param fileSystem The file system storing the attribute.
+	 * @param file The checksummed file.
+	 * @param checksumFileCreator The strategy for creating the checksum file if the checksums cannot be stored in an attribute.
+	 */
+	public ChecksumAttributeOutputStream(@Nonnull final BareLocalFileSystem fileSystem, @Nonnull final Path file,
+			@Nonnull final CallableRaisingIOE<FSDataOutputStream> checksumFileCreator) {
+		this.fileSystem = requireNonNull(fileSystem);
+		this.file = requireNonNull(file);
+		this.checksumFileCreator = requireNonNull(checksumFileCreator);
+	}
+
+	/**
+	 * Switches to writing a checksum file, writing to it any contents collected so far.
+	 * @return The stream of the checksum file.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private FSDataOutputStream getChecksumFileOutputStream() throws IOException {
+		if(checksumFileOutputStream == null) {
+			checksumFileOutputStream = checksumFileCreator.apply();
+			if(buffer != null) {
+				buffer.writeTo(checksumFileOutputStream);
+				buffer = null;
+			}
+		}
+		return checksumFileOutputStream;
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		write(new byte[] {(byte)b}, 0, 1);
+	}
+
+	@Override
+	public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+		if(isClosed) {
+			throw new IOException(FSExceptionMessages.STREAM_IS_CLOSED);
+		}
+		if(buffer != null && buffer.size() + length <= BareLocalFileSystem.CHECKSUM_ATTRIBUTE_MAX_LENGTH) {
+			buffer.write(bytes, offset, length);
+		} else {
+			getChecksumFileOutputStream().write(bytes, offset, length);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If the contents were collected in memory, this implementation stores them in the attribute and removes any stale checksum file, falling back to
+	 *           writing a checksum file if the attribute cannot be written. If a checksum file was written, any stale attribute is removed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if(isClosed) {
+			return;
+		}
+		isClosed = true;
+		if(buffer != null) {
+			try {
+				fileSystem.writeChecksumAttribute(file, ByteBuffer.wrap(buffer.toByteArray()));
+				fileSystem.getRawFileSystem().delete(fileSystem.getChecksumFile(file), false); //remove any stale checksum file
+				return;
+			} catch(final IOException ioException) {
+				//fall back to a checksum file if attributes are not supported or the checksums are too large for the file store
+			}
+		}
+		getChecksumFileOutputStream().close();
+		fileSystem.removeChecksumAttribute(file); //remove any stale attribute
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.OpenOption;
+
+/**
+ * Access to direct I/O, bypassing the operating system page cache.
+ * @implSpec This Java 8 implementation indicates that direct I/O is not supported. Direct I/O is supported by the Java 10+ version of this class in the
+ *           multi-release JAR, using <code>com.sun.nio.file.ExtendedOpenOption.DIRECT</code>.
+ * @author Garret Wilson
+ */
+final class DirectIo {
+
+	private DirectIo() {
+	}
+
+	/** @return Whether the Java runtime supports direct I/O. */
+	static boolean isSupported() {
+		return false;
+	}
+
+	/**
+	 * Returns the option for opening a file for direct I/O.
+	 * @return The direct I/O open option.
+	 * @throws UnsupportedOperationException if direct I/O is not supported.
+	 */
+	static OpenOption getDirectOpenOption() {
+		throw new UnsupportedOperationException("Direct I/O requires Java 10 or later.");
+	}
+
+	/**
+	 * Returns the block size of the file store containing the given path, to which direct I/O positions, lengths, and buffers must be aligned.
+	 * @param nioPath The path of an existing file or directory.
+	 * @return The block size of the file store.
+	 * @throws IOException if an I/O error occurs determining the block size.
+	 * @throws UnsupportedOperationException if direct I/O is not supported.
+	 */
+	static int getBlockSize(final java.nio.file.Path nioPath) throws IOException {
+		throw new UnsupportedOperationException("Direct I/O requires Java 10 or later.");
+	}
+
+	/**
+	 * Allocates a direct buffer the address of which is aligned as required for direct I/O.
+	 * @param capacity The capacity of the buffer.
+	 * @param alignment The required alignment.
+	 * @return A new aligned direct buffer.
+	 * @throws UnsupportedOperationException if direct I/O is not supported.
+	 */
+	static ByteBuffer allocateAligned(final int capacity, final int alignment) {
+		throw new UnsupportedOperationException("Direct I/O requires Java 10 or later.");
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.util.Objects.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executor;
+
+import javax.annotation.*;
+
+import org.apache.hadoop.fs.*;
+
+/**
+ * An input stream reading a local file opened for direct I/O, bypassing the operating system page cache, intended for large scans that should not evict
+ * other cached data.
+ * <p>
+ * Every read from the channel is made at a position aligned to the block size into an aligned buffer from a shared pool, from which the requested bytes are
+ * copied. Sequential reads are buffered using a buffer at least as large as the pooled buffers, so that scanning a file results in large aligned reads.
+ * </p>
+ * @author Garret Wilson
+ */
+public class DirectNakedLocalFileInputStream extends NakedLocalFileInputStream {
+
+	private final AlignedBufferPool bufferPool;
+
+	/**
+	 * Constructor.
+	 * @param nioPath The path of the file being read.
+	 * @param fileChannel The channel, opened for reading with direct I/O, from which to read file contents. The channel will be closed when this stream is
+	 *          closed.
+	 * @param bufferSize The minimum size of the buffer to use for sequential reads.
+	 * @param statistics The file system statistics to update, or <code>null</code> if file system statistics should not be recorded.
+	 * @param vectoredReadExecutor The executor for reading the merged ranges of vectored reads concurrently, or <code>null</code> if vectored reads should be
+	 *          performed synchronously.
+	 * @param minSeekForVectorReads The minimum gap between two ranges of a vectored read below which the ranges will be merged.
+	 * @param maxReadSizeForVectorReads The maximum size of a merged range of a vectored read.
+	 * @param bufferPool The pool of buffers aligned for the file store of the file.
+	 * @throws IllegalArgumentException if the buffer size or maximum merged range size is not positive, or the minimum seek is negative.
+	 */
+	DirectNakedLocalFileInputStream(@Nonnull final java.nio.file.Path nioPath, @Nonnull final FileChannel fileChannel, final int bufferSize,
+			@Nullable final FileSystem.Statistics statistics, @Nullable final Executor vectoredReadExecutor, final int minSeekForVectorReads,
+			final int maxReadSizeForVectorReads, @Nonnull final AlignedBufferPool bufferPool) {
+		super(nioPath, fileChannel, Math.max(bufferSize, bufferPool.getBufferSize()), statistics, vectoredReadExecutor, minSeekForVectorReads,
+				maxReadSizeForVectorReads);
+		this.bufferPool = requireNonNull(bufferPool);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation reads whole aligned blocks covering the requested bytes into pooled aligned buffers, and copies the requested bytes.
+	 */
+	@Override
+	protected int readChannel(final ByteBuffer byteBuffer, final long filePosition) throws IOException {
+		final int alignment = bufferPool.getAlignment();
+		final ByteBuffer alignedBuffer = bufferPool.acquire();
+		try {
+			int count = 0;
+			long position = filePosition;
+			while(byteBuffer.hasRemaining()) {
+				final long alignedPosition = position - position % alignment;
+				final int blockOffset = (int)(position - alignedPosition);
+				final long alignedEnd = blockOffset + (long)byteBuffer.remaining() + alignment - 1;
+				alignedBuffer.clear();
+				alignedBuffer.limit((int)Math.min(alignedBuffer.capacity(), alignedEnd - alignedEnd % alignment));
+				final int readLimit = alignedBuffer.limit();
+				final int readCount = super.readChannel(alignedBuffer, alignedPosition);
+				if(readCount <= blockOffset) { //end of file
+					break;
+				}
+				alignedBuffer.flip();
+				alignedBuffer.position(blockOffset);
+				final int length = Math.min(alignedBuffer.remaining(), byteBuffer.remaining());
+				alignedBuffer.limit(blockOffset + length);
+				byteBuffer.put(alignedBuffer);
+				count += length;
+				position += length;
+				if(readCount < readLimit) { //short read; don't assume more data is available without checking again
+					break;
+				}
+			}
+			return count == 0 && byteBuffer.hasRemaining() ? -1 : count;
+		} finally {
+			bufferPool.release(alignedBuffer);
+		}
+	}
+
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import javax.annotation.*;
+
+import org.apache.hadoop.fs.*;
+
+/**
+ * An output stream writing a local file opened for direct I/O, bypassing the operating system page cache, intended for large sequential outputs that should
+ * not evict other cached data.
+ * <p>
+ * Written bytes are accumulated in an aligned buffer from a shared pool, which is written whenever it is full. As direct I/O can only write whole blocks, the
+ * final partial block is written when the stream is closed using a separate channel opened without direct I/O.
+ * </p>
+ * @apiNote As only whole blocks can be written, {@link #flush()} writes no data, and this stream does not support {@link Syncable}.
+ * @author Garret Wilson
+ */
+public class DirectNakedLocalFileOutputStream extends OutputStream implements StreamCapabilities {
+
+	private final java.nio.file.Path nioPath;
+
+	/** @return The path of the file being written. */
+	public java.nio.file.Path getNioPath() {
+		return nioPath;
+	}
+
+	private final FileChannel fileChannel;
+
+	private final AlignedBufferPool bufferPool;
+
+	/** The file system statistics to update, or <code>null</code> if file system statistics are not being recorded. */
+	@Nullable
+	private final FileSystem.Statistics statistics;
+
+	/** The action to perform after the file is modified, such as invalidating a cached status, or <code>null</code> if there is no such action. */
+	@Nullable
+	private final Runnable modificationListener;
+
+	/** The pooled buffer accumulating bytes to write, or <code>null</code> if the stream has been closed. */
+	@Nullable
+	private ByteBuffer buffer;
+
+	/** The number of bytes written to the file so far. */
+	private long filePosition = 0;
+
+	/**
+	 * Constructor.
+	 * @param nioPath The path of the file being written.
+	 * @param fileChannel The channel, newly opened for writing with direct I/O, to which to write file contents. The channel will be closed when this stream is
+	 *          closed.
+	 * @param bufferPool The pool of buffers aligned for the file store of the file.
+	 * @param statistics The file system statistics to update, or <code>null</code> if file system statistics should not be recorded.
+	 * @param modificationListener The action to perform each time bytes are written to the file and when the stream is closed, such as invalidating a cached
+	 *          status of the file, or <code>null</code> if there is no such action.
+	 */
+	DirectNakedLocalFileOutputStream(@Nonnull final java.nio.file.Path nioPath, @Nonnull final FileChannel fileChannel,
+			@Nonnull final AlignedBufferPool bufferPool, @Nullable final FileSystem.Statistics statistics, @Nullable final Runnable modificationListener) {
+		this.nioPath = requireNonNull(nioPath);
+		this.fileChannel = requireNonNull(fileChannel);
+		this.bufferPool = requireNonNull(bufferPool);
+		this.statistics = statistics;
+		this.modificationListener = modificationListener;
+		this.buffer = bufferPool.acquire();
+	}
+
+	/**
+	 * Returns the buffer, ensuring that the stream is open.
+	 * @return The buffer accumulating bytes to write.
+	 * @throws IOException if the stream has been closed.
+	 */
+	private ByteBuffer getBuffer() throws IOException {
+		final ByteBuffer buffer = this.buffer;
+		if(buffer == null) {
+			throw new IOException(FSExceptionMessages.STREAM_IS_CLOSED + ": " + nioPath);
+		}
+		return buffer;
+	}
+
+	@Override
+	public synchronized void write(final int b) throws IOException {
+		final ByteBuffer buffer = getBuffer();
+		buffer.put((byte)b);
+		if(!buffer.hasRemaining()) {
+			writeBuffer(buffer);
+		}
+	}
+
+	@Override
+	public synchronized void write(final byte[] bytes, int offset, int length) throws IOException {
+		if(offset < 0 || length < 0 || length > bytes.length - offset) {
+			throw new IndexOutOfBoundsException();
+		}
+		final ByteBuffer buffer = getBuffer();
+		while(length > 0) {
+			final int count = Math.min(length, buffer.remaining());
+			buffer.put(bytes, offset, count);
+			offset += count;
+			length -= count;
+			if(!buffer.hasRemaining()) {
+				writeBuffer(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Writes the contents of the buffer, which must be a whole number of blocks, to the direct I/O channel and clears the buffer.
+	 * @param buffer The buffer to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeBuffer(final ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		writeFully(fileChannel, buffer);
+		buffer.clear();
+	}
+
+	/** Notifies any modification listener that the file has been modified. */
+	private void fireModified() {
+		if(modificationListener != null) {
+			modificationListener.run();
+		}
+	}
+
+	/**
+	 * Writes all the remaining bytes of a buffer to a channel at the current file position, updating the file position and notifying any modification
+	 * listener.
+	 * @param channel The channel to which to write.
+	 * @param buffer The buffer containing the bytes to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+		final int count = buffer.remaining();
+		try {
+			while(buffer.hasRemaining()) {
+				channel.write(buffer, filePosition + count - buffer.remaining());
+			}
+		} finally {
+			fireModified(); //even a failed write may have modified the file
+		}
+		filePosition += count;
+		if(statistics != null) {
+			statistics.incrementBytesWritten(count);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation writes no data, as direct I/O only allows whole blocks to be written.
+	 */
+	@Override
+	public void flush() throws IOException {
+		getBuffer();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation writes any whole blocks remaining in the buffer using direct I/O, and then writes any final partial block using a channel
+	 *           opened without direct I/O, and then notifies any modification listener. Closing a stream more than once has no effect.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		final ByteBuffer buffer = this.buffer;
+		if(buffer == null) {
+			return;
+		}
+		this.buffer = null;
+		try {
+			try (final FileChannel directChannel = fileChannel) {
+				final int length = buffer.position();
+				final int alignedLength = length - length % bufferPool.getAlignment();
+				buffer.flip();
+				buffer.limit(alignedLength);
+				writeFully(directChannel, buffer);
+				buffer.limit(length);
+			}
+			if(buffer.hasRemaining()) { //write the final partial block without direct I/O
+				try (final FileChannel tailChannel = FileChannel.open(nioPath, StandardOpenOption.WRITE)) {
+					writeFully(tailChannel, buffer);
+				}
+			}
+		} finally {
+			bufferPool.release(buffer);
+			fireModified();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation supports no capabilities; in particular neither {@link StreamCapabilities#HFLUSH} nor {@link StreamCapabilities#HSYNC}
+	 *           is supported.
+	 */
+	@Override
+	public boolean hasCapability(final String capability) {
+		return false;
+	}
+
+}
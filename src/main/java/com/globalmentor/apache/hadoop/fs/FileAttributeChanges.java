@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.lang.String.format;
+import static java.util.Objects.*;
+
+import java.util.*;
+
+import javax.annotation.*;
+
+import org.apache.hadoop.fs.permission.FsPermission;
+
+/**
+ * Immutable set of changes to the attributes of a file or directory, allowing the permission, owner, group, and times to be applied together in a single
+ * operation via {@link NakedLocalFileSystem#setAttributes(org.apache.hadoop.fs.Path, FileAttributeChanges)}. Each attribute not explicitly changed is left
+ * unmodified.
+ * @apiNote Times follow the Hadoop convention of {@link org.apache.hadoop.fs.FileSystem#setTimes(org.apache.hadoop.fs.Path, long, long)}, expressed in
+ *          milliseconds since the epoch.
+ * @author Garret Wilson
+ */
+public final class FileAttributeChanges {
+
+	/** The instance indicating that no attributes are to be changed. */
+	public static final FileAttributeChanges NONE = new FileAttributeChanges(null, null, null, -1, -1);
+
+	@Nullable
+	private final FsPermission permission;
+
+	@Nullable
+	private final String username;
+
+	@Nullable
+	private final String groupname;
+
+	private final long modificationTime;
+
+	private final long accessTime;
+
+	/**
+	 * Constructor.
+	 * @param permission The new permission, or <code>null</code> if the permission should not be changed.
+	 * @param username The name of the new owner, or <code>null</code> if the owner should not be changed.
+	 * @param groupname The name of the new group, or <code>null</code> if the group should not be changed.
+	 * @param modificationTime The new modification time, or a negative value if the modification time should not be changed.
+	 * @param accessTime The new access time, or a negative value if the access time should not be changed.
+	 */
+	private FileAttributeChanges(@Nullable final FsPermission permission, @Nullable final String username, @Nullable final String groupname,
+			final long modificationTime, final long accessTime) {
+		this.permission = permission;
+		this.username = username;
+		this.groupname = groupname;
+		this.modificationTime = modificationTime < 0 ? -1 : modificationTime;
+		this.accessTime = accessTime < 0 ? -1 : accessTime;
+	}
+
+	/** @return The new permission, if the permission is to be changed. */
+	public Optional<FsPermission> findPermission() {
+		return Optional.ofNullable(permission);
+	}
+
+	/** @return The name of the new owner, if the owner is to be changed. */
+	public Optional<String> findUsername() {
+		return Optional.ofNullable(username);
+	}
+
+	/** @return The name of the new group, if the group is to be changed. */
+	public Optional<String> findGroupname() {
+		return Optional.ofNullable(groupname);
+	}
+
+	/** @return The new modification time in milliseconds, if the modification time is to be changed. */
+	public OptionalLong findModificationTime() {
+		return modificationTime >= 0 ? OptionalLong.of(modificationTime) : OptionalLong.empty();
+	}
+
+	/** @return The new access time in milliseconds, if the access time is to be changed. */
+	public OptionalLong findAccessTime() {
+		return accessTime >= 0 ? OptionalLong.of(accessTime) : OptionalLong.empty();
+	}
+
+	/** @return <code>true</code> if no attributes are to be changed. */
+	public boolean isEmpty() {
+		return permission == null && username == null && groupname == null && modificationTime < 0 && accessTime < 0;
+	}
+
+	/**
+	 * Returns changes that additionally change the permission.
+	 * @param permission The new permission.
+	 * @return Changes with the given permission.
+	 */
+	public FileAttributeChanges withPermission(final FsPermission permission) {
+		return new FileAttributeChanges(requireNonNull(permission), username, groupname, modificationTime, accessTime);
+	}
+
+	/**
+	 * Returns changes that additionally change the owner and/or group, following the semantics of
+	 * {@link org.apache.hadoop.fs.FileSystem#setOwner(org.apache.hadoop.fs.Path, String, String)}.
+	 * @param username The name of the new owner, or <code>null</code> if the owner should not be changed.
+	 * @param groupname The name of the new group, or <code>null</code> if the group should not be changed.
+	 * @return Changes with the given owner and group.
+	 */
+	public FileAttributeChanges withOwner(@Nullable final String username, @Nullable final String groupname) {
+		return new FileAttributeChanges(permission, username != null ? username : this.username, groupname != null ? groupname : this.groupname,
+				modificationTime, accessTime);
+	}
+
+	/**
+	 * Returns changes that additionally change the modification and/or access times, following the semantics of
+	 * {@link org.apache.hadoop.fs.FileSystem#setTimes(org.apache.hadoop.fs.Path, long, long)}.
+	 * @param modificationTime The new modification time in milliseconds, or a negative value if the modification time should not be changed.
+	 * @param accessTime The new access time in milliseconds, or a negative value if the access time should not be changed.
+	 * @return Changes with the given times.
+	 */
+	public FileAttributeChanges withTimes(final long modificationTime, final long accessTime) {
+		return new FileAttributeChanges(permission, username, groupname, modificationTime >= 0 ? modificationTime : this.modificationTime,
+				accessTime >= 0 ? accessTime : this.accessTime);
+	}
+
+	@Override
+	public String toString() {
+		return format("permission=%s, owner=%s, group=%s, mtime=%d, atime=%d", permission, username, groupname, modificationTime, accessTime);
+	}
+
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.util.Objects.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.apache.hadoop.fs.FileStatus;
+
+/**
+ * A bounded cache of file statuses keyed by Java NIO path, evicting the least recently used entries when full and expiring entries after a fixed time to
+ * live.
+ * @apiNote Keys are expected to be absolute and normalized; see {@link #toKey(java.nio.file.Path)}. The cache returns the same status instance for each
+ *          hit; as file statuses are mutable, a cache shared with callers that may modify statuses should hold and return copies. A status read while the
+ *          cache may be concurrently invalidated should be cached using {@link #put(java.nio.file.Path, FileStatus, long)} with the stamp returned by
+ *          {@link #getInvalidationStamp()} before reading, so that an invalidation occurring during the read is not undone.
+ * @implSpec This implementation is thread safe. Statistics are recorded for hits, misses (including expired entries), and evictions caused by the size limit.
+ * @author Garret Wilson
+ */
+public class FileStatusCache {
+
+	private final int maxSize;
+
+	private final long timeToLiveNanos;
+
+	private final LongSupplier nanoTimeSupplier;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	/** The number of invalidations that have occurred, guarded by {@link #entries}. */
+	private long invalidationCount = 0;
+
+	/** The cached entries in access order, guarded by the map itself. */
+	private final LinkedHashMap<java.nio.file.Path, CachedFileStatus> entries;
+
+	/**
+	 * Constructor.
+	 * @param maxSize The maximum number of entries to hold before evicting the least recently used entry.
+	 * @param timeToLive The duration after which an entry expires.
+	 * @param timeToLiveUnit The time unit of the time to live.
+	 * @throws IllegalArgumentException if the maximum size is not positive or the time to live is negative.
+	 */
+	public FileStatusCache(final int maxSize, final long timeToLive, final TimeUnit timeToLiveUnit) {
+		this(maxSize, timeToLive, timeToLiveUnit, System::nanoTime);
+	}
+
+	/**
+	 * Time source constructor.
+	 * @param maxSize The maximum number of entries to hold before evicting the least recently used entry.
+	 * @param timeToLive The duration after which an entry expires.
+	 * @param timeToLiveUnit The time unit of the time to live.
+	 * @param nanoTimeSupplier The source of the current time in nanoseconds, with the same semantics as {@link System#nanoTime()}.
+	 * @throws IllegalArgumentException if the maximum size is not positive or the time to live is negative.
+	 */
+	FileStatusCache(final int maxSize, final long timeToLive, final TimeUnit timeToLiveUnit, final LongSupplier nanoTimeSupplier) {
+		if(maxSize <= 0) {
+			throw new IllegalArgumentException("Maximum file status cache size must be positive: " + maxSize);
+		}
+		if(timeToLive < 0) {
+			throw new IllegalArgumentException("File status cache time to live must not be negative: " + timeToLive);
+		}
+		this.maxSize = maxSize;
+		this.timeToLiveNanos = timeToLiveUnit.toNanos(timeToLive);
+		this.nanoTimeSupplier = requireNonNull(nanoTimeSupplier);
+		this.entries = new LinkedHashMap<java.nio.file.Path, CachedFileStatus>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<java.nio.file.Path, CachedFileStatus> eldest) {
+				final boolean remove = size() > FileStatusCache.this.maxSize;
+				if(remove) {
+					evictionCount.increment();
+				}
+				return remove;
+			}
+		};
+	}
+
+	/**
+	 * Returns the key to use in the cache for a path.
+	 * @param nioPath The Java NIO path.
+	 * @return The absolute, normalized form of the path.
+	 */
+	public static java.nio.file.Path toKey(final java.nio.file.Path nioPath) {
+		return nioPath.toAbsolutePath().normalize();
+	}
+
+	/** @return The maximum number of entries the cache holds. */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/** @return The number of entries currently in the cache, including any that have expired but have not yet been removed. */
+	public int getSize() {
+		synchronized(entries) {
+			return entries.size();
+		}
+	}
+
+	/** @return The number of lookups that found an unexpired status. */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/** @return The number of lookups that found no status or an expired status. */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/** @return The number of entries removed because the cache was full. */
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+	/**
+	 * Looks up a cached file status. An expired entry is removed.
+	 * @param key The cache key of the path; see {@link #toKey(java.nio.file.Path)}.
+	 * @return The cached file status, which will be empty if there was no cached status or the cached status had expired.
+	 */
+	public Optional<FileStatus> find(final java.nio.file.Path key) {
+		final long now = nanoTimeSupplier.getAsLong();
+		synchronized(entries) {
+			final CachedFileStatus entry = entries.get(key);
+			if(entry != null) {
+				if(now - entry.createdNanos < timeToLiveNanos) {
+					hitCount.increment();
+					return Optional.of(entry.fileStatus);
+				}
+				entries.remove(key);
+			}
+		}
+		missCount.increment();
+		return Optional.empty();
+	}
+
+	/**
+	 * Caches a file status, replacing any status already cached for the path.
+	 * @param key The cache key of the path; see {@link #toKey(java.nio.file.Path)}.
+	 * @param fileStatus The file status to cache.
+	 */
+	public void put(final java.nio.file.Path key, final FileStatus fileStatus) {
+		final CachedFileStatus entry = new CachedFileStatus(fileStatus, nanoTimeSupplier.getAsLong());
+		synchronized(entries) {
+			entries.put(key, entry);
+		}
+	}
+
+	/**
+	 * Returns a stamp identifying the invalidations that have occurred so far, to be provided to {@link #put(java.nio.file.Path, FileStatus, long)}.
+	 * @return The current invalidation stamp.
+	 */
+	public long getInvalidationStamp() {
+		synchronized(entries) {
+			return invalidationCount;
+		}
+	}
+
+	/**
+	 * Caches a file status read after the given invalidation stamp was retrieved, replacing any status already cached for the path, unless an invalidation has
+	 * occurred since the stamp was retrieved.
+	 * @apiNote Any intervening invalidation prevents caching, even of an unrelated path, as invalidations of trees and ancestors may affect any path; this errs
+	 *          on the side of not caching a status that may be out of date.
+	 * @param key The cache key of the path; see {@link #toKey(java.nio.file.Path)}.
+	 * @param fileStatus The file status to cache.
+	 * @param invalidationStamp The stamp returned by {@link #getInvalidationStamp()} before the status was read.
+	 * @return <code>true</code> if the status was cached, or <code>false</code> if an invalidation has occurred since the stamp was retrieved.
+	 */
+	public boolean put(final java.nio.file.Path key, final FileStatus fileStatus, final long invalidationStamp) {
+		final CachedFileStatus entry = new CachedFileStatus(fileStatus, nanoTimeSupplier.getAsLong());
+		synchronized(entries) {
+			if(invalidationCount != invalidationStamp) {
+				return false;
+			}
+			entries.put(key, entry);
+			return true;
+		}
+	}
+
+	/**
+	 * Removes any status cached for a path, along with that of its parent directory, whose modification time is affected by changes to the path.
+	 * @param key The cache key of the path; see {@link #toKey(java.nio.file.Path)}.
+	 */
+	public void invalidate(final java.nio.file.Path key) {
+		final java.nio.file.Path parentKey = key.getParent();
+		synchronized(entries) {
+			invalidationCount++;
+			entries.remove(key);
+			if(parentKey != null) {
+				entries.remove(parentKey);
+			}
+		}
+	}
+
+	/**
+	 * Removes any status cached for a path and for any path within it, along with that of its parent directory.
+	 * @implNote This method examines every entry in the cache.
+	 * @param key The cache key of the path; see {@link #toKey(java.nio.file.Path)}.
+	 */
+	public void invalidateTree(final java.nio.file.Path key) {
+		synchronized(entries) {
+			invalidate(key);
+			entries.keySet().removeIf(entryKey -> entryKey.startsWith(key));
+		}
+	}
+
+	/** Removes all cached statuses. */
+	public void clear() {
+		synchronized(entries) {
+			invalidationCount++;
+			entries.clear();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("FileStatusCache(size=%d/%d, hits=%d, misses=%d, evictions=%d)", getSize(), getMaxSize(), getHitCount(), getMissCount(),
+				getEvictionCount());
+	}
+
+	/**
+	 * A cached file status along with the time it was cached.
+	 * @author Garret Wilson
+	 */
+	private static final class CachedFileStatus {
+
+		private final FileStatus fileStatus;
+
+		private final long createdNanos;
+
+		public CachedFileStatus(final FileStatus fileStatus, final long createdNanos) {
+			this.fileStatus = requireNonNull(fileStatus);
+			this.createdNanos = createdNanos;
+		}
+
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.StampedLock;
+
+import javax.annotation.*;
+
+import org.apache.hadoop.fs.*;
+import org.apache.hadoop.util.CleanerUtil;
+
+/**
+ * An input stream reading a local file from a memory mapping of its contents, intended for large files that are not modified while being read.
+ * <p>
+ * The file is mapped in segments of at most {@link Integer#MAX_VALUE} bytes, so that files larger than 2GB may be mapped. All reads, including sequential,
+ * positional, byte buffer, and vectored reads, copy directly from the mapping; sequential reads of more than a single byte are not buffered.
+ * </p>
+ * @apiNote The file must not be truncated while it is mapped; accessing a mapped page beyond the end of a truncated file results in an {@link InternalError}
+ *          in the reading thread.
+ * @implSpec The mapping is unmapped deterministically when the stream is closed, rather than waiting for garbage collection, so that long-lived processes do
+ *           not exhaust their address space. Reads acquire a shared lock that is held only while copying from the mapping, so that the mapping cannot be
+ *           unmapped while it is being accessed; reads do not block each other.
+ * @implNote Unmapping uses the Hadoop {@link CleanerUtil}, which relies on internal JDK APIs. If unmapping is not supported on the platform, the mapping is
+ *           released when the segments are garbage collected.
+ * @author Garret Wilson
+ */
+public class MappedNakedLocalFileInputStream extends NakedLocalFileInputStream {
+
+	/** The size of the file when it was mapped. */
+	private final long size;
+
+	/** @return The size of the file when it was mapped. */
+	public long getSize() {
+		return size;
+	}
+
+	private final int segmentSize;
+
+	/** The mapped segments of the file, or <code>null</code> if the file has been unmapped. Guarded by {@link #mappingLock}. */
+	@Nullable
+	private MappedByteBuffer[] segments;
+
+	/** The lock preventing the segments from being unmapped while being read. */
+	private final StampedLock mappingLock = new StampedLock();
+
+	/**
+	 * Constructor.
+	 * @param nioPath The path of the file being read.
+	 * @param fileChannel The channel, open for reading, from which to read file contents. The channel will be closed when this stream is closed.
+	 * @param bufferSize The size of the buffer to use for sequential single-byte reads.
+	 * @param statistics The file system statistics to update, or <code>null</code> if file system statistics should not be recorded.
+	 * @param vectoredReadExecutor The executor for reading the merged ranges of vectored reads concurrently, or <code>null</code> if vectored reads should be
+	 *          performed synchronously.
+	 * @param minSeekForVectorReads The minimum gap between two ranges of a vectored read below which the ranges will be merged.
+	 * @param maxReadSizeForVectorReads The maximum size of a merged range of a vectored read.
+	 * @param segmentSize The maximum size of each mapped segment of the file.
+	 * @throws IllegalArgumentException if the buffer size, maximum merged range size, or segment size is not positive, or the minimum seek is negative.
+	 * @throws IOException if an I/O error occurs mapping the file. The channel is not closed in this case.
+	 */
+	public MappedNakedLocalFileInputStream(@Nonnull final java.nio.file.Path nioPath, @Nonnull final FileChannel fileChannel, final int bufferSize,
+			@Nullable final FileSystem.Statistics statistics, @Nullable final Executor vectoredReadExecutor, final int minSeekForVectorReads,
+			final int maxReadSizeForVectorReads, final int segmentSize) throws IOException {
+		super(nioPath, fileChannel, bufferSize, statistics, vectoredReadExecutor, minSeekForVectorReads, maxReadSizeForVectorReads);
+		if(segmentSize <= 0) {
+			throw new IllegalArgumentException("Memory mapping segment size must be positive: " + segmentSize);
+		}
+		this.segmentSize = segmentSize;
+		this.size = fileChannel.size();
+		final int segmentCount = (int)((size + segmentSize - 1) / segmentSize);
+		final MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+		try {
+			for(int i = 0; i < segmentCount; i++) {
+				final long segmentPosition = (long)i * segmentSize;
+				segments[i] = fileChannel.map(FileChannel.MapMode.READ_ONLY, segmentPosition, Math.min(segmentSize, size - segmentPosition));
+			}
+		} catch(final IOException ioException) {
+			unmap(segments);
+			throw ioException;
+		}
+		this.segments = segments;
+	}
+
+	/** @return The number of segments in which the file is mapped. */
+	public int getSegmentCount() {
+		return (int)((size + segmentSize - 1) / segmentSize);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation returns <code>false</code>, as reads are copied directly from the mapping.
+	 */
+	@Override
+	protected boolean isSequentialReadBuffered() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation copies the bytes from the mapped segments without accessing the channel.
+	 * @throws IOException if the stream has been closed and the file unmapped.
+	 */
+	@Override
+	protected int readChannel(final ByteBuffer byteBuffer, final long filePosition) throws IOException {
+		if(filePosition >= size) {
+			return -1;
+		}
+		final long stamp = mappingLock.readLock();
+		try {
+			final MappedByteBuffer[] segments = this.segments;
+			if(segments == null) {
+				throw new IOException(FSExceptionMessages.STREAM_IS_CLOSED + ": " + getNioPath());
+			}
+			int count = 0;
+			long position = filePosition;
+			while(byteBuffer.hasRemaining() && position < size) {
+				final ByteBuffer segment = segments[(int)(position / segmentSize)].duplicate();
+				final int segmentOffset = (int)(position % segmentSize);
+				final int length = Math.min(byteBuffer.remaining(), segment.limit() - segmentOffset);
+				segment.limit(segmentOffset + length);
+				segment.position(segmentOffset);
+				byteBuffer.put(segment);
+				count += length;
+				position += length;
+			}
+			return count;
+		} finally {
+			mappingLock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation unmaps the file after closing the channel, waiting for any reads in progress to finish.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			super.close();
+		} finally {
+			final long stamp = mappingLock.writeLock();
+			try {
+				if(segments != null) {
+					unmap(segments);
+					segments = null;
+				}
+			} finally {
+				mappingLock.unlockWrite(stamp);
+			}
+		}
+	}
+
+	/**
+	 * Unmaps the given segments if unmapping is supported on this platform.
+	 * @param segments The segments to unmap, any of which may be <code>null</code>.
+	 * @throws IOException if an error occurs unmapping a segment.
+	 */
+	private static void unmap(final MappedByteBuffer[] segments) throws IOException {
+		final CleanerUtil.BufferCleaner cleaner = CleanerUtil.getCleaner();
+		if(cleaner == null) {
+			return;
+		}
+		for(final MappedByteBuffer segment : segments) {
+			if(segment != null) {
+				cleaner.freeBuffer(segment);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,537 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.util.Objects.*;
+import static org.apache.hadoop.fs.VectoredReadUtils.*;
+import static org.apache.hadoop.fs.statistics.StreamStatisticNames.*;
+import static org.apache.hadoop.fs.statistics.impl.IOStatisticsBinding.iostatisticsStore;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import javax.annotation.*;
+
+import org.apache.hadoop.fs.*;
+import org.apache.hadoop.fs.impl.CombinedFileRange;
+import org.apache.hadoop.fs.statistics.*;
+import org.apache.hadoop.fs.statistics.impl.IOStatisticsStore;
+
+/**
+ * An input stream reading a local file via a Java NIO {@link FileChannel}.
+ * <p>
+ * Sequential reads are buffered internally, and are serviced directly from the channel without buffering if the caller requests at least a full buffer of
+ * data. Positional reads, including those into a {@link ByteBuffer}, are delegated directly to {@link FileChannel#read(ByteBuffer, long)}, which neither
+ * changes the stream position nor acquires any lock, so that many threads may perform positional reads concurrently on the same stream.
+ * </p>
+ * @apiNote As with other Hadoop input streams, the sequential read methods such as {@link #read(byte[], int, int)} and {@link #seek(long)} are not intended
+ *          to be used concurrently by multiple threads, although they are synchronized for safety. Positional reads such as
+ *          {@link #read(long, byte[], int, int)} are thread safe and are not synchronized.
+ * @implSpec This implementation keeps track of the stream position itself and only ever reads from the channel using positional reads, so the position of
+ *           the channel is never used.
+ * <p>
+ * Vectored reads merge nearby ranges using {@link VectoredReadUtils#mergeSortedRanges(List, int, int, int)}, and read each merged range with a single
+ * positional read, either synchronously or concurrently using an executor if one is provided. The data for each requested range is delivered as a slice of
+ * the buffer of the merged range, and the future of each requested range is completed as soon as its bytes have been read.
+ * </p>
+ * @implNote Unlike the stream returned by {@link RawLocalFileSystem}, I/O errors are propagated as {@link IOException} rather than being wrapped in an
+ *           {@link FSError}. Note that a {@link FileChannel} is closed if a thread is interrupted while reading from it, which will cause subsequent reads
+ *           from all threads to fail.
+ * @author Garret Wilson
+ */
+public class NakedLocalFileInputStream extends FSInputStream
+		implements ByteBufferReadable, ByteBufferPositionedReadable, CanUnbuffer, IOStatisticsSource, StreamCapabilities {
+
+	private final java.nio.file.Path nioPath;
+
+	/** @return The path of the file being read. */
+	public java.nio.file.Path getNioPath() {
+		return nioPath;
+	}
+
+	private final FileChannel fileChannel;
+
+	/** @return The channel from which file contents are read. */
+	protected FileChannel getFileChannel() {
+		return fileChannel;
+	}
+
+	private final int bufferSize;
+
+	/** The executor for reading the merged ranges of vectored reads, or <code>null</code> if vectored reads are to be performed synchronously. */
+	@Nullable
+	private final Executor vectoredReadExecutor;
+
+	private final int minSeekForVectorReads;
+
+	private final int maxReadSizeForVectorReads;
+
+	/** The file system statistics to update, or <code>null</code> if file system statistics are not being recorded. */
+	@Nullable
+	private final FileSystem.Statistics statistics;
+
+	/** Minimal set of counters, mirroring those of the {@link RawLocalFileSystem} input stream. */
+	private final IOStatisticsStore ioStatistics = iostatisticsStore()
+			.withCounters(STREAM_READ_BYTES, STREAM_READ_EXCEPTIONS, STREAM_READ_SEEK_OPERATIONS, STREAM_READ_SKIP_OPERATIONS, STREAM_READ_SKIP_BYTES).build();
+
+	/** Reference to the bytes read counter for slightly faster counting. */
+	private final AtomicLong bytesRead = ioStatistics.getCounterReference(STREAM_READ_BYTES);
+
+	/** The thread-level statistics aggregator to update when the stream is closed. */
+	private final IOStatisticsAggregator ioStatisticsAggregator = IOStatisticsContext.getCurrentIOStatisticsContext().getAggregator();
+
+	/** The current position of the stream for sequential reads. */
+	private long position = 0;
+
+	/** The buffer for sequential reads, allocated lazily; or <code>null</code> if no buffer has been allocated or the stream has been unbuffered. */
+	@Nullable
+	private byte[] buffer = null;
+
+	/** The position in the file of the first byte in the buffer. */
+	private long bufferFilePosition = 0;
+
+	/** The number of valid bytes in the buffer. */
+	private int bufferCount = 0;
+
+	private volatile boolean closed = false;
+
+	/**
+	 * Constructor.
+	 * @param nioPath The path of the file being read.
+	 * @param fileChannel The channel, open for reading, from which to read file contents. The channel will be closed when this stream is closed.
+	 * @param bufferSize The size of the buffer to use for sequential reads.
+	 * @param statistics The file system statistics to update, or <code>null</code> if file system statistics should not be recorded.
+	 * @throws IllegalArgumentException if the buffer size is not positive.
+	 */
+	public NakedLocalFileInputStream(@Nonnull final java.nio.file.Path nioPath, @Nonnull final FileChannel fileChannel, final int bufferSize,
+			@Nullable final FileSystem.Statistics statistics) {
+		this(nioPath, fileChannel, bufferSize, statistics, null, NakedLocalFileSystem.VECTORED_READ_MIN_SEEK_DEFAULT,
+				NakedLocalFileSystem.VECTORED_READ_MAX_MERGED_SIZE_DEFAULT);
+	}
+
+	/**
+	 * Vectored read constructor.
+	 * @param nioPath The path of the file being read.
+	 * @param fileChannel The channel, open for reading, from which to read file contents. The channel will be closed when this stream is closed.
+	 * @param bufferSize The size of the buffer to use for sequential reads.
+	 * @param statistics The file system statistics to update, or <code>null</code> if file system statistics should not be recorded.
+	 * @param vectoredReadExecutor The executor for reading the merged ranges of vectored reads concurrently, or <code>null</code> if vectored reads should be
+	 *          performed synchronously.
+	 * @param minSeekForVectorReads The minimum gap between two ranges of a vectored read below which the ranges will be merged.
+	 * @param maxReadSizeForVectorReads The maximum size of a merged range of a vectored read.
+	 * @throws IllegalArgumentException if the buffer size or maximum merged range size is not positive, or the minimum seek is negative.
+	 */
+	public NakedLocalFileInputStream(@Nonnull final java.nio.file.Path nioPath, @Nonnull final FileChannel fileChannel, final int bufferSize,
+			@Nullable final FileSystem.Statistics statistics, @Nullable final Executor vectoredReadExecutor, final int minSeekForVectorReads,
+			final int maxReadSizeForVectorReads) {
+		if(bufferSize <= 0) {
+			throw new IllegalArgumentException("Input stream buffer size must be positive: " + bufferSize);
+		}
+		if(minSeekForVectorReads < 0) {
+			throw new IllegalArgumentException("Vectored read minimum seek must not be negative: " + minSeekForVectorReads);
+		}
+		if(maxReadSizeForVectorReads <= 0) {
+			throw new IllegalArgumentException("Vectored read maximum merged size must be positive: " + maxReadSizeForVectorReads);
+		}
+		this.nioPath = requireNonNull(nioPath);
+		this.fileChannel = requireNonNull(fileChannel);
+		this.bufferSize = bufferSize;
+		this.statistics = statistics;
+		this.vectoredReadExecutor = vectoredReadExecutor;
+		this.minSeekForVectorReads = minSeekForVectorReads;
+		this.maxReadSizeForVectorReads = maxReadSizeForVectorReads;
+	}
+
+	/**
+	 * Ensures that the stream has not been closed.
+	 * @throws IOException if the stream has been closed.
+	 */
+	protected void checkOpen() throws IOException {
+		if(closed) {
+			throw new IOException(FSExceptionMessages.STREAM_IS_CLOSED + ": " + nioPath);
+		}
+	}
+
+	/**
+	 * Records that bytes were read, updating both the file system statistics and the stream statistics.
+	 * @param count The number of bytes read.
+	 */
+	protected void recordBytesRead(final int count) {
+		if(statistics != null) {
+			statistics.incrementBytesRead(count);
+		}
+		bytesRead.addAndGet(count);
+	}
+
+	/**
+	 * Reads bytes from the channel at the given position, recording any exception in the statistics.
+	 * @param byteBuffer The buffer into which bytes are to be transferred.
+	 * @param filePosition The file position at which the transfer is to begin.
+	 * @return The number of bytes read, possibly zero, or <code>-1</code> if the given position is greater than or equal to the file's current size.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected int readChannel(final ByteBuffer byteBuffer, final long filePosition) throws IOException {
+		try {
+			return fileChannel.read(byteBuffer, filePosition);
+		} catch(final IOException ioException) {
+			ioStatistics.incrementCounter(STREAM_READ_EXCEPTIONS);
+			throw ioException;
+		}
+	}
+
+	/**
+	 * Indicates whether sequential reads of more than a single byte should be buffered. If not, such reads are always serviced directly using
+	 * {@link #readChannel(ByteBuffer, long)}; single-byte reads are always buffered.
+	 * @implSpec The default implementation returns <code>true</code>.
+	 * @return <code>true</code> if sequential reads smaller than the buffer size should be serviced from the buffer.
+	 */
+	protected boolean isSequentialReadBuffered() {
+		return true;
+	}
+
+	/**
+	 * Returns the number of buffered bytes available at the current position, filling the buffer from the current position if needed.
+	 * @return The number of bytes available in the buffer starting at the current position, or <code>-1</code> if the end of the file has been reached.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private int fillBuffer() throws IOException {
+		final long bufferOffset = position - bufferFilePosition;
+		if(bufferOffset >= 0 && bufferOffset < bufferCount) {
+			return bufferCount - (int)bufferOffset;
+		}
+		if(buffer == null) {
+			buffer = new byte[bufferSize];
+		}
+		bufferCount = 0; //invalidate the buffer in case of error
+		final int count = readChannel(ByteBuffer.wrap(buffer), position);
+		if(count <= 0) {
+			return -1;
+		}
+		bufferFilePosition = position;
+		bufferCount = count;
+		return count;
+	}
+
+	@Override
+	public synchronized int read() throws IOException {
+		checkOpen();
+		if(fillBuffer() < 0) {
+			return -1;
+		}
+		final int value = buffer[(int)(position - bufferFilePosition)] & 0xff;
+		position++;
+		recordBytesRead(1);
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If no data is buffered at the current position and at least a full buffer of data is requested, or sequential reads are not buffered, this
+	 *           implementation reads directly into the given array without buffering.
+	 */
+	@Override
+	public synchronized int read(final byte[] bytes, final int offset, final int length) throws IOException {
+		validatePositionedReadArgs(position, bytes, offset, length);
+		checkOpen();
+		if(length == 0) {
+			return 0;
+		}
+		final long bufferOffset = position - bufferFilePosition;
+		final int count;
+		if((length >= bufferSize || !isSequentialReadBuffered()) && !(bufferOffset >= 0 && bufferOffset < bufferCount)) { //bypass the buffer for large reads
+			count = readChannel(ByteBuffer.wrap(bytes, offset, length), position);
+			if(count < 0) {
+				return -1;
+			}
+		} else {
+			final int available = fillBuffer();
+			if(available < 0) {
+				return -1;
+			}
+			count = Math.min(available, length);
+			System.arraycopy(buffer, (int)(position - bufferFilePosition), bytes, offset, count);
+		}
+		position += count;
+		recordBytesRead(count);
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If no data is buffered at the current position and at least a full buffer of data is requested, the byte buffer is direct, or sequential reads
+	 *           are not buffered, this implementation reads directly into the given byte buffer without buffering.
+	 */
+	@Override
+	public synchronized int read(final ByteBuffer byteBuffer) throws IOException {
+		checkOpen();
+		final int length = byteBuffer.remaining();
+		if(length == 0) {
+			return 0;
+		}
+		final long bufferOffset = position - bufferFilePosition;
+		final int count;
+		final boolean bypassBuffer = length >= bufferSize || byteBuffer.isDirect() || !isSequentialReadBuffered();
+		if(bypassBuffer && !(bufferOffset >= 0 && bufferOffset < bufferCount)) {
+			count = readChannel(byteBuffer, position);
+			if(count < 0) {
+				return -1;
+			}
+		} else {
+			final int available = fillBuffer();
+			if(available < 0) {
+				return -1;
+			}
+			count = Math.min(available, length);
+			byteBuffer.put(buffer, (int)(position - bufferFilePosition), count);
+		}
+		position += count;
+		recordBytesRead(count);
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation reads directly from the channel without locking, and does not change the stream position.
+	 */
+	@Override
+	public int read(final long filePosition, final byte[] bytes, final int offset, final int length) throws IOException {
+		validatePositionedReadArgs(filePosition, bytes, offset, length);
+		if(length == 0) {
+			return 0;
+		}
+		return read(filePosition, ByteBuffer.wrap(bytes, offset, length));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation reads directly from the channel without locking, and does not change the stream position.
+	 */
+	@Override
+	public int read(final long filePosition, final ByteBuffer byteBuffer) throws IOException {
+		if(filePosition < 0) {
+			throw new EOFException("position is negative");
+		}
+		checkOpen();
+		if(!byteBuffer.hasRemaining()) {
+			return 0;
+		}
+		final int count = readChannel(byteBuffer, filePosition);
+		if(count > 0) {
+			recordBytesRead(count);
+		}
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation reads directly from the channel without locking, and does not change the stream position.
+	 */
+	@Override
+	public void readFully(final long filePosition, final ByteBuffer byteBuffer) throws IOException {
+		long currentPosition = filePosition;
+		while(byteBuffer.hasRemaining()) {
+			final int count = read(currentPosition, byteBuffer);
+			if(count < 0) {
+				throw new EOFException(FSExceptionMessages.EOF_IN_READ_FULLY);
+			}
+			currentPosition += count;
+		}
+	}
+
+	@Override
+	public int minSeekForVectorReads() {
+		return minSeekForVectorReads;
+	}
+
+	@Override
+	public int maxReadSizeForVectorReads() {
+		return maxReadSizeForVectorReads;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation sorts and validates the ranges, merges nearby ranges, and reads each merged range using a single buffer from the given
+	 *           allocation function, from which the buffer of each requested range is sliced. Merged ranges are read concurrently using the vectored read
+	 *           executor if one was provided, and otherwise are read before this method returns. The stream position is not changed.
+	 * @throws UnsupportedOperationException if any of the ranges overlap.
+	 */
+	@Override
+	public void readVectored(final List<? extends FileRange> ranges, final IntFunction<ByteBuffer> allocate) throws IOException {
+		checkOpen();
+		final List<? extends FileRange> sortedRanges = validateNonOverlappingAndReturnSortedRanges(ranges);
+		for(final FileRange range : sortedRanges) {
+			validateRangeRequest(range);
+			range.setData(new CompletableFuture<>());
+		}
+		for(final CombinedFileRange combinedRange : mergeSortedRanges(sortedRanges, 1, minSeekForVectorReads, maxReadSizeForVectorReads)) {
+			if(vectoredReadExecutor != null) {
+				try {
+					vectoredReadExecutor.execute(() -> readCombinedRange(combinedRange, allocate));
+				} catch(final RejectedExecutionException rejectedExecutionException) {
+					combinedRange.getUnderlying().forEach(range -> range.getData().completeExceptionally(rejectedExecutionException));
+				}
+			} else {
+				readCombinedRange(combinedRange, allocate);
+			}
+		}
+	}
+
+	/**
+	 * Reads a merged range of a vectored read, completing the future of each underlying range as soon as its data has been read. If an error occurs, the
+	 * futures of all ranges not yet completed are completed exceptionally.
+	 * @param combinedRange The merged range to read.
+	 * @param allocate The function for allocating the buffer for the merged range.
+	 */
+	private void readCombinedRange(final CombinedFileRange combinedRange, final IntFunction<ByteBuffer> allocate) {
+		final List<FileRange> ranges = combinedRange.getUnderlying();
+		int completedCount = 0;
+		try {
+			final long offset = combinedRange.getOffset();
+			final ByteBuffer buffer = allocate.apply(combinedRange.getLength());
+			final int bufferStart = buffer.position();
+			buffer.limit(bufferStart + combinedRange.getLength());
+			while(completedCount < ranges.size()) {
+				if(read(offset + buffer.position() - bufferStart, buffer) < 0) {
+					throw new EOFException(FSExceptionMessages.EOF_IN_READ_FULLY);
+				}
+				final long readEnd = offset + buffer.position() - bufferStart;
+				for(; completedCount < ranges.size(); completedCount++) { //complete all ranges that have been read
+					final FileRange range = ranges.get(completedCount);
+					if(range.getOffset() + range.getLength() > readEnd) {
+						break;
+					}
+					final ByteBuffer readData = buffer.duplicate();
+					readData.position(bufferStart);
+					ranges.get(completedCount).getData().complete(sliceTo(readData.slice(), offset, range));
+				}
+			}
+		} catch(final IOException | RuntimeException exception) {
+			for(int i = completedCount; i < ranges.size(); i++) {
+				ranges.get(i).getData().completeExceptionally(exception);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void seek(final long newPosition) throws IOException {
+		if(newPosition < 0) {
+			throw new EOFException(FSExceptionMessages.NEGATIVE_SEEK);
+		}
+		checkOpen();
+		ioStatistics.incrementCounter(STREAM_READ_SEEK_OPERATIONS);
+		position = newPosition;
+	}
+
+	@Override
+	public synchronized long getPos() throws IOException {
+		return position;
+	}
+
+	@Override
+	public boolean seekToNewSource(final long targetPosition) throws IOException {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation skips no further than the end of the file.
+	 */
+	@Override
+	public synchronized long skip(final long count) throws IOException {
+		checkOpen();
+		ioStatistics.incrementCounter(STREAM_READ_SKIP_OPERATIONS);
+		if(count <= 0) {
+			return 0;
+		}
+		final long skipped = Math.min(count, Math.max(0, fileChannel.size() - position));
+		position += skipped;
+		ioStatistics.incrementCounter(STREAM_READ_SKIP_BYTES, skipped);
+		return skipped;
+	}
+
+	@Override
+	public synchronized int available() throws IOException {
+		checkOpen();
+		return (int)Math.min(Integer.MAX_VALUE, Math.max(0, fileChannel.size() - position));
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation releases the buffer used for sequential reads; a new buffer will be allocated if needed.
+	 */
+	@Override
+	public synchronized void unbuffer() {
+		buffer = null;
+		bufferCount = 0;
+	}
+
+	@Override
+	public boolean hasCapability(final String capability) {
+		switch(capability.toLowerCase(Locale.ENGLISH)) {
+			case StreamCapabilities.IOSTATISTICS:
+			case StreamCapabilities.IOSTATISTICS_CONTEXT:
+			case StreamCapabilities.READBYTEBUFFER:
+			case StreamCapabilities.PREADBYTEBUFFER:
+			case StreamCapabilities.UNBUFFER:
+			case StreamCapabilities.VECTOREDIO:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	@Override
+	public IOStatistics getIOStatistics() {
+		return ioStatistics;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation closes the underlying channel and aggregates the stream statistics into the current thread's statistics context. Closing
+	 *           a stream more than once has no effect.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if(closed) {
+			return;
+		}
+		closed = true;
+		buffer = null;
+		bufferCount = 0;
+		try {
+			fileChannel.close();
+		} finally {
+			ioStatisticsAggregator.aggregate(ioStatistics);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + ": " + nioPath;
+	}
+
+}
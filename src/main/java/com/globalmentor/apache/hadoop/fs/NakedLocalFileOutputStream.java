@@ -0,0 +1,310 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.util.Objects.*;
+import static org.apache.hadoop.fs.statistics.StreamStatisticNames.*;
+import static org.apache.hadoop.fs.statistics.impl.IOStatisticsBinding.iostatisticsStore;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+
+import javax.annotation.*;
+
+import org.apache.hadoop.fs.*;
+import org.apache.hadoop.fs.impl.StoreImplementationUtils;
+import org.apache.hadoop.fs.statistics.*;
+import org.apache.hadoop.fs.statistics.impl.IOStatisticsStore;
+
+/**
+ * An output stream writing a local file via a Java NIO {@link FileChannel}.
+ * <p>
+ * Written bytes are accumulated in an internal buffer, which is written to the channel when full. If a write is at least as large as the buffer, the buffered
+ * bytes and the written bytes are written together to the channel using a single gathering write, without copying the written bytes into the buffer.
+ * </p>
+ * <p>
+ * This stream implements {@link Syncable}: {@link #hflush()} writes any buffered bytes to the operating system, making them visible to other readers of the
+ * file, while {@link #hsync()} additionally forces the file contents to the storage device using {@link FileChannel#force(boolean)}, without necessarily
+ * forcing the file metadata.
+ * </p>
+ * @implNote Unlike the stream returned by {@link RawLocalFileSystem}, I/O errors are propagated as {@link IOException} rather than being wrapped in an
+ *           {@link FSError}.
+ * @author Garret Wilson
+ */
+public class NakedLocalFileOutputStream extends OutputStream implements IOStatisticsSource, StreamCapabilities, Syncable {
+
+	/** The granularity to which buffer sizes are rounded up, so that full buffers are written in whole pages. */
+	private static final int BUFFER_SIZE_ALIGNMENT = 4096;
+
+	private final java.nio.file.Path nioPath;
+
+	/** @return The path of the file being written. */
+	public java.nio.file.Path getNioPath() {
+		return nioPath;
+	}
+
+	private final FileChannel fileChannel;
+
+	/** @return The channel to which file contents are written. */
+	protected FileChannel getFileChannel() {
+		return fileChannel;
+	}
+
+	/** The file system statistics to update, or <code>null</code> if file system statistics are not being recorded. */
+	@Nullable
+	private final FileSystem.Statistics statistics;
+
+	/** The action to perform after the file is modified, such as invalidating a cached status, or <code>null</code> if there is no such action. */
+	@Nullable
+	private final Runnable modificationListener;
+
+	/** Minimal set of counters, mirroring those of the {@link RawLocalFileSystem} output stream. */
+	private final IOStatisticsStore ioStatistics = iostatisticsStore().withCounters(STREAM_WRITE_BYTES, STREAM_WRITE_EXCEPTIONS).build();
+
+	/** The thread-level statistics aggregator to update when the stream is closed. */
+	private final IOStatisticsAggregator ioStatisticsAggregator = IOStatisticsContext.getCurrentIOStatisticsContext().getAggregator();
+
+	private final int bufferSize;
+
+	/** @return The size of the buffer used for writing, rounded up to a multiple of 4 KiB. */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/** The buffer accumulating bytes to write, or <code>null</code> if the stream has been closed. */
+	@Nullable
+	private ByteBuffer buffer;
+
+	/**
+	 * Constructor.
+	 * @implSpec The buffer size is rounded up to a multiple of 4 KiB.
+	 * @param nioPath The path of the file being written.
+	 * @param fileChannel The channel, open for writing, to which to write file contents. The channel will be closed when this stream is closed.
+	 * @param bufferSize The size of the buffer to use for writing.
+	 * @param statistics The file system statistics to update, or <code>null</code> if file system statistics should not be recorded.
+	 * @throws IllegalArgumentException if the buffer size is not positive.
+	 */
+	public NakedLocalFileOutputStream(@Nonnull final java.nio.file.Path nioPath, @Nonnull final FileChannel fileChannel, final int bufferSize,
+			@Nullable final FileSystem.Statistics statistics) {
+		this(nioPath, fileChannel, bufferSize, statistics, null);
+	}
+
+	/**
+	 * Modification listener constructor.
+	 * @implSpec The buffer size is rounded up to a multiple of 4 KiB.
+	 * @param nioPath The path of the file being written.
+	 * @param fileChannel The channel, open for writing, to which to write file contents. The channel will be closed when this stream is closed.
+	 * @param bufferSize The size of the buffer to use for writing.
+	 * @param statistics The file system statistics to update, or <code>null</code> if file system statistics should not be recorded.
+	 * @param modificationListener The action to perform each time bytes are written to the channel and when the stream is closed, such as invalidating a
+	 *          cached status of the file, or <code>null</code> if there is no such action.
+	 * @throws IllegalArgumentException if the buffer size is not positive.
+	 */
+	public NakedLocalFileOutputStream(@Nonnull final java.nio.file.Path nioPath, @Nonnull final FileChannel fileChannel, final int bufferSize,
+			@Nullable final FileSystem.Statistics statistics, @Nullable final Runnable modificationListener) {
+		if(bufferSize <= 0) {
+			throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+		}
+		this.nioPath = requireNonNull(nioPath);
+		this.fileChannel = requireNonNull(fileChannel);
+		this.statistics = statistics;
+		this.modificationListener = modificationListener;
+		final long alignedBufferSize = (bufferSize + (long)BUFFER_SIZE_ALIGNMENT - 1) / BUFFER_SIZE_ALIGNMENT * BUFFER_SIZE_ALIGNMENT;
+		this.bufferSize = (int)Math.min(alignedBufferSize, Integer.MAX_VALUE - BUFFER_SIZE_ALIGNMENT + 1);
+		this.buffer = ByteBuffer.allocate(this.bufferSize);
+	}
+
+	/**
+	 * Returns the buffer, ensuring that the stream is open.
+	 * @return The buffer accumulating bytes to write.
+	 * @throws IOException if the stream has been closed.
+	 */
+	private ByteBuffer getBuffer() throws IOException {
+		final ByteBuffer buffer = this.buffer;
+		if(buffer == null) {
+			throw new IOException(FSExceptionMessages.STREAM_IS_CLOSED + ": " + nioPath);
+		}
+		return buffer;
+	}
+
+	@Override
+	public synchronized void write(final int b) throws IOException {
+		final ByteBuffer buffer = getBuffer();
+		if(!buffer.hasRemaining()) {
+			writeBuffer(buffer);
+		}
+		buffer.put((byte)b);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If the bytes fit in the remaining space of the buffer, they are simply copied to the buffer. If the bytes are at least as long as the buffer,
+	 *           any buffered bytes are written together with the given bytes using a single gathering write. Otherwise the buffered bytes are first written
+	 *           and the given bytes are copied to the empty buffer.
+	 */
+	@Override
+	public synchronized void write(final byte[] bytes, final int offset, final int length) throws IOException {
+		if(offset < 0 || length < 0 || length > bytes.length - offset) {
+			throw new IndexOutOfBoundsException();
+		}
+		final ByteBuffer buffer = getBuffer();
+		if(length <= buffer.remaining()) {
+			buffer.put(bytes, offset, length);
+		} else if(length >= buffer.capacity()) {
+			buffer.flip();
+			writeChannel(new ByteBuffer[] {buffer, ByteBuffer.wrap(bytes, offset, length)});
+			buffer.clear();
+		} else {
+			writeBuffer(buffer);
+			buffer.put(bytes, offset, length);
+		}
+	}
+
+	/**
+	 * Writes the contents of the buffer to the channel, if there are any, and clears the buffer.
+	 * @param buffer The buffer to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeBuffer(final ByteBuffer buffer) throws IOException {
+		if(buffer.position() > 0) {
+			buffer.flip();
+			writeChannel(new ByteBuffer[] {buffer});
+			buffer.clear();
+		}
+	}
+
+	/** Notifies any modification listener that the file has been modified. */
+	private void fireModified() {
+		if(modificationListener != null) {
+			modificationListener.run();
+		}
+	}
+
+	/**
+	 * Writes all the remaining bytes of the given buffers to the channel, recording the bytes written and any exception in the statistics, and notifies any
+	 * modification listener.
+	 * @param byteBuffers The buffers containing the bytes to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected void writeChannel(final ByteBuffer[] byteBuffers) throws IOException {
+		final ByteBuffer lastByteBuffer = byteBuffers[byteBuffers.length - 1];
+		long count = 0;
+		try {
+			do {
+				count += fileChannel.write(byteBuffers);
+			} while(lastByteBuffer.hasRemaining());
+		} catch(final IOException ioException) {
+			ioStatistics.incrementCounter(STREAM_WRITE_EXCEPTIONS);
+			throw ioException;
+		} finally {
+			if(statistics != null) {
+				statistics.incrementBytesWritten(count);
+			}
+			ioStatistics.incrementCounter(STREAM_WRITE_BYTES, count);
+			fireModified(); //even a failed write may have modified the file
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation writes any buffered bytes to the channel.
+	 */
+	@Override
+	public synchronized void flush() throws IOException {
+		writeBuffer(getBuffer());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #flush()}.
+	 */
+	@Override
+	public void hflush() throws IOException {
+		flush();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation calls {@link #flush()} and then forces the file contents to the storage device using {@link FileChannel#force(boolean)},
+	 *           without forcing file metadata that is not needed to retrieve the file contents.
+	 */
+	@Override
+	public synchronized void hsync() throws IOException {
+		flush();
+		fileChannel.force(false);
+	}
+
+	@Override
+	public boolean hasCapability(final String capability) {
+		switch(capability.toLowerCase(Locale.ENGLISH)) {
+			case StreamCapabilities.IOSTATISTICS:
+			case StreamCapabilities.IOSTATISTICS_CONTEXT:
+				return true;
+			default:
+				return StoreImplementationUtils.isProbeForSyncable(capability); //hflush and hsync
+		}
+	}
+
+	@Override
+	public IOStatistics getIOStatistics() {
+		return ioStatistics;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation writes any buffered bytes, closes the underlying channel, notifies any modification listener, and aggregates the stream
+	 *           statistics into the current thread's statistics context. Closing a stream more than once has no effect.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		final ByteBuffer buffer = this.buffer;
+		if(buffer == null) {
+			return;
+		}
+		IOException exception = null;
+		try {
+			writeBuffer(buffer);
+		} catch(final IOException ioException) {
+			exception = ioException;
+		} finally {
+			this.buffer = null;
+			//close the channel even if writing fails, reporting the first failure
+			try {
+				fileChannel.close();
+			} catch(final IOException ioException) {
+				if(exception == null) {
+					exception = ioException;
+				} else {
+					exception.addSuppressed(ioException);
+				}
+			}
+			fireModified();
+			ioStatisticsAggregator.aggregate(ioStatistics);
+		}
+		if(exception != null) {
+			throw exception;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + ": " + nioPath;
+	}
+
+}
@@ -18,27 +18,55 @@
 
 import static java.lang.String.format;
 import static java.util.Objects.*;
+import static java.util.stream.Collectors.*;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Paths;
+import java.nio.file.SecureDirectoryStream;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.Checksum;
 
 import javax.annotation.*;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.*;
+import org.apache.hadoop.fs.impl.*;
 import org.apache.hadoop.fs.permission.*;
+import org.apache.hadoop.util.CrcUtil;
+import org.apache.hadoop.util.DataChecksum;
+import org.apache.hadoop.util.Progressable;
+import org.apache.hadoop.util.functional.RemoteIterators;
 
 /**
  * Implementation of the Hadoop {@link FileSystem} API for local file system access directly via the Java API.
  * @apiNote The name of this class is a lighthearted reference to the {@link RawLocalFileSystem} it extends, a play on the Portuguese expression, "a verdade,
  *          nua e crua" ("the raw, naked truth").
- * @implSpec This implementation does not support reading or setting the <a href="https://en.wikipedia.org/wiki/Sticky_bit">sticky bit</a>. This implementation
+ * @implSpec This implementation only supports reading or setting the <a href="https://en.wikipedia.org/wiki/Sticky_bit">sticky bit</a> on platforms providing the
+ *           Java NIO <code>unix</code> file attribute view. This implementation
  *           does not yet support symbolic links, but is expected to in the future.
  * @implNote This class along with {@link BareLocalFileSystem} mirror and extend the {@link LocalFileSystem}/{@link RawLocalFileSystem} classes, overriding any
  *           shell access and instead directly accessing the Java NIO file system API.
@@ -49,171 +77,2988 @@ public class NakedLocalFileSystem extends RawLocalFileSystem {
 	/** Internal flag indicating whether the file system is running on the Windows operating system. */
 	protected static final boolean IS_WINDOWS_OS = Optional.ofNullable(System.getProperty("os.name")).filter(osName -> osName.startsWith("Windows")).isPresent();
 
+	/**
+	 * The configuration key for the maximum number of threads to use for operations that can be performed in parallel, such as listing large directories. A
+	 * value of <code>1</code> or less disables parallel operations.
+	 */
+	public static final String PARALLELISM_KEY = "fs.naked.local.parallelism";
+
+	/** The default parallelism, which disables parallel operations. */
+	public static final int PARALLELISM_DEFAULT = 1;
+
+	/** The configuration key for the minimum number of directory entries for which listing statuses will be performed in parallel if parallelism is enabled. */
+	public static final String LIST_STATUS_PARALLEL_THRESHOLD_KEY = "fs.naked.local.list-status.parallel.threshold";
+
+	/** The default minimum number of directory entries for listing statuses in parallel. */
+	public static final int LIST_STATUS_PARALLEL_THRESHOLD_DEFAULT = 1000;
+
+	/**
+	 * The configuration key for the maximum number of file statuses discovered by a parallel recursive listing that may be waiting to be retrieved by the
+	 * caller before the walk of the file tree pauses.
+	 */
+	public static final String LIST_FILES_QUEUE_CAPACITY_KEY = "fs.naked.local.list-files.queue.capacity";
+
+	/** The default capacity of the queue of file statuses discovered by a parallel recursive listing. */
+	public static final int LIST_FILES_QUEUE_CAPACITY_DEFAULT = 1024;
+
+	/**
+	 * The configuration key for how long the walk of a parallel recursive listing will wait for the caller to retrieve file statuses from a full queue before
+	 * abandoning the walk, in milliseconds unless a time unit suffix such as <code>s</code> is given.
+	 */
+	public static final String LIST_FILES_ABANDON_TIMEOUT_KEY = "fs.naked.local.list-files.abandon-timeout";
+
+	/** The default time a parallel recursive listing will wait for the caller to retrieve file statuses before abandoning the walk, in milliseconds. */
+	public static final long LIST_FILES_ABANDON_TIMEOUT_DEFAULT = 60_000;
+
+	/** The configuration key for the maximum number of file statuses to cache. A value of <code>0</code> or less (the default) disables caching. */
+	public static final String FILE_STATUS_CACHE_SIZE_KEY = "fs.naked.local.file-status-cache.size";
+
+	/** The default maximum number of file statuses to cache, which disables caching. */
+	public static final int FILE_STATUS_CACHE_SIZE_DEFAULT = 0;
+
+	/** The configuration key for the time to live of cached file statuses, in milliseconds unless a time unit suffix such as <code>s</code> is given. */
+	public static final String FILE_STATUS_CACHE_TTL_KEY = "fs.naked.local.file-status-cache.ttl";
+
+	/** The default time to live of cached file statuses, in milliseconds. */
+	public static final long FILE_STATUS_CACHE_TTL_DEFAULT = 1000;
+
+	/**
+	 * The configuration key for the minimum gap between two ranges of a vectored read, in bytes unless a size suffix such as <code>k</code> is given, below
+	 * which the ranges will be merged and read together.
+	 */
+	public static final String VECTORED_READ_MIN_SEEK_KEY = "fs.naked.local.vectored-read.min-seek";
+
+	/** The default minimum gap between ranges of a vectored read to avoid merging, in bytes. */
+	public static final int VECTORED_READ_MIN_SEEK_DEFAULT = 4 * 1024;
+
+	/**
+	 * The configuration key for the maximum size of a merged range of a vectored read, in bytes unless a size suffix such as <code>m</code> is given. Ranges
+	 * will not be merged if doing so would produce a larger range.
+	 */
+	public static final String VECTORED_READ_MAX_MERGED_SIZE_KEY = "fs.naked.local.vectored-read.max-merged-size";
+
+	/** The default maximum size of a merged range of a vectored read, in bytes. */
+	public static final int VECTORED_READ_MAX_MERGED_SIZE_DEFAULT = 1024 * 1024;
+
+	/**
+	 * The configuration key for the number of threads dedicated to reading the ranges of vectored reads concurrently. A value of <code>0</code> or less causes
+	 * vectored reads to be performed synchronously by the calling thread.
+	 */
+	public static final String VECTORED_READ_THREADS_KEY = "fs.naked.local.vectored-read.threads";
+
+	/** The default number of threads for reading the ranges of vectored reads. */
+	public static final int VECTORED_READ_THREADS_DEFAULT = 4;
+
+	/**
+	 * The configuration key for the minimum size of a file, in bytes unless a size suffix such as <code>m</code> is given, for which files opened for reading
+	 * will be memory-mapped. A value of <code>0</code> or less (the default) disables memory mapping.
+	 * @apiNote Memory mapping is only appropriate for files that are not modified while being read, such as the files of a data lake.
+	 */
+	public static final String MMAP_THRESHOLD_KEY = "fs.naked.local.mmap.threshold";
+
+	/** The default minimum size of a file to memory-map, which disables memory mapping. */
+	public static final long MMAP_THRESHOLD_DEFAULT = 0;
+
+	/**
+	 * The configuration key for the maximum size of each memory-mapped segment of a file, in bytes unless a size suffix such as <code>m</code> is given. The
+	 * value may not exceed {@link Integer#MAX_VALUE}.
+	 */
+	public static final String MMAP_SEGMENT_SIZE_KEY = "fs.naked.local.mmap.segment-size";
+
+	/** The default maximum size of each memory-mapped segment of a file, in bytes. */
+	public static final int MMAP_SEGMENT_SIZE_DEFAULT = 1024 * 1024 * 1024;
+
+	/**
+	 * The configuration key for the minimum size of the buffer of a stream for writing a file, in bytes unless a size suffix such as <code>m</code> is given.
+	 * A larger buffer size requested when creating a file will be honored.
+	 */
+	public static final String WRITE_BUFFER_SIZE_KEY = "fs.naked.local.write.buffer-size";
+
+	/** The default minimum size of the buffer for writing a file, in bytes. */
+	public static final int WRITE_BUFFER_SIZE_DEFAULT = 64 * 1024;
+
+	/**
+	 * The boolean option for {@link #createFile(Path)} and {@link #openFile(Path)} for writing or reading a file using direct I/O, bypassing the operating
+	 * system page cache, if supported by the Java runtime and the file store. The option may be specified using either <code>opt()</code> or
+	 * <code>must()</code>; if direct I/O is not supported, buffered I/O is used in either case.
+	 * @apiNote Direct I/O is appropriate for large sequential writes and scans of data that will not soon be read again, so that they do not evict frequently
+	 *          used data from the page cache.
+	 * @see #isDirectIoSupported()
+	 */
+	public static final String DIRECT_IO_OPTION = "fs.naked.local.direct-io";
+
+	/**
+	 * The configuration key for the size of the aligned buffers used for direct I/O, in bytes unless a size suffix such as <code>m</code> is given. The size
+	 * will be rounded up to a multiple of the file store block size.
+	 */
+	public static final String DIRECT_IO_BUFFER_SIZE_KEY = "fs.naked.local.direct-io.buffer-size";
+
+	/** The default size of the aligned buffers used for direct I/O, in bytes. */
+	public static final int DIRECT_IO_BUFFER_SIZE_DEFAULT = 1024 * 1024;
+
+	/**
+	 * The configuration key for the type of CRC, either <code>CRC32C</code> or <code>CRC32</code>, of the composite CRC file checksums returned by
+	 * {@link #getFileChecksum(Path, long)}.
+	 */
+	public static final String FILE_CHECKSUM_TYPE_KEY = "fs.naked.local.file-checksum.type";
+
+	/** The default type of CRC of file checksums, which is the default of HDFS. */
+	public static final DataChecksum.Type FILE_CHECKSUM_TYPE_DEFAULT = DataChecksum.Type.CRC32C;
+
+	/**
+	 * The configuration key for whether file checksums should be cached in a user-defined attribute of each file, along with the size and modification time of
+	 * the file for which the checksum is valid.
+	 * @apiNote Caching is opt-in, as it writes an attribute to each file whose checksum is requested, which changes the file metadata (e.g. the change time) and
+	 *          fails silently on read-only files and file stores not supporting user-defined attributes.
+	 * @see #FILE_CHECKSUM_ATTRIBUTE_NAME
+	 */
+	public static final String FILE_CHECKSUM_CACHE_KEY = "fs.naked.local.file-checksum.cache";
+
+	/** The default for caching file checksums, which is disabled. */
+	public static final boolean FILE_CHECKSUM_CACHE_DEFAULT = false;
+
+	/**
+	 * The name of the user-defined attribute in which a file checksum is cached, which on Linux is the extended attribute <code>user.hadoop.composite-crc</code>.
+	 * @see UserDefinedFileAttributeView
+	 */
+	public static final String FILE_CHECKSUM_ATTRIBUTE_NAME = "hadoop.composite-crc";
+
+	/** The length of a cached file checksum attribute: the file size, the file modification time in nanoseconds, the CRC type, and the CRC. */
+	private static final int FILE_CHECKSUM_ATTRIBUTE_LENGTH = Long.BYTES + Long.BYTES + Byte.BYTES + Integer.BYTES;
+
+	/**
+	 * The minimum time since a file was last modified for its checksum to be cached. A modification within the granularity of file timestamps might not change
+	 * the modification time, so the checksums of recently modified files are not cached.
+	 */
+	private static final long FILE_CHECKSUM_CACHE_MIN_AGE_MILLIS = 1000;
+
+	/** The size of the buffer used by each thread for reading a file to compute its checksum. */
+	private static final int FILE_CHECKSUM_BUFFER_SIZE = 256 * 1024;
+
+	/** The direct buffer of each thread for reading a file to compute its checksum, reused across blocks and files. */
+	private static final ThreadLocal<ByteBuffer> FILE_CHECKSUM_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(FILE_CHECKSUM_BUFFER_SIZE));
+
+	/** The maximum number of released direct I/O buffers of each alignment to retain for reuse. */
+	private static final int DIRECT_IO_BUFFER_POOL_MAX_SIZE = 16;
+
 	private long defaultBlockSize;
 
-	/** @return The default block size for this file system. */
-	protected long getFileSystemDefaultBlockSize() {
-		return defaultBlockSize;
+	/** @return The default block size for this file system. */
+	protected long getFileSystemDefaultBlockSize() {
+		return defaultBlockSize;
+	}
+
+	private int parallelism = PARALLELISM_DEFAULT;
+
+	/**
+	 * Returns the maximum number of threads to use for operations that can be performed in parallel.
+	 * @return The configured parallelism; a value of <code>1</code> or less indicates that operations will not be performed in parallel.
+	 * @see #PARALLELISM_KEY
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	private int listStatusParallelThreshold = LIST_STATUS_PARALLEL_THRESHOLD_DEFAULT;
+
+	/**
+	 * Returns the minimum number of directory entries for which listing statuses will be performed in parallel.
+	 * @return The parallel listing threshold.
+	 * @see #LIST_STATUS_PARALLEL_THRESHOLD_KEY
+	 */
+	public int getListStatusParallelThreshold() {
+		return listStatusParallelThreshold;
+	}
+
+	private int listFilesQueueCapacity = LIST_FILES_QUEUE_CAPACITY_DEFAULT;
+
+	/**
+	 * Returns the maximum number of file statuses discovered by a parallel recursive listing that may be waiting to be retrieved.
+	 * @return The capacity of the parallel listing queue.
+	 * @see #LIST_FILES_QUEUE_CAPACITY_KEY
+	 */
+	public int getListFilesQueueCapacity() {
+		return listFilesQueueCapacity;
+	}
+
+	private long listFilesAbandonTimeout = LIST_FILES_ABANDON_TIMEOUT_DEFAULT;
+
+	/**
+	 * Returns how long the walk of a parallel recursive listing will wait for the caller to retrieve file statuses before abandoning the walk.
+	 * @return The parallel listing abandon timeout, in milliseconds.
+	 * @see #LIST_FILES_ABANDON_TIMEOUT_KEY
+	 */
+	public long getListFilesAbandonTimeout() {
+		return listFilesAbandonTimeout;
+	}
+
+	private int vectoredReadMinSeek = VECTORED_READ_MIN_SEEK_DEFAULT;
+
+	/**
+	 * Returns the minimum gap between two ranges of a vectored read below which the ranges will be merged.
+	 * @return The minimum seek for vectored reads, in bytes.
+	 * @see #VECTORED_READ_MIN_SEEK_KEY
+	 */
+	public int getVectoredReadMinSeek() {
+		return vectoredReadMinSeek;
+	}
+
+	private int vectoredReadMaxMergedSize = VECTORED_READ_MAX_MERGED_SIZE_DEFAULT;
+
+	/**
+	 * Returns the maximum size of a merged range of a vectored read.
+	 * @return The maximum merged range size for vectored reads, in bytes.
+	 * @see #VECTORED_READ_MAX_MERGED_SIZE_KEY
+	 */
+	public int getVectoredReadMaxMergedSize() {
+		return vectoredReadMaxMergedSize;
+	}
+
+	private int vectoredReadThreads = VECTORED_READ_THREADS_DEFAULT;
+
+	/**
+	 * Returns the number of threads dedicated to reading the ranges of vectored reads.
+	 * @return The number of vectored read threads; a value of <code>0</code> or less indicates that vectored reads are performed synchronously.
+	 * @see #VECTORED_READ_THREADS_KEY
+	 */
+	public int getVectoredReadThreads() {
+		return vectoredReadThreads;
+	}
+
+	private long mmapThreshold = MMAP_THRESHOLD_DEFAULT;
+
+	/**
+	 * Returns the minimum size of a file for which files opened for reading will be memory-mapped.
+	 * @return The memory mapping threshold, in bytes; a value of <code>0</code> or less indicates that files will not be memory-mapped.
+	 * @see #MMAP_THRESHOLD_KEY
+	 */
+	public long getMmapThreshold() {
+		return mmapThreshold;
+	}
+
+	private int mmapSegmentSize = MMAP_SEGMENT_SIZE_DEFAULT;
+
+	/**
+	 * Returns the maximum size of each memory-mapped segment of a file.
+	 * @return The memory mapping segment size, in bytes.
+	 * @see #MMAP_SEGMENT_SIZE_KEY
+	 */
+	public int getMmapSegmentSize() {
+		return mmapSegmentSize;
+	}
+
+	private int writeBufferSize = WRITE_BUFFER_SIZE_DEFAULT;
+
+	/**
+	 * Returns the minimum size of the buffer for writing a file.
+	 * @return The minimum write buffer size, in bytes.
+	 * @see #WRITE_BUFFER_SIZE_KEY
+	 */
+	public int getWriteBufferSize() {
+		return writeBufferSize;
+	}
+
+	private int directIoBufferSize = DIRECT_IO_BUFFER_SIZE_DEFAULT;
+
+	/**
+	 * Returns the size of the aligned buffers used for direct I/O.
+	 * @return The direct I/O buffer size, in bytes, before being rounded up to a multiple of the block size.
+	 * @see #DIRECT_IO_BUFFER_SIZE_KEY
+	 */
+	public int getDirectIoBufferSize() {
+		return directIoBufferSize;
+	}
+
+	private DataChecksum.Type fileChecksumType = FILE_CHECKSUM_TYPE_DEFAULT;
+
+	/**
+	 * Returns the type of CRC of file checksums.
+	 * @return The type of CRC, either {@link DataChecksum.Type#CRC32C} or {@link DataChecksum.Type#CRC32}.
+	 * @see #FILE_CHECKSUM_TYPE_KEY
+	 */
+	public DataChecksum.Type getFileChecksumType() {
+		return fileChecksumType;
+	}
+
+	private boolean fileChecksumCacheEnabled = FILE_CHECKSUM_CACHE_DEFAULT;
+
+	/**
+	 * Indicates whether file checksums are cached in file attributes.
+	 * @return <code>true</code> if file checksums are cached.
+	 * @see #FILE_CHECKSUM_CACHE_KEY
+	 */
+	public boolean isFileChecksumCacheEnabled() {
+		return fileChecksumCacheEnabled;
+	}
+
+	/** The number of bytes per CRC reported with file checksums, as the local equivalent of the HDFS bytes per checksum. */
+	private int fileChecksumBytesPerCrc = LocalFileSystemConfigKeys.LOCAL_FS_BYTES_PER_CHECKSUM_DEFAULT;
+
+	/** The pools of aligned buffers for direct I/O, keyed to their alignment. */
+	private final Map<Integer, AlignedBufferPool> directIoBufferPools = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the pool of aligned buffers for direct I/O with the file store containing the given path.
+	 * @param nioPath An existing file or directory.
+	 * @return The pool of buffers aligned to the block size of the file store.
+	 * @throws IOException if an I/O error occurs determining the block size.
+	 */
+	private AlignedBufferPool getDirectIoBufferPool(final java.nio.file.Path nioPath) throws IOException {
+		final int alignment = DirectIo.getBlockSize(nioPath);
+		return directIoBufferPools.computeIfAbsent(alignment, __ -> new AlignedBufferPool(directIoBufferSize, alignment, DIRECT_IO_BUFFER_POOL_MAX_SIZE));
+	}
+
+	/**
+	 * Indicates whether the Java runtime supports direct I/O. Even if supported by the runtime, direct I/O may not be supported by the file store of a
+	 * particular file, in which case buffered I/O will be used.
+	 * @return <code>true</code> if direct I/O is supported; this requires Java 10 or later.
+	 * @see #DIRECT_IO_OPTION
+	 */
+	public static boolean isDirectIoSupported() {
+		return DirectIo.isSupported();
+	}
+
+	/** Whether direct I/O is supported by each file store probed so far. */
+	private final Map<FileStore, Boolean> directIoSupportByFileStore = new ConcurrentHashMap<>();
+
+	/**
+	 * Indicates whether direct I/O is supported for creating files in the given directory. The file store of the directory is probed the first time it is
+	 * encountered, and the result is cached for the file store.
+	 * @implSpec This implementation probes the file store by creating a temporary file in the directory, opening it for writing using direct I/O, and then
+	 *           deleting it. As the probe file was created, any failure opening it for direct I/O is attributed to the file store not supporting direct I/O. If
+	 *           the probe file cannot be created, the resulting error is propagated and nothing is cached.
+	 * @param directoryNioPath An existing directory in which files are to be created.
+	 * @return <code>true</code> if direct I/O is supported by the runtime and by the file store of the directory.
+	 * @throws IOException if an I/O error occurs determining the file store or creating the probe file.
+	 * @see #isDirectIoSupported()
+	 */
+	protected boolean isDirectIoSupported(final java.nio.file.Path directoryNioPath) throws IOException {
+		if(!isDirectIoSupported()) {
+			return false;
+		}
+		final FileStore fileStore = Files.getFileStore(directoryNioPath);
+		final Boolean cachedSupported = directIoSupportByFileStore.get(fileStore);
+		if(cachedSupported != null) {
+			return cachedSupported.booleanValue();
+		}
+		final java.nio.file.Path probeNioPath = Files.createTempFile(directoryNioPath, ".direct-io-probe-", ".tmp");
+		boolean supported;
+		try {
+			try {
+				FileChannel.open(probeNioPath, StandardOpenOption.WRITE, DirectIo.getDirectOpenOption()).close();
+				supported = true;
+			} catch(final IOException | UnsupportedOperationException exception) { //e.g. `EINVAL` on Linux if the file store does not support `O_DIRECT`
+				supported = false;
+			}
+		} finally {
+			try {
+				Files.deleteIfExists(probeNioPath);
+			} finally {
+				invalidateFileStatus(probeNioPath); //the probe changed the modification time of the directory
+			}
+		}
+		directIoSupportByFileStore.putIfAbsent(fileStore, supported);
+		return supported;
+	}
+
+	/** The cache of file statuses, or <code>null</code> if file statuses are not cached. */
+	@Nullable
+	private FileStatusCache fileStatusCache = null;
+
+	/**
+	 * Returns the cache of file statuses, if caching is enabled. The cache statistics may be used to evaluate cache effectiveness.
+	 * @return The file status cache, which will not be present if caching is not enabled.
+	 * @see #FILE_STATUS_CACHE_SIZE_KEY
+	 * @see #FILE_STATUS_CACHE_TTL_KEY
+	 */
+	public Optional<FileStatusCache> findFileStatusCache() {
+		return Optional.ofNullable(fileStatusCache);
+	}
+
+	/** The lazily-created pool for performing operations in parallel, or <code>null</code> if it has not yet been created. */
+	@Nullable
+	private volatile ForkJoinPool forkJoinPool = null;
+
+	/**
+	 * Returns the fork/join pool, bounded by the configured parallelism, for performing operations in parallel. The pool is created lazily the first time it is
+	 * needed, and is shut down when the file system is closed.
+	 * @return The pool for parallel operations, which will not be present if parallelism is disabled.
+	 * @see #getParallelism()
+	 */
+	protected Optional<ForkJoinPool> findForkJoinPool() {
+		if(parallelism <= 1) {
+			return Optional.empty();
+		}
+		ForkJoinPool pool = forkJoinPool;
+		if(pool == null) {
+			synchronized(this) {
+				pool = forkJoinPool;
+				if(pool == null) {
+					pool = new ForkJoinPool(parallelism);
+					forkJoinPool = pool;
+				}
+			}
+		}
+		return Optional.of(pool);
+	}
+
+	/**
+	 * Performs a task in a fork/join pool and waits for its result. The task will typically process a parallel stream, which when executed from within a
+	 * fork/join pool uses that pool rather than the common pool.
+	 * @implSpec An {@link IOException} thrown by the task, or thrown by a parallel stream operation of the task wrapped in an {@link UncheckedIOException}, is
+	 *           rethrown unwrapped from any generic {@link RuntimeException} or {@link CompletionException} with which the pool wrapped it.
+	 * @param <T> The type of result.
+	 * @param pool The pool in which to perform the task, typically that returned by {@link #findForkJoinPool()}.
+	 * @param task The task to perform, which may wrap I/O exceptions in {@link UncheckedIOException}.
+	 * @return The result of the task.
+	 * @throws IOException if an I/O error occurs performing the task.
+	 */
+	protected static <T> T invokeInPool(final ForkJoinPool pool, final Callable<T> task) throws IOException {
+		try {
+			return pool.submit(task).join();
+		} catch(final RuntimeException runtimeException) {
+			Throwable throwable = runtimeException;
+			//the pool wraps checked exceptions of the task, and may wrap exceptions thrown in other threads
+			while((throwable.getClass() == RuntimeException.class || throwable instanceof CompletionException) && throwable.getCause() != null) {
+				throwable = throwable.getCause();
+			}
+			if(throwable instanceof UncheckedIOException) {
+				throw ((UncheckedIOException)throwable).getCause();
+			}
+			if(throwable instanceof IOException) {
+				throw (IOException)throwable;
+			}
+			throw runtimeException;
+		}
+	}
+
+	/** The parallel recursive listings whose walks are still in progress, so that they may be abandoned when the file system is closed. */
+	private final Set<ParallelLocatedFileStatusIterator> parallelListings = ConcurrentHashMap.newKeySet();
+
+	/** The lazily-created executor for vectored reads, or <code>null</code> if it has not yet been created. */
+	@Nullable
+	private volatile ExecutorService vectoredReadExecutor = null;
+
+	/**
+	 * Returns the executor dedicated to reading the ranges of vectored reads, bounded by the configured number of vectored read threads. The executor is created
+	 * lazily the first time it is needed, and is shut down when the file system is closed.
+	 * @apiNote A separate executor is used rather than the fork/join pool, as vectored reads block on I/O and should not starve other parallel operations.
+	 * @return The executor for vectored reads, which will not be present if vectored reads are to be performed synchronously.
+	 * @see #getVectoredReadThreads()
+	 */
+	protected Optional<ExecutorService> findVectoredReadExecutor() {
+		if(vectoredReadThreads <= 0) {
+			return Optional.empty();
+		}
+		ExecutorService executor = vectoredReadExecutor;
+		if(executor == null) {
+			synchronized(this) {
+				executor = vectoredReadExecutor;
+				if(executor == null) {
+					final AtomicInteger threadCount = new AtomicInteger();
+					executor = Executors.newFixedThreadPool(vectoredReadThreads, runnable -> {
+						final Thread thread = new Thread(runnable, getClass().getSimpleName() + "-vectored-read-" + threadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+					vectoredReadExecutor = executor;
+				}
+			}
+		}
+		return Optional.of(executor);
+	}
+
+	@Override
+	public void initialize(final URI uri, final Configuration conf) throws IOException {
+		super.initialize(uri, conf);
+		this.defaultBlockSize = getDefaultBlockSize(new Path(uri));
+		this.parallelism = conf.getInt(PARALLELISM_KEY, PARALLELISM_DEFAULT);
+		this.listStatusParallelThreshold = conf.getInt(LIST_STATUS_PARALLEL_THRESHOLD_KEY, LIST_STATUS_PARALLEL_THRESHOLD_DEFAULT);
+		this.listFilesQueueCapacity = conf.getInt(LIST_FILES_QUEUE_CAPACITY_KEY, LIST_FILES_QUEUE_CAPACITY_DEFAULT);
+		this.listFilesAbandonTimeout = conf.getTimeDuration(LIST_FILES_ABANDON_TIMEOUT_KEY, LIST_FILES_ABANDON_TIMEOUT_DEFAULT, TimeUnit.MILLISECONDS);
+		final int fileStatusCacheSize = conf.getInt(FILE_STATUS_CACHE_SIZE_KEY, FILE_STATUS_CACHE_SIZE_DEFAULT);
+		this.fileStatusCache = fileStatusCacheSize > 0
+				? new FileStatusCache(fileStatusCacheSize, conf.getTimeDuration(FILE_STATUS_CACHE_TTL_KEY, FILE_STATUS_CACHE_TTL_DEFAULT, TimeUnit.MILLISECONDS),
+						TimeUnit.MILLISECONDS)
+				: null;
+		this.vectoredReadMinSeek = (int)Math.min(Integer.MAX_VALUE, conf.getLongBytes(VECTORED_READ_MIN_SEEK_KEY, VECTORED_READ_MIN_SEEK_DEFAULT));
+		this.vectoredReadMaxMergedSize = (int)Math.min(Integer.MAX_VALUE, conf.getLongBytes(VECTORED_READ_MAX_MERGED_SIZE_KEY, VECTORED_READ_MAX_MERGED_SIZE_DEFAULT));
+		this.vectoredReadThreads = conf.getInt(VECTORED_READ_THREADS_KEY, VECTORED_READ_THREADS_DEFAULT);
+		this.mmapThreshold = conf.getLongBytes(MMAP_THRESHOLD_KEY, MMAP_THRESHOLD_DEFAULT);
+		this.mmapSegmentSize = (int)Math.min(Integer.MAX_VALUE, conf.getLongBytes(MMAP_SEGMENT_SIZE_KEY, MMAP_SEGMENT_SIZE_DEFAULT));
+		this.writeBufferSize = (int)Math.min(Integer.MAX_VALUE, conf.getLongBytes(WRITE_BUFFER_SIZE_KEY, WRITE_BUFFER_SIZE_DEFAULT));
+		this.directIoBufferSize = (int)Math.min(Integer.MAX_VALUE, conf.getLongBytes(DIRECT_IO_BUFFER_SIZE_KEY, DIRECT_IO_BUFFER_SIZE_DEFAULT));
+		final DataChecksum.Type fileChecksumType = conf.getEnum(FILE_CHECKSUM_TYPE_KEY, FILE_CHECKSUM_TYPE_DEFAULT);
+		if(fileChecksumType != DataChecksum.Type.CRC32C && fileChecksumType != DataChecksum.Type.CRC32) {
+			throw new IllegalArgumentException(format("Unsupported file checksum type `%s`.", fileChecksumType));
+		}
+		this.fileChecksumType = fileChecksumType;
+		this.fileChecksumCacheEnabled = conf.getBoolean(FILE_CHECKSUM_CACHE_KEY, FILE_CHECKSUM_CACHE_DEFAULT);
+		this.fileChecksumBytesPerCrc = conf.getInt(LocalFileSystemConfigKeys.LOCAL_FS_BYTES_PER_CHECKSUM_KEY,
+				LocalFileSystemConfigKeys.LOCAL_FS_BYTES_PER_CHECKSUM_DEFAULT);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation abandons the walks of any parallel recursive listings still in progress, and shuts down the pool used for parallel
+	 *           operations and the executor used for vectored reads, if they were created.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			super.close();
+		} finally {
+			parallelListings.forEach(ParallelLocatedFileStatusIterator::close);
+			final ForkJoinPool pool = forkJoinPool;
+			if(pool != null) {
+				pool.shutdown();
+			}
+			final ExecutorService executor = vectoredReadExecutor;
+			if(executor != null) {
+				executor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation returns <code>false</code> because symbolic links are not yet supported.
+	 * @implNote It does not appears that the default code in the the parent {@link RawLocalFileSystem} and related classes actually <em>check</em> this indicator
+	 *           at the appropriate places, so it is not guaranteed that symlink-related calls will fail-fast with an appropriate error.
+	 */
+	@Override
+	public boolean supportsSymlinks() {
+		return false;
+	}
+
+	/**
+	 * Converts a Hadoop path to a Java NIO path.
+	 * @implSpec This implementation produces the same path as {@link RawLocalFileSystem#pathToFile(Path)}, but uses pure NIO methods, obviating the intermediate
+	 *           {@link File} conversion. A relative path is first resolved against the working directory.
+	 * @implNote Caching the Java NIO paths of parent directories and resolving child names against them was considered, but on Unix
+	 *           {@link java.nio.file.Path#resolve(String)} parses the name and then concatenates the paths, which benchmarks as slower than parsing the full path
+	 *           string directly.
+	 * @param path The Hadoop path to convert.
+	 * @return An equivalent Java NIO path.
+	 * @throws IllegalArgumentException if the path does not belong to this file system.
+	 * @throws java.nio.file.InvalidPathException if the path cannot be converted to a Java NIO path.
+	 */
+	public java.nio.file.Path toNioPath(Path path) {
+		checkPath(path);
+		if(!path.isAbsolute()) {
+			path = new Path(getWorkingDirectory(), path);
+		}
+		String pathString = path.toUri().getPath();
+		if(Path.WINDOWS && Path.isWindowsAbsolutePath(pathString, true)) {
+			pathString = pathString.substring(1); //`/C:/foo` -> `C:/foo`
+		}
+		return Paths.get(pathString);
+	}
+
+	/**
+	 * Converts a Java NIO path to a qualified Hadoop path.
+	 * @implSpec This implementation produces the same path as that of the file status of the Java NIO path, without accessing the file system.
+	 * @param nioPath The Java NIO path to convert.
+	 * @return An equivalent qualified Hadoop path.
+	 * @see NakedLocalFileStatus
+	 */
+	public Path toPath(final java.nio.file.Path nioPath) {
+		return new Path(nioPath.normalize().toString()).makeQualified(getUri(), getWorkingDirectory());
+	}
+
+	/** The bit of a file mode indicating the <a href="https://en.wikipedia.org/wiki/Sticky_bit">sticky bit</a>. */
+	public static final int STICKY_BIT_MODE = 01000;
+
+	/** The bits of a file mode that are represented by a Hadoop permission: the POSIX permissions along with the sticky bit. */
+	public static final int PERMISSION_MODE_MASK = 01777;
+
+	/** The bits of a file mode representing the POSIX permissions, excluding the sticky bit. */
+	private static final int POSIX_PERMISSION_MODE_MASK = 0777;
+
+	/** The Java NIO POSIX permissions in the order of their bits in a file mode from highest to lowest, i.e. in the order of their ordinals. */
+	private static final PosixFilePermission[] NIO_POSIX_FILE_PERMISSIONS = PosixFilePermission.values();
+
+	/** Shared immutable Hadoop permissions for each file mode, indexed by the mode bits masked by {@link #PERMISSION_MODE_MASK}. */
+	private static final FsPermission[] FS_PERMISSIONS_BY_MODE = new FsPermission[PERMISSION_MODE_MASK + 1];
+
+	/** Shared unmodifiable sets of Java NIO POSIX permissions for each file mode, indexed by the mode bits masked by {@link #POSIX_PERMISSION_MODE_MASK}. */
+	private static final List<Set<PosixFilePermission>> NIO_POSIX_FILE_PERMISSIONS_BY_MODE;
+
+	static {
+		for(int mode = 0; mode <= PERMISSION_MODE_MASK; mode++) {
+			FS_PERMISSIONS_BY_MODE[mode] = FsPermission.createImmutable((short)mode);
+		}
+		final List<Set<PosixFilePermission>> nioPosixFilePermissionsByMode = new ArrayList<>(POSIX_PERMISSION_MODE_MASK + 1);
+		for(int mode = 0; mode <= POSIX_PERMISSION_MODE_MASK; mode++) {
+			final Set<PosixFilePermission> nioPosixFilePermissions = EnumSet.noneOf(PosixFilePermission.class);
+			for(final PosixFilePermission nioPosixFilePermission : NIO_POSIX_FILE_PERMISSIONS) {
+				if((mode & toModeBit(nioPosixFilePermission)) != 0) {
+					nioPosixFilePermissions.add(nioPosixFilePermission);
+				}
+			}
+			nioPosixFilePermissionsByMode.add(Collections.unmodifiableSet(nioPosixFilePermissions));
+		}
+		NIO_POSIX_FILE_PERMISSIONS_BY_MODE = Collections.unmodifiableList(nioPosixFilePermissionsByMode);
+	}
+
+	/**
+	 * Returns the bit of a file mode representing a Java NIO POSIX permission.
+	 * @param nioPosixFilePermission The Java NIO POSIX permission.
+	 * @return The mode bit for the permission, e.g. <code>0400</code> for {@link PosixFilePermission#OWNER_READ}.
+	 */
+	private static int toModeBit(final PosixFilePermission nioPosixFilePermission) {
+		return 0400 >>> nioPosixFilePermission.ordinal();
+	}
+
+	/**
+	 * Converts a Hadoop file system permissions instance to a set of Java NIO POSIX permissions.
+	 * @apiNote The Java NIO POSIX permissions have no representation of the sticky bit, which will be ignored.
+	 * @implSpec This implementation returns one of a set of precomputed shared instances, and allocates no new objects.
+	 * @param permission The Hadoop permissions instance.
+	 * @return An equivalent unmodifiable set of Java NIO POSIX permissions.
+	 */
+	public static Set<PosixFilePermission> toNioPosixFilePermissions(final FsPermission permission) {
+		return NIO_POSIX_FILE_PERMISSIONS_BY_MODE.get(permission.toShort() & POSIX_PERMISSION_MODE_MASK);
+	}
+
+	/**
+	 * Converts a set of Java NIO POSIX permissions to a Hadoop file system permissions instance.
+	 * @implSpec This implementation forms a file mode from the permissions present and delegates to {@link #toFsPermission(int)}, allocating no new objects.
+	 * @param nioPosixFilePermissions The set of Java NIO POSIX permissions.
+	 * @return An equivalent immutable Hadoop permissions instance.
+	 */
+	public static FsPermission toFsPermission(final Set<PosixFilePermission> nioPosixFilePermissions) {
+		int mode = 0;
+		for(final PosixFilePermission nioPosixFilePermission : NIO_POSIX_FILE_PERMISSIONS) { //iterating the constants rather than the set avoids an iterator
+			if(nioPosixFilePermissions.contains(nioPosixFilePermission)) {
+				mode |= toModeBit(nioPosixFilePermission);
+			}
+		}
+		return toFsPermission(mode);
+	}
+
+	/**
+	 * Converts a *nix file mode to a Hadoop file system permissions instance. Only the permission bits and the sticky bit are considered; other bits such as
+	 * those indicating the file type are ignored.
+	 * @implSpec This implementation returns one of a set of precomputed shared instances, and allocates no new objects.
+	 * @param mode The file mode, such as that returned by the <code>unix:mode</code> Java NIO file attribute.
+	 * @return An equivalent immutable Hadoop permissions instance.
+	 * @see #PERMISSION_MODE_MASK
+	 */
+	public static FsPermission toFsPermission(final int mode) {
+		return FS_PERMISSIONS_BY_MODE[mode & PERMISSION_MODE_MASK];
+	}
+
+	/**
+	 * Factory method to create a single Hadoop permission action based upon read, write, and/or execute permissions.
+	 * @param read Whether read permission should be included.
+	 * @param write Whether write permission should be included.
+	 * @param execute Whether execute permission should be included.
+	 * @return The Hadoop permission action reflecting the requested permissions.
+	 */
+	public static FsAction fsActionOf(final boolean read, final boolean write, final boolean execute) {
+		FsAction result = FsAction.NONE;
+		if(read) {
+			result = result.or(FsAction.READ);
+		}
+		if(write) {
+			result = result.or(FsAction.WRITE);
+		}
+		if(execute) {
+			result = result.or(FsAction.EXECUTE);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If the file system supports the <code>unix</code> file attribute view, this implementation sets the <code>unix:mode</code> attribute, which
+	 *           includes the sticky bit. Otherwise this implementation uses Java NIO to directly access the {@link PosixFileAttributeView}. If the file system
+	 *           does not support the {@link PosixFileAttributeView}, no action is taken.
+	 */
+	@Override
+	public void setPermission(final Path path, final FsPermission permission) throws IOException {
+		setPermission(toNioPath(path), permission);
+	}
+
+	/**
+	 * Sets the permission of a path using a Java NIO path.
+	 * @implSpec This implementation follows the semantics of {@link #setPermission(Path, FsPermission)}.
+	 * @param nioPath The Java NIO path of the file or directory.
+	 * @param permission The permission to set.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void setPermission(final java.nio.file.Path nioPath, final FsPermission permission) throws IOException {
+		try {
+			if(isUnixFileAttributeViewSupported(nioPath)) {
+				Files.setAttribute(nioPath, UnixFileAttributes.MODE_ATTRIBUTE, permission.toShort() & PERMISSION_MODE_MASK);
+			} else {
+				final PosixFileAttributeView posixFileAttributeView = Files.getFileAttributeView(nioPath, PosixFileAttributeView.class);
+				if(posixFileAttributeView != null) {
+					posixFileAttributeView.setPermissions(toNioPosixFilePermissions(permission));
+				}
+			}
+		} finally {
+			invalidateFileStatus(nioPath);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec Rather than executing a <code>chown</code> process as {@link RawLocalFileSystem} does, this implementation delegates to
+	 *           {@link #setOwner(java.nio.file.Path, String, String)}.
+	 */
+	@Override
+	public void setOwner(final Path path, @Nullable final String username, @Nullable final String groupname) throws IOException {
+		setOwner(toNioPath(path), username, groupname);
+	}
+
+	/**
+	 * Sets the owner and/or group of a path using a Java NIO path.
+	 * @implSpec This implementation sets the owner and group using the {@link PosixFileAttributeView} if supported, or otherwise sets only the owner using the
+	 *           {@link FileOwnerAttributeView}. User and group principals are looked up by name using the {@link PrincipalNameCache}, so that repeated changes
+	 *           to the same user or group require only a single lookup. Any cached status of the path is invalidated.
+	 * @param nioPath The Java NIO path of the file or directory.
+	 * @param username The name of the new owner, or <code>null</code> if the owner should not be changed.
+	 * @param groupname The name of the new group, or <code>null</code> if the group should not be changed.
+	 * @throws UserPrincipalNotFoundException if no user or group exists with the given name.
+	 * @throws IOException if neither a user name nor a group name is given; if a group is given but the file system does not support POSIX file attributes;
+	 *           or if an I/O error occurs.
+	 */
+	public void setOwner(final java.nio.file.Path nioPath, @Nullable final String username, @Nullable final String groupname) throws IOException {
+		if(username == null && groupname == null) {
+			throw new IOException("Neither a user name nor a group name was given.");
+		}
+		try {
+			final PosixFileAttributeView posixFileAttributeView = Files.getFileAttributeView(nioPath, PosixFileAttributeView.class);
+			if(posixFileAttributeView != null) {
+				if(username != null) {
+					posixFileAttributeView.setOwner(principalNameCache.getUserPrincipal(username, nioPath));
+				}
+				if(groupname != null) {
+					posixFileAttributeView.setGroup(principalNameCache.getGroupPrincipal(groupname, nioPath));
+				}
+			} else {
+				if(groupname != null) {
+					throw new IOException(format("Setting the group of `%s` is not supported by its file system.", nioPath));
+				}
+				Files.setOwner(nioPath, principalNameCache.getUserPrincipal(username, nioPath));
+			}
+		} finally {
+			invalidateFileStatus(nioPath);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation invalidates any cached status of the path.
+	 */
+	@Override
+	public void setTimes(final Path path, final long mtime, final long atime) throws IOException {
+		try {
+			super.setTimes(path, mtime, atime);
+		} finally {
+			invalidateFileStatus(toNioPath(path));
+		}
+	}
+
+	/**
+	 * Applies a set of attribute changes to a path in a single operation.
+	 * @apiNote This method is equivalent to calling {@link #setOwner(Path, String, String)}, {@link #setPermission(Path, FsPermission)}, and
+	 *          {@link #setTimes(Path, long, long)} in turn, but resolves the path and accesses its attributes only once.
+	 * @implSpec This implementation delegates to {@link #setAttributes(java.nio.file.Path, FileAttributeChanges)}.
+	 * @param path The path of the file or directory.
+	 * @param changes The attribute changes to apply.
+	 * @throws FileNotFoundException if the path does not exist.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void setAttributes(final Path path, final FileAttributeChanges changes) throws IOException {
+		setAttributes(toNioPath(path), changes);
+	}
+
+	/**
+	 * Applies a set of attribute changes to a path using a Java NIO path.
+	 * @implSpec If the file system supports POSIX file attributes, this implementation applies all the changes through a single {@link PosixFileAttributeView}:
+	 *           first the owner and group, as changing ownership may clear certain mode bits; then the permission; and finally the times. If the permission
+	 *           includes the sticky bit, which the POSIX view cannot represent, the permission is instead set using
+	 *           {@link #setPermission(java.nio.file.Path, FsPermission)}. Principals are looked up using the {@link PrincipalNameCache}. If POSIX file
+	 *           attributes are not supported, the changes are applied individually. Any cached status of the path is invalidated.
+	 * @param nioPath The Java NIO path of the file or directory.
+	 * @param changes The attribute changes to apply.
+	 * @throws FileNotFoundException if the path does not exist.
+	 * @throws UserPrincipalNotFoundException if no user or group exists with a given name.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void setAttributes(final java.nio.file.Path nioPath, final FileAttributeChanges changes) throws IOException {
+		if(changes.isEmpty()) {
+			return;
+		}
+		final Optional<String> foundUsername = changes.findUsername();
+		final Optional<String> foundGroupname = changes.findGroupname();
+		final Optional<FsPermission> foundPermission = changes.findPermission();
+		final OptionalLong foundModificationTime = changes.findModificationTime();
+		final OptionalLong foundAccessTime = changes.findAccessTime();
+		try {
+			final PosixFileAttributeView posixFileAttributeView = Files.getFileAttributeView(nioPath, PosixFileAttributeView.class);
+			if(posixFileAttributeView != null) {
+				if(foundUsername.isPresent()) {
+					posixFileAttributeView.setOwner(principalNameCache.getUserPrincipal(foundUsername.get(), nioPath));
+				}
+				if(foundGroupname.isPresent()) {
+					posixFileAttributeView.setGroup(principalNameCache.getGroupPrincipal(foundGroupname.get(), nioPath));
+				}
+				if(foundPermission.isPresent()) {
+					if(foundPermission.get().getStickyBit()) {
+						setPermission(nioPath, foundPermission.get());
+					} else {
+						posixFileAttributeView.setPermissions(toNioPosixFilePermissions(foundPermission.get()));
+					}
+				}
+			} else {
+				if(foundUsername.isPresent() || foundGroupname.isPresent()) {
+					setOwner(nioPath, foundUsername.orElse(null), foundGroupname.orElse(null));
+				}
+				if(foundPermission.isPresent()) {
+					setPermission(nioPath, foundPermission.get());
+				}
+			}
+			if(foundModificationTime.isPresent() || foundAccessTime.isPresent()) {
+				final BasicFileAttributeView basicFileAttributeView = posixFileAttributeView != null ? posixFileAttributeView
+						: Files.getFileAttributeView(nioPath, BasicFileAttributeView.class);
+				basicFileAttributeView.setTimes(foundModificationTime.isPresent() ? FileTime.fromMillis(foundModificationTime.getAsLong()) : null,
+						foundAccessTime.isPresent() ? FileTime.fromMillis(foundAccessTime.getAsLong()) : null, null);
+			}
+		} catch(final NoSuchFileException noSuchFileException) {
+			throw (FileNotFoundException)new FileNotFoundException(format("File `%s` does not exist.", nioPath)).initCause(noSuchFileException);
+		} finally {
+			invalidateFileStatus(nioPath);
+		}
+	}
+
+	/**
+	 * Applies attribute changes to many paths, in parallel if possible.
+	 * @implSpec If parallelism is enabled, this implementation applies the changes to the paths in parallel using the pool returned by
+	 *           {@link #findForkJoinPool()}; otherwise the changes are applied to each path in turn. The changes for each path are applied using
+	 *           {@link #setAttributes(Path, FileAttributeChanges)}.
+	 * @param changesByPath The attribute changes to apply, associated with the path of each file or directory to which they apply.
+	 * @throws FileNotFoundException if one of the paths does not exist.
+	 * @throws IOException if an I/O error occurs; if an error occurs for one path, the changes may or may not have been applied to other paths.
+	 */
+	public void setAttributes(final Map<Path, FileAttributeChanges> changesByPath) throws IOException {
+		final Optional<ForkJoinPool> foundForkJoinPool = findForkJoinPool();
+		if(!foundForkJoinPool.isPresent() || changesByPath.size() < 2) {
+			for(final Map.Entry<Path, FileAttributeChanges> pathChanges : changesByPath.entrySet()) {
+				setAttributes(pathChanges.getKey(), pathChanges.getValue());
+			}
+			return;
+		}
+		invokeInPool(foundForkJoinPool.get(), () -> {
+			changesByPath.entrySet().parallelStream().forEach(pathChanges -> {
+				try {
+					setAttributes(pathChanges.getKey(), pathChanges.getValue());
+				} catch(final IOException ioException) {
+					throw new UncheckedIOException(ioException);
+				}
+			});
+			return null;
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation returns a composite CRC checksum of the file contents, compatible with the HDFS <code>COMPOSITE_CRC</code> checksum combine
+	 *           mode, which depends only on the file contents and not on how they are divided into blocks or chunks. The checksum of each block of the file is
+	 *           computed in parallel using the pool returned by {@link #findForkJoinPool()}, if parallelism is enabled, and the block checksums are then
+	 *           combined. If caching is enabled, the checksum of an entire file is stored in a user-defined attribute of the file along with the size and
+	 *           modification time of the file, so that the checksum of an unchanged file is retrieved without reading its contents. Failure to cache a checksum
+	 *           (e.g. if the file store does not support user-defined attributes) is ignored.
+	 * @throws FileNotFoundException if the path does not exist or is not a regular file.
+	 * @throws IllegalArgumentException if the length is negative.
+	 * @see #getFileChecksumType()
+	 * @see #isFileChecksumCacheEnabled()
+	 */
+	@Override
+	public FileChecksum getFileChecksum(final Path path, final long length) throws IOException {
+		if(length < 0) {
+			throw new IllegalArgumentException("Length must not be negative: " + length);
+		}
+		final java.nio.file.Path nioPath = toNioPath(path);
+		final BasicFileAttributes attributes;
+		try {
+			attributes = readNioFileAttributes(nioPath);
+		} catch(final NoSuchFileException noSuchFileException) {
+			throw (FileNotFoundException)new FileNotFoundException(format("File `%s` does not exist.", nioPath)).initCause(noSuchFileException);
+		}
+		if(!attributes.isRegularFile()) {
+			throw new FileNotFoundException(format("Path `%s` is not a file.", nioPath));
+		}
+		final long fileSize = attributes.size();
+		final boolean isWholeFile = length >= fileSize;
+		if(isWholeFile && fileChecksumCacheEnabled) {
+			final OptionalInt foundCachedCrc = findCachedFileChecksum(nioPath, attributes);
+			if(foundCachedCrc.isPresent()) {
+				return new CompositeCrcFileChecksum(foundCachedCrc.getAsInt(), fileChecksumType, fileChecksumBytesPerCrc);
+			}
+		}
+		final long startTime = System.currentTimeMillis();
+		final int crc = computeCompositeCrc(nioPath, Math.min(length, fileSize));
+		if(isWholeFile && fileChecksumCacheEnabled) {
+			cacheFileChecksum(nioPath, attributes, crc, startTime);
+		}
+		return new CompositeCrcFileChecksum(crc, fileChecksumType, fileChecksumBytesPerCrc);
+	}
+
+	/**
+	 * Computes the CRC of the initial contents of a file using the configured CRC type.
+	 * @implSpec This implementation computes the CRC of each block of the file, using the default block size, and combines them using
+	 *           {@link CrcUtil#compose(int, int, long, int)}. The blocks are processed in parallel using the pool returned by {@link #findForkJoinPool()}, if
+	 *           parallelism is enabled.
+	 * @param nioPath The Java NIO path of the file.
+	 * @param length The number of bytes at the start of the file over which to compute the CRC.
+	 * @return The CRC of the requested contents.
+	 * @throws EOFException if the file is shorter than the requested length.
+	 * @throws IOException if an I/O error occurs.
+	 * @see #getFileChecksumType()
+	 */
+	protected int computeCompositeCrc(final java.nio.file.Path nioPath, final long length) throws IOException {
+		final long blockSize = getFileSystemDefaultBlockSize();
+		final int blockCount = (int)((length + blockSize - 1) / blockSize);
+		final int[] blockCrcs;
+		try (final FileChannel fileChannel = FileChannel.open(nioPath, StandardOpenOption.READ)) {
+			final Optional<ForkJoinPool> foundForkJoinPool = findForkJoinPool();
+			if(!foundForkJoinPool.isPresent() || blockCount < 2) {
+				blockCrcs = new int[blockCount];
+				for(int i = 0; i < blockCount; i++) {
+					blockCrcs[i] = computeCrc(fileChannel, i * blockSize, Math.min(blockSize, length - i * blockSize));
+				}
+			} else {
+				blockCrcs = invokeInPool(foundForkJoinPool.get(), () -> IntStream.range(0, blockCount).parallel().map(i -> {
+					try {
+						return computeCrc(fileChannel, i * blockSize, Math.min(blockSize, length - i * blockSize));
+					} catch(final IOException ioException) {
+						throw new UncheckedIOException(ioException);
+					}
+				}).toArray());
+			}
+		} catch(final NoSuchFileException noSuchFileException) {
+			throw (FileNotFoundException)new FileNotFoundException(format("File `%s` does not exist.", nioPath)).initCause(noSuchFileException);
+		}
+		final int polynomial = DataChecksum.getCrcPolynomialForType(fileChecksumType);
+		int crc = 0; //the CRC of no bytes
+		for(int i = 0; i < blockCount; i++) {
+			crc = CrcUtil.compose(crc, blockCrcs[i], Math.min(blockSize, length - i * blockSize), polynomial);
+		}
+		return crc;
+	}
+
+	/**
+	 * Computes the CRC of a section of a file using the configured CRC type. The bytes read are added to the file system statistics as they are read.
+	 * @implSpec This implementation reads using the checksum buffer of the current thread.
+	 * @param fileChannel The channel of the file, which is read using positional reads so that it may be shared among threads.
+	 * @param position The position in the file at which to start.
+	 * @param length The number of bytes over which to compute the CRC.
+	 * @return The CRC of the section of the file.
+	 * @throws EOFException if the file ends before the end of the section.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private int computeCrc(final FileChannel fileChannel, long position, final long length) throws IOException {
+		final Checksum checksum = Checksums.newChecksum(fileChecksumType);
+		final ByteBuffer buffer = FILE_CHECKSUM_BUFFER.get();
+		final long end = position + length;
+		while(position < end) {
+			buffer.clear();
+			buffer.limit((int)Math.min(buffer.capacity(), end - position));
+			final int count = fileChannel.read(buffer, position);
+			if(count < 0) {
+				throw new EOFException(format("File ended at %d before reaching %d.", position, end));
+			}
+			if(statistics != null) {
+				statistics.incrementBytesRead(count);
+			}
+			buffer.flip();
+			Checksums.update(checksum, buffer);
+			position += count;
+		}
+		return (int)checksum.getValue();
+	}
+
+	/**
+	 * Retrieves the file checksum cached in the user-defined attribute of a file, if it is valid for the given attributes of the file and is of the configured
+	 * CRC type.
+	 * @param nioPath The Java NIO path of the file.
+	 * @param attributes The current attributes of the file.
+	 * @return The cached CRC, which will not be present if there is no valid cached checksum or the file store does not support user-defined attributes.
+	 * @throws IOException if an I/O error occurs.
+	 * @see #FILE_CHECKSUM_ATTRIBUTE_NAME
+	 */
+	protected OptionalInt findCachedFileChecksum(final java.nio.file.Path nioPath, final BasicFileAttributes attributes) throws IOException {
+		final UserDefinedFileAttributeView attributeView = Files.getFileAttributeView(nioPath, UserDefinedFileAttributeView.class);
+		if(attributeView == null) {
+			return OptionalInt.empty();
+		}
+		final ByteBuffer value = ByteBuffer.allocate(FILE_CHECKSUM_ATTRIBUTE_LENGTH);
+		try {
+			attributeView.read(FILE_CHECKSUM_ATTRIBUTE_NAME, value);
+		} catch(final FileSystemException fileSystemException) { //no such attribute, or user-defined attributes not supported
+			return OptionalInt.empty();
+		}
+		value.flip();
+		if(value.remaining() != FILE_CHECKSUM_ATTRIBUTE_LENGTH || value.getLong() != attributes.size()
+				|| value.getLong() != attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS) || value.get() != fileChecksumType.id) {
+			return OptionalInt.empty();
+		}
+		return OptionalInt.of(value.getInt());
+	}
+
+	/**
+	 * Caches a file checksum in the user-defined attribute of a file, if the file has not been modified recently or since its checksum was computed. Failure
+	 * to store the attribute, for example because the file store does not support user-defined attributes or the file is not writable, is ignored.
+	 * @param nioPath The Java NIO path of the file.
+	 * @param attributes The attributes of the file before its checksum was computed.
+	 * @param crc The CRC of the file contents, of the configured CRC type.
+	 * @param startTime The time in milliseconds at which computation of the checksum started.
+	 * @throws IOException if an I/O error occurs.
+	 * @see #FILE_CHECKSUM_ATTRIBUTE_NAME
+	 */
+	protected void cacheFileChecksum(final java.nio.file.Path nioPath, final BasicFileAttributes attributes, final int crc, final long startTime)
+			throws IOException {
+		if(attributes.lastModifiedTime().toMillis() > startTime - FILE_CHECKSUM_CACHE_MIN_AGE_MILLIS) {
+			return;
+		}
+		final UserDefinedFileAttributeView attributeView = Files.getFileAttributeView(nioPath, UserDefinedFileAttributeView.class);
+		if(attributeView == null) {
+			return;
+		}
+		try {
+			final BasicFileAttributes currentAttributes = readNioFileAttributes(nioPath);
+			if(currentAttributes.size() != attributes.size() || !currentAttributes.lastModifiedTime().equals(attributes.lastModifiedTime())) {
+				return;
+			}
+			final ByteBuffer value = ByteBuffer.allocate(FILE_CHECKSUM_ATTRIBUTE_LENGTH);
+			value.putLong(attributes.size()).putLong(attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS)).put((byte)fileChecksumType.id).putInt(crc);
+			value.flip();
+			attributeView.write(FILE_CHECKSUM_ATTRIBUTE_NAME, value);
+		} catch(final FileSystemException fileSystemException) {
+			//the file may have been removed, may not be writable, or may be on a file store not supporting user-defined attributes
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation returns a stream reading from a Java NIO {@link FileChannel} via {@link #openInputStream(java.nio.file.Path, int)}, without
+	 *           retrieving the file status beforehand.
+	 */
+	@Override
+	public FSDataInputStream open(final Path path, final int bufferSize) throws IOException {
+		return new FSDataInputStream(openInputStream(toNioPath(path), bufferSize));
+	}
+
+	/**
+	 * Opens an input stream for reading the given file.
+	 * @implSpec This implementation returns a {@link NakedLocalFileInputStream} supporting {@link ByteBufferReadable} and {@link ByteBufferPositionedReadable},
+	 *           with positional reads that do not lock the stream, and with vectored reads configured using the vectored read settings of this file system. If
+	 *           memory mapping is enabled and the file is at least as large as the memory mapping threshold, a {@link MappedNakedLocalFileInputStream} is
+	 *           returned instead.
+	 * @param nioPath The path of the file to open.
+	 * @param bufferSize The size of the buffer to use for sequential reads.
+	 * @return A new input stream for reading the file.
+	 * @throws FileNotFoundException if the file does not exist or is a directory.
+	 * @throws IOException if an I/O error occurs opening the file.
+	 */
+	protected NakedLocalFileInputStream openInputStream(final java.nio.file.Path nioPath, final int bufferSize) throws IOException {
+		if(Files.isDirectory(nioPath)) {
+			throw new FileNotFoundException(format("Cannot open directory `%s` for reading.", nioPath));
+		}
+		final FileChannel fileChannel;
+		try {
+			fileChannel = FileChannel.open(nioPath, StandardOpenOption.READ);
+		} catch(final NoSuchFileException noSuchFileException) {
+			throw (FileNotFoundException)new FileNotFoundException(format("File `%s` does not exist.", nioPath)).initCause(noSuchFileException);
+		}
+		final Executor vectoredReadExecutor = vectoredReadThreads > 0 ? command -> findVectoredReadExecutor().get().execute(command) : null; //create executor lazily
+		try {
+			if(mmapThreshold > 0 && fileChannel.size() >= mmapThreshold) {
+				return new MappedNakedLocalFileInputStream(nioPath, fileChannel, bufferSize, statistics, vectoredReadExecutor, vectoredReadMinSeek,
+						vectoredReadMaxMergedSize, mmapSegmentSize);
+			}
+			return new NakedLocalFileInputStream(nioPath, fileChannel, bufferSize, statistics, vectoredReadExecutor, vectoredReadMinSeek, vectoredReadMaxMergedSize);
+		} catch(final IOException | RuntimeException exception) {
+			fileChannel.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Opens an input stream for reading the given file using direct I/O if possible.
+	 * @implSpec This implementation returns a {@link DirectNakedLocalFileInputStream} if direct I/O is supported by the runtime and the file store; otherwise
+	 *           it delegates to {@link #openInputStream(java.nio.file.Path, int)}.
+	 * @param nioPath The path of the file to open.
+	 * @param bufferSize The minimum size of the buffer to use for sequential reads.
+	 * @return A new input stream for reading the file.
+	 * @throws FileNotFoundException if the file does not exist or is a directory.
+	 * @throws IOException if an I/O error occurs opening the file.
+	 */
+	protected NakedLocalFileInputStream openDirectInputStream(final java.nio.file.Path nioPath, final int bufferSize) throws IOException {
+		if(!isDirectIoSupported() || Files.isDirectory(nioPath)) {
+			return openInputStream(nioPath, bufferSize);
+		}
+		final FileChannel fileChannel;
+		try {
+			fileChannel = FileChannel.open(nioPath, StandardOpenOption.READ, DirectIo.getDirectOpenOption());
+		} catch(final NoSuchFileException noSuchFileException) {
+			throw (FileNotFoundException)new FileNotFoundException(format("File `%s` does not exist.", nioPath)).initCause(noSuchFileException);
+		} catch(final IOException ioException) { //the file store may not support direct I/O
+			return openInputStream(nioPath, bufferSize);
+		}
+		final Executor vectoredReadExecutor = vectoredReadThreads > 0 ? command -> findVectoredReadExecutor().get().execute(command) : null; //create executor lazily
+		try {
+			return new DirectNakedLocalFileInputStream(nioPath, fileChannel, bufferSize, statistics, vectoredReadExecutor, vectoredReadMinSeek,
+					vectoredReadMaxMergedSize, getDirectIoBufferPool(nioPath));
+		} catch(final IOException | RuntimeException exception) {
+			fileChannel.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation supports the {@link #DIRECT_IO_OPTION} option, opening the file using
+	 *           {@link #openDirectInputStream(java.nio.file.Path, int)} if it is enabled.
+	 */
+	@Override
+	protected CompletableFuture<FSDataInputStream> openFileWithOptions(final Path path, final OpenFileParameters parameters) throws IOException {
+		final Set<String> mandatoryKeys = new HashSet<>(parameters.getMandatoryKeys());
+		mandatoryKeys.remove(DIRECT_IO_OPTION);
+		AbstractFSBuilderImpl.rejectUnknownMandatoryKeys(mandatoryKeys, Options.OpenFileOptions.FS_OPTION_OPENFILE_STANDARD_OPTIONS, "for " + path);
+		final CompletableFuture<FSDataInputStream> result = new CompletableFuture<>();
+		try {
+			final java.nio.file.Path nioPath = toNioPath(path);
+			result.complete(new FSDataInputStream(parameters.getOptions().getBoolean(DIRECT_IO_OPTION, false)
+					? openDirectInputStream(nioPath, parameters.getBufferSize())
+					: openInputStream(nioPath, parameters.getBufferSize())));
+		} catch(final Throwable throwable) { //fail lazily, as the parent implementation does
+			result.completeExceptionally(throwable);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation returns a builder supporting the {@link #DIRECT_IO_OPTION} option for creating files.
+	 */
+	@Override
+	public NakedLocalFileDataOutputStreamBuilder createFile(final Path path) {
+		return new NakedLocalFileDataOutputStreamBuilder(path).create().overwrite(true);
+	}
+
+	/**
+	 * Creates a file for writing using direct I/O, if supported by the runtime and the file store.
+	 * @implSpec This implementation follows the semantics of {@link RawLocalFileSystem#create(Path, FsPermission, boolean, int, short, long, Progressable)},
+	 *           setting the permission of the created file with the configured umask applied.
+	 * @param path The path of the file to create.
+	 * @param permission The permission to set for the file before applying the umask, or <code>null</code> if the default file permission should be used.
+	 * @param overwrite Whether an existing file should be overwritten.
+	 * @param recursive Whether missing parent directories should be created.
+	 * @return The output stream for writing the file, which will not be present if direct I/O is not supported, in which case no file will have been created.
+	 * @throws FileAlreadyExistsException if the file exists and overwriting is not requested.
+	 * @throws FileNotFoundException if the parent directory does not exist and directories are not to be created recursively.
+	 * @throws IOException if an I/O error occurs creating the file.
+	 * @see #isDirectIoSupported(java.nio.file.Path)
+	 */
+	protected Optional<FSDataOutputStream> createDirect(final Path path, @Nullable final FsPermission permission, final boolean overwrite,
+			final boolean recursive) throws IOException {
+		if(!isDirectIoSupported()) {
+			return Optional.empty();
+		}
+		final java.nio.file.Path nioPath = toNioPath(path);
+		final java.nio.file.Path nioParentPath = nioPath.getParent();
+		if(nioParentPath != null) {
+			if(recursive) {
+				if(!mkdirs(path.getParent())) {
+					throw new IOException("Mkdirs failed to create " + path.getParent());
+				}
+			} else if(!Files.isDirectory(nioParentPath)) {
+				throw new FileNotFoundException(format("Parent directory of `%s` does not exist.", nioPath));
+			}
+		}
+		if(Files.isDirectory(nioPath)) {
+			throw new FileAlreadyExistsException(format("Directory `%s` already exists.", nioPath));
+		}
+		final java.nio.file.Path nioDirectoryPath = nioParentPath != null ? nioParentPath : nioPath;
+		if(!isDirectIoSupported(nioDirectoryPath)) {
+			return Optional.empty();
+		}
+		final AlignedBufferPool bufferPool = getDirectIoBufferPool(nioDirectoryPath);
+		final FileChannel fileChannel;
+		try {
+			fileChannel = overwrite
+					? FileChannel.open(nioPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE,
+							DirectIo.getDirectOpenOption())
+					: FileChannel.open(nioPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, DirectIo.getDirectOpenOption());
+		} catch(final java.nio.file.FileAlreadyExistsException fileAlreadyExistsException) {
+			throw (FileAlreadyExistsException)new FileAlreadyExistsException(format("File `%s` already exists.", nioPath)).initCause(fileAlreadyExistsException);
+		} catch(final NoSuchFileException noSuchFileException) {
+			throw (FileNotFoundException)new FileNotFoundException(format("File `%s` or its parent directory does not exist.", nioPath))
+					.initCause(noSuchFileException);
+		} finally {
+			invalidateFileStatus(nioPath); //invalidate after the change, so that a status read concurrently is not cached
+		}
+		final FSDataOutputStream outputStream = new FSDataOutputStream(new DirectNakedLocalFileOutputStream(nioPath, fileChannel, bufferPool, statistics,
+				findFileStatusInvalidator(nioPath).orElse(null)), null);
+		try {
+			setPermission(nioPath, (permission != null ? permission : FsPermission.getFileDefault()).applyUMask(FsPermission.getUMask(getConf())));
+		} catch(final IOException | RuntimeException exception) {
+			outputStream.close();
+			throw exception;
+		}
+		return Optional.of(outputStream);
+	}
+
+	/**
+	 * Builder for creating files, supporting the options of this file system in addition to the standard options.
+	 * @implNote The building logic mirrors that of the private <code>FileSystem.FileSystemDataOutputStreamBuilder</code>.
+	 * @author Garret Wilson
+	 */
+	protected class NakedLocalFileDataOutputStreamBuilder extends FSDataOutputStreamBuilder<FSDataOutputStream, NakedLocalFileDataOutputStreamBuilder> {
+
+		/**
+		 * Constructor.
+		 * @param path The path of the file to create.
+		 */
+		protected NakedLocalFileDataOutputStreamBuilder(final Path path) {
+			super(NakedLocalFileSystem.this, path);
+		}
+
+		@Override
+		public NakedLocalFileDataOutputStreamBuilder getThisBuilder() {
+			return this;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @implSpec This implementation creates the file using direct I/O via {@link NakedLocalFileSystem#createDirect(Path, FsPermission, boolean, boolean)} if
+		 *           the {@link #DIRECT_IO_OPTION} option is enabled and direct I/O is supported.
+		 */
+		@Override
+		public FSDataOutputStream build() throws IOException {
+			rejectUnknownMandatoryKeys(Collections.singleton(DIRECT_IO_OPTION), " for " + getPath());
+			final EnumSet<CreateFlag> flags = getFlags();
+			if(flags.contains(CreateFlag.CREATE) || flags.contains(CreateFlag.OVERWRITE)) {
+				if(getOptions().getBoolean(DIRECT_IO_OPTION, false)) {
+					final Optional<FSDataOutputStream> foundDirectOutputStream = createDirect(getPath(), getPermission(), flags.contains(CreateFlag.OVERWRITE),
+							isRecursive());
+					if(foundDirectOutputStream.isPresent()) {
+						return foundDirectOutputStream.get();
+					}
+				}
+				if(isRecursive()) {
+					return getFS().create(getPath(), getPermission(), flags, getBufferSize(), getReplication(), getBlockSize(), getProgress(), getChecksumOpt());
+				} else {
+					return getFS().createNonRecursive(getPath(), getPermission(), flags, getBufferSize(), getReplication(), getBlockSize(), getProgress());
+				}
+			} else if(flags.contains(CreateFlag.APPEND)) {
+				return getFS().append(getPath(), getBufferSize(), getProgress());
+			}
+			throw new PathIOException(getPath().toString(), "Must specify either create, overwrite or append");
+		}
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #create(Path, FsPermission, boolean, int, short, long, Progressable)} with no permission.
+	 */
+	@Override
+	public FSDataOutputStream create(final Path path, final boolean overwrite, final int bufferSize, final short replication, final long blockSize,
+			final Progressable progress) throws IOException {
+		return create(path, null, overwrite, bufferSize, replication, blockSize, progress);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation creates any missing parent directories and returns a stream from
+	 *           {@link #createOutputStream(Path, EnumSet, FsPermission, int)}. Whether the file already exists is determined atomically when the file is
+	 *           opened, without retrieving the file status beforehand.
+	 */
+	@Override
+	public FSDataOutputStream create(final Path path, @Nullable final FsPermission permission, final boolean overwrite, final int bufferSize,
+			final short replication, final long blockSize, final Progressable progress) throws IOException {
+		final Path parentPath = path.getParent();
+		if(parentPath != null && !mkdirs(parentPath)) {
+			throw new IOException("Mkdirs failed to create " + parentPath);
+		}
+		return new FSDataOutputStream(createOutputStream(path, overwrite ? EnumSet.of(CreateFlag.CREATE, CreateFlag.OVERWRITE) : EnumSet.of(CreateFlag.CREATE),
+				permission, bufferSize), null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #createNonRecursive(Path, FsPermission, boolean, int, short, long, Progressable)}, overwriting any
+	 *           existing file only if the flags include {@link CreateFlag#OVERWRITE}.
+	 */
+	@Override
+	public FSDataOutputStream createNonRecursive(final Path path, @Nullable final FsPermission permission, final EnumSet<CreateFlag> flags,
+			final int bufferSize, final short replication, final long blockSize, final Progressable progress) throws IOException {
+		return createNonRecursive(path, permission, flags.contains(CreateFlag.OVERWRITE), bufferSize, replication, blockSize, progress);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation returns a stream from {@link #createOutputStream(Path, EnumSet, FsPermission, int)}. Whether the file already exists is
+	 *           determined atomically when the file is opened, without retrieving the file status beforehand.
+	 */
+	@Override
+	public FSDataOutputStream createNonRecursive(final Path path, @Nullable final FsPermission permission, final boolean overwrite, final int bufferSize,
+			final short replication, final long blockSize, final Progressable progress) throws IOException {
+		return new FSDataOutputStream(createOutputStream(path, overwrite ? EnumSet.of(CreateFlag.CREATE, CreateFlag.OVERWRITE) : EnumSet.of(CreateFlag.CREATE),
+				permission, bufferSize), null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation returns a stream from {@link #createOutputStream(Path, EnumSet, FsPermission, int)}, without retrieving the file status
+	 *           beforehand.
+	 */
+	@Override
+	public FSDataOutputStream append(final Path path, final int bufferSize, final Progressable progress) throws IOException {
+		final NakedLocalFileOutputStream outputStream = createOutputStream(path, EnumSet.of(CreateFlag.APPEND), null, bufferSize);
+		try {
+			return new FSDataOutputStream(outputStream, null, outputStream.getFileChannel().size());
+		} catch(final IOException | RuntimeException exception) {
+			outputStream.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #createOutputStream(Path, EnumSet, FsPermission, int)} using the configured write buffer size.
+	 */
+	@Override
+	protected OutputStream createOutputStreamWithMode(final Path path, final boolean append, final FsPermission permission) throws IOException {
+		return createOutputStream(path, append ? EnumSet.of(CreateFlag.CREATE, CreateFlag.APPEND) : EnumSet.of(CreateFlag.CREATE, CreateFlag.OVERWRITE),
+				permission, writeBufferSize);
+	}
+
+	/**
+	 * Opens an output stream for writing the given file. The parent directory must already exist.
+	 * @implSpec This implementation returns a {@link NakedLocalFileOutputStream} supporting {@link Syncable}, using a buffer at least as large as the
+	 *           configured write buffer size, writing to a channel opened using {@link #openOutputChannel(java.nio.file.Path, EnumSet, FsPermission)}. Any cached
+	 *           status of the file is invalidated whenever the stream writes to the file and when it is closed.
+	 * @param path The path of the file to write.
+	 * @param flags The flags indicating how the file is to be opened: {@link CreateFlag#APPEND} appends to any existing file, and otherwise
+	 *          {@link CreateFlag#OVERWRITE} truncates any existing file; if neither is given, the file must not already exist. If {@link CreateFlag#APPEND}
+	 *          is given, the file must already exist unless {@link CreateFlag#CREATE} is also given.
+	 * @param permission The permission to set for the file, or <code>null</code> if the default permission should be used for a new file.
+	 * @param bufferSize The minimum size of the buffer to use for writing.
+	 * @return A new output stream for writing the file.
+	 * @throws FileAlreadyExistsException if the file exists and neither appending nor overwriting is requested.
+	 * @throws FileNotFoundException if the parent directory does not exist, or if appending is requested without creating and the file does not exist.
+	 * @throws IOException if an I/O error occurs opening the file, including if the path is a directory.
+	 */
+	protected NakedLocalFileOutputStream createOutputStream(final Path path, final EnumSet<CreateFlag> flags, @Nullable final FsPermission permission,
+			final int bufferSize) throws IOException {
+		final java.nio.file.Path nioPath = toNioPath(path);
+		final FileChannel fileChannel = openOutputChannel(nioPath, flags, permission);
+		try {
+			return new NakedLocalFileOutputStream(nioPath, fileChannel, Math.max(bufferSize, writeBufferSize), statistics,
+					findFileStatusInvalidator(nioPath).orElse(null));
+		} catch(final RuntimeException runtimeException) {
+			fileChannel.close();
+			throw runtimeException;
+		}
+	}
+
+	/**
+	 * Opens a channel for writing the given file. The parent directory must already exist.
+	 * @implSpec If the file is being created or overwritten and no permission is given, the default file permission is used; any permission is set after
+	 *           applying the configured umask, following the semantics of {@link RawLocalFileSystem}. Any cached status of the path is invalidated.
+	 * @param nioPath The Java NIO path of the file to write.
+	 * @param flags The flags indicating how the file is to be opened: {@link CreateFlag#APPEND} appends to any existing file, and otherwise
+	 *          {@link CreateFlag#OVERWRITE} truncates any existing file; if neither is given, the file must not already exist. If {@link CreateFlag#APPEND}
+	 *          is given, the file must already exist unless {@link CreateFlag#CREATE} is also given.
+	 * @param permission The permission to set for the file, or <code>null</code> if the default permission should be used for a new file.
+	 * @return A new channel open for writing the file.
+	 * @throws FileAlreadyExistsException if the file exists and neither appending nor overwriting is requested.
+	 * @throws FileNotFoundException if the parent directory does not exist, or if appending is requested without creating and the file does not exist.
+	 * @throws IOException if an I/O error occurs opening the file, including if the path is a directory.
+	 */
+	protected FileChannel openOutputChannel(final java.nio.file.Path nioPath, final EnumSet<CreateFlag> flags, @Nullable FsPermission permission)
+			throws IOException {
+		final Set<StandardOpenOption> openOptions = EnumSet.of(StandardOpenOption.WRITE);
+		final boolean append = flags.contains(CreateFlag.APPEND);
+		if(append) {
+			openOptions.add(StandardOpenOption.APPEND);
+			if(flags.contains(CreateFlag.CREATE)) {
+				openOptions.add(StandardOpenOption.CREATE);
+			}
+		} else if(flags.contains(CreateFlag.OVERWRITE)) {
+			openOptions.add(StandardOpenOption.CREATE);
+			openOptions.add(StandardOpenOption.TRUNCATE_EXISTING);
+		} else {
+			openOptions.add(StandardOpenOption.CREATE_NEW);
+		}
+		final FileChannel fileChannel;
+		try {
+			fileChannel = FileChannel.open(nioPath, openOptions);
+		} catch(final java.nio.file.FileAlreadyExistsException fileAlreadyExistsException) {
+			throw (FileAlreadyExistsException)new FileAlreadyExistsException(format("File `%s` already exists.", nioPath)).initCause(fileAlreadyExistsException);
+		} catch(final NoSuchFileException noSuchFileException) {
+			throw (FileNotFoundException)new FileNotFoundException(format("File `%s` or its parent directory does not exist.", nioPath))
+					.initCause(noSuchFileException);
+		} finally {
+			invalidateFileStatus(nioPath); //invalidate after the change, so that a status read concurrently is not cached
+		}
+		try {
+			if(!append && permission == null) {
+				permission = FsPermission.getFileDefault();
+			}
+			if(permission != null) {
+				setPermission(nioPath, permission.applyUMask(FsPermission.getUMask(getConf())));
+			}
+			return fileChannel;
+		} catch(final IOException | RuntimeException exception) {
+			fileChannel.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec As the source is in the local file system, this implementation copies directly using {@link #copy(Path, Path, boolean, boolean)}.
+	 */
+	@Override
+	public void copyFromLocalFile(final boolean delSrc, final boolean overwrite, final Path src, final Path dst) throws IOException {
+		copy(src, dst, delSrc, overwrite);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec As the sources are in the local file system, this implementation copies directly using {@link #copy(Path[], Path, boolean, boolean)}.
+	 */
+	@Override
+	public void copyFromLocalFile(final boolean delSrc, final boolean overwrite, final Path[] srcs, final Path dst) throws IOException {
+		copy(srcs, dst, delSrc, overwrite);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec As the destination is in the local file system, this implementation copies directly using {@link #copy(Path, Path, boolean, boolean)},
+	 *           overwriting any existing files. As this file system does not use checksum files, no checksum files are created regardless of
+	 *           <code>useRawLocalFileSystem</code>; {@link LocalFileSystem} reads files lacking checksum files without verification.
+	 */
+	@Override
+	public void copyToLocalFile(final boolean delSrc, final Path src, final Path dst, final boolean useRawLocalFileSystem) throws IOException {
+		copy(src, dst, delSrc, true);
+	}
+
+	/**
+	 * Copies multiple files or directory trees into a directory within this file system, following the semantics of
+	 * {@link FileUtil#copy(FileSystem, Path[], FileSystem, Path, boolean, boolean, Configuration)}.
+	 * @implSpec This implementation copies each source using {@link #copy(Path, Path, boolean, boolean)}, collecting the messages of any errors.
+	 * @param sources The files or directories to copy.
+	 * @param destination The destination, which must be an existing directory if there is more than one source.
+	 * @param deleteSource Whether each source should be deleted after being copied.
+	 * @param overwrite Whether existing destination files should be overwritten.
+	 * @return <code>true</code> if all the sources were copied and, if requested, deleted.
+	 * @throws IOException if the destination is not a directory, or if an I/O error occurs copying any of the sources.
+	 */
+	public boolean copy(final Path[] sources, final Path destination, final boolean deleteSource, final boolean overwrite) throws IOException {
+		if(sources.length == 1) {
+			return copy(sources[0], destination, deleteSource, overwrite);
+		}
+		final java.nio.file.Path destinationNioPath = toNioPath(destination);
+		if(!Files.isDirectory(destinationNioPath)) {
+			throw new IOException(Files.exists(destinationNioPath) ? format("Copying multiple files, but destination `%s` is not a directory.", destination)
+					: format("Destination directory `%s` does not exist.", destination));
+		}
+		boolean result = true;
+		final StringBuilder exceptionMessages = new StringBuilder();
+		for(final Path source : sources) {
+			try {
+				if(!copy(source, destination, deleteSource, overwrite)) {
+					result = false;
+				}
+			} catch(final IOException ioException) {
+				exceptionMessages.append(ioException.getMessage()).append('\n');
+			}
+		}
+		if(exceptionMessages.length() > 0) {
+			throw new IOException(exceptionMessages.toString());
+		}
+		return result;
+	}
+
+	/**
+	 * Copies a file or directory tree within this file system, following the semantics of
+	 * {@link FileUtil#copy(FileSystem, Path, FileSystem, Path, boolean, boolean, Configuration)}.
+	 * @implSpec This implementation delegates to {@link #copy(Path, Path, boolean, boolean, DirectoryStream.Filter)}, accepting all directory entries.
+	 * @param source The file or directory to copy.
+	 * @param destination The destination path; if this is an existing directory, the source will be copied into it using the source name.
+	 * @param deleteSource Whether the source should be deleted after being copied.
+	 * @param overwrite Whether existing destination files should be overwritten.
+	 * @return <code>true</code> if the source was copied and, if requested, deleted.
+	 * @throws FileNotFoundException if the source does not exist.
+	 * @throws PathExistsException if the destination exists and overwriting is not requested.
+	 * @throws IOException if the source is a directory containing the destination, or if an I/O error occurs.
+	 */
+	public boolean copy(final Path source, final Path destination, final boolean deleteSource, final boolean overwrite) throws IOException {
+		return copy(source, destination, deleteSource, overwrite, __ -> true);
+	}
+
+	/**
+	 * Copies a file or directory tree within this file system, following the semantics of
+	 * {@link FileUtil#copy(FileSystem, Path, FileSystem, Path, boolean, boolean, Configuration)}, copying only those directory entries accepted by a filter.
+	 * @implSpec This implementation delegates to {@link #copy(Path, Path, boolean, boolean, DirectoryStream.Filter, Predicate)}, copying all user-defined
+	 *           attributes.
+	 * @param source The file or directory to copy.
+	 * @param destination The destination path; if this is an existing directory, the source will be copied into it using the source name.
+	 * @param deleteSource Whether the source should be deleted after being copied.
+	 * @param overwrite Whether existing destination files should be overwritten.
+	 * @param filter The filter for the entries of directories to copy; entries not accepted are neither copied nor descended into, but will still be deleted
+	 *          if the source is to be deleted.
+	 * @return <code>true</code> if the source was copied and, if requested, deleted.
+	 * @throws FileNotFoundException if the source does not exist.
+	 * @throws PathExistsException if the destination exists and overwriting is not requested.
+	 * @throws IOException if the source is a directory containing the destination, or if an I/O error occurs.
+	 */
+	protected boolean copy(final Path source, final Path destination, final boolean deleteSource, final boolean overwrite,
+			final DirectoryStream.Filter<? super java.nio.file.Path> filter) throws IOException {
+		return copy(source, destination, deleteSource, overwrite, filter, __ -> true);
+	}
+
+	/**
+	 * Copies a file or directory tree within this file system, following the semantics of
+	 * {@link FileUtil#copy(FileSystem, Path, FileSystem, Path, boolean, boolean, Configuration)}, copying only those directory entries and user-defined
+	 * attributes accepted by filters.
+	 * @implSpec The contents of each file are copied using {@link #copyFile(java.nio.file.Path, java.nio.file.Path, boolean, Predicate)}. The entries of a
+	 *           directory tree are copied in parallel using the pool returned by {@link #findForkJoinPool()}, if parallelism is enabled. Unlike
+	 *           {@link FileUtil#copy(FileSystem, Path, FileSystem, Path, boolean, boolean, Configuration)}, existing subdirectories in the destination tree are
+	 *           merged rather than receiving a nested copy of the source subdirectory.
+	 * @param source The file or directory to copy.
+	 * @param destination The destination path; if this is an existing directory, the source will be copied into it using the source name.
+	 * @param deleteSource Whether the source should be deleted after being copied.
+	 * @param overwrite Whether existing destination files should be overwritten.
+	 * @param filter The filter for the entries of directories to copy; entries not accepted are neither copied nor descended into, but will still be deleted
+	 *          if the source is to be deleted.
+	 * @param attributeNameFilter The filter for the names of the user-defined attributes of each file to copy.
+	 * @return <code>true</code> if the source was copied and, if requested, deleted.
+	 * @throws FileNotFoundException if the source does not exist.
+	 * @throws PathExistsException if the destination exists and overwriting is not requested.
+	 * @throws IOException if the source is a directory containing the destination, or if an I/O error occurs.
+	 */
+	protected boolean copy(final Path source, Path destination, final boolean deleteSource, final boolean overwrite,
+			final DirectoryStream.Filter<? super java.nio.file.Path> filter, final Predicate<? super String> attributeNameFilter) throws IOException {
+		final java.nio.file.Path sourceNioPath = toNioPath(source);
+		final BasicFileAttributes sourceAttributes;
+		try {
+			sourceAttributes = Files.readAttributes(sourceNioPath, BasicFileAttributes.class);
+		} catch(final NoSuchFileException noSuchFileException) {
+			throw (FileNotFoundException)new FileNotFoundException(format("File `%s` does not exist.", source)).initCause(noSuchFileException);
+		}
+		java.nio.file.Path destinationNioPath = toNioPath(destination);
+		boolean destinationExists = Files.exists(destinationNioPath);
+		if(destinationExists && Files.isDirectory(destinationNioPath)) { //copy into an existing directory
+			final String sourceName = sourceNioPath.getFileName().toString();
+			destination = new Path(destination, sourceName);
+			destinationNioPath = destinationNioPath.resolve(sourceName);
+			destinationExists = Files.exists(destinationNioPath);
+			if(destinationExists && !overwrite) {
+				if(Files.isDirectory(destinationNioPath)) {
+					throw new PathIsDirectoryException(destination.toString());
+				}
+				throw new PathExistsException(destination.toString(), "Target " + destination + " already exists");
+			}
+		} else if(destinationExists && !overwrite) {
+			throw new PathExistsException(destination.toString(), "Target " + destination + " already exists");
+		}
+		if(destinationExists) {
+			if(!sourceAttributes.isDirectory() && Files.isSameFile(sourceNioPath, destinationNioPath)) { //don't truncate the source by overwriting it
+				throw new IOException(format("Cannot copy `%s` to itself.", source));
+			}
+		} else {
+			final Path destinationParent = destination.getParent();
+			if(destinationParent != null && !mkdirs(destinationParent)) {
+				throw new IOException("Mkdirs failed to create " + destinationParent);
+			}
+		}
+		try {
+			if(sourceAttributes.isDirectory()) {
+				final java.nio.file.Path normalizedSourceNioPath = sourceNioPath.toAbsolutePath().normalize();
+				final java.nio.file.Path normalizedDestinationNioPath = destinationNioPath.toAbsolutePath().normalize();
+				if(normalizedDestinationNioPath.startsWith(normalizedSourceNioPath)) {
+					throw new IOException(normalizedDestinationNioPath.equals(normalizedSourceNioPath) ? format("Cannot copy `%s` to itself.", source)
+							: format("Cannot copy `%s` to its subdirectory `%s`.", source, destination));
+				}
+				final Optional<ForkJoinPool> foundForkJoinPool = findForkJoinPool();
+				final CopyTask copyTask = new CopyTask(sourceNioPath, true, destinationNioPath, overwrite, filter, attributeNameFilter,
+						foundForkJoinPool.isPresent());
+				if(foundForkJoinPool.isPresent()) {
+					foundForkJoinPool.get().invoke(copyTask);
+				} else {
+					copyTask.compute();
+				}
+			} else {
+				copyFile(sourceNioPath, destinationNioPath, overwrite, attributeNameFilter);
+			}
+		} catch(final UncheckedIOException uncheckedIOException) {
+			throw uncheckedIOException.getCause();
+		} finally {
+			invalidateFileStatusTree(destinationNioPath);
+		}
+		return deleteSource ? delete(source, true) : true;
+	}
+
+	/**
+	 * Copies the contents of a single file.
+	 * @implSpec This implementation transfers the contents using {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, allowing
+	 *           the operating system to copy the data within the kernel (e.g. using <code>sendfile</code> or <code>copy_file_range</code> on Linux, depending
+	 *           on the Java version) without copying it into the Java heap. The destination file is opened using
+	 *           {@link #openOutputChannel(java.nio.file.Path, EnumSet, FsPermission)} with the default file permission. User-defined attributes are then
+	 *           copied using {@link #copyUserDefinedAttributes(java.nio.file.Path, java.nio.file.Path, boolean, Predicate)}.
+	 * @param sourceNioPath The Java NIO path of the file to copy.
+	 * @param destinationNioPath The Java NIO path of the file to create; its parent directory must exist.
+	 * @param overwrite Whether an existing destination file should be overwritten.
+	 * @param attributeNameFilter The filter for the names of the user-defined attributes to copy.
+	 * @throws FileNotFoundException if the source does not exist or the parent directory of the destination does not exist.
+	 * @throws FileAlreadyExistsException if the destination exists and overwriting is not requested.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected void copyFile(final java.nio.file.Path sourceNioPath, final java.nio.file.Path destinationNioPath, final boolean overwrite,
+			final Predicate<? super String> attributeNameFilter) throws IOException {
+		final FileChannel sourceChannel;
+		try {
+			sourceChannel = FileChannel.open(sourceNioPath, StandardOpenOption.READ);
+		} catch(final NoSuchFileException noSuchFileException) {
+			throw (FileNotFoundException)new FileNotFoundException(format("File `%s` does not exist.", sourceNioPath)).initCause(noSuchFileException);
+		}
+		long position = 0;
+		try (final FileChannel sourceFileChannel = sourceChannel;
+				final FileChannel destinationChannel = openOutputChannel(destinationNioPath,
+						overwrite ? EnumSet.of(CreateFlag.CREATE, CreateFlag.OVERWRITE) : EnumSet.of(CreateFlag.CREATE), null)) {
+			final long size = sourceFileChannel.size();
+			while(position < size) {
+				final long count = sourceFileChannel.transferTo(position, size - position, destinationChannel);
+				if(count <= 0) { //the source was truncated while being copied
+					break;
+				}
+				position += count;
+			}
+		} finally {
+			if(statistics != null) {
+				statistics.incrementBytesRead(position);
+				statistics.incrementBytesWritten(position);
+			}
+		}
+		copyUserDefinedAttributes(sourceNioPath, destinationNioPath, overwrite, attributeNameFilter);
+	}
+
+	/**
+	 * Copies the user-defined attributes (e.g. extended attributes in the <code>user</code> namespace on Linux) of a file, such as checksums stored by
+	 * {@link BareLocalFileSystem}, so that they accompany the copied contents.
+	 * @implSpec If the destination may have been overwritten, any user-defined attributes of the destination not copied from the source are removed. Attributes
+	 *           are not copied if either file store does not support user-defined attributes; the copy is not considered to have failed in that case.
+	 * @param sourceNioPath The Java NIO path of the copied file.
+	 * @param destinationNioPath The Java NIO path of the copy.
+	 * @param overwrite Whether the destination may have been an existing file that was overwritten.
+	 * @param attributeNameFilter The filter for the names of the attributes to copy.
+	 * @throws IOException if an I/O error occurs.
+	 * @see UserDefinedFileAttributeView
+	 */
+	protected void copyUserDefinedAttributes(final java.nio.file.Path sourceNioPath, final java.nio.file.Path destinationNioPath, final boolean overwrite,
+			final Predicate<? super String> attributeNameFilter) throws IOException {
+		final UserDefinedFileAttributeView sourceAttributeView = Files.getFileAttributeView(sourceNioPath, UserDefinedFileAttributeView.class);
+		final UserDefinedFileAttributeView destinationAttributeView = Files.getFileAttributeView(destinationNioPath, UserDefinedFileAttributeView.class);
+		if(sourceAttributeView == null || destinationAttributeView == null) {
+			return;
+		}
+		final List<String> names = new ArrayList<>();
+		try {
+			for(final String name : sourceAttributeView.list()) {
+				if(attributeNameFilter.test(name)) {
+					names.add(name);
+				}
+			}
+		} catch(final FileSystemException fileSystemException) { //user-defined attributes not supported
+			return;
+		}
+		try {
+			for(final String name : names) {
+				final ByteBuffer value = ByteBuffer.allocate(sourceAttributeView.size(name));
+				sourceAttributeView.read(name, value);
+				value.flip();
+				destinationAttributeView.write(name, value);
+			}
+			if(overwrite) {
+				for(final String name : destinationAttributeView.list()) {
+					if(!names.contains(name)) {
+						destinationAttributeView.delete(name);
+					}
+				}
+			}
+		} catch(final FileSystemException fileSystemException) {
+			//the destination file store may not support user-defined attributes, or attributes of that size
+		}
+	}
+
+	/**
+	 * Task for copying a file or directory tree. The entries of a directory are copied by subtasks, which are executed in parallel if requested.
+	 * @implNote Exceptions are propagated wrapped in {@link UncheckedIOException}.
+	 * @author Garret Wilson
+	 */
+	private class CopyTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final java.nio.file.Path sourceNioPath;
+
+		private final boolean isDirectory;
+
+		private final java.nio.file.Path destinationNioPath;
+
+		private final boolean overwrite;
+
+		private final DirectoryStream.Filter<? super java.nio.file.Path> filter;
+
+		private final Predicate<? super String> attributeNameFilter;
+
+		private final boolean parallel;
+
+		/**
+		 * Constructor.
+		 * @param sourceNioPath The Java NIO path of the file or directory to copy.
+		 * @param isDirectory Whether the source is a directory.
+		 * @param destinationNioPath The Java NIO path of the file or directory to create.
+		 * @param overwrite Whether existing destination files should be overwritten.
+		 * @param filter The filter for the entries of directories to copy.
+		 * @param attributeNameFilter The filter for the names of the user-defined attributes of each file to copy.
+		 * @param parallel Whether subtasks should be forked in the current pool rather than computed directly.
+		 */
+		public CopyTask(final java.nio.file.Path sourceNioPath, final boolean isDirectory, final java.nio.file.Path destinationNioPath, final boolean overwrite,
+				final DirectoryStream.Filter<? super java.nio.file.Path> filter, final Predicate<? super String> attributeNameFilter, final boolean parallel) {
+			this.sourceNioPath = requireNonNull(sourceNioPath);
+			this.isDirectory = isDirectory;
+			this.destinationNioPath = requireNonNull(destinationNioPath);
+			this.overwrite = overwrite;
+			this.filter = requireNonNull(filter);
+			this.attributeNameFilter = requireNonNull(attributeNameFilter);
+			this.parallel = parallel;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				if(!isDirectory) {
+					copyFile(sourceNioPath, destinationNioPath, overwrite, attributeNameFilter);
+					return;
+				}
+				try {
+					Files.createDirectory(destinationNioPath);
+				} catch(final java.nio.file.FileAlreadyExistsException fileAlreadyExistsException) {
+					if(!Files.isDirectory(destinationNioPath)) {
+						throw fileAlreadyExistsException;
+					}
+				}
+				final List<CopyTask> subtasks = new ArrayList<>();
+				try (final DirectoryStream<java.nio.file.Path> directoryStream = Files.newDirectoryStream(sourceNioPath, filter)) {
+					for(final java.nio.file.Path childNioPath : directoryStream) {
+						subtasks.add(new CopyTask(childNioPath, Files.isDirectory(childNioPath), destinationNioPath.resolve(childNioPath.getFileName().toString()),
+								overwrite, filter, attributeNameFilter, parallel));
+					}
+				} catch(final DirectoryIteratorException directoryIteratorException) {
+					throw directoryIteratorException.getCause();
+				}
+				if(parallel) {
+					invokeAll(subtasks);
+				} else {
+					for(final CopyTask subtask : subtasks) {
+						subtask.compute();
+					}
+				}
+			} catch(final IOException ioException) {
+				throw new UncheckedIOException(ioException);
+			}
+		}
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation invalidates any cached status of the path.
+	 */
+	@Override
+	public boolean truncate(final Path path, final long newLength) throws IOException {
+		try {
+			return super.truncate(path, newLength);
+		} finally {
+			invalidateFileStatus(toNioPath(path));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation first attempts to delete the path directly using {@link Files#delete(java.nio.file.Path)}, without retrieving its status
+	 *           beforehand. If the path is a non-empty directory and deletion is recursive, the tree is deleted using {@link #deleteTree(java.nio.file.Path)}.
+	 *           Any cached status of the path and of the paths within it is invalidated.
+	 * @implNote Unlike {@link RawLocalFileSystem}, which returns <code>false</code> if it cannot delete an existing path, this implementation throws an
+	 *           {@link IOException} indicating the cause of the failure.
+	 * @throws PathIsNotEmptyDirectoryException if the path is a non-empty directory and deletion is not recursive.
+	 */
+	@Override
+	public boolean delete(final Path path, final boolean recursive) throws IOException {
+		final java.nio.file.Path nioPath = toNioPath(path);
+		try {
+			Files.delete(nioPath);
+			return true;
+		} catch(final NoSuchFileException noSuchFileException) {
+			return false;
+		} catch(final DirectoryNotEmptyException directoryNotEmptyException) {
+			if(!recursive) {
+				throw (PathIsNotEmptyDirectoryException)new PathIsNotEmptyDirectoryException(path.toString()).initCause(directoryNotEmptyException);
+			}
+			deleteTree(nioPath);
+			return true;
+		} finally {
+			invalidateFileStatusTree(nioPath);
+		}
+	}
+
+	/**
+	 * Deletes a directory and all its contents. Symbolic links are deleted rather than followed, and entries that are removed concurrently by some other
+	 * process are ignored.
+	 * @implSpec This implementation deletes the tree in post-order, deleting the subdirectories of each directory in parallel using the pool returned by
+	 *           {@link #findForkJoinPool()}, if parallelism is enabled. If the platform provides a {@link SecureDirectoryStream}, each entry is first deleted
+	 *           relative to its open directory using {@link SecureDirectoryStream#deleteFile(Object)}, which for a file requires no retrieval of its status,
+	 *           and only entries that cannot be deleted as files are checked to determine whether they are directories.
+	 * @param nioPath The Java NIO path of the directory to delete.
+	 * @throws IOException if an I/O error occurs, including if an entry is added to a directory while it is being deleted.
+	 */
+	protected void deleteTree(final java.nio.file.Path nioPath) throws IOException {
+		final Optional<ForkJoinPool> foundForkJoinPool = findForkJoinPool();
+		final DeleteTreeTask deleteTreeTask = new DeleteTreeTask(nioPath, foundForkJoinPool.isPresent());
+		try {
+			if(foundForkJoinPool.isPresent()) {
+				foundForkJoinPool.get().invoke(deleteTreeTask);
+			} else {
+				deleteTreeTask.compute();
+			}
+		} catch(final UncheckedIOException uncheckedIOException) {
+			throw uncheckedIOException.getCause();
+		}
+	}
+
+	/**
+	 * Task for deleting a directory tree in post-order. The subdirectories of a directory are deleted by subtasks, which are executed in parallel if requested.
+	 * @implNote Exceptions are propagated wrapped in {@link UncheckedIOException}.
+	 * @author Garret Wilson
+	 */
+	private static class DeleteTreeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final java.nio.file.Path directoryNioPath;
+
+		private final boolean parallel;
+
+		/**
+		 * Constructor.
+		 * @param directoryNioPath The Java NIO path of the directory to delete.
+		 * @param parallel Whether subtasks should be forked in the current pool rather than computed directly.
+		 */
+		public DeleteTreeTask(final java.nio.file.Path directoryNioPath, final boolean parallel) {
+			this.directoryNioPath = requireNonNull(directoryNioPath);
+			this.parallel = parallel;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				final List<DeleteTreeTask> subtasks = new ArrayList<>();
+				try (final DirectoryStream<java.nio.file.Path> directoryStream = Files.newDirectoryStream(directoryNioPath)) {
+					final SecureDirectoryStream<java.nio.file.Path> secureDirectoryStream = directoryStream instanceof SecureDirectoryStream
+							? (SecureDirectoryStream<java.nio.file.Path>)directoryStream
+							: null;
+					for(final java.nio.file.Path childNioPath : directoryStream) {
+						try {
+							if(secureDirectoryStream != null) {
+								secureDirectoryStream.deleteFile(childNioPath.getFileName());
+							} else if(!Files.isDirectory(childNioPath, LinkOption.NOFOLLOW_LINKS)) {
+								Files.delete(childNioPath);
+							} else {
+								subtasks.add(new DeleteTreeTask(childNioPath, parallel));
+							}
+						} catch(final NoSuchFileException noSuchFileException) {
+							//an entry removed concurrently is not an error
+						} catch(final FileSystemException fileSystemException) { //the entry may be a directory that cannot be deleted as a file
+							if(secureDirectoryStream == null || !Files.isDirectory(childNioPath, LinkOption.NOFOLLOW_LINKS)) {
+								throw fileSystemException;
+							}
+							subtasks.add(new DeleteTreeTask(childNioPath, parallel));
+						}
+					}
+				} catch(final NoSuchFileException noSuchFileException) {
+					return; //a directory removed concurrently is not an error
+				} catch(final DirectoryIteratorException directoryIteratorException) {
+					throw directoryIteratorException.getCause();
+				}
+				if(parallel) {
+					invokeAll(subtasks);
+				} else {
+					for(final DeleteTreeTask subtask : subtasks) {
+						subtask.compute();
+					}
+				}
+				Files.deleteIfExists(directoryNioPath);
+			} catch(final IOException ioException) {
+				throw new UncheckedIOException(ioException);
+			}
+		}
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation first attempts an atomic move using {@link Files#move(java.nio.file.Path, java.nio.file.Path, java.nio.file.CopyOption...)}
+	 *           with {@link StandardCopyOption#ATOMIC_MOVE}, which on POSIX systems is a single <code>rename</code> system call, without retrieving the status
+	 *           of either path beforehand. If that fails, the semantics of {@link RawLocalFileSystem#rename(Path, Path)} are preserved: if the destination is
+	 *           an existing directory, the source is moved into it using the source name; and if the parent of the destination does not exist, it is created.
+	 *           If the source and destination are on different file stores, or a source directory is moved into a non-empty destination directory, the source
+	 *           is copied using {@link #copy(Path, Path, boolean, boolean)}, overwriting existing files and then deleting the source. Any cached status of the
+	 *           source and destination trees is invalidated.
+	 * @throws FileNotFoundException if the source does not exist.
+	 */
+	@Override
+	public boolean rename(final Path source, final Path destination) throws IOException {
+		final java.nio.file.Path sourceNioPath = toNioPath(source);
+		final java.nio.file.Path destinationNioPath = toNioPath(destination);
+		try {
+			try {
+				Files.move(sourceNioPath, destinationNioPath, StandardCopyOption.ATOMIC_MOVE);
+				return true;
+			} catch(final AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+				throw atomicMoveNotSupportedException;
+			} catch(final NoSuchFileException noSuchFileException) {
+				if(!Files.exists(sourceNioPath)) {
+					throw (FileNotFoundException)new FileNotFoundException(format("File `%s` does not exist.", source)).initCause(noSuchFileException);
+				}
+				final Path destinationParent = destination.getParent(); //the parent of the destination must be missing
+				if(destinationParent == null || !mkdirs(destinationParent)) {
+					return false;
+				}
+				Files.move(sourceNioPath, destinationNioPath, StandardCopyOption.ATOMIC_MOVE);
+				return true;
+			} catch(final FileSystemException fileSystemException) {
+				if(!Files.isDirectory(destinationNioPath)) {
+					return false;
+				}
+				try { //move into the existing destination directory
+					Files.move(sourceNioPath, destinationNioPath.resolve(sourceNioPath.getFileName().toString()), StandardCopyOption.ATOMIC_MOVE);
+					return true;
+				} catch(final DirectoryNotEmptyException directoryNotEmptyException) { //merge with an existing subdirectory
+					return copy(source, destination, true, true);
+				}
+			}
+		} catch(final AtomicMoveNotSupportedException atomicMoveNotSupportedException) { //fall back to a copy across file stores
+			return copy(source, destination, true, true);
+		} finally {
+			invalidateFileStatusTree(sourceNioPath);
+			invalidateFileStatusTree(destinationNioPath);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #mkdirs(Path, FsPermission)} using the default directory permission.
+	 * @see FsPermission#getDirDefault()
+	 */
+	@Override
+	public boolean mkdirs(final Path path) throws IOException {
+		return mkdirs(path, FsPermission.getDirDefault());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation creates the directory using {@link #mkdirs(java.nio.file.Path, FsPermission)}, using the default directory permission if
+	 *           no permission is given, and invalidates any cached status of the path and of its ancestors.
+	 * @throws FileAlreadyExistsException if the path exists but is not a directory.
+	 * @throws ParentNotDirectoryException if an ancestor of the path exists but is not a directory.
+	 */
+	@Override
+	public boolean mkdirs(final Path path, @Nullable final FsPermission permission) throws IOException {
+		final java.nio.file.Path nioPath = toNioPath(path);
+		try {
+			mkdirs(nioPath, permission != null ? permission : FsPermission.getDirDefault());
+			return true;
+		} finally {
+			invalidateFileStatusAncestors(nioPath);
+		}
+	}
+
+	/**
+	 * Creates a directory along with any missing ancestor directories using Java NIO.
+	 * @implSpec Rather than checking each level of the hierarchy beforehand as {@link RawLocalFileSystem} does, this implementation attempts to create the
+	 *           directory directly, and only if its parent is missing walks up the hierarchy as far as needed, creating each missing ancestor on the way back
+	 *           down. Each level is created using {@link #createDirectory(java.nio.file.Path, FsPermission)}; as with {@link RawLocalFileSystem}, missing
+	 *           ancestors are created with the default directory permission. A directory that already exists, such as one created concurrently by another
+	 *           task, is not considered an error.
+	 * @param nioPath The Java NIO path of the directory to create.
+	 * @param permission The permission of the directory, before the umask is applied.
+	 * @throws FileAlreadyExistsException if the path exists but is not a directory.
+	 * @throws ParentNotDirectoryException if an ancestor of the path exists but is not a directory.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected void mkdirs(final java.nio.file.Path nioPath, final FsPermission permission) throws IOException {
+		try {
+			try {
+				createDirectory(nioPath, permission);
+			} catch(final NoSuchFileException noSuchFileException) {
+				final java.nio.file.Path parentNioPath = nioPath.getParent();
+				if(parentNioPath == null) {
+					throw noSuchFileException;
+				}
+				mkdirs(parentNioPath, FsPermission.getDirDefault());
+				createDirectory(nioPath, permission);
+			}
+		} catch(final java.nio.file.FileAlreadyExistsException fileAlreadyExistsException) { //tolerate a directory created concurrently
+			if(!Files.isDirectory(nioPath)) {
+				throw (FileAlreadyExistsException)new FileAlreadyExistsException(format("Path `%s` exists and is not a directory.", nioPath))
+						.initCause(fileAlreadyExistsException);
+			}
+		} catch(final FileSystemException fileSystemException) { //e.g. `ENOTDIR` if some ancestor is not a directory
+			java.nio.file.Path ancestorNioPath = nioPath.getParent();
+			while(ancestorNioPath != null && !Files.exists(ancestorNioPath)) {
+				ancestorNioPath = ancestorNioPath.getParent();
+			}
+			if(ancestorNioPath != null && !Files.isDirectory(ancestorNioPath)) {
+				throw (ParentNotDirectoryException)new ParentNotDirectoryException(format("Path `%s` is not a directory.", ancestorNioPath))
+						.initCause(fileSystemException);
+			}
+			throw fileSystemException;
+		}
+	}
+
+	/**
+	 * Creates a single directory, applying the configured umask to the given permission. The parent directory must already exist.
+	 * @implSpec If the file system supports POSIX file attributes, this implementation creates the directory with its permissions in a single step using
+	 *           {@link Files#createDirectory(java.nio.file.Path, FileAttribute...)}. The operating system however further restricts initial permissions by the
+	 *           process umask, which is not visible to Java, or by a default ACL of the parent directory, and the sticky bit cannot be set initially. Thus the
+	 *           resulting permissions are read back and, if different or if the sticky bit is requested, set explicitly using
+	 *           {@link #setPermission(java.nio.file.Path, FsPermission)}; in the common case of the configured umask being at least as restrictive as that of
+	 *           the process, no change of permissions is needed. If POSIX file attributes are not supported, the directory is created without attributes and
+	 *           the permission is then set explicitly.
+	 * @implNote Which mode bits survive creation depends on the parent directory and its file store, so the resulting permissions are checked for every
+	 *           directory rather than inferred from directories created earlier.
+	 * @param nioPath The Java NIO path of the directory to create.
+	 * @param permission The permission of the directory, before the umask is applied.
+	 * @throws java.nio.file.FileAlreadyExistsException if a file or directory already exists at the path.
+	 * @throws NoSuchFileException if the parent directory does not exist.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	protected void createDirectory(final java.nio.file.Path nioPath, final FsPermission permission) throws IOException {
+		final FsPermission maskedPermission = permission.applyUMask(FsPermission.getUMask(getConf()));
+		if(!isPosixFileAttributeViewSupported(nioPath)) {
+			Files.createDirectory(nioPath);
+			setPermission(nioPath, maskedPermission);
+			return;
+		}
+		Files.createDirectory(nioPath, PosixFilePermissions.asFileAttribute(toNioPosixFilePermissions(maskedPermission)));
+		final int mode = maskedPermission.toShort() & POSIX_PERMISSION_MODE_MASK;
+		final int actualMode = toFsPermission(Files.getPosixFilePermissions(nioPath, LinkOption.NOFOLLOW_LINKS)).toShort() & POSIX_PERMISSION_MODE_MASK;
+		if(maskedPermission.getStickyBit() || actualMode != mode) {
+			setPermission(nioPath, maskedPermission);
+		}
+	}
+
+	/**
+	 * Removes any cached status of a path and of its parent, if file statuses are being cached.
+	 * @param nioPath The Java NIO path that has been modified.
+	 * @see FileStatusCache#invalidate(java.nio.file.Path)
+	 */
+	protected void invalidateFileStatus(final java.nio.file.Path nioPath) {
+		if(fileStatusCache != null) {
+			fileStatusCache.invalidate(FileStatusCache.toKey(nioPath));
+		}
+	}
+
+	/**
+	 * Returns an action for invalidating the cached status of a path as it is modified, such as by an output stream, if file statuses are being cached.
+	 * @param nioPath The Java NIO path that will be modified.
+	 * @return An action invalidating the status of the path using {@link #invalidateFileStatus(java.nio.file.Path)}, which will not be present if file
+	 *         statuses are not being cached.
+	 */
+	protected Optional<Runnable> findFileStatusInvalidator(final java.nio.file.Path nioPath) {
+		return fileStatusCache != null ? Optional.of(() -> invalidateFileStatus(nioPath)) : Optional.empty();
+	}
+
+	/**
+	 * Removes any cached status of a path, of the paths within it, and of its parent, if file statuses are being cached.
+	 * @param nioPath The Java NIO path that has been modified, moved, or removed.
+	 * @see FileStatusCache#invalidateTree(java.nio.file.Path)
+	 */
+	protected void invalidateFileStatusTree(final java.nio.file.Path nioPath) {
+		if(fileStatusCache != null) {
+			fileStatusCache.invalidateTree(FileStatusCache.toKey(nioPath));
+		}
+	}
+
+	/**
+	 * Removes any cached status of a path and of all its ancestors, if file statuses are being cached.
+	 * @param nioPath The Java NIO path that has been created along with any missing ancestors.
+	 */
+	protected void invalidateFileStatusAncestors(final java.nio.file.Path nioPath) {
+		if(fileStatusCache != null) {
+			for(java.nio.file.Path key = FileStatusCache.toKey(nioPath); key != null; key = key.getParent()) {
+				fileStatusCache.invalidate(key);
+			}
+		}
+	}
+
+	/** A filter of directory entries that accepts all entries. */
+	protected static final DirectoryStream.Filter<java.nio.file.Path> ACCEPT_ALL_FILTER = __ -> true;
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #listStatus(java.nio.file.Path)}.
+	 */
+	@Override
+	public FileStatus[] listStatus(final Path path) throws IOException {
+		return listStatus(toNioPath(path));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #listStatus(java.nio.file.Path, DirectoryStream.Filter)}, applying the filter to each directory entry
+	 *           before its status is retrieved.
+	 * @see #toDirectoryStreamFilter(PathFilter)
+	 */
+	@Override
+	public FileStatus[] listStatus(final Path path, final PathFilter filter) throws FileNotFoundException, IOException {
+		return listStatus(toNioPath(path), toDirectoryStreamFilter(filter));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #listStatus(java.nio.file.Path, DirectoryStream.Filter)} for each path in turn, applying the filter to
+	 *           each directory entry before its status is retrieved.
+	 * @see #toDirectoryStreamFilter(PathFilter)
+	 */
+	@Override
+	public FileStatus[] listStatus(final Path[] paths, final PathFilter filter) throws FileNotFoundException, IOException {
+		final DirectoryStream.Filter<java.nio.file.Path> directoryStreamFilter = toDirectoryStreamFilter(filter);
+		final List<FileStatus> fileStatuses = new ArrayList<>();
+		for(final Path path : paths) {
+			fileStatuses.addAll(Arrays.asList(listStatus(toNioPath(path), directoryStreamFilter)));
+		}
+		return fileStatuses.toArray(new FileStatus[0]);
+	}
+
+	/**
+	 * Adapts a Hadoop path filter to a filter of directory entries, so that the path filter may be applied before the statuses of the entries are retrieved.
+	 * @param filter The Hadoop path filter, which will be provided the same path that the status of each entry would have.
+	 * @return A filter of directory entries delegating to the given path filter.
+	 * @see #toPath(java.nio.file.Path)
+	 */
+	protected DirectoryStream.Filter<java.nio.file.Path> toDirectoryStreamFilter(final PathFilter filter) {
+		return nioPath -> filter.accept(toPath(nioPath));
+	}
+
+	/**
+	 * List the statuses of the files/directories in the given path if the path is a directory; otherwise returns an array containing the status of the path
+	 * itself. The statuses are not guaranteed to be returned in any particular order.
+	 * @implSpec This implementation delegates to {@link #listStatus(java.nio.file.Path, DirectoryStream.Filter)}, accepting all directory entries.
+	 * @param nioPath The Java NIO path for which to list directories.
+	 * @return The statuses of the files/directories in the given path.
+	 * @throws FileNotFoundException when the path does not exist.
+	 * @throws IOException If a general I/O exception occurs.
+	 */
+	public FileStatus[] listStatus(final java.nio.file.Path nioPath) throws FileNotFoundException, IOException {
+		return listStatus(nioPath, ACCEPT_ALL_FILTER);
+	}
+
+	/**
+	 * List the statuses of the files/directories in the given path accepted by a filter if the path is a directory; otherwise returns an array containing the
+	 * status of the path itself if accepted by the filter. The statuses are not guaranteed to be returned in any particular order.
+	 * @apiNote Because the filter is applied to the directory entries before their statuses are retrieved, filtering by name, such as skipping hidden files,
+	 *          avoids retrieving the statuses of the rejected entries altogether.
+	 * @implSpec The entries are filtered by a {@link DirectoryStream} of the directory. If parallelism is enabled and the directory has at least
+	 *           {@link #getListStatusParallelThreshold()} accepted entries, the statuses of the entries are retrieved in parallel using the pool returned by
+	 *           {@link #findForkJoinPool()}.
+	 * @param nioPath The Java NIO path for which to list directories.
+	 * @param filter The filter of directory entries, which is only provided the path of each entry.
+	 * @return The statuses of the files/directories in the given path accepted by the filter.
+	 * @throws FileNotFoundException when the path does not exist.
+	 * @throws IOException If a general I/O exception occurs, including one thrown by the filter.
+	 */
+	public FileStatus[] listStatus(final java.nio.file.Path nioPath, final DirectoryStream.Filter<? super java.nio.file.Path> filter)
+			throws FileNotFoundException, IOException {
+		if(!Files.isDirectory(nioPath, LinkOption.NOFOLLOW_LINKS)) { //if this is not a directory (and not _supposed_ to be a directory, so don't follow symlinks)
+			final FileStatus fileStatus = getFileStatus(nioPath);
+			return filter.accept(nioPath) ? new FileStatus[] {fileStatus} : new FileStatus[0]; //return non-directories as a single list of the single file
+		}
+
+		//no need to check if path exists --- listing its contents will do this automatically anyway
+		final Optional<ForkJoinPool> foundForkJoinPool = findForkJoinPool();
+		try (final DirectoryStream<java.nio.file.Path> directoryStream = Files.newDirectoryStream(nioPath, filter)) {
+			final Stream<java.nio.file.Path> childNioPaths = StreamSupport.stream(directoryStream.spliterator(), false);
+			if(!foundForkJoinPool.isPresent()) {
+				return getFileStatuses(childNioPaths);
+			}
+			final List<java.nio.file.Path> childNioPathList = childNioPaths.collect(toList());
+			if(childNioPathList.size() < getListStatusParallelThreshold()) {
+				return getFileStatuses(childNioPathList.stream());
+			}
+			return invokeInPool(foundForkJoinPool.get(), () -> getFileStatuses(childNioPathList.parallelStream()));
+		} catch(final DirectoryIteratorException directoryIteratorException) {
+			throw directoryIteratorException.getCause();
+		} catch(final UncheckedIOException uncheckedIOException) {
+			throw uncheckedIOException.getCause();
+		}
+	}
+
+	/**
+	 * Retrieves the statuses of the given directory entries, skipping any entries that no longer exist.
+	 * @param childNioPaths The Java NIO paths of the directory entries, which may be a parallel stream.
+	 * @return The statuses of the directory entries that still exist.
+	 * @throws UncheckedIOException if an I/O exception other than a missing file occurs.
+	 */
+	private FileStatus[] getFileStatuses(final Stream<java.nio.file.Path> childNioPaths) {
+		return childNioPaths.map(childNioPath -> {
+			try {
+				return readFileStatus(childNioPath);
+			} catch(final FileNotFoundException fileNotFoundException) {
+				//If a child disappears before we can describe it, don't consider that an error;
+				//instead, consider that the directory listing has changed. (This implies that the
+				//exact static directory list returned might never have existed at any point in time.)
+				return null;
+			} catch(final IOException ioException) {
+				throw new UncheckedIOException(ioException); //another approach would be to use FauxPas or similar
+			}
+		}).filter(Objects::nonNull).toArray(FileStatus[]::new);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #listStatusIterator(java.nio.file.Path)}.
+	 */
+	@Override
+	public RemoteIterator<FileStatus> listStatusIterator(final Path path) throws IOException {
+		return listStatusIterator(toNioPath(path));
+	}
+
+	/**
+	 * Lazily iterates the statuses of the files/directories in the given path if the path is a directory; otherwise returns an iterator of the status of the
+	 * path itself. The statuses are not guaranteed to be returned in any particular order.
+	 * @apiNote Unlike {@link #listStatus(java.nio.file.Path)}, the memory used by this method does not depend on the number of entries in the directory.
+	 * @implSpec This implementation iterates a {@link DirectoryStream} of the directory and retrieves the status of each entry only as it is requested.
+	 *           Entries that no longer exist when their status is retrieved are skipped. The underlying directory stream is closed when the iteration is
+	 *           exhausted, when an error occurs, or when the iterator is closed, e.g. via {@link RemoteIterators#cleanupRemoteIterator(RemoteIterator)}.
+	 * @param nioPath The Java NIO path for which to list directories.
+	 * @return An iterator of the statuses of the files/directories in the given path.
+	 * @throws FileNotFoundException when the path does not exist.
+	 * @throws IOException If a general I/O exception occurs.
+	 * @see #listStatusIterator(java.nio.file.Path, DirectoryStream.Filter)
+	 */
+	public RemoteIterator<FileStatus> listStatusIterator(final java.nio.file.Path nioPath) throws FileNotFoundException, IOException {
+		return listStatusIterator(nioPath, ACCEPT_ALL_FILTER);
+	}
+
+	/**
+	 * Lazily iterates the statuses of the files/directories in the given path accepted by a filter if the path is a directory; otherwise returns an iterator
+	 * of the status of the path itself if accepted by the filter. The statuses are not guaranteed to be returned in any particular order.
+	 * @apiNote Because the filter is applied to the directory entries before their statuses are retrieved, filtering by name, such as skipping hidden files,
+	 *          avoids retrieving the statuses of the rejected entries altogether.
+	 * @implSpec This implementation iterates a {@link DirectoryStream} of the directory using the filter, in the same manner as
+	 *           {@link #listStatusIterator(java.nio.file.Path)}.
+	 * @param nioPath The Java NIO path for which to list directories.
+	 * @param filter The filter of directory entries, which is only provided the path of each entry.
+	 * @return An iterator of the statuses of the files/directories in the given path accepted by the filter.
+	 * @throws FileNotFoundException when the path does not exist.
+	 * @throws IOException If a general I/O exception occurs, including one thrown by the filter.
+	 */
+	public RemoteIterator<FileStatus> listStatusIterator(final java.nio.file.Path nioPath, final DirectoryStream.Filter<? super java.nio.file.Path> filter)
+			throws FileNotFoundException, IOException {
+		if(!Files.isDirectory(nioPath, LinkOption.NOFOLLOW_LINKS)) { //if this is not a directory (and not _supposed_ to be a directory, so don't follow symlinks)
+			final FileStatus fileStatus = getFileStatus(nioPath);
+			return filter.accept(nioPath) ? RemoteIterators.remoteIteratorFromSingleton(fileStatus) //return non-directories as an iterator of the single file
+					: RemoteIterators.remoteIteratorFromArray(new FileStatus[0]);
+		}
+		try {
+			return new DirectoryStatusIterator(Files.newDirectoryStream(nioPath, filter));
+		} catch(final NoSuchFileException noSuchFileException) {
+			throw (FileNotFoundException)new FileNotFoundException(format("Directory `%s` does not exist.", nioPath)).initCause(noSuchFileException);
+		}
+	}
+
+	/**
+	 * Iterator of the statuses of a directory's entries, retrieving each status on demand from a Java NIO directory stream.
+	 * @author Garret Wilson
+	 */
+	protected class DirectoryStatusIterator implements RemoteIterator<FileStatus>, Closeable {
+
+		private final DirectoryStream<java.nio.file.Path> directoryStream;
+
+		private final Iterator<java.nio.file.Path> childNioPathIterator;
+
+		/** The status of the next entry, if it has already been retrieved. */
+		@Nullable
+		private FileStatus nextFileStatus = null;
+
+		private boolean closed = false;
+
+		/**
+		 * Directory stream constructor.
+		 * @param directoryStream The directory stream providing the directory entries; it will be closed when iteration is complete.
+		 */
+		public DirectoryStatusIterator(final DirectoryStream<java.nio.file.Path> directoryStream) {
+			this.directoryStream = requireNonNull(directoryStream);
+			this.childNioPathIterator = directoryStream.iterator();
+		}
+
+		@Override
+		public boolean hasNext() throws IOException {
+			try {
+				while(nextFileStatus == null && !closed) {
+					if(!childNioPathIterator.hasNext()) {
+						close();
+						break;
+					}
+					try {
+						nextFileStatus = readFileStatus(childNioPathIterator.next());
+					} catch(final FileNotFoundException fileNotFoundException) {
+						//an entry disappearing before it can be described is not an error; see `listStatus()`
+					}
+				}
+			} catch(final DirectoryIteratorException directoryIteratorException) {
+				close();
+				throw directoryIteratorException.getCause();
+			} catch(final IOException ioException) {
+				close();
+				throw ioException;
+			}
+			return nextFileStatus != null;
+		}
+
+		@Override
+		public FileStatus next() throws IOException {
+			if(!hasNext()) {
+				throw new NoSuchElementException("No more entries in directory.");
+			}
+			final FileStatus fileStatus = nextFileStatus;
+			nextFileStatus = null;
+			return fileStatus;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if(!closed) {
+				closed = true;
+				directoryStream.close();
+			}
+		}
+
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #listLocatedStatus(java.nio.file.Path, DirectoryStream.Filter)}, lazily iterating the directory rather
+	 *           than loading all the statuses at once, and applying the filter to each directory entry before its status is retrieved.
+	 * @see #toDirectoryStreamFilter(PathFilter)
+	 */
 	@Override
-	public void initialize(final URI uri, final Configuration conf) throws IOException {
-		super.initialize(uri, conf);
-		this.defaultBlockSize = getDefaultBlockSize(new Path(uri));
+	protected RemoteIterator<LocatedFileStatus> listLocatedStatus(final Path path, final PathFilter filter) throws IOException {
+		return listLocatedStatus(toNioPath(path), toDirectoryStreamFilter(filter));
+	}
+
+	/**
+	 * Lazily iterates the located statuses of the files/directories in the given path accepted by a filter if the path is a directory; otherwise returns an
+	 * iterator of the located status of the path itself if accepted by the filter.
+	 * @apiNote Because the filter is applied to the directory entries before their statuses are retrieved, filtering by name, such as skipping hidden files,
+	 *          avoids retrieving the statuses of the rejected entries altogether.
+	 * @implSpec This implementation delegates to {@link #listStatusIterator(java.nio.file.Path, DirectoryStream.Filter)}.
+	 * @param nioPath The Java NIO path for which to list directories.
+	 * @param filter The filter of directory entries, which is only provided the path of each entry.
+	 * @return An iterator of the located statuses of the files/directories in the given path accepted by the filter.
+	 * @throws FileNotFoundException when the path does not exist.
+	 * @throws IOException If a general I/O exception occurs, including one thrown by the filter.
+	 */
+	public RemoteIterator<LocatedFileStatus> listLocatedStatus(final java.nio.file.Path nioPath, final DirectoryStream.Filter<? super java.nio.file.Path> filter)
+			throws FileNotFoundException, IOException {
+		return RemoteIterators.mappingRemoteIterator(listStatusIterator(nioPath, filter), this::toLocatedFileStatus);
+	}
+
+	/**
+	 * Creates a located file status from a file status, including block locations if the status represents a file.
+	 * @param fileStatus The file status.
+	 * @return A located file status representing the given file status.
+	 * @throws IOException If an I/O error occurs determining the block locations.
+	 */
+	protected LocatedFileStatus toLocatedFileStatus(final FileStatus fileStatus) throws IOException {
+		//for files, use getFileBlockLocations(FileStatus, long, long) to avoid loading the file status again
+		return new LocatedFileStatus(fileStatus, fileStatus.isFile() ? getFileBlockLocations(fileStatus, 0, fileStatus.getLen()) : null);
 	}
 
 	/**
 	 * {@inheritDoc}
-	 * @implSpec This implementation returns <code>false</code> because symbolic links are not yet supported.
-	 * @implNote It does not appears that the default code in the the parent {@link RawLocalFileSystem} and related classes actually <em>check</em> this indicator
-	 *           at the appropriate places, so it is not guaranteed that symlink-related calls will fail-fast with an appropriate error.
+	 * @implSpec This implementation delegates to {@link #globStatus(Path, PathFilter)}, accepting all paths.
 	 */
 	@Override
-	public boolean supportsSymlinks() {
-		return false;
+	public FileStatus[] globStatus(final Path pathPattern) throws IOException {
+		return globStatus(pathPattern, __ -> true);
 	}
 
 	/**
-	 * Converts a Hadoop path to a Java NIO path.
-	 * @implNote This implementation leverages the existing {@link RawLocalFileSystem#pathToFile(Path)} method. It should be improved to use pure NIO methods,
-	 *           obviating the need for an intermediate {@link File} conversion.
-	 * @param path The Hadoop path to convert.
-	 * @return An equivalent Java NIO path.
+	 * {@inheritDoc}
+	 * @implSpec This implementation delegates to {@link #globStatus(Path, PathFilter, DirectoryStream.Filter)}, accepting all directory entries.
 	 */
-	public java.nio.file.Path toNioPath(final Path path) {
-		return pathToFile(path).toPath();
+	@Override
+	public FileStatus[] globStatus(final Path pathPattern, final PathFilter filter) throws IOException {
+		return globStatus(pathPattern, filter, ACCEPT_ALL_FILTER);
 	}
 
 	/**
-	 * Converts a Hadoop file system permissions instance to a set of Java NIO POSIX permissions.
-	 * @param permission The Hadoop permissions instance.
-	 * @return An equivalent set of Java NIO POSIX permissions.
+	 * Returns the statuses of the paths matching a pattern and accepted by a filter, with the same semantics as {@link FileSystem#globStatus(Path, PathFilter)},
+	 * additionally restricting the directory entries matched by wildcards.
+	 * @apiNote Unlike the default implementation, which retrieves the status of every entry of each directory it lists and only then matches the pattern and
+	 *          applies the filter, this method matches directory entries by name first and retrieves the statuses only of the entries that match.
+	 * @implSpec As with the default implementation, alternatives containing path separators are first expanded using {@link GlobExpander}. The components of
+	 *           each resulting pattern are then matched in turn:
+	 *           <ul>
+	 *           <li>A literal component other than the last is assumed to exist, and is simply appended to each candidate path.</li>
+	 *           <li>A component consisting only of literal text and brace alternatives, such as <code>part-{1,2}.parquet</code>, is expanded into the names it
+	 *           matches, which are looked up directly rather than by listing the directory. A literal last component is looked up in the same way. If
+	 *           parallelism is enabled and there is more than one lookup, the lookups are performed in parallel using the pool returned by
+	 *           {@link #findForkJoinPool()}.</li>
+	 *           <li>Any other component is matched against the names of the directory entries using a {@link GlobPattern} in a {@link DirectoryStream.Filter},
+	 *           and the statuses of only the matching entries are retrieved, in parallel if parallelism is enabled and at least
+	 *           {@link #getListStatusParallelThreshold()} entries match.</li>
+	 *           </ul>
+	 *           The path filter is applied to the paths matching the last component before their statuses are retrieved. The entry filter is applied to
+	 *           entries matched by wildcards, including brace alternatives, but not to literal components, which the default implementation likewise looks up
+	 *           directly rather than listing.
+	 * @param pathPattern A glob pattern specifying the paths to match.
+	 * @param filter The filter of matching paths, which is provided the path that the resulting status will have.
+	 * @param entryFilter The filter of directory entries matched by wildcards, which is only provided the path of each entry.
+	 * @return The statuses of the matching paths accepted by the filters, sorted by path; or <code>null</code> if the pattern has neither wildcards nor
+	 *         alternatives and matches no path.
+	 * @throws IOException if the pattern is illegal, or if a general I/O exception occurs, including one thrown by a filter.
 	 */
-	public static Set<PosixFilePermission> toNioPosixFilePermissions(final FsPermission permission) {
-		final Set<PosixFilePermission> nioPosixFilePermissions = EnumSet.noneOf(PosixFilePermission.class);
-		final FsAction userAction = permission.getUserAction();
-		if(userAction.implies(FsAction.READ)) {
-			nioPosixFilePermissions.add(PosixFilePermission.OWNER_READ);
-		}
-		if(userAction.implies(FsAction.WRITE)) {
-			nioPosixFilePermissions.add(PosixFilePermission.OWNER_WRITE);
+	public FileStatus[] globStatus(final Path pathPattern, final PathFilter filter, final DirectoryStream.Filter<? super java.nio.file.Path> entryFilter)
+			throws IOException {
+		final URI patternUri = pathPattern.toUri();
+		final String scheme = patternUri.getScheme() != null ? patternUri.getScheme() : getUri().getScheme();
+		final String authority = patternUri.getAuthority() != null ? patternUri.getAuthority() : getUri().getAuthority();
+		final List<String> flattenedPatterns = GlobExpander.expand(patternUri.getPath());
+		final List<FileStatus> results = new ArrayList<>(flattenedPatterns.size());
+		boolean sawWildcard = false;
+		for(final String flattenedPattern : flattenedPatterns) {
+			//only make the pattern absolute after expansion, as for patterns such as `{/,a}` the alternative determines how it must be made absolute
+			final String absolutePattern = fixRelativePart(new Path(flattenedPattern.isEmpty() ? Path.CUR_DIR : flattenedPattern)).toUri().getPath();
+			final List<String> components = Stream.of(absolutePattern.split(Path.SEPARATOR)).filter(component -> !component.isEmpty())
+					.collect(toCollection(ArrayList::new));
+			final Path rootPath;
+			if(Path.WINDOWS && !components.isEmpty() && Path.isWindowsAbsolutePath(absolutePattern, true)) { //start at the root of any drive, e.g. `/C:/foo`
+				rootPath = new Path(scheme, authority, Path.SEPARATOR + components.remove(0) + Path.SEPARATOR);
+			} else {
+				rootPath = new Path(scheme, authority, Path.SEPARATOR);
+			}
+			if(components.isEmpty()) { //the pattern is just the root
+				if(filter.accept(rootPath)) {
+					results.add(getFileStatus(rootPath));
+				}
+				continue;
+			}
+			List<Path> candidatePaths = Collections.singletonList(rootPath);
+			List<FileStatus> matches = Collections.emptyList();
+			for(int componentIndex = 0; componentIndex < components.size(); componentIndex++) {
+				final String component = components.get(componentIndex);
+				final boolean isLastComponent = componentIndex == components.size() - 1;
+				final GlobPattern globPattern = compileGlobPattern(component);
+				if(globPattern.hasWildcard()) {
+					sawWildcard = true;
+				}
+				if(candidatePaths.isEmpty() && sawWildcard) { //nothing further can match, but until a wildcard is seen, keep going to determine whether there is one
+					break;
+				}
+				final PathFilter matchFilter = isLastComponent ? filter : __ -> true;
+				if(!globPattern.hasWildcard()) {
+					final String name = component.replaceAll("\\\\(.)", "$1"); //unescape any escaped glob characters
+					if(!isLastComponent) { //assume intermediate literal components exist; any that don't will be discovered when matching later components
+						candidatePaths = candidatePaths.stream().map(candidatePath -> new Path(candidatePath, name)).collect(toList());
+						continue;
+					}
+					matches = lookUpGlobMatches(candidatePaths, Collections.singletonList(name), ACCEPT_ALL_FILTER, matchFilter, false);
+				} else {
+					final Optional<List<String>> foundNames = findGlobAlternativeNames(component);
+					matches = foundNames.isPresent() ? lookUpGlobMatches(candidatePaths, foundNames.get(), entryFilter, matchFilter, !isLastComponent)
+							: listGlobMatches(candidatePaths, globPattern, entryFilter, matchFilter, !isLastComponent);
+				}
+				candidatePaths = matches.stream().map(FileStatus::getPath).collect(toList());
+			}
+			results.addAll(matches);
 		}
-		if(userAction.implies(FsAction.EXECUTE)) {
-			nioPosixFilePermissions.add(PosixFilePermission.OWNER_EXECUTE);
+		//as with the default implementation, a pattern that looks like a simple path and matches nothing returns `null` rather than an empty array
+		if(!sawWildcard && results.isEmpty() && flattenedPatterns.size() <= 1) {
+			return null;
 		}
-		final FsAction groupAction = permission.getGroupAction();
-		if(groupAction.implies(FsAction.READ)) {
-			nioPosixFilePermissions.add(PosixFilePermission.GROUP_READ);
+		final FileStatus[] fileStatuses = results.toArray(new FileStatus[0]);
+		Arrays.sort(fileStatuses);
+		return fileStatuses;
+	}
+
+	/**
+	 * Compiles a glob pattern component.
+	 * @param component The glob pattern component.
+	 * @return The compiled glob pattern.
+	 * @throws IOException if the glob pattern is illegal, using the same message as {@link GlobFilter}.
+	 */
+	private static GlobPattern compileGlobPattern(final String component) throws IOException {
+		try {
+			return new GlobPattern(component);
+		} catch(final PatternSyntaxException patternSyntaxException) {
+			throw new IOException("Illegal file pattern: " + patternSyntaxException.getMessage(), patternSyntaxException);
 		}
-		if(groupAction.implies(FsAction.WRITE)) {
-			nioPosixFilePermissions.add(PosixFilePermission.GROUP_WRITE);
+	}
+
+	/**
+	 * Expands a glob pattern component consisting only of literal text and brace alternatives, such as <code>{a,b,c}</code> or
+	 * <code>part-{1,2}.parquet</code>, into the names it matches.
+	 * @param component The glob pattern component, which is expected not to contain path separators.
+	 * @return The distinct names matched by the component, which will not be present if the component contains escapes or wildcards other than brace
+	 *         alternatives, or if its braces are unbalanced.
+	 */
+	static Optional<List<String>> findGlobAlternativeNames(final String component) {
+		if(component.chars().anyMatch(c -> c == '*' || c == '?' || c == '[' || c == ']' || c == '\\')) {
+			return Optional.empty();
 		}
-		if(groupAction.implies(FsAction.EXECUTE)) {
-			nioPosixFilePermissions.add(PosixFilePermission.GROUP_EXECUTE);
+		final Set<String> names = new LinkedHashSet<>();
+		if(!expandBraces(component, names)) {
+			return Optional.empty();
 		}
-		final FsAction otherAction = permission.getOtherAction();
-		if(otherAction.implies(FsAction.READ)) {
-			nioPosixFilePermissions.add(PosixFilePermission.OTHERS_READ);
+		names.removeAll(Arrays.asList("", ".", "..")); //these never appear as directory entries, so a listing would never match them
+		return Optional.of(new ArrayList<>(names));
+	}
+
+	/**
+	 * Recursively expands the brace alternatives of a pattern, which may be nested, into literal names.
+	 * @param pattern The pattern to expand, containing no wildcards other than brace alternatives.
+	 * @param names The collection to which to add the expanded names.
+	 * @return <code>true</code> if the pattern was expanded, or <code>false</code> if its braces are unbalanced.
+	 */
+	private static boolean expandBraces(final String pattern, final Collection<String> names) {
+		final int openIndex = pattern.indexOf('{');
+		final int closeIndex = pattern.indexOf('}');
+		if(openIndex < 0) {
+			if(closeIndex >= 0) { //a closing brace without an opening brace
+				return false;
+			}
+			names.add(pattern);
+			return true;
 		}
-		if(otherAction.implies(FsAction.WRITE)) {
-			nioPosixFilePermissions.add(PosixFilePermission.OTHERS_WRITE);
+		if(closeIndex >= 0 && closeIndex < openIndex) {
+			return false;
 		}
-		if(otherAction.implies(FsAction.EXECUTE)) {
-			nioPosixFilePermissions.add(PosixFilePermission.OTHERS_EXECUTE);
+		final List<String> alternatives = new ArrayList<>();
+		int alternativeIndex = openIndex + 1;
+		int depth = 0;
+		for(int index = openIndex + 1; index < pattern.length(); index++) {
+			final char c = pattern.charAt(index);
+			if(c == '{') {
+				depth++;
+			} else if(c == ',' && depth == 0) {
+				alternatives.add(pattern.substring(alternativeIndex, index));
+				alternativeIndex = index + 1;
+			} else if(c == '}') {
+				if(depth > 0) {
+					depth--;
+					continue;
+				}
+				alternatives.add(pattern.substring(alternativeIndex, index));
+				final String prefix = pattern.substring(0, openIndex);
+				final String suffix = pattern.substring(index + 1);
+				for(final String alternative : alternatives) { //expand any nested or following alternatives
+					if(!expandBraces(prefix + alternative + suffix, names)) {
+						return false;
+					}
+				}
+				return true;
+			}
 		}
-		return nioPosixFilePermissions;
+		return false; //no closing brace
 	}
 
 	/**
-	 * Converts a set of Java NIO POSIX permissions to áHadoop file system permissions instance.
-	 * @implNote This could be more efficiently implemented by using each permission present as a bit shifted to the enum ordinal (after subtracting to ensure the
-	 *           correct bit order) and ORing to form a single bode for constructing an {@link FsPermission}.
-	 * @param nioPosixFilePermissions The set of Java NIO POSIX permissions.
-	 * @return An equivalent Hadoop permissions instance.
+	 * Looks up the given names directly in each of the candidate directories.
+	 * @param candidatePaths The paths of the candidate directories.
+	 * @param names The names to look up in each candidate directory.
+	 * @param entryFilter The filter of the paths looked up, applied before the statuses are retrieved.
+	 * @param filter The filter of the Hadoop paths looked up, applied before the statuses are retrieved.
+	 * @param directoriesOnly Whether only directories should be matched.
+	 * @return The statuses of the paths found, each with the path resolved from the candidate path.
+	 * @throws IOException If a general I/O exception occurs, including one thrown by a filter.
 	 */
-	public static FsPermission toFsPermission(final Set<PosixFilePermission> nioPosixFilePermissions) {
-		final FsAction ownerAction = fsActionOf(nioPosixFilePermissions.contains(PosixFilePermission.OWNER_READ),
-				nioPosixFilePermissions.contains(PosixFilePermission.OWNER_WRITE), nioPosixFilePermissions.contains(PosixFilePermission.OWNER_EXECUTE));
-		final FsAction groupAction = fsActionOf(nioPosixFilePermissions.contains(PosixFilePermission.GROUP_READ),
-				nioPosixFilePermissions.contains(PosixFilePermission.GROUP_WRITE), nioPosixFilePermissions.contains(PosixFilePermission.GROUP_EXECUTE));
-		final FsAction otherAction = fsActionOf(nioPosixFilePermissions.contains(PosixFilePermission.OTHERS_READ),
-				nioPosixFilePermissions.contains(PosixFilePermission.OTHERS_WRITE), nioPosixFilePermissions.contains(PosixFilePermission.OTHERS_EXECUTE));
-		return new FsPermission(ownerAction, groupAction, otherAction);
+	private List<FileStatus> lookUpGlobMatches(final List<Path> candidatePaths, final List<String> names,
+			final DirectoryStream.Filter<? super java.nio.file.Path> entryFilter, final PathFilter filter, final boolean directoriesOnly) throws IOException {
+		final List<Path> paths = new ArrayList<>(candidatePaths.size() * names.size());
+		final List<java.nio.file.Path> nioPaths = new ArrayList<>(candidatePaths.size() * names.size());
+		for(final Path candidatePath : candidatePaths) {
+			for(final String name : names) {
+				final Path path = new Path(candidatePath, name);
+				final java.nio.file.Path nioPath = toNioPath(path);
+				if(entryFilter.accept(nioPath) && filter.accept(path)) {
+					paths.add(path);
+					nioPaths.add(nioPath);
+				}
+			}
+		}
+		//each lookup may block on I/O, so use parallelism for as few as two lookups
+		return readGlobMatchStatuses(paths, nioPaths, directoriesOnly, paths.size() > 1);
 	}
 
 	/**
-	 * Factory method to create a single Hadoop permission action based upon read, write, and/or execute permissions.
-	 * @param read Whether read permission should be included.
-	 * @param write Whether write permission should be included.
-	 * @param execute Whether execute permission should be included.
-	 * @return The Hadoop permission action reflecting the requested permissions.
+	 * Lists the entries of each of the candidate directories with names matching a glob pattern. Candidates that do not exist or are not directories have no
+	 * matching entries.
+	 * @param candidatePaths The paths of the candidate directories.
+	 * @param globPattern The glob pattern to match against the name of each directory entry.
+	 * @param entryFilter The filter of the directory entries, applied before the statuses are retrieved.
+	 * @param filter The filter of the Hadoop paths of the matching entries, applied before the statuses are retrieved.
+	 * @param directoriesOnly Whether only directories should be matched.
+	 * @return The statuses of the matching entries, each with the path resolved from the candidate path.
+	 * @throws IOException If a general I/O exception occurs, including one thrown by a filter.
 	 */
-	public static FsAction fsActionOf(final boolean read, final boolean write, final boolean execute) {
-		FsAction result = FsAction.NONE;
-		if(read) {
-			result = result.or(FsAction.READ);
-		}
-		if(write) {
-			result = result.or(FsAction.WRITE);
-		}
-		if(execute) {
-			result = result.or(FsAction.EXECUTE);
+	private List<FileStatus> listGlobMatches(final List<Path> candidatePaths, final GlobPattern globPattern,
+			final DirectoryStream.Filter<? super java.nio.file.Path> entryFilter, final PathFilter filter, final boolean directoriesOnly) throws IOException {
+		final List<Path> paths = new ArrayList<>();
+		final List<java.nio.file.Path> nioPaths = new ArrayList<>();
+		for(final Path candidatePath : candidatePaths) {
+			try (final DirectoryStream<java.nio.file.Path> directoryStream = Files.newDirectoryStream(toNioPath(candidatePath),
+					childNioPath -> globPattern.matches(childNioPath.getFileName().toString()) && entryFilter.accept(childNioPath))) {
+				for(final java.nio.file.Path childNioPath : directoryStream) {
+					final Path path = new Path(candidatePath, childNioPath.getFileName().toString());
+					if(filter.accept(path)) {
+						paths.add(path);
+						nioPaths.add(childNioPath);
+					}
+				}
+			} catch(final NoSuchFileException | NotDirectoryException noMatchesException) {
+				//a candidate that doesn't exist or isn't a directory has no matching entries
+			} catch(final DirectoryIteratorException directoryIteratorException) {
+				throw directoryIteratorException.getCause();
+			}
 		}
-		return result;
+		return readGlobMatchStatuses(paths, nioPaths, directoriesOnly, paths.size() >= getListStatusParallelThreshold());
 	}
 
 	/**
-	 * {@inheritDoc}
-	 * @implSpec This implementation using Java NIO to directly access the {@link PosixFileAttributeView}. If the file system does not support the
-	 *           {@link PosixFileAttributeView}, no action is taken.
+	 * Retrieves the statuses of paths matching a glob pattern, skipping any that do not exist.
+	 * @param paths The Hadoop paths matching the pattern, to be used as the paths of the returned statuses.
+	 * @param nioPaths The Java NIO paths corresponding to the Hadoop paths.
+	 * @param directoriesOnly Whether statuses of non-directories should be skipped.
+	 * @param parallel Whether the statuses should be retrieved in parallel using the pool returned by {@link #findForkJoinPool()}, if parallelism is enabled.
+	 * @return The statuses of the paths.
+	 * @throws IOException If an I/O exception other than a missing file occurs.
 	 */
-	@Override
-	public void setPermission(final Path path, final FsPermission permission) throws IOException {
-		final PosixFileAttributeView posixFileAttributeView = Files.getFileAttributeView(toNioPath(path), PosixFileAttributeView.class);
-		if(posixFileAttributeView != null) {
-			posixFileAttributeView.setPermissions(toNioPosixFilePermissions(permission));
+	private List<FileStatus> readGlobMatchStatuses(final List<Path> paths, final List<java.nio.file.Path> nioPaths, final boolean directoriesOnly,
+			final boolean parallel) throws IOException {
+		final Optional<ForkJoinPool> foundForkJoinPool = parallel ? findForkJoinPool() : Optional.empty();
+		try {
+			if(!foundForkJoinPool.isPresent()) {
+				return readGlobMatchStatuses(paths, nioPaths, directoriesOnly, IntStream.range(0, paths.size()));
+			}
+			return invokeInPool(foundForkJoinPool.get(),
+					() -> readGlobMatchStatuses(paths, nioPaths, directoriesOnly, IntStream.range(0, paths.size()).parallel()));
+		} catch(final UncheckedIOException uncheckedIOException) {
+			throw uncheckedIOException.getCause();
 		}
 	}
 
+	/**
+	 * Retrieves the statuses of paths matching a glob pattern, skipping any that do not exist.
+	 * @param paths The Hadoop paths matching the pattern, to be used as the paths of the returned statuses.
+	 * @param nioPaths The Java NIO paths corresponding to the Hadoop paths.
+	 * @param directoriesOnly Whether statuses of non-directories should be skipped.
+	 * @param indexes The indexes of the paths, which may be a parallel stream.
+	 * @return The statuses of the paths.
+	 * @throws UncheckedIOException if an I/O exception other than a missing file occurs.
+	 */
+	private List<FileStatus> readGlobMatchStatuses(final List<Path> paths, final List<java.nio.file.Path> nioPaths, final boolean directoriesOnly,
+			final IntStream indexes) {
+		return indexes.mapToObj(index -> {
+			try {
+				final FileStatus fileStatus = readFileStatus(nioPaths.get(index));
+				if(directoriesOnly && !fileStatus.isDirectory()) { //don't descend into non-directories
+					return null;
+				}
+				fileStatus.setPath(paths.get(index)); //as with the default implementation, use the path as matched
+				return fileStatus;
+			} catch(final FileNotFoundException fileNotFoundException) {
+				return null; //a missing alternative, or an entry that disappeared before it could be described, is simply not a match
+			} catch(final IOException ioException) {
+				throw new UncheckedIOException(ioException);
+			}
+		}).filter(Objects::nonNull).collect(toList());
+	}
+
 	/**
 	 * {@inheritDoc}
-	 * @implSpec This implementation delegates to {@link #listStatus(java.nio.file.Path)}.
+	 * @implSpec If a recursive listing is requested of a directory and parallelism is enabled, this implementation walks the directory tree in parallel using
+	 *           the pool returned by {@link #findForkJoinPool()}. Otherwise this implementation delegates to the default implementation, which uses
+	 *           {@link #listLocatedStatus(Path)}.
+	 * @see ParallelLocatedFileStatusIterator
 	 */
 	@Override
-	public FileStatus[] listStatus(final Path path) throws IOException {
-		return listStatus(toNioPath(path));
+	public RemoteIterator<LocatedFileStatus> listFiles(final Path path, final boolean recursive) throws FileNotFoundException, IOException {
+		final Optional<ForkJoinPool> foundForkJoinPool = findForkJoinPool();
+		if(!recursive || !foundForkJoinPool.isPresent()) {
+			return super.listFiles(path, recursive);
+		}
+		final java.nio.file.Path nioPath = toNioPath(path);
+		final FileStatus fileStatus = getFileStatus(nioPath);
+		if(!fileStatus.isDirectory()) {
+			return RemoteIterators.remoteIteratorFromSingleton(toLocatedFileStatus(fileStatus));
+		}
+		return new ParallelLocatedFileStatusIterator(foundForkJoinPool.get(), nioPath, getListFilesQueueCapacity(), getListFilesAbandonTimeout());
 	}
 
 	/**
-	 * List the statuses of the files/directories in the given path if the path is a directory; otherwise returns an array containing the status of the path
-	 * itself. The statuses are not guaranteed to be returned in any particular order.
-	 * @param nioPath The Java NIO path for which to list directories.
-	 * @return The statuses of the files/directories in the given path.
-	 * @throws FileNotFoundException when the path does not exist.
-	 * @throws IOException If a general I/O exception occurs.
+	 * Iterator of the statuses of all the files in a directory tree, discovered by walking the tree in parallel.
+	 * @implSpec Each directory is listed by a separate fork/join task, which forks a new task for each subdirectory, allowing idle threads to steal the walk of
+	 *           other subtrees. Statuses of files are placed in a bounded queue from which they are retrieved by the iterator; when the queue is full, the walk
+	 *           pauses until the caller retrieves more statuses, blocking via a {@link ForkJoinPool.ManagedBlocker} so that the pool may compensate for the
+	 *           blocked threads. If the caller retrieves no status for {@link #getListFilesAbandonTimeout()}, the walk is abandoned, so that a caller that
+	 *           stops iterating without closing the iterator does not hold pool threads indefinitely; if the caller later resumes, the statuses already queued
+	 *           are returned followed by an error. Entries and directories that disappear during the walk are skipped. If an error occurs, the walk is
+	 *           abandoned and the error is thrown to the caller after the statuses already queued have been retrieved.
+	 * @implNote Closing the iterator before it is exhausted, such as via {@link RemoteIterators#cleanupRemoteIterator(RemoteIterator)}, abandons the walk
+	 *           immediately, as does closing the file system.
+	 * @author Garret Wilson
 	 */
-	public FileStatus[] listStatus(final java.nio.file.Path nioPath) throws FileNotFoundException, IOException {
-		if(!Files.isDirectory(nioPath, LinkOption.NOFOLLOW_LINKS)) { //if this is not a directory (and not _supposed_ to be a directory, so don't follow symlinks)
-			return new FileStatus[] {getFileStatus(nioPath)}; //return non-directories as a single list of the single file
+	protected class ParallelLocatedFileStatusIterator implements RemoteIterator<LocatedFileStatus>, Closeable {
+
+		/** The interval for checking whether the walk has been abandoned or has finished while waiting on the queue. */
+		private static final long QUEUE_POLL_TIMEOUT_MILLIS = 100;
+
+		/** The marker placed in the queue to indicate that the walk is complete. */
+		private final LocatedFileStatus endMarker = new LocatedFileStatus();
+
+		private final BlockingQueue<LocatedFileStatus> queue;
+
+		private final long abandonTimeoutNanos;
+
+		/** The first error that occurred during the walk, or <code>null</code> if no error has occurred. */
+		private final AtomicReference<IOException> error = new AtomicReference<>();
+
+		/** Whether the walk has been abandoned, either because of an error or because the iterator was closed. */
+		private volatile boolean abandoned = false;
+
+		/** Whether the iterator has been closed by the caller. */
+		private volatile boolean closed = false;
+
+		/** Whether all the tasks of the walk have completed, even if the end marker could not be queued. */
+		private volatile boolean walkFinished = false;
+
+		/** The time the caller last retrieved a status from the queue, or the time the walk started, as given by {@link System#nanoTime()}. */
+		private volatile long lastRetrievalNanos;
+
+		/** The status of the next file, if it has already been retrieved from the queue. */
+		@Nullable
+		private LocatedFileStatus nextLocatedFileStatus = null;
+
+		private boolean done = false;
+
+		/**
+		 * Constructor. The walk is started immediately.
+		 * @param forkJoinPool The pool for walking the tree.
+		 * @param nioPath The Java NIO path of the root directory of the tree.
+		 * @param queueCapacity The maximum number of statuses to hold before pausing the walk.
+		 * @param abandonTimeout How long to wait for the caller to retrieve statuses from a full queue before abandoning the walk, in milliseconds.
+		 */
+		public ParallelLocatedFileStatusIterator(final ForkJoinPool forkJoinPool, final java.nio.file.Path nioPath, final int queueCapacity,
+				final long abandonTimeout) {
+			queue = new ArrayBlockingQueue<>(queueCapacity);
+			abandonTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(abandonTimeout);
+			lastRetrievalNanos = System.nanoTime();
+			parallelListings.add(this);
+			forkJoinPool.execute(() -> {
+				try {
+					new DirectoryWalkTask(nioPath).invoke();
+				} catch(final RuntimeException runtimeException) {
+					abandon(new IOException(runtimeException));
+				} finally {
+					walkFinished = true;
+					enqueue(endMarker);
+					parallelListings.remove(this);
+				}
+			});
 		}
 
-		//no need to check if path exists --- listing its contents will do this automatically anyway
-		try (final Stream<java.nio.file.Path> childNioPaths = Files.list(nioPath)) {
-			return childNioPaths.map(childNioPath -> {
+		/**
+		 * Abandons the walk because of an error. Only the first error is recorded.
+		 * @param ioException The error that occurred.
+		 */
+		private void abandon(final IOException ioException) {
+			error.compareAndSet(null, ioException);
+			abandoned = true;
+		}
+
+		/**
+		 * Adds a status to the queue, waiting if needed for room in the queue, unless the iterator has been closed or the caller has not retrieved any status
+		 * within the abandon timeout, in which case the walk is abandoned.
+		 * @param locatedFileStatus The status to add.
+		 * @return <code>true</code> if the status was added, or <code>false</code> if the walk was abandoned first.
+		 */
+		private boolean enqueue(final LocatedFileStatus locatedFileStatus) {
+			final QueueOfferBlocker queueOfferBlocker = new QueueOfferBlocker(locatedFileStatus);
+			try {
+				ForkJoinPool.managedBlock(queueOfferBlocker);
+			} catch(final InterruptedException interruptedException) {
+				Thread.currentThread().interrupt();
+				abandon((InterruptedIOException)new InterruptedIOException("Interrupted during recursive file listing.").initCause(interruptedException));
+			}
+			return queueOfferBlocker.offered;
+		}
+
+		/**
+		 * Blocker for adding a status to the queue that allows the fork/join pool to compensate while the walk waits for room in the queue.
+		 * @author Garret Wilson
+		 */
+		private class QueueOfferBlocker implements ForkJoinPool.ManagedBlocker {
+
+			private final LocatedFileStatus locatedFileStatus;
+
+			/** Whether the status was added to the queue. */
+			private boolean offered = false;
+
+			/**
+			 * Constructor.
+			 * @param locatedFileStatus The status to add.
+			 */
+			public QueueOfferBlocker(final LocatedFileStatus locatedFileStatus) {
+				this.locatedFileStatus = requireNonNull(locatedFileStatus);
+			}
+
+			@Override
+			public boolean isReleasable() {
+				if(!offered && !closed) {
+					offered = queue.offer(locatedFileStatus);
+				}
+				return offered || closed;
+			}
+
+			@Override
+			public boolean block() throws InterruptedException {
+				while(!isReleasable()) {
+					if(System.nanoTime() - lastRetrievalNanos > abandonTimeoutNanos) {
+						if(!walkFinished) { //once the walk has finished, the end is detected even without the end marker
+							abandon(new IOException(format("Recursive file listing abandoned after no file status was retrieved for %d ms.",
+									TimeUnit.NANOSECONDS.toMillis(abandonTimeoutNanos))));
+						}
+						return true;
+					}
+					offered = queue.offer(locatedFileStatus, QUEUE_POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				return true;
+			}
+
+		}
+
+		@Override
+		public boolean hasNext() throws IOException {
+			if(nextLocatedFileStatus == null && !done) {
+				LocatedFileStatus locatedFileStatus;
 				try {
-					return getFileStatus(childNioPath);
-				} catch(final FileNotFoundException fileNotFoundException) {
-					//If a child disappears before we can describe it, don't consider that an error;
-					//instead, consider that the directory listing has changed. (This implies that the
-					//exact static directory list returned might never have existed at any point in time.)
-					return null;
+					//if the walk gave up before the end marker could be queued, the end is indicated by the walk having finished with nothing left in the queue
+					do {
+						locatedFileStatus = queue.poll(QUEUE_POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+					} while(locatedFileStatus == null && !(walkFinished && queue.isEmpty()));
+				} catch(final InterruptedException interruptedException) {
+					Thread.currentThread().interrupt();
+					throw (InterruptedIOException)new InterruptedIOException("Interrupted waiting for recursive file listing.").initCause(interruptedException);
+				}
+				lastRetrievalNanos = System.nanoTime();
+				if(locatedFileStatus == null || locatedFileStatus == endMarker) {
+					done = true;
+					final IOException ioException = error.get();
+					if(ioException != null) {
+						throw ioException;
+					}
+				} else {
+					nextLocatedFileStatus = locatedFileStatus;
+				}
+			}
+			return nextLocatedFileStatus != null;
+		}
+
+		@Override
+		public LocatedFileStatus next() throws IOException {
+			if(!hasNext()) {
+				throw new NoSuchElementException("No more files in directory tree.");
+			}
+			final LocatedFileStatus locatedFileStatus = nextLocatedFileStatus;
+			nextLocatedFileStatus = null;
+			return locatedFileStatus;
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+			abandoned = true;
+			done = true;
+			queue.clear();
+			parallelListings.remove(this);
+		}
+
+		/**
+		 * Task for listing a single directory, forking tasks for its subdirectories.
+		 * @author Garret Wilson
+		 */
+		private class DirectoryWalkTask extends RecursiveAction {
+
+			private static final long serialVersionUID = 1L;
+
+			private final java.nio.file.Path directoryNioPath;
+
+			/**
+			 * Constructor.
+			 * @param directoryNioPath The Java NIO path of the directory to list.
+			 */
+			public DirectoryWalkTask(final java.nio.file.Path directoryNioPath) {
+				this.directoryNioPath = requireNonNull(directoryNioPath);
+			}
+
+			@Override
+			protected void compute() {
+				final List<DirectoryWalkTask> subdirectoryTasks = new ArrayList<>();
+				try (final DirectoryStream<java.nio.file.Path> directoryStream = Files.newDirectoryStream(directoryNioPath)) {
+					for(final java.nio.file.Path childNioPath : directoryStream) {
+						if(abandoned) {
+							break;
+						}
+						final FileStatus childFileStatus;
+						try {
+							childFileStatus = readFileStatus(childNioPath);
+						} catch(final FileNotFoundException fileNotFoundException) {
+							continue; //an entry disappearing before it can be described is not an error; see `listStatus()`
+						}
+						if(childFileStatus.isDirectory()) {
+							final DirectoryWalkTask subdirectoryTask = new DirectoryWalkTask(childNioPath);
+							subdirectoryTask.fork();
+							subdirectoryTasks.add(subdirectoryTask);
+						} else if(!enqueue(toLocatedFileStatus(childFileStatus))) {
+							break;
+						}
+					}
+				} catch(final NoSuchFileException noSuchFileException) {
+					//a directory disappearing before it can be listed is not an error
+				} catch(final DirectoryIteratorException directoryIteratorException) {
+					abandon(directoryIteratorException.getCause());
 				} catch(final IOException ioException) {
-					throw new UncheckedIOException(ioException); //another approach would be to use FauxPas or similar
+					abandon(ioException);
 				}
-			}).filter(Objects::nonNull).toArray(FileStatus[]::new);
-		} catch(final UncheckedIOException uncheckedIOException) {
-			throw uncheckedIOException.getCause();
+				subdirectoryTasks.forEach(ForkJoinTask::join);
+			}
+
 		}
+
 	}
 
 	/**
@@ -227,27 +3072,217 @@ public FileStatus getFileStatus(final Path path) throws IOException {
 
 	/**
 	 * Returns a file status object that represents the Java NIO path.
+	 * @implSpec If file statuses are being cached, this implementation returns a copy of any unexpired cached status, and otherwise caches a copy of the status
+	 *           retrieved using {@link #readFileStatus(java.nio.file.Path)}, so that callers modifying the returned status do not affect the cache. The status
+	 *           is not cached if the cache is invalidated while the status is being read, as the status may then already be out of date.
 	 * @param nioPath The Java NIO path path we want information from.
 	 * @return A file status instance describing the file.
 	 * @throws FileNotFoundException if the path does not exist.
 	 * @throws IOException If a general I/O exception occurs.
+	 * @see #findFileStatusCache()
+	 * @see FileStatusCache#getInvalidationStamp()
 	 */
 	public FileStatus getFileStatus(final java.nio.file.Path nioPath) throws IOException {
+		final FileStatusCache cache = fileStatusCache;
+		if(cache == null) {
+			return readFileStatus(nioPath);
+		}
+		final java.nio.file.Path key = FileStatusCache.toKey(nioPath);
+		final Optional<FileStatus> foundCachedFileStatus = cache.find(key);
+		if(foundCachedFileStatus.isPresent()) {
+			return copyFileStatus(foundCachedFileStatus.get());
+		}
+		final long invalidationStamp = cache.getInvalidationStamp();
+		final FileStatus fileStatus = readFileStatus(nioPath);
+		cache.put(key, copyFileStatus(fileStatus), invalidationStamp);
+		return fileStatus;
+	}
+
+	/**
+	 * Creates a copy of a file status, preserving the type of file statuses produced by this file system.
+	 * @param fileStatus The file status to copy.
+	 * @return A new file status with the same values as the given file status.
+	 * @throws IOException If an error occurs copying the status.
+	 */
+	protected FileStatus copyFileStatus(final FileStatus fileStatus) throws IOException {
+		return fileStatus instanceof NakedLocalFileStatus ? new NakedLocalFileStatus((NakedLocalFileStatus)fileStatus) : new FileStatus(fileStatus);
+	}
+
+	/**
+	 * Reads the current status of the file represented by the Java NIO path, bypassing any file status cache. Directory listings use this method directly, so
+	 * that they always reflect the current state of the directory.
+	 * @param nioPath The Java NIO path path we want information from.
+	 * @return A file status instance describing the file.
+	 * @throws FileNotFoundException if the path does not exist.
+	 * @throws IOException If a general I/O exception occurs.
+	 */
+	protected FileStatus readFileStatus(final java.nio.file.Path nioPath) throws IOException {
 		try {
 			//no need to check if path exists --- reading its attributes will do this automatically anyway
-			final BasicFileAttributes nioBasicFileAttributes = Files.readAttributes(nioPath, BasicFileAttributes.class);
-			PosixFileAttributes nioPosixFileAttributes;
-			try {
-				nioPosixFileAttributes = Files.readAttributes(nioPath, PosixFileAttributes.class);
-			} catch(final UnsupportedOperationException unsupportedOperationException) {
-				nioPosixFileAttributes = null;
+			final BasicFileAttributes nioFileAttributes = readNioFileAttributes(nioPath);
+			final FsPermission permission;
+			final String owner;
+			final String group;
+			if(nioFileAttributes instanceof UnixFileAttributes) {
+				final UnixFileAttributes unixFileAttributes = (UnixFileAttributes)nioFileAttributes;
+				permission = toFsPermission(unixFileAttributes.mode());
+				owner = principalNameCache.getUserName(unixFileAttributes.uid(), nioPath);
+				group = principalNameCache.getGroupName(unixFileAttributes.gid(), nioPath);
+			} else if(nioFileAttributes instanceof PosixFileAttributes) {
+				final PosixFileAttributes posixFileAttributes = (PosixFileAttributes)nioFileAttributes;
+				permission = toFsPermission(posixFileAttributes.permissions());
+				owner = principalNameCache.getName(posixFileAttributes.owner());
+				group = principalNameCache.getName(posixFileAttributes.group());
+			} else {
+				permission = null;
+				owner = null;
+				group = null;
 			}
-			return new NakedLocalFileStatus(nioPath, getFileSystemDefaultBlockSize(), nioBasicFileAttributes, nioPosixFileAttributes, this);
+			return new NakedLocalFileStatus(nioPath, getFileSystemDefaultBlockSize(), nioFileAttributes, permission, owner, group, this);
 		} catch(final NoSuchFileException noSuchFileException) {
 			throw (FileNotFoundException)new FileNotFoundException(format("File `%s` does not exist.", nioPath)).initCause(noSuchFileException);
 		}
 	}
 
+	private final PrincipalNameCache principalNameCache = new PrincipalNameCache();
+
+	/** @return The cache of file owner and group names used by this file system. */
+	protected PrincipalNameCache getPrincipalNameCache() {
+		return principalNameCache;
+	}
+
+	/**
+	 * Reads in a single operation all the attributes needed to describe a file. Symbolic links are followed.
+	 * @implSpec If the file system of the path supports the <code>unix</code> file attribute view, this implementation reads the attributes of that view
+	 *           (including numeric user and group IDs, which unlike the owner and group principals do not require looking up names) into an instance of
+	 *           {@link UnixFileAttributes}. Otherwise if the POSIX file attribute view is supported, this implementation reads {@link PosixFileAttributes}, which
+	 *           are a superset of {@link BasicFileAttributes}; otherwise only the basic file attributes are read. In every case the underlying file system is
+	 *           only queried once.
+	 * @param nioPath The Java NIO path of the file.
+	 * @return The attributes of the file, which will be an instance of {@link UnixFileAttributes} or {@link PosixFileAttributes} if supported.
+	 * @throws NoSuchFileException if the file does not exist.
+	 * @throws IOException If a general I/O exception occurs.
+	 */
+	protected BasicFileAttributes readNioFileAttributes(final java.nio.file.Path nioPath) throws IOException {
+		if(isUnixFileAttributeViewSupported(nioPath)) {
+			return new UnixFileAttributes(Files.readAttributes(nioPath, UnixFileAttributes.ATTRIBUTES));
+		}
+		if(isPosixFileAttributeViewSupported(nioPath)) {
+			return Files.readAttributes(nioPath, PosixFileAttributes.class);
+		}
+		return Files.readAttributes(nioPath, BasicFileAttributes.class);
+	}
+
+	/** The name of the Java NIO POSIX file attribute view. */
+	private static final String POSIX_FILE_ATTRIBUTE_VIEW_NAME = "posix";
+
+	/**
+	 * Determines whether the file system of the given path supports {@link PosixFileAttributeView}.
+	 * @param nioPath The Java NIO path to check.
+	 * @return <code>true</code> if POSIX file attributes can be read for the path.
+	 */
+	protected static boolean isPosixFileAttributeViewSupported(final java.nio.file.Path nioPath) {
+		return nioPath.getFileSystem().supportedFileAttributeViews().contains(POSIX_FILE_ATTRIBUTE_VIEW_NAME);
+	}
+
+	/** The name of the Java NIO <code>unix</code> file attribute view, an undocumented extension of the POSIX view supported by the JDK on *nix platforms. */
+	private static final String UNIX_FILE_ATTRIBUTE_VIEW_NAME = "unix";
+
+	/**
+	 * Determines whether the file system of the given path supports the <code>unix</code> file attribute view.
+	 * @param nioPath The Java NIO path to check.
+	 * @return <code>true</code> if <code>unix</code> file attributes can be read for the path.
+	 */
+	protected static boolean isUnixFileAttributeViewSupported(final java.nio.file.Path nioPath) {
+		return nioPath.getFileSystem().supportedFileAttributeViews().contains(UNIX_FILE_ATTRIBUTE_VIEW_NAME);
+	}
+
+	/**
+	 * File attributes read from the Java NIO <code>unix</code> file attribute view, providing the file mode and numeric user and group IDs in addition to
+	 * the basic file attributes.
+	 * @author Garret Wilson
+	 */
+	protected static final class UnixFileAttributes implements BasicFileAttributes {
+
+		/** The attributes to request from the <code>unix</code> view; notably the <code>owner</code> and <code>group</code> principals are not requested. */
+		static final String ATTRIBUTES = UNIX_FILE_ATTRIBUTE_VIEW_NAME
+				+ ":size,lastModifiedTime,lastAccessTime,creationTime,isRegularFile,isDirectory,isSymbolicLink,isOther,fileKey,mode,uid,gid";
+
+		/** The qualified name of the <code>unix</code> view attribute for the file mode, which may be read or set. */
+		static final String MODE_ATTRIBUTE = UNIX_FILE_ATTRIBUTE_VIEW_NAME + ":mode";
+
+		private final Map<String, Object> attributes;
+
+		/**
+		 * Constructor.
+		 * @param attributes The attributes read from the <code>unix</code> view, which must include at least those indicated by {@link #ATTRIBUTES}.
+		 */
+		public UnixFileAttributes(final Map<String, Object> attributes) {
+			this.attributes = requireNonNull(attributes);
+		}
+
+		@Override
+		public FileTime lastModifiedTime() {
+			return (FileTime)attributes.get("lastModifiedTime");
+		}
+
+		@Override
+		public FileTime lastAccessTime() {
+			return (FileTime)attributes.get("lastAccessTime");
+		}
+
+		@Override
+		public FileTime creationTime() {
+			return (FileTime)attributes.get("creationTime");
+		}
+
+		@Override
+		public boolean isRegularFile() {
+			return (Boolean)attributes.get("isRegularFile");
+		}
+
+		@Override
+		public boolean isDirectory() {
+			return (Boolean)attributes.get("isDirectory");
+		}
+
+		@Override
+		public boolean isSymbolicLink() {
+			return (Boolean)attributes.get("isSymbolicLink");
+		}
+
+		@Override
+		public boolean isOther() {
+			return (Boolean)attributes.get("isOther");
+		}
+
+		@Override
+		public long size() {
+			return (Long)attributes.get("size");
+		}
+
+		@Override
+		public Object fileKey() {
+			return attributes.get("fileKey");
+		}
+
+		/** @return The *nix mode of the file, including the file type, permission, set-user-ID, set-group-ID, and sticky bits. */
+		public int mode() {
+			return (Integer)attributes.get("mode");
+		}
+
+		/** @return The numeric ID of the user owning the file. */
+		public int uid() {
+			return (Integer)attributes.get("uid");
+		}
+
+		/** @return The numeric ID of the group owning the file. */
+		public int gid() {
+			return (Integer)attributes.get("gid");
+		}
+
+	}
+
 	@Override
 	public String toString() {
 		return "NakedLocalFS";
@@ -275,45 +3310,31 @@ public java.nio.file.Path getNioPath() {
 
 		/**
 		 * Normal file and directory constructor. Symbolic links are followed.
-		 * @apiNote The constructor throws the Java NIO {@link NoSuchFileException} if the file is missing at some point during construction. It should be converted
-		 *          later to the {@link FileNotFoundException} used by the Hadoop file system API.
+		 * @apiNote All information is taken from the given arguments; this constructor performs no further access of the file system.
 		 * @param nioPath The Java NIO path to the file.
 		 * @param blockSize The block size to use.
-		 * @param nioBasicFileAttributes The Java NIO basic file attributes.
-		 * @param nioPosixFileAttributes The Java NIO POXIS file attributes, or <code>null</code> if not available on this platform.
+		 * @param nioFileAttributes The Java NIO file attributes.
+		 * @param permission The permission of the file, or <code>null</code> if not available on this platform.
+		 * @param owner The name of the owner of the file, or <code>null</code> if not available on this platform.
+		 * @param group The name of the group of the file, or <code>null</code> if not available on this platform.
 		 * @param fileSystem The file system requesting the file status.
-		 * @throws NoSuchFileException if the file is missing or goes missing while the status information is being retrieved.
-		 * @throws IOException If a general I/O exception occurs.
 		 */
-		public NakedLocalFileStatus(final java.nio.file.Path nioPath, long blockSize, final BasicFileAttributes nioBasicFileAttributes,
-				@Nullable final PosixFileAttributes nioPosixFileAttributes, final FileSystem fileSystem) throws IOException {
-			super(Files.size(nioPath), Files.isDirectory(nioPath), 1, blockSize, nioBasicFileAttributes.lastModifiedTime().toMillis(),
-					nioBasicFileAttributes.lastAccessTime().toMillis(), nioPosixFileAttributes != null ? toFsPermission(nioPosixFileAttributes.permissions()) : null,
-					nioPosixFileAttributes != null ? removePrincipalDomainIfWindows(nioPosixFileAttributes.owner().getName()) : null,
-					nioPosixFileAttributes != null ? removePrincipalDomainIfWindows(nioPosixFileAttributes.group().getName()) : null,
+		public NakedLocalFileStatus(final java.nio.file.Path nioPath, final long blockSize, final BasicFileAttributes nioFileAttributes,
+				@Nullable final FsPermission permission, @Nullable final String owner, @Nullable final String group, final FileSystem fileSystem) {
+			super(nioFileAttributes.size(), nioFileAttributes.isDirectory(), 1, blockSize, nioFileAttributes.lastModifiedTime().toMillis(),
+					nioFileAttributes.lastAccessTime().toMillis(), permission, owner, group,
 					new Path(nioPath.normalize().toString()).makeQualified(fileSystem.getUri(), fileSystem.getWorkingDirectory()));
 			this.nioPath = requireNonNull(nioPath);
 		}
 
-		/** The separator string used by Windows to separate the domain name from the principal name for the user or group identifier. */
-		private static final String WINDOWS_PRINCIPAL_DOMAIN_NAME_SEPARATOR = "\\";
-
 		/**
-		 * If on the Windows platform, removes any domain name from a Windows security principal in the form <code>&lt;domain&gt;\\user</code> or
-		 * <code>&lt;domain&gt;\\group</code>, yielding simply <code>user</code> or <code>group</code>, respectively.
-		 * @param principalName The full user or group name.
-		 * @return The user or group ID without the domain portion.
-		 * @see NakedLocalFileSystem#IS_WINDOWS_OS
-		 * @see #WINDOWS_PRINCIPAL_DOMAIN_NAME_SEPARATOR
+		 * Copy constructor.
+		 * @param fileStatus The file status to copy.
+		 * @throws IOException If an error occurs copying the status.
 		 */
-		private static String removePrincipalDomainIfWindows(String principalName) {
-			if(IS_WINDOWS_OS) {
-				final int index = principalName.indexOf(WINDOWS_PRINCIPAL_DOMAIN_NAME_SEPARATOR);
-				if(index != -1) {
-					principalName = principalName.substring(index + 1);
-				}
-			}
-			return principalName;
+		public NakedLocalFileStatus(final NakedLocalFileStatus fileStatus) throws IOException {
+			super(fileStatus);
+			this.nioPath = fileStatus.getNioPath();
 		}
 
 	}
@@ -0,0 +1,222 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.*;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the names of file owners and groups, so that resolving a principal name, which may require a system user database lookup (e.g. via NSS or LDAP),
+ * is performed once for each user or group rather than once for each file. Conversely the cache also holds the principals looked up by name when changing
+ * the ownership of files.
+ * @apiNote Returned names are interned, so that many file statuses of files having the same owner or group will share the same string instances. Cached
+ *          entries do not expire, so a user or group renamed in the system user database will continue to be reported using its old name until the cache is
+ *          discarded, e.g. by creating a new file system instance; likewise a principal looked up by name will be used even if the name has since been
+ *          reassigned.
+ * @implSpec On the Windows platform any domain portion is removed from principal names before they are cached. Each map of the cache is bounded to
+ *           {@value #MAX_ENTRY_COUNT} entries, and is simply emptied when full, as the number of distinct users and groups is normally small.
+ * @author Garret Wilson
+ */
+public class PrincipalNameCache {
+
+	/** The attributes read from the Java NIO <code>unix</code> view to resolve the names for a user ID and group ID in a single consistent read. */
+	private static final String UNIX_PRINCIPAL_ATTRIBUTES = "unix:uid,gid,owner,group";
+
+	/** The maximum number of entries held in each map of the cache. */
+	static final int MAX_ENTRY_COUNT = 10_000;
+
+	private final Map<Integer, String> userNamesByUid = new ConcurrentHashMap<>();
+
+	private final Map<Integer, String> groupNamesByGid = new ConcurrentHashMap<>();
+
+	private final Map<UserPrincipal, String> namesByPrincipal = new ConcurrentHashMap<>();
+
+	private final Map<String, UserPrincipal> userPrincipalsByName = new ConcurrentHashMap<>();
+
+	private final Map<String, GroupPrincipal> groupPrincipalsByName = new ConcurrentHashMap<>();
+
+	private final LongAdder lookupCount = new LongAdder();
+
+	/** @return The number of times a name or principal was not found in the cache and had to be resolved. */
+	public long getLookupCount() {
+		return lookupCount.sum();
+	}
+
+	/**
+	 * Returns the name of the user with the given numeric ID, resolving it from the attributes of the given file if it is not already cached.
+	 * @param uid The numeric user ID.
+	 * @param nioPath The Java NIO path of a file owned by the user, to be used if the name must be resolved.
+	 * @return The interned name of the user.
+	 * @throws IOException If an I/O error occurs resolving the name.
+	 */
+	public String getUserName(final int uid, final java.nio.file.Path nioPath) throws IOException {
+		final String userName = userNamesByUid.get(uid);
+		return userName != null ? userName : resolveUnixPrincipalNames(nioPath, uid, true);
+	}
+
+	/**
+	 * Returns the name of the group with the given numeric ID, resolving it from the attributes of the given file if it is not already cached.
+	 * @param gid The numeric group ID.
+	 * @param nioPath The Java NIO path of a file belonging to the group, to be used if the name must be resolved.
+	 * @return The interned name of the group.
+	 * @throws IOException If an I/O error occurs resolving the name.
+	 */
+	public String getGroupName(final int gid, final java.nio.file.Path nioPath) throws IOException {
+		final String groupName = groupNamesByGid.get(gid);
+		return groupName != null ? groupName : resolveUnixPrincipalNames(nioPath, gid, false);
+	}
+
+	/**
+	 * Resolves and caches the names of the owner and group of a file, reading the numeric IDs and the principals in the same operation so that they are
+	 * consistent with each other.
+	 * @param nioPath The Java NIO path of the file.
+	 * @param id The numeric ID of the user or group whose name is to be returned, previously read from the file.
+	 * @param returnUserName <code>true</code> if the user name should be returned, or <code>false</code> if the group name should be returned.
+	 * @return The interned user or group name of the file, as requested.
+	 * @throws IOException If an I/O error occurs reading the file attributes.
+	 * @see #cacheUnixPrincipalNames(Map, int, boolean)
+	 */
+	private String resolveUnixPrincipalNames(final java.nio.file.Path nioPath, final int id, final boolean returnUserName) throws IOException {
+		lookupCount.increment();
+		return cacheUnixPrincipalNames(Files.readAttributes(nioPath, UNIX_PRINCIPAL_ATTRIBUTES), id, returnUserName);
+	}
+
+	/**
+	 * Caches the names of the owner and group read from the <code>unix</code> attributes of a file under the numeric IDs read along with them, and returns the
+	 * name for the requested ID.
+	 * @apiNote The ownership of the file may have changed since the requested ID was read, in which case the names read belong to other IDs.
+	 * @param attributes The <code>uid</code>, <code>gid</code>, <code>owner</code>, and <code>group</code> attributes read together from the
+	 *          <code>unix</code> view.
+	 * @param id The numeric ID of the user or group whose name is to be returned.
+	 * @param returnUserName <code>true</code> if the user name should be returned, or <code>false</code> if the group name should be returned.
+	 * @return The interned user or group name for the requested ID; or, if the file's ownership changed and no name is known for the requested ID, the
+	 *         decimal representation of the ID, which is not cached.
+	 */
+	String cacheUnixPrincipalNames(final Map<String, ?> attributes, final int id, final boolean returnUserName) {
+		cache(userNamesByUid, (Integer)attributes.get("uid"), toName((UserPrincipal)attributes.get("owner")));
+		cache(groupNamesByGid, (Integer)attributes.get("gid"), toName((GroupPrincipal)attributes.get("group")));
+		final String name = (returnUserName ? userNamesByUid : groupNamesByGid).get(id);
+		return name != null ? name : Integer.toString(id).intern();
+	}
+
+	/**
+	 * Returns the name of the given user or group principal.
+	 * @apiNote This method is useful for platforms that do not provide numeric user and group IDs; it avoids repeatedly normalizing names and duplicating name
+	 *          strings, but the platform may already have looked up the principal itself.
+	 * @param principal The user or group principal.
+	 * @return The interned name of the principal.
+	 */
+	public String getName(final UserPrincipal principal) {
+		if(namesByPrincipal.size() >= MAX_ENTRY_COUNT) {
+			namesByPrincipal.clear();
+		}
+		return namesByPrincipal.computeIfAbsent(principal, p -> {
+			lookupCount.increment();
+			return toName(p);
+		});
+	}
+
+	/**
+	 * Returns the user principal with the given name, looking it up if it is not already cached.
+	 * @param userName The name of the user.
+	 * @param nioPath A Java NIO path in the file system whose {@link UserPrincipalLookupService} is to be used if the principal must be looked up.
+	 * @return The user principal.
+	 * @throws UserPrincipalNotFoundException if no user exists with the given name.
+	 * @throws IOException If an I/O error occurs looking up the principal.
+	 */
+	public UserPrincipal getUserPrincipal(final String userName, final java.nio.file.Path nioPath) throws IOException {
+		final UserPrincipal userPrincipal = userPrincipalsByName.get(userName);
+		if(userPrincipal != null) {
+			return userPrincipal;
+		}
+		lookupCount.increment();
+		final UserPrincipal foundUserPrincipal = nioPath.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName(userName);
+		cache(userPrincipalsByName, userName, foundUserPrincipal);
+		return foundUserPrincipal;
+	}
+
+	/**
+	 * Returns the group principal with the given name, looking it up if it is not already cached.
+	 * @param groupName The name of the group.
+	 * @param nioPath A Java NIO path in the file system whose {@link UserPrincipalLookupService} is to be used if the principal must be looked up.
+	 * @return The group principal.
+	 * @throws UserPrincipalNotFoundException if no group exists with the given name.
+	 * @throws UnsupportedOperationException if the file system does not support groups.
+	 * @throws IOException If an I/O error occurs looking up the principal.
+	 */
+	public GroupPrincipal getGroupPrincipal(final String groupName, final java.nio.file.Path nioPath) throws IOException {
+		final GroupPrincipal groupPrincipal = groupPrincipalsByName.get(groupName);
+		if(groupPrincipal != null) {
+			return groupPrincipal;
+		}
+		lookupCount.increment();
+		final GroupPrincipal foundGroupPrincipal = nioPath.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByGroupName(groupName);
+		cache(groupPrincipalsByName, groupName, foundGroupPrincipal);
+		return foundGroupPrincipal;
+	}
+
+	/**
+	 * Caches a value, replacing any value already cached for the key, first emptying the map if it has reached the maximum number of entries.
+	 * @param <K> The type of key.
+	 * @param <V> The type of value.
+	 * @param map The map in which to cache the value.
+	 * @param key The key.
+	 * @param value The value to cache.
+	 * @see #MAX_ENTRY_COUNT
+	 */
+	private static <K, V> void cache(final Map<K, V> map, final K key, final V value) {
+		if(map.size() >= MAX_ENTRY_COUNT && !map.containsKey(key)) {
+			map.clear();
+		}
+		map.put(key, value);
+	}
+
+	/**
+	 * Determines the normalized, interned name of a principal.
+	 * @param principal The user or group principal.
+	 * @return The interned name of the principal, without any Windows domain.
+	 */
+	private static String toName(final UserPrincipal principal) {
+		return removePrincipalDomainIfWindows(principal.getName()).intern();
+	}
+
+	/** The separator string used by Windows to separate the domain name from the principal name for the user or group identifier. */
+	private static final String WINDOWS_PRINCIPAL_DOMAIN_NAME_SEPARATOR = "\\";
+
+	/**
+	 * If on the Windows platform, removes any domain name from a Windows security principal in the form <code>&lt;domain&gt;\\user</code> or
+	 * <code>&lt;domain&gt;\\group</code>, yielding simply <code>user</code> or <code>group</code>, respectively.
+	 * @param principalName The full user or group name.
+	 * @return The user or group ID without the domain portion.
+	 * @see NakedLocalFileSystem#IS_WINDOWS_OS
+	 * @see #WINDOWS_PRINCIPAL_DOMAIN_NAME_SEPARATOR
+	 */
+	static String removePrincipalDomainIfWindows(String principalName) {
+		if(NakedLocalFileSystem.IS_WINDOWS_OS) {
+			final int index = principalName.indexOf(WINDOWS_PRINCIPAL_DOMAIN_NAME_SEPARATOR);
+			if(index != -1) {
+				principalName = principalName.substring(index + 1);
+			}
+		}
+		return principalName;
+	}
+
+}
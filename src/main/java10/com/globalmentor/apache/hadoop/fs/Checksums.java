@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.lang.String.format;
+
+import java.nio.ByteBuffer;
+import java.util.zip.*;
+
+import org.apache.hadoop.util.DataChecksum;
+
+/**
+ * Access to the checksum algorithms used for checksum files.
+ * @implSpec This Java 10+ implementation uses {@link CRC32C}, which the JVM accelerates using CPU instructions where available, and computes checksums of
+ *           direct buffers in place using {@link Checksum#update(ByteBuffer)} without copying their contents to the heap.
+ * @author Garret Wilson
+ */
+final class Checksums {
+
+	private Checksums() {
+	}
+
+	/**
+	 * Creates a new checksum calculator.
+	 * @param type The type of checksum, either {@link DataChecksum.Type#CRC32} or {@link DataChecksum.Type#CRC32C}.
+	 * @return A new checksum calculator of the given type.
+	 * @throws IllegalArgumentException if the type of checksum is not supported.
+	 */
+	static Checksum newChecksum(final DataChecksum.Type type) {
+		switch(type) {
+			case CRC32:
+				return new CRC32();
+			case CRC32C:
+				return new CRC32C();
+			default:
+				throw new IllegalArgumentException(format("Unsupported checksum type %s.", type));
+		}
+	}
+
+	/**
+	 * Updates a checksum with the remaining bytes of a buffer. On return the position of the buffer will equal its limit.
+	 * @param checksum The checksum to update.
+	 * @param buffer The buffer containing the bytes to add to the checksum.
+	 */
+	static void update(final Checksum checksum, final ByteBuffer buffer) {
+		checksum.update(buffer);
+	}
+
+}
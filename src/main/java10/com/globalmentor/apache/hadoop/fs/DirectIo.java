@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+
+import javax.annotation.*;
+
+/**
+ * Access to direct I/O, bypassing the operating system page cache.
+ * @implSpec This Java 10+ implementation uses <code>com.sun.nio.file.ExtendedOpenOption.DIRECT</code>. Whether direct I/O actually succeeds depends on the
+ *           operating system and file store; opening a file may fail if the file store does not support direct I/O.
+ * @implNote The option is looked up reflectively, as it is part of the <code>jdk.unsupported</code> module rather than the Java SE API, and may not be
+ *           present in every runtime.
+ * @author Garret Wilson
+ */
+final class DirectIo {
+
+	/** The direct I/O open option, or <code>null</code> if the runtime does not provide one. */
+	@Nullable
+	private static final OpenOption DIRECT_OPEN_OPTION = findDirectOpenOption();
+
+	private DirectIo() {
+	}
+
+	/**
+	 * Looks up the direct I/O open option provided by the runtime.
+	 * @return The direct I/O open option, or <code>null</code> if the runtime does not provide one.
+	 */
+	@Nullable
+	private static OpenOption findDirectOpenOption() {
+		try {
+			return (OpenOption)Class.forName("com.sun.nio.file.ExtendedOpenOption").getField("DIRECT").get(null);
+		} catch(final ReflectiveOperationException | ClassCastException exception) {
+			return null;
+		}
+	}
+
+	/** @return Whether the Java runtime supports direct I/O. */
+	static boolean isSupported() {
+		return DIRECT_OPEN_OPTION != null;
+	}
+
+	/**
+	 * Returns the option for opening a file for direct I/O.
+	 * @return The direct I/O open option.
+	 * @throws UnsupportedOperationException if direct I/O is not supported.
+	 */
+	static OpenOption getDirectOpenOption() {
+		if(DIRECT_OPEN_OPTION == null) {
+			throw new UnsupportedOperationException("Direct I/O is not supported by this Java runtime.");
+		}
+		return DIRECT_OPEN_OPTION;
+	}
+
+	/**
+	 * Returns the block size of the file store containing the given path, to which direct I/O positions, lengths, and buffers must be aligned.
+	 * @param nioPath The path of an existing file or directory.
+	 * @return The block size of the file store.
+	 * @throws IOException if an I/O error occurs determining the block size.
+	 */
+	static int getBlockSize(final java.nio.file.Path nioPath) throws IOException {
+		return Math.toIntExact(Files.getFileStore(nioPath).getBlockSize());
+	}
+
+	/**
+	 * Allocates a direct buffer the address of which is aligned as required for direct I/O.
+	 * @param capacity The capacity of the buffer.
+	 * @param alignment The required alignment.
+	 * @return A new aligned direct buffer.
+	 */
+	static ByteBuffer allocateAligned(final int capacity, final int alignment) {
+		return ByteBuffer.allocateDirect(capacity + alignment - 1).alignedSlice(alignment).limit(capacity).slice();
+	}
+
+}
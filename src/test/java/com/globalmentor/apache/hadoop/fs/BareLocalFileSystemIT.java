@@ -0,0 +1,427 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.nio.charset.StandardCharsets.*;
+import static java.nio.file.Files.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.*;
+import org.apache.hadoop.util.DataChecksum;
+import org.apache.hadoop.util.functional.RemoteIterators;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Integration tests of {@link BareLocalFileSystem}.
+ * @author Garret Wilson
+ */
+public class BareLocalFileSystemIT {
+
+	private BareLocalFileSystem testFileSystem;
+
+	@BeforeEach
+	void setupFileSystem() throws IOException {
+		testFileSystem = new BareLocalFileSystem();
+		testFileSystem.initialize(URI.create("file:///"), new Configuration());
+	}
+
+	@AfterEach
+	void teardownFileSystem() throws IOException {
+		testFileSystem.close();
+	}
+
+	/**
+	 * Verifies that copying a file copies its checksum file, unless the raw local file system is requested, in which case any stale checksum file is removed.
+	 * @see BareLocalFileSystem#copyFromLocalFile(boolean, Path, Path)
+	 * @see BareLocalFileSystem#copyToLocalFile(boolean, Path, Path, boolean)
+	 */
+	@Test
+	void testCopyIncludesChecksumFile(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final Path sourceFile = new Path(tempDir.resolve("source.txt").toUri());
+		try (final FSDataOutputStream outputStream = testFileSystem.create(sourceFile)) {
+			outputStream.write("foobar".getBytes(UTF_8));
+		}
+		assertThat(exists(tempDir.resolve(".source.txt.crc")), is(true));
+		final java.nio.file.Path targetDirectory = createDirectory(tempDir.resolve("target"));
+		testFileSystem.copyFromLocalFile(false, sourceFile, new Path(targetDirectory.toUri()));
+		assertThat(readAllBytes(targetDirectory.resolve("source.txt")), is("foobar".getBytes(UTF_8)));
+		assertThat(readAllBytes(targetDirectory.resolve(".source.txt.crc")), is(readAllBytes(tempDir.resolve(".source.txt.crc"))));
+		try (final FSDataInputStream inputStream = testFileSystem.open(new Path(targetDirectory.resolve("source.txt").toUri()))) {
+			final byte[] bytes = new byte[6];
+			inputStream.readFully(bytes);
+			assertThat(bytes, is("foobar".getBytes(UTF_8)));
+		}
+		testFileSystem.copyToLocalFile(false, sourceFile, new Path(targetDirectory.toUri()), true);
+		assertThat(exists(targetDirectory.resolve("source.txt")), is(true));
+		assertThat(exists(targetDirectory.resolve(".source.txt.crc")), is(false));
+	}
+
+	/**
+	 * Creates test content of the given length.
+	 * @param length The number of bytes.
+	 * @return Bytes with a repeating but not chunk-aligned pattern.
+	 */
+	private static byte[] createTestBytes(final int length) {
+		final byte[] bytes = new byte[length];
+		for(int i = 0; i < length; i++) {
+			bytes[i] = (byte)(i % 251);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Writes a file using the test file system.
+	 * @param file The file to write.
+	 * @param bytes The file contents.
+	 */
+	private void writeTestFile(final Path file, final byte[] bytes) throws IOException {
+		try (final FSDataOutputStream outputStream = testFileSystem.create(file)) {
+			outputStream.write(bytes, 0, 1000); //write unaligned with the chunks
+			outputStream.write(bytes[1000]);
+			outputStream.write(bytes, 1001, bytes.length - 1001);
+		}
+	}
+
+	/**
+	 * Reads a file fully using the given file system.
+	 * @param fileSystem The file system to use.
+	 * @param file The file to read.
+	 * @return The contents of the file.
+	 */
+	private static byte[] readTestFile(final FileSystem fileSystem, final Path file) throws IOException {
+		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		try (final FSDataInputStream inputStream = fileSystem.open(file)) {
+			final byte[] buffer = new byte[10_000];
+			int count;
+			while((count = inputStream.read(buffer)) != -1) {
+				byteArrayOutputStream.write(buffer, 0, count);
+			}
+		}
+		return byteArrayOutputStream.toByteArray();
+	}
+
+	/**
+	 * Reads the header of the checksum file of the given file.
+	 * @param checksumFile The checksum file.
+	 * @return A description of the checksum type and number of bytes per checksum.
+	 */
+	private static DataChecksum readChecksumFileHeader(final java.nio.file.Path checksumFile) throws IOException {
+		try (final DataInputStream inputStream = new DataInputStream(newInputStream(checksumFile))) {
+			return BareLocalFileSystem.readChecksumFileHeader(inputStream);
+		}
+	}
+
+	/**
+	 * Verifies that a small file is written with the configured checksum type and initial bytes per checksum, and can be read back.
+	 * @see BareLocalFileSystem#create(Path, boolean)
+	 * @see BareLocalFileSystem#open(Path)
+	 */
+	@Test
+	void testChecksumRoundTrip(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final byte[] bytes = createTestBytes(100_000);
+		final Path file = new Path(tempDir.resolve("foo.bin").toUri());
+		writeTestFile(file, bytes);
+		final java.nio.file.Path checksumFile = tempDir.resolve(".foo.bin.crc");
+		final DataChecksum header = readChecksumFileHeader(checksumFile);
+		assertThat(header.getChecksumType(), is(BareLocalFileSystem.CHECKSUM_TYPE_DEFAULT));
+		assertThat(header.getBytesPerChecksum(), is(512));
+		assertThat(size(checksumFile), is(testFileSystem.getChecksumFileLength(file, bytes.length)));
+		assertThat(readTestFile(testFileSystem, file), is(bytes));
+	}
+
+	/**
+	 * Verifies that the number of bytes per checksum is increased for a large file by combining checksums, and that the combined checksums verify the file.
+	 * @see BareLocalFileOutputStream#getBytesPerChecksum(long, int, int)
+	 */
+	@Test
+	void testChecksumTunesBytesPerChecksum(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final int length = 3 * 1024 * 1024 + 123;
+		final byte[] bytes = createTestBytes(length);
+		final Path file = new Path(tempDir.resolve("foo.bin").toUri());
+		writeTestFile(file, bytes);
+		final java.nio.file.Path checksumFile = tempDir.resolve(".foo.bin.crc");
+		final DataChecksum header = readChecksumFileHeader(checksumFile);
+		assertThat(header.getBytesPerChecksum(), is(1024));
+		assertThat(header.getBytesPerChecksum(), is(BareLocalFileOutputStream.getBytesPerChecksum(length, 512, BareLocalFileSystem.MAX_BYTES_PER_CHECKSUM_DEFAULT)));
+		assertThat(size(checksumFile), is(testFileSystem.getChecksumFileLength(file, length)));
+		assertThat(readTestFile(testFileSystem, file), is(bytes));
+		try (final FSDataInputStream inputStream = testFileSystem.open(file)) {
+			final byte[] buffer = new byte[5000];
+			inputStream.readFully(2_000_001, buffer);
+			assertThat(buffer, is(Arrays.copyOfRange(bytes, 2_000_001, 2_005_001)));
+		}
+	}
+
+	/**
+	 * Verifies that a file written using the default CRC32 checksums can be verified by {@link LocalFileSystem}, and that a file written by
+	 * {@link LocalFileSystem} can be verified by {@link BareLocalFileSystem}.
+	 */
+	@Test
+	void testChecksumCompatibility(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final byte[] bytes = createTestBytes(100_000);
+		try (final LocalFileSystem localFileSystem = new LocalFileSystem()) {
+			localFileSystem.initialize(URI.create("file:///"), new Configuration());
+			final Path legacyFile = new Path(tempDir.resolve("legacy.bin").toUri());
+			try (final FSDataOutputStream outputStream = localFileSystem.create(legacyFile)) {
+				outputStream.write(bytes);
+			}
+			assertThat(readChecksumFileHeader(tempDir.resolve(".legacy.bin.crc")).getChecksumType(), is(DataChecksum.Type.CRC32));
+			assertThat(readTestFile(testFileSystem, legacyFile), is(bytes));
+			write(tempDir.resolve("legacy.bin"), new byte[] {1, 2, 3}, java.nio.file.StandardOpenOption.WRITE); //corrupt the legacy file
+			assertThrows(ChecksumException.class, () -> readTestFile(testFileSystem, legacyFile));
+
+			assertThat(testFileSystem.getChecksumType(), is(DataChecksum.Type.CRC32));
+			final Path file = new Path(tempDir.resolve("foo.bin").toUri());
+			writeTestFile(file, bytes);
+			assertThat(readTestFile(localFileSystem, file), is(bytes));
+			write(tempDir.resolve("foo.bin"), new byte[] {1, 2, 3}, java.nio.file.StandardOpenOption.WRITE); //corrupt the file
+			assertThrows(ChecksumException.class, () -> readTestFile(localFileSystem, file));
+		}
+	}
+
+	/**
+	 * Verifies that CRC32C checksums detect corruption.
+	 */
+	@Test
+	void testChecksumCrc32cDetectsCorruption(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final Configuration configuration = new Configuration();
+		configuration.set(BareLocalFileSystem.CHECKSUM_TYPE_KEY, "CRC32C");
+		testFileSystem.close();
+		testFileSystem = new BareLocalFileSystem();
+		testFileSystem.initialize(URI.create("file:///"), configuration);
+		final byte[] bytes = createTestBytes(100_000);
+		final Path file = new Path(tempDir.resolve("foo.bin").toUri());
+		writeTestFile(file, bytes);
+		assertThat(readChecksumFileHeader(tempDir.resolve(".foo.bin.crc")).getChecksumType(), is(DataChecksum.Type.CRC32C));
+		assertThat(readTestFile(testFileSystem, file), is(bytes));
+		write(tempDir.resolve("foo.bin"), new byte[] {1, 2, 3}, java.nio.file.StandardOpenOption.WRITE); //corrupt the file
+		assertThrows(ChecksumException.class, () -> readTestFile(testFileSystem, file));
+	}
+
+	/**
+	 * Verifies that vectored reads are verified against the checksums.
+	 * @see BareLocalFileInputStream#readVectored(List, java.util.function.IntFunction)
+	 */
+	@Test
+	void testChecksumReadVectored(@TempDir final java.nio.file.Path tempDir) throws IOException, InterruptedException, ExecutionException {
+		final byte[] bytes = createTestBytes(3 * 1024 * 1024);
+		final Path file = new Path(tempDir.resolve("foo.bin").toUri());
+		writeTestFile(file, bytes);
+		final List<FileRange> ranges = Arrays.asList(FileRange.createFileRange(10, 100), FileRange.createFileRange(5000, 20_000),
+				FileRange.createFileRange(2_000_000, 1_000_000));
+		try (final FSDataInputStream inputStream = testFileSystem.open(file)) {
+			inputStream.readVectored(ranges, ByteBuffer::allocateDirect);
+			for(final FileRange range : ranges) {
+				final ByteBuffer buffer = range.getData().get();
+				final byte[] rangeBytes = new byte[buffer.remaining()];
+				buffer.get(rangeBytes);
+				assertThat(rangeBytes, is(Arrays.copyOfRange(bytes, (int)range.getOffset(), (int)range.getOffset() + range.getLength())));
+			}
+		}
+		write(tempDir.resolve("foo.bin"), new byte[] {1, 2, 3}, java.nio.file.StandardOpenOption.WRITE); //corrupt the start of the file
+		final List<FileRange> corruptRanges = Arrays.asList(FileRange.createFileRange(10, 100), FileRange.createFileRange(2_000_000, 1000));
+		try (final FSDataInputStream inputStream = testFileSystem.open(file)) {
+			inputStream.readVectored(corruptRanges, ByteBuffer::allocate);
+			final ExecutionException executionException = assertThrows(ExecutionException.class, () -> corruptRanges.get(0).getData().get());
+			assertThat(executionException.getCause(), is(instanceOf(ChecksumException.class)));
+			assertThat(corruptRanges.get(1).getData().get().remaining(), is(1000));
+		}
+	}
+
+	/**
+	 * Verifies that checksums may be stored in an attribute of the file, which accompanies the file when renamed or copied, and which does not prevent reading
+	 * the file after it is overwritten with other checksums or none.
+	 * @see BareLocalFileSystem#CHECKSUM_ATTRIBUTE_KEY
+	 */
+	@Test
+	void testChecksumAttribute(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final Configuration configuration = new Configuration();
+		configuration.setBoolean(BareLocalFileSystem.CHECKSUM_ATTRIBUTE_KEY, true);
+		testFileSystem.close();
+		testFileSystem = new BareLocalFileSystem();
+		testFileSystem.initialize(URI.create("file:///"), configuration);
+		final byte[] bytes = createTestBytes(100_000);
+		final Path file = new Path(tempDir.resolve("foo.bin").toUri());
+		writeTestFile(file, bytes);
+		final boolean isChecksumAttributeSupported = testFileSystem.findChecksumAttribute(file).isPresent();
+		assertThat("Checksums are stored in either an attribute or a checksum file.", exists(tempDir.resolve(".foo.bin.crc")),
+				is(!isChecksumAttributeSupported));
+		assumeTrue(isChecksumAttributeSupported, "File store supports user-defined attributes.");
+		assertThat(testFileSystem.findChecksumAttribute(file).get().length, is((int)testFileSystem.getChecksumFileLength(file, bytes.length)));
+		assertThat(readTestFile(testFileSystem, file), is(bytes));
+
+		//rename and copy
+		final Path renamedFile = new Path(tempDir.resolve("bar.bin").toUri());
+		assertThat(testFileSystem.rename(file, renamedFile), is(true));
+		assertThat(testFileSystem.findChecksumAttribute(renamedFile).isPresent(), is(true));
+		assertThat(readTestFile(testFileSystem, renamedFile), is(bytes));
+		final java.nio.file.Path targetDirectory = createDirectory(tempDir.resolve("target"));
+		testFileSystem.copyFromLocalFile(false, renamedFile, new Path(targetDirectory.toUri()));
+		final Path copiedFile = new Path(targetDirectory.resolve("bar.bin").toUri());
+		assertThat(testFileSystem.findChecksumAttribute(copiedFile).isPresent(), is(true));
+		assertThat(exists(targetDirectory.resolve(".bar.bin.crc")), is(false));
+		write(targetDirectory.resolve("bar.bin"), new byte[] {1, 2, 3}, java.nio.file.StandardOpenOption.WRITE); //corrupt the copy
+		assertThrows(ChecksumException.class, () -> readTestFile(testFileSystem, copiedFile));
+		assertThat(readTestFile(testFileSystem, renamedFile), is(bytes));
+
+		//a checksum file takes precedence
+		final byte[] otherBytes = createTestBytes(50_000);
+		otherBytes[0] = 123;
+		try (final LocalFileSystem localFileSystem = new LocalFileSystem()) {
+			localFileSystem.initialize(URI.create("file:///"), new Configuration());
+			try (final FSDataOutputStream outputStream = localFileSystem.create(renamedFile)) {
+				outputStream.write(otherBytes);
+			}
+		}
+		assertThat(readTestFile(testFileSystem, renamedFile), is(otherBytes));
+		writeTestFile(renamedFile, bytes);
+		assertThat(exists(tempDir.resolve(".bar.bin.crc")), is(false));
+		assertThat(readTestFile(testFileSystem, renamedFile), is(bytes));
+
+		//overwriting without checksums
+		testFileSystem.setWriteChecksum(false);
+		try (final FSDataOutputStream outputStream = testFileSystem.create(renamedFile)) {
+			outputStream.write(otherBytes);
+		}
+		assertThat(testFileSystem.findChecksumAttribute(renamedFile).isPresent(), is(false));
+		assertThat(readTestFile(testFileSystem, renamedFile), is(otherBytes));
+
+		//a stale attribute not matching the file length is ignored
+		testFileSystem.setWriteChecksum(true);
+		writeTestFile(renamedFile, bytes);
+		write(tempDir.resolve("bar.bin"), otherBytes);
+		assertThat(readTestFile(testFileSystem, renamedFile), is(otherBytes));
+	}
+
+	/**
+	 * Verifies that copying a directory tree to the raw local file system omits the checksum attributes of the copied files, while preserving other
+	 * user-defined attributes.
+	 * @see BareLocalFileSystem#copyToLocalFile(boolean, Path, Path, boolean)
+	 */
+	@Test
+	void testCopyDirectoryToRawLocalFileOmitsChecksumAttribute(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final Configuration configuration = new Configuration();
+		configuration.setBoolean(BareLocalFileSystem.CHECKSUM_ATTRIBUTE_KEY, true);
+		testFileSystem.close();
+		testFileSystem = new BareLocalFileSystem();
+		testFileSystem.initialize(URI.create("file:///"), configuration);
+		final byte[] bytes = createTestBytes(10_000);
+		final java.nio.file.Path sourceDirectory = createDirectories(tempDir.resolve("source").resolve("sub"));
+		final Path fooFile = new Path(tempDir.resolve("source").resolve("foo.bin").toUri());
+		final Path barFile = new Path(sourceDirectory.resolve("bar.bin").toUri());
+		writeTestFile(fooFile, bytes);
+		writeTestFile(barFile, bytes);
+		assumeTrue(testFileSystem.findChecksumAttribute(fooFile).isPresent(), "File store supports user-defined attributes.");
+		final UserDefinedFileAttributeView fooAttributeView = getFileAttributeView(tempDir.resolve("source").resolve("foo.bin"), UserDefinedFileAttributeView.class);
+		fooAttributeView.write("test", ByteBuffer.wrap("foobar".getBytes(UTF_8)));
+		final java.nio.file.Path targetDirectory = tempDir.resolve("target");
+		testFileSystem.copyToLocalFile(false, new Path(tempDir.resolve("source").toUri()), new Path(targetDirectory.toUri()), true);
+		final Path copiedFooFile = new Path(targetDirectory.resolve("foo.bin").toUri());
+		final Path copiedBarFile = new Path(targetDirectory.resolve("sub").resolve("bar.bin").toUri());
+		assertThat(testFileSystem.findChecksumAttribute(copiedFooFile).isPresent(), is(false));
+		assertThat(testFileSystem.findChecksumAttribute(copiedBarFile).isPresent(), is(false));
+		assertThat(getFileAttributeView(targetDirectory.resolve("foo.bin"), UserDefinedFileAttributeView.class).list(), contains("test"));
+		assertThat(readTestFile(testFileSystem, copiedFooFile), is(bytes));
+		assertThat(readTestFile(testFileSystem, copiedBarFile), is(bytes));
+		//the source keeps its checksums
+		assertThat(testFileSystem.findChecksumAttribute(fooFile).isPresent(), is(true));
+	}
+
+	/**
+	 * Verifies that checksums too large for an attribute are written to a checksum file.
+	 * @see BareLocalFileSystem#CHECKSUM_ATTRIBUTE_KEY
+	 */
+	@Test
+	void testChecksumAttributeFallback(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final Configuration configuration = new Configuration();
+		configuration.setBoolean(BareLocalFileSystem.CHECKSUM_ATTRIBUTE_KEY, true);
+		configuration.setInt(LocalFileSystemConfigKeys.LOCAL_FS_BYTES_PER_CHECKSUM_KEY, 16);
+		configuration.setInt(BareLocalFileSystem.MAX_BYTES_PER_CHECKSUM_KEY, 16);
+		testFileSystem.close();
+		testFileSystem = new BareLocalFileSystem();
+		testFileSystem.setConf(configuration);
+		testFileSystem.initialize(URI.create("file:///"), configuration);
+		final byte[] bytes = createTestBytes(1_000_000);
+		final Path file = new Path(tempDir.resolve("foo.bin").toUri());
+		writeTestFile(file, bytes);
+		assertThat(size(tempDir.resolve(".foo.bin.crc")), is(greaterThan((long)BareLocalFileSystem.CHECKSUM_ATTRIBUTE_MAX_LENGTH)));
+		assertThat(testFileSystem.findChecksumAttribute(file).isPresent(), is(false));
+		assertThat(readTestFile(testFileSystem, file), is(bytes));
+	}
+
+	/**
+	 * Verifies that listing a directory rejects checksum files by name, without retrieving their file attributes.
+	 * @see BareLocalFileSystem#listStatus(Path)
+	 * @see BareLocalFileSystem#listStatusIterator(Path)
+	 * @see BareLocalFileSystem#listLocatedStatus(Path)
+	 */
+	@Test
+	void testListStatusSkipsChecksumFiles(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		for(int i = 0; i < 3; i++) {
+			try (final FSDataOutputStream outputStream = testFileSystem.create(new Path(tempDir.resolve("file-" + i + ".txt").toUri()))) {
+				outputStream.write("foobar".getBytes(UTF_8));
+			}
+		}
+		createDirectory(tempDir.resolve("foobar"));
+		try (final java.util.stream.Stream<java.nio.file.Path> entries = list(tempDir)) {
+			assertThat(entries.count(), is(7L));
+		}
+		final AtomicInteger readNioFileAttributesCount = new AtomicInteger();
+		try (final BareLocalFileSystem countingFileSystem = new BareLocalFileSystem(new NakedLocalFileSystem() {
+			@Override
+			protected BasicFileAttributes readNioFileAttributes(final java.nio.file.Path nioPath) throws IOException {
+				readNioFileAttributesCount.incrementAndGet();
+				return super.readNioFileAttributes(nioPath);
+			}
+		})) {
+			countingFileSystem.initialize(URI.create("file:///"), new Configuration());
+			final Path directory = new Path(tempDir.toUri());
+			final List<String> expectedNames = Arrays.asList("file-0.txt", "file-1.txt", "file-2.txt", "foobar");
+			assertThat(Arrays.stream(countingFileSystem.listStatus(directory)).map(fileStatus -> fileStatus.getPath().getName()).toArray(),
+					arrayContainingInAnyOrder(expectedNames.toArray()));
+			assertThat(readNioFileAttributesCount.getAndSet(0), is(4));
+			assertThat(RemoteIterators.toList(RemoteIterators.mappingRemoteIterator(countingFileSystem.listStatusIterator(directory),
+					fileStatus -> fileStatus.getPath().getName())), containsInAnyOrder(expectedNames.toArray()));
+			assertThat(readNioFileAttributesCount.getAndSet(0), is(4));
+			assertThat(RemoteIterators.toList(RemoteIterators.mappingRemoteIterator(countingFileSystem.listLocatedStatus(directory),
+					fileStatus -> fileStatus.getPath().getName())), containsInAnyOrder(expectedNames.toArray()));
+			assertThat(readNioFileAttributesCount.getAndSet(0), is(4));
+			assertThat(countingFileSystem.listStatus(new Path(tempDir.resolve(".file-0.txt.crc").toUri())), is(emptyArray()));
+			readNioFileAttributesCount.set(0);
+			assertThat(Arrays.stream(countingFileSystem.globStatus(new Path(directory, "*"))).map(fileStatus -> fileStatus.getPath().getName()).toArray(),
+					is(expectedNames.toArray()));
+			assertThat(readNioFileAttributesCount.getAndSet(0), is(4));
+			assertThat(countingFileSystem.globStatus(new Path(directory, "*.crc")), is(emptyArray()));
+			assertThat(readNioFileAttributesCount.getAndSet(0), is(0));
+		}
+	}
+
+}
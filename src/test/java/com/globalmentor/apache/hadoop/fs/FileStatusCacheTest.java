@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.fs.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Unit tests of {@link FileStatusCache}.
+ * @author Garret Wilson
+ */
+public class FileStatusCacheTest {
+
+	private final AtomicLong nanoTime = new AtomicLong();
+
+	private final java.nio.file.Path fooKey = FileStatusCache.toKey(Paths.get("foo"));
+
+	private final java.nio.file.Path fooBarKey = FileStatusCache.toKey(Paths.get("foo", "bar"));
+
+	private final java.nio.file.Path fooBarBazKey = FileStatusCache.toKey(Paths.get("foo", "bar", "baz"));
+
+	private final java.nio.file.Path otherKey = FileStatusCache.toKey(Paths.get("other"));
+
+	private final FileStatus fileStatus = new FileStatus(6, false, 1, 4096, 0, new Path("file:///foo/bar"));
+
+	/** @see FileStatusCache#toKey(java.nio.file.Path) */
+	@Test
+	void testToKey() {
+		assertThat(FileStatusCache.toKey(Paths.get("foo", "..", "bar")), is(Paths.get("bar").toAbsolutePath()));
+	}
+
+	/** @see FileStatusCache#find(java.nio.file.Path) */
+	@Test
+	void testFindCountsHitsAndMisses() {
+		final FileStatusCache cache = new FileStatusCache(10, 1, TimeUnit.SECONDS, nanoTime::get);
+		assertThat(cache.find(fooBarKey), is(Optional.empty()));
+		cache.put(fooBarKey, fileStatus);
+		assertThat(cache.find(fooBarKey), is(Optional.of(fileStatus)));
+		assertThat(cache.getHitCount(), is(1L));
+		assertThat(cache.getMissCount(), is(1L));
+	}
+
+	/** @see FileStatusCache#find(java.nio.file.Path) */
+	@Test
+	void testFindExpiresEntries() {
+		final FileStatusCache cache = new FileStatusCache(10, 1, TimeUnit.SECONDS, nanoTime::get);
+		cache.put(fooBarKey, fileStatus);
+		nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+		assertThat(cache.find(fooBarKey), is(Optional.of(fileStatus)));
+		nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+		assertThat(cache.find(fooBarKey), is(Optional.empty()));
+		assertThat(cache.getSize(), is(0));
+		assertThat(cache.getEvictionCount(), is(0L));
+	}
+
+	/** @see FileStatusCache#put(java.nio.file.Path, FileStatus) */
+	@Test
+	void testPutEvictsLeastRecentlyUsed() {
+		final FileStatusCache cache = new FileStatusCache(2, 1, TimeUnit.SECONDS, nanoTime::get);
+		cache.put(fooKey, fileStatus);
+		cache.put(fooBarKey, fileStatus);
+		cache.find(fooKey); //make `foo/bar` the least recently used
+		cache.put(otherKey, fileStatus);
+		assertThat(cache.getSize(), is(2));
+		assertThat(cache.getEvictionCount(), is(1L));
+		assertThat(cache.find(fooBarKey), is(Optional.empty()));
+		assertThat(cache.find(fooKey), is(Optional.of(fileStatus)));
+		assertThat(cache.find(otherKey), is(Optional.of(fileStatus)));
+	}
+
+	/** @see FileStatusCache#put(java.nio.file.Path, FileStatus, long) */
+	@Test
+	void testPutSkippedAfterInvalidation() {
+		final FileStatusCache cache = new FileStatusCache(10, 1, TimeUnit.SECONDS, nanoTime::get);
+		final long invalidationStamp = cache.getInvalidationStamp();
+		cache.invalidate(fooBarKey); //e.g. the file is modified while its status is being read
+		assertThat(cache.put(fooBarKey, fileStatus, invalidationStamp), is(false));
+		assertThat(cache.find(fooBarKey), is(Optional.empty()));
+		assertThat(cache.put(fooBarKey, fileStatus, cache.getInvalidationStamp()), is(true));
+		assertThat(cache.find(fooBarKey), is(Optional.of(fileStatus)));
+	}
+
+	/** @see FileStatusCache#invalidate(java.nio.file.Path) */
+	@Test
+	void testInvalidateRemovesPathAndParent() {
+		final FileStatusCache cache = new FileStatusCache(10, 1, TimeUnit.SECONDS, nanoTime::get);
+		cache.put(fooKey, fileStatus);
+		cache.put(fooBarKey, fileStatus);
+		cache.put(fooBarBazKey, fileStatus);
+		cache.invalidate(fooBarKey);
+		assertThat(cache.find(fooKey), is(Optional.empty()));
+		assertThat(cache.find(fooBarKey), is(Optional.empty()));
+		assertThat(cache.find(fooBarBazKey), is(Optional.of(fileStatus)));
+	}
+
+	/** @see FileStatusCache#invalidateTree(java.nio.file.Path) */
+	@Test
+	void testInvalidateTreeRemovesDescendants() {
+		final FileStatusCache cache = new FileStatusCache(10, 1, TimeUnit.SECONDS, nanoTime::get);
+		cache.put(fooKey, fileStatus);
+		cache.put(fooBarKey, fileStatus);
+		cache.put(fooBarBazKey, fileStatus);
+		cache.put(otherKey, fileStatus);
+		cache.invalidateTree(fooBarKey);
+		assertThat(cache.getSize(), is(1));
+		assertThat(cache.find(otherKey), is(Optional.of(fileStatus)));
+	}
+
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.nio.file.Files.*;
+import static java.util.Arrays.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Integration tests of {@link NakedLocalFileInputStream} as returned by {@link NakedLocalFileSystem#open(Path, int)}.
+ * @author Garret Wilson
+ */
+public class NakedLocalFileInputStreamIT {
+
+	/** The size of the test file, deliberately not a multiple of the buffer size. */
+	private static final int FILE_SIZE = 10_000;
+
+	/** The buffer size to use for opening the test file. */
+	private static final int BUFFER_SIZE = 1024;
+
+	private NakedLocalFileSystem testFileSystem;
+
+	private byte[] content;
+
+	private Path testFilePath;
+
+	@BeforeEach
+	void setupFileSystem(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		testFileSystem = new NakedLocalFileSystem();
+		testFileSystem.initialize(URI.create("file:///"), new Configuration());
+		content = new byte[FILE_SIZE];
+		new Random(42).nextBytes(content);
+		testFilePath = new Path(write(tempDir.resolve("test.bin"), content).toUri());
+	}
+
+	@AfterEach
+	void teardownFileSystem() throws IOException {
+		testFileSystem.close();
+	}
+
+	/** @see NakedLocalFileSystem#open(Path, int) */
+	@Test
+	void testOpenReturnsNakedLocalFileInputStream() throws IOException {
+		try (final FSDataInputStream inputStream = testFileSystem.open(testFilePath, BUFFER_SIZE)) {
+			assertThat(inputStream.getWrappedStream(), is(instanceOf(NakedLocalFileInputStream.class)));
+			assertThat(inputStream.hasCapability(StreamCapabilities.READBYTEBUFFER), is(true));
+			assertThat(inputStream.hasCapability(StreamCapabilities.PREADBYTEBUFFER), is(true));
+			assertThat(inputStream.hasCapability(StreamCapabilities.UNBUFFER), is(true));
+			assertThat(inputStream.hasCapability(StreamCapabilities.IOSTATISTICS), is(true));
+			assertThat(inputStream.hasCapability(StreamCapabilities.READAHEAD), is(false));
+		}
+	}
+
+	/** @see NakedLocalFileSystem#open(Path, int) */
+	@Test
+	void testOpenThrowsFileNotFoundExceptionForMissingFileOrDirectory(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		assertThrows(FileNotFoundException.class, () -> testFileSystem.open(new Path(tempDir.resolve("missing").toUri())));
+		assertThrows(FileNotFoundException.class, () -> testFileSystem.open(new Path(tempDir.toUri())));
+	}
+
+	/** Verifies sequential reads of single bytes, small arrays, and arrays larger than the buffer, along with seeking and skipping. */
+	@Test
+	void testSequentialReads() throws IOException {
+		try (final FSDataInputStream inputStream = testFileSystem.open(testFilePath, BUFFER_SIZE)) {
+			assertThat(inputStream.read(), is(content[0] & 0xff));
+			assertThat(inputStream.getPos(), is(1L));
+			final byte[] smallBytes = new byte[100];
+			inputStream.readFully(smallBytes);
+			assertThat(smallBytes, is(Arrays.copyOfRange(content, 1, 101)));
+			final byte[] largeBytes = new byte[BUFFER_SIZE * 3];
+			inputStream.readFully(largeBytes);
+			assertThat(largeBytes, is(Arrays.copyOfRange(content, 101, 101 + largeBytes.length)));
+			inputStream.seek(50);
+			assertThat(inputStream.read(), is(content[50] & 0xff));
+			assertThat(inputStream.skip(1000), is(1000L));
+			assertThat(inputStream.getPos(), is(1051L));
+			assertThat(inputStream.available(), is(FILE_SIZE - 1051));
+			assertThat(inputStream.read(), is(content[1051] & 0xff));
+			inputStream.seek(FILE_SIZE - 1);
+			assertThat(inputStream.read(), is(content[FILE_SIZE - 1] & 0xff));
+			assertThat(inputStream.read(), is(-1));
+			assertThat(inputStream.read(new byte[10]), is(-1));
+			assertThat(inputStream.skip(10), is(0L));
+			assertThrows(EOFException.class, () -> inputStream.seek(-1));
+		}
+	}
+
+	/** Verifies sequential reads into both heap and direct byte buffers. */
+	@Test
+	void testByteBufferReads() throws IOException {
+		try (final FSDataInputStream inputStream = testFileSystem.open(testFilePath, BUFFER_SIZE)) {
+			final ByteBuffer heapBuffer = ByteBuffer.allocate(10);
+			assertThat(inputStream.read(heapBuffer), is(10));
+			assertThat(heapBuffer.array(), is(Arrays.copyOfRange(content, 0, 10)));
+			final ByteBuffer directBuffer = ByteBuffer.allocateDirect(FILE_SIZE);
+			while(directBuffer.hasRemaining() && inputStream.read(directBuffer) >= 0) {
+			}
+			assertThat(directBuffer.position(), is(FILE_SIZE - 10));
+			directBuffer.flip();
+			final byte[] directBytes = new byte[directBuffer.remaining()];
+			directBuffer.get(directBytes);
+			assertThat(directBytes, is(Arrays.copyOfRange(content, 10, FILE_SIZE)));
+			assertThat(inputStream.read(ByteBuffer.allocate(1)), is(-1));
+		}
+	}
+
+	/** Verifies that positional reads return the correct data and do not change the stream position. */
+	@Test
+	void testPositionedReads() throws IOException {
+		try (final FSDataInputStream inputStream = testFileSystem.open(testFilePath, BUFFER_SIZE)) {
+			inputStream.seek(7);
+			final byte[] bytes = new byte[2000];
+			inputStream.readFully(5000, bytes);
+			assertThat(bytes, is(Arrays.copyOfRange(content, 5000, 7000)));
+			final ByteBuffer directBuffer = ByteBuffer.allocateDirect(100);
+			inputStream.readFully(9000, directBuffer);
+			directBuffer.flip();
+			final byte[] directBytes = new byte[100];
+			directBuffer.get(directBytes);
+			assertThat(directBytes, is(Arrays.copyOfRange(content, 9000, 9100)));
+			assertThat(inputStream.getPos(), is(7L));
+			assertThat(inputStream.read(), is(content[7] & 0xff));
+			assertThat(inputStream.read(FILE_SIZE, new byte[1], 0, 1), is(-1));
+			assertThrows(EOFException.class, () -> inputStream.readFully(FILE_SIZE - 10, new byte[20]));
+			assertThrows(EOFException.class, () -> inputStream.readFully(FILE_SIZE - 10, ByteBuffer.allocate(20)));
+			assertThrows(EOFException.class, () -> inputStream.read(-1, ByteBuffer.allocate(20)));
+		}
+	}
+
+	/** Verifies that many threads may perform positional reads on the same stream concurrently. */
+	@Test
+	void testConcurrentPositionedReads() throws Exception {
+		final ExecutorService executorService = Executors.newFixedThreadPool(8);
+		try (final FSDataInputStream inputStream = testFileSystem.open(testFilePath, BUFFER_SIZE)) {
+			final List<Future<Boolean>> results = new ArrayList<>();
+			for(int i = 0; i < 200; i++) {
+				final int position = (i * 37) % (FILE_SIZE - 100);
+				results.add(executorService.submit(() -> {
+					final byte[] bytes = new byte[100];
+					inputStream.readFully(position, bytes);
+					return Arrays.equals(bytes, Arrays.copyOfRange(content, position, position + 100));
+				}));
+			}
+			for(final Future<Boolean> result : results) {
+				assertThat(result.get(), is(true));
+			}
+		} finally {
+			executorService.shutdown();
+		}
+	}
+
+	/** Verifies that a stream may continue to be read after being unbuffered, but not after being closed. */
+	@Test
+	void testUnbufferAndClose() throws IOException {
+		final FSDataInputStream inputStream = testFileSystem.open(testFilePath, BUFFER_SIZE);
+		assertThat(inputStream.read(), is(content[0] & 0xff));
+		inputStream.unbuffer();
+		assertThat(inputStream.read(), is(content[1] & 0xff));
+		inputStream.close();
+		inputStream.close();
+		assertThrows(IOException.class, () -> inputStream.read());
+		assertThrows(IOException.class, () -> inputStream.read(0, new byte[1], 0, 1));
+	}
+
+	/**
+	 * Verifies vectored reads of ranges that are merged, ranges that are not, and ranges extending beyond the end of the file, using both the dedicated
+	 * executor and synchronous reads.
+	 * @see NakedLocalFileInputStream#readVectored(List, java.util.function.IntFunction)
+	 */
+	@Test
+	void testReadVectored() throws Exception {
+		for(final int threads : new int[] {0, 2}) {
+			final Configuration configuration = new Configuration();
+			configuration.setInt(NakedLocalFileSystem.VECTORED_READ_THREADS_KEY, threads);
+			configuration.set(NakedLocalFileSystem.VECTORED_READ_MIN_SEEK_KEY, "100");
+			configuration.set(NakedLocalFileSystem.VECTORED_READ_MAX_MERGED_SIZE_KEY, "2k");
+			try (final NakedLocalFileSystem vectoredFileSystem = new NakedLocalFileSystem()) {
+				vectoredFileSystem.initialize(URI.create("file:///"), configuration);
+				try (final FSDataInputStream inputStream = vectoredFileSystem.open(testFilePath, BUFFER_SIZE)) {
+					assertThat(inputStream.hasCapability(StreamCapabilities.VECTOREDIO), is(true));
+					assertThat(inputStream.minSeekForVectorReads(), is(100));
+					assertThat(inputStream.maxReadSizeForVectorReads(), is(2048));
+					final List<FileRange> ranges = asList(FileRange.createFileRange(5000, 100), //out of order
+							FileRange.createFileRange(0, 10), FileRange.createFileRange(20, 30), FileRange.createFileRange(60, 1000), //merged
+							FileRange.createFileRange(1500, 1000), //too far to merge
+							FileRange.createFileRange(FILE_SIZE - 10, 10), FileRange.createFileRange(FILE_SIZE, 0), //end of file
+							FileRange.createFileRange(FILE_SIZE + 10, 10)); //beyond end of file
+					inputStream.readVectored(ranges, ByteBuffer::allocateDirect);
+					for(final FileRange range : ranges.subList(0, ranges.size() - 1)) {
+						final ByteBuffer buffer = range.getData().get(10, TimeUnit.SECONDS);
+						assertThat(buffer.remaining(), is(range.getLength()));
+						final byte[] bytes = new byte[range.getLength()];
+						buffer.get(bytes);
+						assertThat(bytes, is(Arrays.copyOfRange(content, (int)range.getOffset(), (int)range.getOffset() + range.getLength())));
+					}
+					final ExecutionException executionException = assertThrows(ExecutionException.class,
+							() -> ranges.get(ranges.size() - 1).getData().get(10, TimeUnit.SECONDS));
+					assertThat(executionException.getCause(), is(instanceOf(EOFException.class)));
+					assertThat(inputStream.getPos(), is(0L));
+					assertThrows(UnsupportedOperationException.class,
+							() -> inputStream.readVectored(asList(FileRange.createFileRange(0, 100), FileRange.createFileRange(50, 100)), ByteBuffer::allocate));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Verifies reading from a memory-mapped file, including reads spanning segments, and that the file is unmapped when the stream is closed.
+	 * @see MappedNakedLocalFileInputStream
+	 */
+	@Test
+	void testMemoryMappedReads() throws Exception {
+		final Configuration configuration = new Configuration();
+		configuration.set(NakedLocalFileSystem.MMAP_THRESHOLD_KEY, "1k");
+		configuration.setInt(NakedLocalFileSystem.MMAP_SEGMENT_SIZE_KEY, 1000);
+		try (final NakedLocalFileSystem mappingFileSystem = new NakedLocalFileSystem()) {
+			mappingFileSystem.initialize(URI.create("file:///"), configuration);
+			final FSDataInputStream inputStream = mappingFileSystem.open(testFilePath, BUFFER_SIZE);
+			try {
+				assertThat(inputStream.getWrappedStream(), is(instanceOf(MappedNakedLocalFileInputStream.class)));
+				assertThat(((MappedNakedLocalFileInputStream)inputStream.getWrappedStream()).getSegmentCount(), is(10));
+				assertThat(inputStream.read(), is(content[0] & 0xff));
+				final byte[] bytes = new byte[2500];
+				inputStream.readFully(bytes);
+				assertThat(bytes, is(Arrays.copyOfRange(content, 1, 2501)));
+				final ByteBuffer directBuffer = ByteBuffer.allocateDirect(1500);
+				inputStream.readFully(8000, directBuffer);
+				directBuffer.flip();
+				final byte[] directBytes = new byte[1500];
+				directBuffer.get(directBytes);
+				assertThat(directBytes, is(Arrays.copyOfRange(content, 8000, 9500)));
+				final FileRange range = FileRange.createFileRange(990, 20);
+				inputStream.readVectored(asList(range), ByteBuffer::allocate);
+				final byte[] rangeBytes = new byte[20];
+				range.getData().get(10, TimeUnit.SECONDS).get(rangeBytes);
+				assertThat(rangeBytes, is(Arrays.copyOfRange(content, 990, 1010)));
+				inputStream.seek(FILE_SIZE - 2);
+				assertThat(inputStream.read(new byte[10]), is(2));
+				assertThat(inputStream.read(), is(-1));
+				assertThat(inputStream.read(FILE_SIZE, new byte[1], 0, 1), is(-1));
+			} finally {
+				inputStream.close();
+			}
+			assertThrows(IOException.class, () -> inputStream.read(0, new byte[1], 0, 1));
+			try (final FSDataInputStream smallFileInputStream = mappingFileSystem.open(new Path(
+					write(java.nio.file.Paths.get(testFilePath.toUri()).resolveSibling("small.bin"), new byte[100]).toUri()))) {
+				assertThat(smallFileInputStream.getWrappedStream(), is(not(instanceOf(MappedNakedLocalFileInputStream.class))));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static java.nio.file.Files.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.net.URI;
+import java.util.*;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.*;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.apache.hadoop.fs.statistics.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Integration tests of {@link NakedLocalFileOutputStream} as returned by {@link NakedLocalFileSystem#create(Path)} and related methods.
+ * @author Garret Wilson
+ */
+public class NakedLocalFileOutputStreamIT {
+
+	/** The minimum write buffer size to configure. */
+	private static final int WRITE_BUFFER_SIZE = 4096;
+
+	private NakedLocalFileSystem testFileSystem;
+
+	private byte[] content;
+
+	@BeforeEach
+	void setupFileSystem() throws IOException {
+		testFileSystem = new NakedLocalFileSystem();
+		final Configuration conf = new Configuration();
+		conf.setInt(NakedLocalFileSystem.WRITE_BUFFER_SIZE_KEY, WRITE_BUFFER_SIZE);
+		testFileSystem.initialize(URI.create("file:///"), conf);
+		content = new byte[WRITE_BUFFER_SIZE * 5 + 123];
+		new Random(42).nextBytes(content);
+	}
+
+	@AfterEach
+	void teardownFileSystem() throws IOException {
+		testFileSystem.close();
+	}
+
+	/** @see NakedLocalFileSystem#create(Path) */
+	@Test
+	void testCreateReturnsSyncableNakedLocalFileOutputStream(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		try (final FSDataOutputStream outputStream = testFileSystem.create(new Path(tempDir.resolve("test.bin").toUri()))) {
+			assertThat(outputStream.getWrappedStream(), is(instanceOf(NakedLocalFileOutputStream.class)));
+			assertThat(outputStream.hasCapability(StreamCapabilities.HSYNC), is(true));
+			assertThat(outputStream.hasCapability("hflush"), is(true));
+			assertThat(outputStream.hasCapability(StreamCapabilities.IOSTATISTICS), is(true));
+			assertThat(outputStream.hasCapability(StreamCapabilities.UNBUFFER), is(false));
+		}
+	}
+
+	/** Verifies writes of single bytes, small arrays, and arrays larger than the buffer, which are written using gathering writes. */
+	@Test
+	void testWrites(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final java.nio.file.Path file = tempDir.resolve("test.bin");
+		final IOStatistics ioStatistics;
+		try (final FSDataOutputStream outputStream = testFileSystem.create(new Path(file.toUri()))) {
+			ioStatistics = outputStream.getIOStatistics();
+			outputStream.write(content[0]);
+			outputStream.write(content, 1, 100);
+			outputStream.write(content, 101, WRITE_BUFFER_SIZE * 3);
+			outputStream.write(content, 101 + WRITE_BUFFER_SIZE * 3, content.length - (101 + WRITE_BUFFER_SIZE * 3));
+			assertThat(outputStream.getPos(), is((long)content.length));
+		}
+		assertThat(readAllBytes(file), is(content));
+		assertThat(ioStatistics.counters().get(StreamStatisticNames.STREAM_WRITE_BYTES), is((long)content.length));
+	}
+
+	/** Verifies that flushed data is visible to readers before the stream is closed. */
+	@Test
+	void testHflushAndHsyncWriteBufferedBytes(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final java.nio.file.Path file = tempDir.resolve("test.bin");
+		try (final FSDataOutputStream outputStream = testFileSystem.create(new Path(file.toUri()))) {
+			outputStream.write(content, 0, 10);
+			assertThat(size(file), is(0L));
+			outputStream.hflush();
+			assertThat(size(file), is(10L));
+			outputStream.write(content, 10, 10);
+			outputStream.hsync();
+			assertThat(size(file), is(20L));
+		}
+		assertThat(readAllBytes(file), is(Arrays.copyOf(content, 20)));
+	}
+
+	/** @see NakedLocalFileSystem#create(Path, boolean) */
+	@Test
+	void testCreateOverwrite(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final java.nio.file.Path file = write(tempDir.resolve("test.bin"), content);
+		final Path path = new Path(file.toUri());
+		assertThrows(FileAlreadyExistsException.class, () -> testFileSystem.create(path, false));
+		assertThat(readAllBytes(file), is(content));
+		try (final FSDataOutputStream outputStream = testFileSystem.create(path, true)) {
+			outputStream.write(content, 0, 10);
+		}
+		assertThat(readAllBytes(file), is(Arrays.copyOf(content, 10)));
+	}
+
+	/** @see NakedLocalFileSystem#create(Path) */
+	@Test
+	void testCreateMakesParentDirectoriesAndSetsPermission(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final Path path = new Path(tempDir.resolve("foo").resolve("bar").resolve("test.bin").toUri());
+		final FsPermission permission = new FsPermission((short)0640);
+		try (final FSDataOutputStream outputStream = testFileSystem.create(path, permission, false, WRITE_BUFFER_SIZE, (short)1, 1024 * 1024, null)) {
+			outputStream.write(content);
+		}
+		final FileStatus fileStatus = testFileSystem.getFileStatus(path);
+		assertThat(fileStatus.getLen(), is((long)content.length));
+		assertThat(fileStatus.getPermission(), is(permission.applyUMask(FsPermission.getUMask(testFileSystem.getConf()))));
+	}
+
+	/** @see NakedLocalFileSystem#createNonRecursive(Path, boolean, int, short, long, org.apache.hadoop.util.Progressable) */
+	@Test
+	void testCreateNonRecursiveThrowsFileNotFoundExceptionForMissingParent(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final Path path = new Path(tempDir.resolve("missing").resolve("test.bin").toUri());
+		assertThrows(FileNotFoundException.class, () -> testFileSystem.createNonRecursive(path, true, WRITE_BUFFER_SIZE, (short)1, 1024 * 1024, null));
+		assertThat(exists(tempDir.resolve("missing")), is(false));
+	}
+
+	/** @see NakedLocalFileSystem#append(Path) */
+	@Test
+	void testAppend(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final java.nio.file.Path file = write(tempDir.resolve("test.bin"), Arrays.copyOf(content, 100));
+		try (final FSDataOutputStream outputStream = testFileSystem.append(new Path(file.toUri()))) {
+			assertThat(outputStream.getPos(), is(100L));
+			outputStream.write(content, 100, content.length - 100);
+		}
+		assertThat(readAllBytes(file), is(content));
+		assertThrows(FileNotFoundException.class, () -> testFileSystem.append(new Path(tempDir.resolve("missing").toUri())));
+	}
+
+	/** Verifies that a stream may be closed more than once, and that writing to a closed stream fails. */
+	@Test
+	void testClose(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final FSDataOutputStream outputStream = testFileSystem.create(new Path(tempDir.resolve("test.bin").toUri()));
+		outputStream.write(content, 0, 10);
+		outputStream.close();
+		outputStream.close();
+		assertThrows(IOException.class, () -> outputStream.write(content, 0, 10));
+		assertThat(size(tempDir.resolve("test.bin")), is(10L));
+	}
+
+}
@@ -22,10 +22,22 @@
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
 
 import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.attribute.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.*;
+import org.apache.hadoop.fs.permission.*;
+import org.apache.hadoop.util.*;
+import org.apache.hadoop.util.functional.RemoteIterators;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -64,6 +76,45 @@ void testGetFileStatusForFile(@TempDir final java.nio.file.Path tempDir) throws
 		assertThat(testFileStatus.getModificationTime(), is(getLastModifiedTime(testTextFile).toMillis()));
 	}
 
+	/**
+	 * Verifies that all the information for a file status is retrieved using a single read of the file attributes.
+	 * @see NakedLocalFileSystem#getFileStatus(java.nio.file.Path)
+	 * @see NakedLocalFileSystem#readNioFileAttributes(java.nio.file.Path)
+	 */
+	@Test
+	void testGetFileStatusReadsFileAttributesOnce(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final java.nio.file.Path testTextFile = write(tempDir.resolve("test.txt"), "foobar".getBytes(UTF_8)); //`/test.txt`: "foobar"
+		final AtomicInteger readNioFileAttributesCount = new AtomicInteger();
+		try (final NakedLocalFileSystem countingFileSystem = new NakedLocalFileSystem() {
+			@Override
+			protected BasicFileAttributes readNioFileAttributes(final java.nio.file.Path nioPath) throws IOException {
+				readNioFileAttributesCount.incrementAndGet();
+				return super.readNioFileAttributes(nioPath);
+			}
+		}) {
+			final FileStatus testFileStatus = countingFileSystem.getFileStatus(testTextFile);
+			assertThat(readNioFileAttributesCount.get(), is(1));
+			assertThat(testFileStatus.getLen(), is(6L));
+			assertThat(testFileStatus.isFile(), is(true));
+			assertThat(testFileStatus.getModificationTime(), is(getLastModifiedTime(testTextFile).toMillis()));
+		}
+	}
+
+	/**
+	 * Verifies that POSIX permissions, owner, and group are provided from the single attribute read.
+	 * @see NakedLocalFileSystem#getFileStatus(java.nio.file.Path)
+	 */
+	@Test
+	void testGetFileStatusPosixAttributes(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		assumeTrue(NakedLocalFileSystem.isPosixFileAttributeViewSupported(tempDir), "POSIX file attributes not supported.");
+		final java.nio.file.Path testTextFile = write(tempDir.resolve("test.txt"), "foobar".getBytes(UTF_8)); //`/test.txt`: "foobar"
+		setPosixFilePermissions(testTextFile, PosixFilePermissions.fromString("rw-r-----"));
+		final FileStatus testFileStatus = testFileSystem.getFileStatus(testTextFile);
+		assertThat(testFileStatus.getPermission(), is(NakedLocalFileSystem.toFsPermission(PosixFilePermissions.fromString("rw-r-----"))));
+		assertThat(testFileStatus.getOwner(), is(getOwner(testTextFile).getName()));
+		assertThat(testFileStatus.getGroup(), is(readAttributes(testTextFile, PosixFileAttributes.class).group().getName()));
+	}
+
 	/** @see NakedLocalFileSystem#getFileStatus(java.nio.file.Path) */
 	@Test
 	void testGetFileStatusForDirectory(@TempDir final java.nio.file.Path tempDir) throws IOException {
@@ -86,4 +137,696 @@ void testListStatusForDirectory(@TempDir final java.nio.file.Path tempDir) throw
 				containsInAnyOrder("foo.txt", "bar.txt", "foobar"));
 	}
 
+	/**
+	 * Verifies that listing a directory in parallel produces the same statuses as listing serially.
+	 * @see NakedLocalFileSystem#PARALLELISM_KEY
+	 * @see NakedLocalFileSystem#listStatus(java.nio.file.Path)
+	 */
+	@Test
+	void testListStatusInParallel(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		for(int i = 0; i < 100; i++) {
+			write(tempDir.resolve("file-" + i + ".txt"), "foobar".getBytes(UTF_8));
+		}
+		createDirectory(tempDir.resolve("foobar")); //`/foobar/`
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.PARALLELISM_KEY, 4);
+		configuration.setInt(NakedLocalFileSystem.LIST_STATUS_PARALLEL_THRESHOLD_KEY, 10);
+		try (final NakedLocalFileSystem parallelFileSystem = new NakedLocalFileSystem()) {
+			parallelFileSystem.initialize(URI.create("file:///"), configuration);
+			assertThat(parallelFileSystem.findForkJoinPool().isPresent(), is(true));
+			final FileStatus[] fileStatuses = parallelFileSystem.listStatus(tempDir);
+			assertThat(fileStatuses.length, is(101));
+			assertThat(fileStatuses, arrayContainingInAnyOrder(testFileSystem.listStatus(tempDir)));
+		}
+	}
+
+	/** @see NakedLocalFileSystem#listStatusIterator(java.nio.file.Path) */
+	@Test
+	void testListStatusIteratorForDirectory(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final java.nio.file.Path fooFile = write(tempDir.resolve("foo.txt"), "foo".getBytes(UTF_8)); //`/foo.txt`: "foo"
+		final java.nio.file.Path barFile = write(tempDir.resolve("bar.txt"), "bar".getBytes(UTF_8)); //`/bar.txt`: "bar"
+		final java.nio.file.Path foobarDirectory = createDirectory(tempDir.resolve("foobar")); //`/foobar/`
+		final RemoteIterator<FileStatus> fileStatusIterator = testFileSystem.listStatusIterator(tempDir);
+		assertThat(RemoteIterators.toList(fileStatusIterator),
+				containsInAnyOrder(testFileSystem.getFileStatus(fooFile), testFileSystem.getFileStatus(barFile), testFileSystem.getFileStatus(foobarDirectory)));
+		assertThat(fileStatusIterator.hasNext(), is(false));
+		assertThrows(NoSuchElementException.class, fileStatusIterator::next);
+	}
+
+	/** @see NakedLocalFileSystem#listStatusIterator(java.nio.file.Path) */
+	@Test
+	void testListStatusIteratorForFile(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final java.nio.file.Path fooFile = write(tempDir.resolve("foo.txt"), "foo".getBytes(UTF_8)); //`/foo.txt`: "foo"
+		assertThat(RemoteIterators.toList(testFileSystem.listStatusIterator(fooFile)), contains(testFileSystem.getFileStatus(fooFile)));
+		assertThrows(FileNotFoundException.class, () -> testFileSystem.listStatusIterator(tempDir.resolve("missing")));
+	}
+
+	/**
+	 * Creates a partitioned tree of files in the form <code>year=*&#47;month=*&#47;day=*&#47;part-*.txt</code>.
+	 * @param directory The directory in which to create the tree.
+	 * @return The Java NIO paths of the files created.
+	 * @throws IOException If an I/O error occurs creating the tree.
+	 */
+	private static Set<java.nio.file.Path> createPartitionedTree(final java.nio.file.Path directory) throws IOException {
+		final Set<java.nio.file.Path> files = new HashSet<>();
+		for(int year = 2020; year < 2022; year++) {
+			for(int month = 1; month <= 3; month++) {
+				for(int day = 1; day <= 4; day++) {
+					final java.nio.file.Path dayDirectory = createDirectories(directory.resolve("year=" + year).resolve("month=" + month).resolve("day=" + day));
+					for(int part = 0; part < 3; part++) {
+						files.add(write(dayDirectory.resolve("part-" + part + ".txt"), "foobar".getBytes(UTF_8)));
+					}
+				}
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Verifies that a recursive listing performed in parallel produces the same files as the default listing.
+	 * @see NakedLocalFileSystem#listFiles(Path, boolean)
+	 */
+	@Test
+	void testListFilesRecursiveInParallel(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final Set<java.nio.file.Path> files = createPartitionedTree(tempDir);
+		final Path directory = new Path(tempDir.toUri());
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.PARALLELISM_KEY, 4);
+		configuration.setInt(NakedLocalFileSystem.LIST_FILES_QUEUE_CAPACITY_KEY, 5);
+		try (final NakedLocalFileSystem parallelFileSystem = new NakedLocalFileSystem()) {
+			parallelFileSystem.initialize(URI.create("file:///"), configuration);
+			final List<LocatedFileStatus> locatedFileStatuses = RemoteIterators.toList(parallelFileSystem.listFiles(directory, true));
+			assertThat(locatedFileStatuses, hasSize(files.size()));
+			assertThat(locatedFileStatuses, containsInAnyOrder(RemoteIterators.toList(testFileSystem.listFiles(directory, true)).toArray()));
+			assertThat(locatedFileStatuses.get(0).getBlockLocations().length, is(1));
+		}
+	}
+
+	/**
+	 * Verifies that a parallel recursive listing can be abandoned by closing the iterator before it is exhausted.
+	 * @see NakedLocalFileSystem#listFiles(Path, boolean)
+	 */
+	@Test
+	void testListFilesRecursiveInParallelClosedEarly(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		createPartitionedTree(tempDir);
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.PARALLELISM_KEY, 4);
+		configuration.setInt(NakedLocalFileSystem.LIST_FILES_QUEUE_CAPACITY_KEY, 1);
+		try (final NakedLocalFileSystem parallelFileSystem = new NakedLocalFileSystem()) {
+			parallelFileSystem.initialize(URI.create("file:///"), configuration);
+			final RemoteIterator<LocatedFileStatus> locatedFileStatusIterator = parallelFileSystem.listFiles(new Path(tempDir.toUri()), true);
+			assertThat(locatedFileStatusIterator.hasNext(), is(true));
+			assertThat(locatedFileStatusIterator.next().isFile(), is(true));
+			RemoteIterators.cleanupRemoteIterator(locatedFileStatusIterator);
+			assertThat(parallelFileSystem.findForkJoinPool().get().awaitQuiescence(10, TimeUnit.SECONDS), is(true));
+		}
+	}
+
+	/**
+	 * Verifies that a parallel recursive listing that the caller stops iterating without closing is abandoned after the timeout, releasing the pool.
+	 * @see NakedLocalFileSystem#LIST_FILES_ABANDON_TIMEOUT_KEY
+	 * @see NakedLocalFileSystem#listFiles(Path, boolean)
+	 */
+	@Test
+	void testListFilesRecursiveInParallelAbandonedWithoutClosing(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		createPartitionedTree(tempDir);
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.PARALLELISM_KEY, 4);
+		configuration.setInt(NakedLocalFileSystem.LIST_FILES_QUEUE_CAPACITY_KEY, 1);
+		configuration.set(NakedLocalFileSystem.LIST_FILES_ABANDON_TIMEOUT_KEY, "200ms");
+		try (final NakedLocalFileSystem parallelFileSystem = new NakedLocalFileSystem()) {
+			parallelFileSystem.initialize(URI.create("file:///"), configuration);
+			final RemoteIterator<LocatedFileStatus> locatedFileStatusIterator = parallelFileSystem.listFiles(new Path(tempDir.toUri()), true);
+			assertThat(locatedFileStatusIterator.next().isFile(), is(true));
+			assertThat(parallelFileSystem.findForkJoinPool().get().awaitQuiescence(10, TimeUnit.SECONDS), is(true));
+			//resuming iteration returns whatever was queued before reporting the abandoned walk
+			final IOException ioException = assertThrows(IOException.class, () -> {
+				while(locatedFileStatusIterator.hasNext()) {
+					locatedFileStatusIterator.next();
+				}
+			});
+			assertThat(ioException.getMessage(), containsString("abandoned"));
+		}
+	}
+
+	/**
+	 * Verifies that closing the file system abandons a parallel recursive listing that the caller stopped iterating without closing.
+	 * @see NakedLocalFileSystem#close()
+	 * @see NakedLocalFileSystem#listFiles(Path, boolean)
+	 */
+	@Test
+	void testListFilesRecursiveInParallelAbandonedByClosingFileSystem(@TempDir final java.nio.file.Path tempDir) throws Exception {
+		createPartitionedTree(tempDir);
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.PARALLELISM_KEY, 4);
+		configuration.setInt(NakedLocalFileSystem.LIST_FILES_QUEUE_CAPACITY_KEY, 1);
+		final NakedLocalFileSystem parallelFileSystem = new NakedLocalFileSystem();
+		parallelFileSystem.initialize(URI.create("file:///"), configuration);
+		final ForkJoinPool forkJoinPool = parallelFileSystem.findForkJoinPool().get();
+		final RemoteIterator<LocatedFileStatus> locatedFileStatusIterator = parallelFileSystem.listFiles(new Path(tempDir.toUri()), true);
+		assertThat(locatedFileStatusIterator.next().isFile(), is(true));
+		parallelFileSystem.close();
+		assertThat(forkJoinPool.awaitTermination(10, TimeUnit.SECONDS), is(true));
+	}
+
+	/**
+	 * Verifies that listing with a filter and globbing produce the same paths as the default implementations, while retrieving the statuses of only the
+	 * entries that match.
+	 * @see NakedLocalFileSystem#listStatus(Path, PathFilter)
+	 * @see NakedLocalFileSystem#globStatus(Path, PathFilter)
+	 */
+	@Test
+	void testGlobStatusReadsOnlyMatchingStatuses(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		createPartitionedTree(tempDir);
+		write(tempDir.resolve("_SUCCESS"), new byte[0]);
+		final Path directory = new Path(tempDir.toUri());
+		final PathFilter visibleFilter = path -> !path.getName().startsWith("_") && !path.getName().startsWith(".");
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.PARALLELISM_KEY, 4);
+		final AtomicInteger readNioFileAttributesCount = new AtomicInteger();
+		try (final NakedLocalFileSystem countingFileSystem = new NakedLocalFileSystem() {
+			@Override
+			protected BasicFileAttributes readNioFileAttributes(final java.nio.file.Path nioPath) throws IOException {
+				readNioFileAttributesCount.incrementAndGet();
+				return super.readNioFileAttributes(nioPath);
+			}
+		}; final RawLocalFileSystem rawLocalFileSystem = new RawLocalFileSystem()) {
+			countingFileSystem.initialize(URI.create("file:///"), configuration);
+			rawLocalFileSystem.initialize(URI.create("file:///"), new Configuration());
+			assertThat(toPaths(countingFileSystem.listStatus(directory, visibleFilter)),
+					arrayContainingInAnyOrder(toPaths(rawLocalFileSystem.listStatus(directory, visibleFilter))));
+			assertThat(readNioFileAttributesCount.getAndSet(0), is(2));
+			for(final String pattern : asList("*", "year=*/month=*", "year=2021/month=*/day=1/part-*.txt", "year=*/month=1/day=1/part-1.*",
+					"year=2020/month={1,3}/day={2,4}/part-0.txt", "year=2020/{month=1/day=1,month=2/day=2}/part-{0,1,9}.txt", "year=2020/month=1/day=1/part-0.txt",
+					"year=2020/month=1/day=1/missing.txt", "year=2020/month=1/day=1/part-0.txt/*", "missing/*", "{missing,other}")) {
+				final Path pathPattern = new Path(directory, pattern);
+				final FileStatus[] expectedFileStatuses = rawLocalFileSystem.globStatus(pathPattern, visibleFilter);
+				final FileStatus[] fileStatuses = countingFileSystem.globStatus(pathPattern, visibleFilter);
+				if(expectedFileStatuses == null) {
+					assertThat(pattern, fileStatuses, is(nullValue()));
+				} else {
+					assertThat(pattern, toPaths(fileStatuses), is(toPaths(expectedFileStatuses)));
+				}
+			}
+			readNioFileAttributesCount.set(0);
+			assertThat(countingFileSystem.globStatus(new Path(directory, "year=*/month=1/day=1/part-1.*")), arrayWithSize(2));
+			assertThat(readNioFileAttributesCount.getAndSet(0), is(4)); //the two year directories and the two matching files
+			assertThat(countingFileSystem.globStatus(new Path(directory, "year=2020/month={1,3}/day={2,4}/part-0.txt")), arrayWithSize(4));
+			assertThat(readNioFileAttributesCount.getAndSet(0), is(10)); //two month directories, four day directories, and four files
+		}
+	}
+
+	/**
+	 * Returns the paths of file statuses.
+	 * @param fileStatuses The file statuses.
+	 * @return The paths of the file statuses, in the same order.
+	 */
+	private static Path[] toPaths(final FileStatus[] fileStatuses) {
+		return stream(fileStatuses).map(FileStatus::getPath).toArray(Path[]::new);
+	}
+
+	/**
+	 * Verifies that file statuses are cached and that the cache is invalidated by changes through the file system.
+	 * @see NakedLocalFileSystem#FILE_STATUS_CACHE_SIZE_KEY
+	 * @see NakedLocalFileSystem#getFileStatus(java.nio.file.Path)
+	 */
+	@Test
+	void testFileStatusCache(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		assumeTrue(NakedLocalFileSystem.isPosixFileAttributeViewSupported(tempDir), "POSIX file attributes not supported.");
+		final java.nio.file.Path testTextFile = write(tempDir.resolve("test.txt"), "foobar".getBytes(UTF_8)); //`/test.txt`: "foobar"
+		final Path testTextFilePath = new Path(testTextFile.toUri());
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.FILE_STATUS_CACHE_SIZE_KEY, 100);
+		configuration.set(NakedLocalFileSystem.FILE_STATUS_CACHE_TTL_KEY, "1h");
+		try (final NakedLocalFileSystem cachingFileSystem = new NakedLocalFileSystem()) {
+			cachingFileSystem.initialize(URI.create("file:///"), configuration);
+			final FileStatusCache fileStatusCache = cachingFileSystem.findFileStatusCache().get();
+			final FileStatus fileStatus = cachingFileSystem.getFileStatus(testTextFilePath);
+			final FileStatus cachedFileStatus = cachingFileSystem.getFileStatus(testTextFilePath);
+			assertThat(cachedFileStatus, is(not(sameInstance(fileStatus))));
+			assertThat(cachedFileStatus.getModificationTime(), is(fileStatus.getModificationTime()));
+			assertThat(fileStatusCache.getHitCount(), is(1L));
+			assertThat(fileStatusCache.getMissCount(), is(1L));
+			cachedFileStatus.setPath(new Path("file:///other.txt")); //modifying a returned status must not affect the cache
+			assertThat(cachingFileSystem.getFileStatus(testTextFilePath).getPath(), is(fileStatus.getPath()));
+			assertThat(cachingFileSystem.getFileStatus(testTextFilePath), is(instanceOf(NakedLocalFileSystem.NakedLocalFileStatus.class)));
+			final FsPermission permission = new FsPermission(FsAction.READ_WRITE, FsAction.NONE, FsAction.NONE);
+			cachingFileSystem.setPermission(testTextFilePath, permission);
+			assertThat(cachingFileSystem.getFileStatus(testTextFilePath).getPermission(), is(permission));
+			assertThat(cachingFileSystem.delete(testTextFilePath, false), is(true));
+			assertThrows(FileNotFoundException.class, () -> cachingFileSystem.getFileStatus(testTextFilePath));
+		}
+	}
+
+	/**
+	 * Verifies that a file status cached while a file is being written is invalidated as the file is written and when the stream is closed, whether the file
+	 * is created, appended, or written using direct I/O.
+	 * @see NakedLocalFileSystem#findFileStatusCache()
+	 */
+	@Test
+	void testFileStatusCacheInvalidatedByOutputStreams(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final Path testFilePath = new Path(tempDir.resolve("test.bin").toUri());
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.FILE_STATUS_CACHE_SIZE_KEY, 100);
+		configuration.set(NakedLocalFileSystem.FILE_STATUS_CACHE_TTL_KEY, "1h");
+		configuration.set(NakedLocalFileSystem.DIRECT_IO_BUFFER_SIZE_KEY, "64k");
+		try (final NakedLocalFileSystem cachingFileSystem = new NakedLocalFileSystem()) {
+			cachingFileSystem.initialize(URI.create("file:///"), configuration);
+			//create
+			try (final FSDataOutputStream outputStream = cachingFileSystem.create(testFilePath)) {
+				assertThat(cachingFileSystem.getFileStatus(testFilePath).getLen(), is(0L));
+				outputStream.write(new byte[100]);
+				outputStream.hflush();
+				assertThat(cachingFileSystem.getFileStatus(testFilePath).getLen(), is(100L));
+				outputStream.write(new byte[50]);
+			}
+			assertThat(cachingFileSystem.getFileStatus(testFilePath).getLen(), is(150L));
+			//append
+			try (final FSDataOutputStream outputStream = cachingFileSystem.append(testFilePath)) {
+				outputStream.write(new byte[25]);
+				assertThat(cachingFileSystem.getFileStatus(testFilePath).getLen(), is(150L));
+			}
+			assertThat(cachingFileSystem.getFileStatus(testFilePath).getLen(), is(175L));
+			//direct I/O, or buffered I/O if direct I/O is not supported
+			try (final FSDataOutputStream outputStream = cachingFileSystem.createFile(testFilePath).overwrite(true)
+					.opt(NakedLocalFileSystem.DIRECT_IO_OPTION, true).build()) {
+				assertThat(cachingFileSystem.getFileStatus(testFilePath).getLen(), is(0L));
+				outputStream.write(new byte[100_000]);
+			}
+			assertThat(cachingFileSystem.getFileStatus(testFilePath).getLen(), is(100_000L));
+		}
+	}
+
+	/**
+	 * Verifies that listing many files with the same owner and group resolves the owner and group names only once, sharing the same name instances.
+	 * @see NakedLocalFileSystem#getPrincipalNameCache()
+	 */
+	@Test
+	void testListStatusResolvesPrincipalNamesOnce(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		assumeTrue(NakedLocalFileSystem.isUnixFileAttributeViewSupported(tempDir), "Unix file attributes not supported.");
+		for(int i = 0; i < 100; i++) {
+			write(tempDir.resolve("file-" + i + ".txt"), "foobar".getBytes(UTF_8));
+		}
+		final FileStatus[] fileStatuses = testFileSystem.listStatus(tempDir);
+		assertThat(fileStatuses.length, is(100));
+		assertThat(testFileSystem.getPrincipalNameCache().getLookupCount(), is(1L));
+		for(final FileStatus fileStatus : fileStatuses) {
+			assertThat(fileStatus.getOwner(), is(sameInstance(fileStatuses[0].getOwner())));
+			assertThat(fileStatus.getGroup(), is(sameInstance(fileStatuses[0].getGroup())));
+		}
+		assertThat(fileStatuses[0].getOwner(), is(getOwner(tempDir.resolve("file-0.txt")).getName()));
+	}
+
+	/**
+	 * Verifies that the sticky bit can be set and read on platforms supporting the <code>unix</code> file attribute view.
+	 * @see NakedLocalFileSystem#setPermission(Path, FsPermission)
+	 * @see NakedLocalFileSystem#getFileStatus(java.nio.file.Path)
+	 */
+	@Test
+	void testStickyBit(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		assumeTrue(NakedLocalFileSystem.isUnixFileAttributeViewSupported(tempDir), "Unix file attributes not supported.");
+		final java.nio.file.Path foobarDirectory = createDirectory(tempDir.resolve("foobar")); //`/foobar/`
+		final FsPermission stickyPermission = new FsPermission(FsAction.ALL, FsAction.ALL, FsAction.ALL, true);
+		testFileSystem.setPermission(new Path(foobarDirectory.toUri()), stickyPermission);
+		assertThat(testFileSystem.getFileStatus(foobarDirectory).getPermission(), is(stickyPermission));
+		assertThat(getPosixFilePermissions(foobarDirectory), is(EnumSet.allOf(PosixFilePermission.class)));
+		final FsPermission permission = new FsPermission(FsAction.ALL, FsAction.READ_EXECUTE, FsAction.NONE);
+		testFileSystem.setPermission(new Path(foobarDirectory.toUri()), permission);
+		assertThat(testFileSystem.getFileStatus(foobarDirectory).getPermission(), is(permission));
+		assertThat(testFileSystem.getFileStatus(foobarDirectory).getPermission().getStickyBit(), is(false));
+	}
+
+	/**
+	 * Verifies that Hadoop paths are converted to the same Java NIO paths as produced by the original {@link RawLocalFileSystem#pathToFile(Path)}.
+	 * @see NakedLocalFileSystem#toNioPath(Path)
+	 */
+	@Test
+	void testToNioPath(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final Path tempDirPath = new Path(tempDir.toUri());
+		for(final Path path : asList(tempDirPath, new Path(tempDirPath, "foo"), new Path(tempDirPath, "bar"), new Path(tempDirPath, "foo bar"),
+				new Path(tempDirPath, "foo/bar"), new Path(tempDirPath, "foo/bar/"), new Path("/"), new Path("file:///"), new Path("foo"), new Path("foo/bar"))) {
+			assertThat(path.toString(), testFileSystem.toNioPath(path), is(testFileSystem.pathToFile(path).toPath()));
+		}
+		assertThat(testFileSystem.toNioPath(new Path(tempDirPath, "foo")), is(tempDir.resolve("foo")));
+		testFileSystem.setWorkingDirectory(tempDirPath);
+		assertThat(testFileSystem.toNioPath(new Path("foo")), is(tempDir.resolve("foo")));
+		assertThrows(IllegalArgumentException.class, () -> testFileSystem.toNioPath(new Path("hdfs://example.com/foo")));
+	}
+
+	/**
+	 * Verifies writing and reading a file using direct I/O if supported, including a final partial block. If direct I/O is not supported by the runtime or the
+	 * file store, buffered I/O is used and the results must be the same.
+	 * @see NakedLocalFileSystem#DIRECT_IO_OPTION
+	 * @see NakedLocalFileSystem#createFile(Path)
+	 * @see NakedLocalFileSystem#isDirectIoSupported(java.nio.file.Path)
+	 * @see NakedLocalFileSystem#openFile(Path)
+	 */
+	@Test
+	void testDirectIo(@TempDir final java.nio.file.Path tempDir) throws Exception {
+		final Configuration configuration = new Configuration();
+		configuration.set(NakedLocalFileSystem.DIRECT_IO_BUFFER_SIZE_KEY, "64k");
+		configuration.set(FsPermission.UMASK_LABEL, "022");
+		final byte[] content = new byte[300_000 + 123];
+		new Random(42).nextBytes(content);
+		final java.nio.file.Path file = tempDir.resolve("foo").resolve("direct.bin");
+		try (final NakedLocalFileSystem directFileSystem = new NakedLocalFileSystem()) {
+			directFileSystem.initialize(URI.create("file:///"), configuration);
+			try (final FSDataOutputStream outputStream = directFileSystem.createFile(new Path(file.toUri())).recursive()
+					.must(NakedLocalFileSystem.DIRECT_IO_OPTION, true).build()) {
+				outputStream.write(content[0]);
+				outputStream.write(content, 1, 100_000);
+				outputStream.write(content, 100_001, content.length - 100_001);
+			}
+			assertThat(readAllBytes(file), is(content));
+			assertThat(directFileSystem.getFileStatus(file).getPermission(), is(new FsPermission((short)0644)));
+			final java.nio.file.Path otherFile = file.resolveSibling("other.bin");
+			try (final FSDataOutputStream outputStream = directFileSystem.createFile(new Path(otherFile.toUri())).must(NakedLocalFileSystem.DIRECT_IO_OPTION, true)
+					.build()) {
+				outputStream.write(content);
+			}
+			assertThat(readAllBytes(otherFile), is(content));
+			assertThat("Probing the file store for direct I/O support leaves no files behind.", file.getParent().toFile().list(),
+					arrayContainingInAnyOrder("direct.bin", "other.bin"));
+			assertThrows(FileAlreadyExistsException.class,
+					() -> directFileSystem.createFile(new Path(file.toUri())).overwrite(false).opt(NakedLocalFileSystem.DIRECT_IO_OPTION, true).build());
+			try (final FSDataInputStream inputStream = directFileSystem.openFile(new Path(file.toUri())).must(NakedLocalFileSystem.DIRECT_IO_OPTION, true).build()
+					.get()) {
+				final byte[] bytes = new byte[content.length];
+				inputStream.readFully(bytes);
+				assertThat(bytes, is(content));
+				assertThat(inputStream.read(), is(-1));
+				final byte[] tailBytes = new byte[200];
+				inputStream.readFully(content.length - 200, tailBytes);
+				assertThat(tailBytes, is(copyOfRange(content, content.length - 200, content.length)));
+				final byte[] unalignedBytes = new byte[5000];
+				inputStream.readFully(4095, unalignedBytes);
+				assertThat(unalignedBytes, is(copyOfRange(content, 4095, 9095)));
+				assertThrows(EOFException.class, () -> inputStream.readFully(content.length - 10, new byte[20]));
+			}
+			assertThrows(IllegalArgumentException.class, () -> directFileSystem.openFile(new Path(file.toUri())).must("fs.naked.local.unknown", true).build());
+		}
+	}
+
+	/**
+	 * Verifies copying files and directory trees, in parallel, following the semantics of {@link FileUtil}.
+	 * @see NakedLocalFileSystem#copyFromLocalFile(boolean, boolean, Path, Path)
+	 * @see NakedLocalFileSystem#copyToLocalFile(boolean, Path, Path, boolean)
+	 */
+	@Test
+	void testCopy(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final byte[] content = new byte[1_000_000];
+		new Random(42).nextBytes(content);
+		final java.nio.file.Path sourceDirectory = createDirectory(tempDir.resolve("source")); //`/source/`
+		write(sourceDirectory.resolve("foo.txt"), "foo".getBytes(UTF_8)); //`/source/foo.txt`: "foo"
+		final java.nio.file.Path sourceSubdirectory = createDirectories(sourceDirectory.resolve("bar").resolve("baz")); //`/source/bar/baz/`
+		write(sourceSubdirectory.resolve("content.bin"), content); //`/source/bar/baz/content.bin`
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.PARALLELISM_KEY, 4);
+		try (final NakedLocalFileSystem parallelFileSystem = new NakedLocalFileSystem()) {
+			parallelFileSystem.initialize(URI.create("file:///"), configuration);
+			final java.nio.file.Path targetDirectory = tempDir.resolve("target").resolve("copy");
+			parallelFileSystem.copyFromLocalFile(false, false, new Path(sourceDirectory.toUri()), new Path(targetDirectory.toUri())); //`/target/copy/`
+			assertThat(readAllBytes(targetDirectory.resolve("foo.txt")), is("foo".getBytes(UTF_8)));
+			assertThat(readAllBytes(targetDirectory.resolve("bar").resolve("baz").resolve("content.bin")), is(content));
+			parallelFileSystem.copyFromLocalFile(false, false, new Path(sourceDirectory.toUri()), new Path(targetDirectory.toUri())); //`/target/copy/source/`
+			assertThat(readAllBytes(targetDirectory.resolve("source").resolve("bar").resolve("baz").resolve("content.bin")), is(content));
+			assertThrows(PathExistsException.class, () -> parallelFileSystem.copyFromLocalFile(false, false,
+					new Path(sourceDirectory.resolve("foo.txt").toUri()), new Path(targetDirectory.resolve("foo.txt").toUri())));
+			assertThrows(IOException.class, () -> parallelFileSystem.copyFromLocalFile(false, true, new Path(sourceDirectory.toUri()),
+					new Path(sourceSubdirectory.toUri())));
+			assertThrows(IOException.class, () -> parallelFileSystem.copyFromLocalFile(false, true, new Path(sourceDirectory.resolve("foo.txt").toUri()),
+					new Path(sourceDirectory.resolve("foo.txt").toUri())));
+			assertThat(readAllBytes(sourceDirectory.resolve("foo.txt")), is("foo".getBytes(UTF_8)));
+			final java.nio.file.Path movedDirectory = tempDir.resolve("moved");
+			parallelFileSystem.copyToLocalFile(true, new Path(sourceDirectory.toUri()), new Path(movedDirectory.toUri()));
+			assertThat(exists(sourceDirectory), is(false));
+			assertThat(readAllBytes(movedDirectory.resolve("bar").resolve("baz").resolve("content.bin")), is(content));
+		}
+		assertThrows(FileNotFoundException.class, () -> {
+			try (final NakedLocalFileSystem fileSystem = new NakedLocalFileSystem()) {
+				fileSystem.initialize(URI.create("file:///"), new Configuration());
+				fileSystem.copyFromLocalFile(new Path(sourceDirectory.toUri()), new Path(tempDir.resolve("other").toUri()));
+			}
+		});
+	}
+
+	/**
+	 * Verifies renaming, including into an existing directory and creating missing parent directories as {@link RawLocalFileSystem} does.
+	 * @see NakedLocalFileSystem#rename(Path, Path)
+	 */
+	@Test
+	void testRename(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		testFileSystem.initialize(URI.create("file:///"), new Configuration());
+		final java.nio.file.Path fooFile = write(tempDir.resolve("foo.txt"), "foo".getBytes(UTF_8)); //`/foo.txt`: "foo"
+		final java.nio.file.Path barFile = write(tempDir.resolve("bar.txt"), "bar".getBytes(UTF_8)); //`/bar.txt`: "bar"
+		assertThat(testFileSystem.rename(new Path(fooFile.toUri()), new Path(barFile.toUri())), is(true)); //replace `/bar.txt`
+		assertThat(exists(fooFile), is(false));
+		assertThat(readAllBytes(barFile), is("foo".getBytes(UTF_8)));
+		final java.nio.file.Path directory = createDirectory(tempDir.resolve("dir")); //`/dir/`
+		assertThat(testFileSystem.rename(new Path(barFile.toUri()), new Path(directory.toUri())), is(true)); //`/dir/bar.txt`
+		assertThat(readAllBytes(directory.resolve("bar.txt")), is("foo".getBytes(UTF_8)));
+		final java.nio.file.Path otherDirectory = createDirectory(tempDir.resolve("other")); //`/other/`
+		write(otherDirectory.resolve("other.txt"), "other".getBytes(UTF_8)); //`/other/other.txt`
+		assertThat(testFileSystem.rename(new Path(directory.toUri()), new Path(otherDirectory.toUri())), is(true)); //`/other/dir/bar.txt`
+		assertThat(readAllBytes(otherDirectory.resolve("dir").resolve("bar.txt")), is("foo".getBytes(UTF_8)));
+		assertThat(exists(directory), is(false));
+		final java.nio.file.Path nestedFile = tempDir.resolve("foo").resolve("bar").resolve("other.txt");
+		assertThat(testFileSystem.rename(new Path(otherDirectory.resolve("other.txt").toUri()), new Path(nestedFile.toUri())), is(true));
+		assertThat(readAllBytes(nestedFile), is("other".getBytes(UTF_8)));
+		assertThrows(FileNotFoundException.class, () -> testFileSystem.rename(new Path(fooFile.toUri()), new Path(tempDir.resolve("missing").toUri())));
+	}
+
+	/**
+	 * Verifies renaming a directory tree to a different file store, which requires copying the tree.
+	 * @see NakedLocalFileSystem#rename(Path, Path)
+	 */
+	@Test
+	void testRenameAcrossFileStores(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final java.nio.file.Path otherStoreDirectory = java.nio.file.Paths.get("/dev/shm");
+		assumeTrue(isDirectory(otherStoreDirectory) && isWritable(otherStoreDirectory) && !getFileStore(otherStoreDirectory).equals(getFileStore(tempDir)),
+				"A writable directory on another file store is required.");
+		testFileSystem.initialize(URI.create("file:///"), new Configuration());
+		final java.nio.file.Path sourceDirectory = createDirectories(tempDir.resolve("source").resolve("bar")).getParent(); //`/source/bar/`
+		write(sourceDirectory.resolve("foo.txt"), "foo".getBytes(UTF_8)); //`/source/foo.txt`: "foo"
+		write(sourceDirectory.resolve("bar").resolve("bar.txt"), "bar".getBytes(UTF_8)); //`/source/bar/bar.txt`: "bar"
+		final java.nio.file.Path destinationDirectory = createTempDirectory(otherStoreDirectory, "rename-test");
+		try {
+			final java.nio.file.Path renamedDirectory = destinationDirectory.resolve("renamed");
+			assertThat(testFileSystem.rename(new Path(sourceDirectory.toUri()), new Path(renamedDirectory.toUri())), is(true));
+			assertThat(exists(sourceDirectory), is(false));
+			assertThat(readAllBytes(renamedDirectory.resolve("foo.txt")), is("foo".getBytes(UTF_8)));
+			assertThat(readAllBytes(renamedDirectory.resolve("bar").resolve("bar.txt")), is("bar".getBytes(UTF_8)));
+		} finally {
+			testFileSystem.delete(new Path(destinationDirectory.toUri()), true);
+		}
+	}
+
+	/**
+	 * Verifies deleting files and directory trees in parallel, without following symbolic links.
+	 * @see NakedLocalFileSystem#delete(Path, boolean)
+	 */
+	@Test
+	void testDelete(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final java.nio.file.Path treeDirectory = createDirectory(tempDir.resolve("tree")); //`/tree/`
+		for(int i = 0; i < 10; i++) {
+			final java.nio.file.Path subdirectory = createDirectories(treeDirectory.resolve("dir-" + i).resolve("sub"));
+			for(int j = 0; j < 10; j++) {
+				write(subdirectory.resolve("file-" + j + ".txt"), "foobar".getBytes(UTF_8));
+				write(subdirectory.getParent().resolve("file-" + j + ".txt"), "foobar".getBytes(UTF_8));
+			}
+		}
+		final java.nio.file.Path keepDirectory = createDirectory(tempDir.resolve("keep")); //`/keep/`
+		final java.nio.file.Path keepFile = write(keepDirectory.resolve("keep.txt"), "keep".getBytes(UTF_8)); //`/keep/keep.txt`
+		try {
+			createSymbolicLink(treeDirectory.resolve("link"), keepDirectory); //`/tree/link` -> `/keep/`
+		} catch(final UnsupportedOperationException unsupportedOperationException) {
+			//test without symbolic links
+		}
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.PARALLELISM_KEY, 4);
+		try (final NakedLocalFileSystem parallelFileSystem = new NakedLocalFileSystem()) {
+			parallelFileSystem.initialize(URI.create("file:///"), configuration);
+			assertThrows(PathIsNotEmptyDirectoryException.class, () -> parallelFileSystem.delete(new Path(treeDirectory.toUri()), false));
+			assertThat(exists(treeDirectory.resolve("dir-0").resolve("file-0.txt")), is(true));
+			assertThat(parallelFileSystem.delete(new Path(treeDirectory.resolve("dir-0").resolve("file-0.txt").toUri()), false), is(true));
+			assertThat(exists(treeDirectory.resolve("dir-0").resolve("file-0.txt")), is(false));
+			assertThat(parallelFileSystem.delete(new Path(treeDirectory.toUri()), true), is(true));
+			assertThat(exists(treeDirectory, java.nio.file.LinkOption.NOFOLLOW_LINKS), is(false));
+			assertThat(readAllBytes(keepFile), is("keep".getBytes(UTF_8)));
+			assertThat(parallelFileSystem.delete(new Path(treeDirectory.toUri()), true), is(false));
+			assertThat(parallelFileSystem.delete(new Path(keepFile.toUri()), false), is(true));
+			assertThat(parallelFileSystem.delete(new Path(keepDirectory.toUri()), false), is(true)); //empty directory
+			assertThat(exists(keepDirectory), is(false));
+		}
+	}
+
+	/**
+	 * Verifies creating directories, including missing ancestors, with the requested permissions even when the process umask is more restrictive than the
+	 * configured umask.
+	 * @see NakedLocalFileSystem#mkdirs(Path, FsPermission)
+	 */
+	@Test
+	void testMkdirs(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		assumeTrue(NakedLocalFileSystem.isPosixFileAttributeViewSupported(tempDir), "POSIX file attributes not supported.");
+		final Configuration configuration = new Configuration();
+		configuration.set(FsPermission.UMASK_LABEL, "002");
+		testFileSystem.initialize(URI.create("file:///"), configuration);
+		final java.nio.file.Path leafDirectory = tempDir.resolve("foo").resolve("bar").resolve("baz"); //`/foo/bar/baz/`
+		final FsPermission permission = new FsPermission(FsAction.ALL, FsAction.ALL, FsAction.READ_EXECUTE);
+		assertThat(testFileSystem.mkdirs(new Path(leafDirectory.toUri()), permission), is(true));
+		assertThat(isDirectory(leafDirectory), is(true));
+		assertThat(PosixFilePermissions.toString(getPosixFilePermissions(leafDirectory)), is("rwxrwxr-x"));
+		assertThat(PosixFilePermissions.toString(getPosixFilePermissions(leafDirectory.getParent())), is("rwxrwxr-x")); //default with umask applied
+		assertThat(testFileSystem.mkdirs(new Path(leafDirectory.toUri()), permission), is(true)); //already exists
+		final java.nio.file.Path siblingDirectory = leafDirectory.resolveSibling("qux"); //`/foo/bar/qux/`
+		assertThat(testFileSystem.mkdirs(new Path(siblingDirectory.toUri())), is(true));
+		assertThat(PosixFilePermissions.toString(getPosixFilePermissions(siblingDirectory)), is("rwxrwxr-x"));
+		final java.nio.file.Path file = write(tempDir.resolve("file.txt"), "foobar".getBytes(UTF_8)); //`/file.txt`
+		assertThrows(FileAlreadyExistsException.class, () -> testFileSystem.mkdirs(new Path(file.toUri())));
+		assertThrows(ParentNotDirectoryException.class, () -> testFileSystem.mkdirs(new Path(file.resolve("foo").resolve("bar").toUri())));
+	}
+
+	/**
+	 * Verifies setting the owner and group of files, looking up each principal only once.
+	 * @apiNote As changing ownership to another user generally requires special privileges, the files are set to their existing owner and group.
+	 * @see NakedLocalFileSystem#setOwner(Path, String, String)
+	 */
+	@Test
+	void testSetOwner(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		assumeTrue(NakedLocalFileSystem.isPosixFileAttributeViewSupported(tempDir), "POSIX file attributes not supported.");
+		final java.nio.file.Path fooFile = write(tempDir.resolve("foo.txt"), "foo".getBytes(UTF_8)); //`/foo.txt`
+		final java.nio.file.Path barFile = write(tempDir.resolve("bar.txt"), "bar".getBytes(UTF_8)); //`/bar.txt`
+		final PosixFileAttributes posixFileAttributes = readAttributes(fooFile, PosixFileAttributes.class);
+		final String owner = PrincipalNameCache.removePrincipalDomainIfWindows(posixFileAttributes.owner().getName());
+		final String group = PrincipalNameCache.removePrincipalDomainIfWindows(posixFileAttributes.group().getName());
+		final long lookupCount = testFileSystem.getPrincipalNameCache().getLookupCount();
+		testFileSystem.setOwner(new Path(fooFile.toUri()), owner, group);
+		testFileSystem.setOwner(new Path(barFile.toUri()), owner, group);
+		testFileSystem.setOwner(new Path(barFile.toUri()), null, group);
+		testFileSystem.setOwner(new Path(fooFile.toUri()), owner, null);
+		assertThat(testFileSystem.getPrincipalNameCache().getLookupCount() - lookupCount, is(2L));
+		assertThat(getOwner(barFile), is(posixFileAttributes.owner()));
+		assertThat(readAttributes(barFile, PosixFileAttributes.class).group(), is(posixFileAttributes.group()));
+		assertThrows(IOException.class, () -> testFileSystem.setOwner(new Path(fooFile.toUri()), null, null));
+		assertThrows(UserPrincipalNotFoundException.class, () -> testFileSystem.setOwner(new Path(fooFile.toUri()), "no-such-user-foobar", null));
+	}
+
+	/**
+	 * Verifies applying several attribute changes at once, both to a single path and to many paths in parallel.
+	 * @see NakedLocalFileSystem#setAttributes(Path, FileAttributeChanges)
+	 * @see NakedLocalFileSystem#setAttributes(Map)
+	 */
+	@Test
+	void testSetAttributes(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		assumeTrue(NakedLocalFileSystem.isPosixFileAttributeViewSupported(tempDir), "POSIX file attributes not supported.");
+		final java.nio.file.Path fooFile = write(tempDir.resolve("foo.txt"), "foo".getBytes(UTF_8)); //`/foo.txt`
+		final PosixFileAttributes posixFileAttributes = readAttributes(fooFile, PosixFileAttributes.class);
+		final String owner = PrincipalNameCache.removePrincipalDomainIfWindows(posixFileAttributes.owner().getName());
+		final String group = PrincipalNameCache.removePrincipalDomainIfWindows(posixFileAttributes.group().getName());
+		final FsPermission permission = new FsPermission(FsAction.READ_WRITE, FsAction.READ, FsAction.NONE);
+		final FileAttributeChanges changes = FileAttributeChanges.NONE.withPermission(permission).withOwner(owner, group).withTimes(1_000_000_000_000L, -1);
+		assertThat(changes.findAccessTime().isPresent(), is(false));
+		testFileSystem.setAttributes(new Path(fooFile.toUri()), changes);
+		assertThat(PosixFilePermissions.toString(getPosixFilePermissions(fooFile)), is("rw-r-----"));
+		assertThat(getLastModifiedTime(fooFile).toMillis(), is(1_000_000_000_000L));
+		assertThat(getOwner(fooFile), is(posixFileAttributes.owner()));
+		assertThrows(FileNotFoundException.class, () -> testFileSystem.setAttributes(new Path(tempDir.resolve("missing.txt").toUri()), changes));
+
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.PARALLELISM_KEY, 4);
+		try (final NakedLocalFileSystem parallelFileSystem = new NakedLocalFileSystem()) {
+			parallelFileSystem.initialize(URI.create("file:///"), configuration);
+			final Map<Path, FileAttributeChanges> changesByPath = new HashMap<>();
+			for(int i = 0; i < 100; i++) {
+				final java.nio.file.Path file = write(tempDir.resolve("file-" + i + ".txt"), "foobar".getBytes(UTF_8));
+				changesByPath.put(new Path(file.toUri()), FileAttributeChanges.NONE.withPermission(permission).withTimes(1_000_000_000_000L + i, 1_000_000_000_000L));
+			}
+			parallelFileSystem.setAttributes(changesByPath);
+			for(int i = 0; i < 100; i++) {
+				final java.nio.file.Path file = tempDir.resolve("file-" + i + ".txt");
+				assertThat(PosixFilePermissions.toString(getPosixFilePermissions(file)), is("rw-r-----"));
+				assertThat(getLastModifiedTime(file).toMillis(), is(1_000_000_000_000L + i));
+			}
+			changesByPath.put(new Path(tempDir.resolve("missing.txt").toUri()), changes);
+			assertThrows(FileNotFoundException.class, () -> parallelFileSystem.setAttributes(changesByPath));
+		}
+	}
+
+	/**
+	 * Verifies that the file checksum is the CRC of the entire file contents, regardless of the block size, and that if enabled it is cached for unchanged
+	 * files.
+	 * @see NakedLocalFileSystem#getFileChecksum(Path, long)
+	 */
+	@Test
+	void testGetFileChecksum(@TempDir final java.nio.file.Path tempDir) throws IOException {
+		final byte[] bytes = new byte[1_000_000];
+		new Random(42).nextBytes(bytes);
+		final java.nio.file.Path file = write(tempDir.resolve("test.bin"), bytes);
+		setLastModifiedTime(file, FileTime.fromMillis(1_000_000_000_000L)); //not recently modified, so that the checksum may be cached
+		final Path path = new Path(file.toUri());
+		final PureJavaCrc32C crc32c = new PureJavaCrc32C();
+		crc32c.update(bytes, 0, bytes.length);
+		final int expectedCrc = (int)crc32c.getValue();
+		crc32c.reset();
+		crc32c.update(bytes, 0, 100_000);
+		final int expectedPartialCrc = (int)crc32c.getValue();
+		final Configuration configuration = new Configuration();
+		configuration.setInt(NakedLocalFileSystem.PARALLELISM_KEY, 4);
+		configuration.setLong("fs.local.block.size", 64 * 1024);
+		try (final NakedLocalFileSystem parallelFileSystem = new NakedLocalFileSystem()) {
+			parallelFileSystem.initialize(URI.create("file:///"), configuration);
+			final FileChecksum partialFileChecksum = parallelFileSystem.getFileChecksum(path, 100_000);
+			assertThat(partialFileChecksum.getBytes(), is(CrcUtil.intToBytes(expectedPartialCrc)));
+			final FileChecksum fileChecksum = parallelFileSystem.getFileChecksum(path);
+			assertThat(fileChecksum, is(instanceOf(CompositeCrcFileChecksum.class)));
+			assertThat(fileChecksum.getAlgorithmName(), is("COMPOSITE-CRC32C"));
+			assertThat(fileChecksum.getBytes(), is(CrcUtil.intToBytes(expectedCrc)));
+			assertThat(parallelFileSystem.getFileChecksum(path, Long.MAX_VALUE), is(fileChecksum));
+			assertThrows(FileNotFoundException.class, () -> parallelFileSystem.getFileChecksum(new Path(tempDir.toUri())));
+			assertThrows(FileNotFoundException.class, () -> parallelFileSystem.getFileChecksum(new Path(tempDir.resolve("missing.bin").toUri())));
+		}
+		final UserDefinedFileAttributeView attributeView = getFileAttributeView(file, UserDefinedFileAttributeView.class);
+		try {
+			assumeTrue(attributeView != null, "File store supports user-defined attributes.");
+			assertThat("Checksum caching is disabled by default.", attributeView.list(), not(hasItem(NakedLocalFileSystem.FILE_CHECKSUM_ATTRIBUTE_NAME)));
+		} catch(final IOException ioException) {
+			assumeTrue(false, "File store supports user-defined attributes.");
+			return;
+		}
+		final Configuration cachingConfiguration = new Configuration();
+		cachingConfiguration.setBoolean(NakedLocalFileSystem.FILE_CHECKSUM_CACHE_KEY, true);
+		testFileSystem.initialize(URI.create("file:///"), cachingConfiguration);
+		assertThat(testFileSystem.getFileChecksum(path).getBytes(), is(CrcUtil.intToBytes(expectedCrc)));
+
+		final boolean isCached;
+		try {
+			isCached = attributeView.list().contains(NakedLocalFileSystem.FILE_CHECKSUM_ATTRIBUTE_NAME);
+		} catch(final IOException ioException) {
+			assumeTrue(false, "File store supports user-defined attributes.");
+			return;
+		}
+		assumeTrue(isCached, "File store supports user-defined attributes.");
+		//replace the cached CRC to show that the cached value is used
+		final ByteBuffer value = ByteBuffer.allocate(attributeView.size(NakedLocalFileSystem.FILE_CHECKSUM_ATTRIBUTE_NAME));
+		attributeView.read(NakedLocalFileSystem.FILE_CHECKSUM_ATTRIBUTE_NAME, value);
+		value.putInt(value.position() - Integer.BYTES, expectedCrc + 1);
+		value.flip();
+		attributeView.write(NakedLocalFileSystem.FILE_CHECKSUM_ATTRIBUTE_NAME, value);
+		assertThat(testFileSystem.getFileChecksum(path).getBytes(), is(CrcUtil.intToBytes(expectedCrc + 1)));
+		//a change in modification time invalidates the cached checksum
+		setLastModifiedTime(file, FileTime.fromMillis(1_000_000_001_000L));
+		assertThat(testFileSystem.getFileChecksum(path).getBytes(), is(CrcUtil.intToBytes(expectedCrc)));
+		//a checksum of a different type is not used
+		final Configuration crc32Configuration = new Configuration(cachingConfiguration);
+		crc32Configuration.set(NakedLocalFileSystem.FILE_CHECKSUM_TYPE_KEY, "CRC32");
+		try (final NakedLocalFileSystem crc32FileSystem = new NakedLocalFileSystem()) {
+			crc32FileSystem.initialize(URI.create("file:///"), crc32Configuration);
+			final FileChecksum crc32FileChecksum = crc32FileSystem.getFileChecksum(path);
+			assertThat(crc32FileChecksum.getAlgorithmName(), is("COMPOSITE-CRC32"));
+			final PureJavaCrc32 crc32 = new PureJavaCrc32();
+			crc32.update(bytes, 0, bytes.length);
+			assertThat(crc32FileChecksum.getBytes(), is(CrcUtil.intToBytes((int)crc32.getValue())));
+		}
+	}
+
 }
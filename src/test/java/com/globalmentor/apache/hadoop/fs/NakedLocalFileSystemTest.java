@@ -18,9 +18,13 @@
 
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.*;
 import java.nio.file.attribute.PosixFilePermission;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import org.apache.hadoop.fs.permission.*;
 import org.junit.jupiter.api.Test;
@@ -41,6 +45,10 @@ void testToNioPosixFilePermissions() {
 						PosixFilePermission.GROUP_EXECUTE, PosixFilePermission.OTHERS_READ)));
 		assertThat(NakedLocalFileSystem.toNioPosixFilePermissions(new FsPermission(FsAction.ALL, FsAction.ALL, FsAction.ALL)),
 				is(EnumSet.allOf(PosixFilePermission.class)));
+		assertThat(NakedLocalFileSystem.toNioPosixFilePermissions(new FsPermission(FsAction.ALL, FsAction.ALL, FsAction.ALL, true)),
+				is(EnumSet.allOf(PosixFilePermission.class)));
+		assertThrows(UnsupportedOperationException.class,
+				() -> NakedLocalFileSystem.toNioPosixFilePermissions(new FsPermission(FsAction.NONE, FsAction.NONE, FsAction.NONE)).add(PosixFilePermission.OWNER_READ));
 	}
 
 	/** @see NakedLocalFileSystem#toFsPermission(Set) */
@@ -53,7 +61,19 @@ void testToFsPermission() {
 						PosixFilePermission.GROUP_READ, PosixFilePermission.GROUP_EXECUTE, PosixFilePermission.OTHERS_READ)),
 				is(new FsPermission(FsAction.ALL, FsAction.READ_EXECUTE, FsAction.READ)));
 		assertThat(NakedLocalFileSystem.toFsPermission(EnumSet.allOf(PosixFilePermission.class)), is(new FsPermission(FsAction.ALL, FsAction.ALL, FsAction.ALL)));
+		assertThat(NakedLocalFileSystem.toFsPermission(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OTHERS_EXECUTE)),
+				is(sameInstance(NakedLocalFileSystem.toFsPermission(0401))));
+	}
 
+	/** @see NakedLocalFileSystem#toFsPermission(int) */
+	@Test
+	void testToFsPermissionFromMode() {
+		assertThat(NakedLocalFileSystem.toFsPermission(0), is(new FsPermission(FsAction.NONE, FsAction.NONE, FsAction.NONE)));
+		assertThat(NakedLocalFileSystem.toFsPermission(0754), is(new FsPermission(FsAction.ALL, FsAction.READ_EXECUTE, FsAction.READ)));
+		assertThat(NakedLocalFileSystem.toFsPermission(0100644), is(new FsPermission(FsAction.READ_WRITE, FsAction.READ, FsAction.READ))); //regular file type
+		assertThat(NakedLocalFileSystem.toFsPermission(01777), is(new FsPermission(FsAction.ALL, FsAction.ALL, FsAction.ALL, true)));
+		assertThat(NakedLocalFileSystem.toFsPermission(041777).getStickyBit(), is(true)); //directory type
+		assertThat(NakedLocalFileSystem.toFsPermission(0754), is(sameInstance(NakedLocalFileSystem.toFsPermission(0754))));
 	}
 
 	/** @see NakedLocalFileSystem#fsActionOf(boolean, boolean, boolean) */
@@ -66,4 +86,44 @@ void testFsActionOf() {
 		assertThat(NakedLocalFileSystem.fsActionOf(true, false, true), is(FsAction.READ_EXECUTE));
 		assertThat(NakedLocalFileSystem.fsActionOf(true, true, true), is(FsAction.ALL));
 	}
+
+	/** @see NakedLocalFileSystem#findGlobAlternativeNames(String) */
+	@Test
+	void testFindGlobAlternativeNames() {
+		assertThat(NakedLocalFileSystem.findGlobAlternativeNames("foo"), is(Optional.of(Arrays.asList("foo"))));
+		assertThat(NakedLocalFileSystem.findGlobAlternativeNames("{a,b,c}"), is(Optional.of(Arrays.asList("a", "b", "c"))));
+		assertThat(NakedLocalFileSystem.findGlobAlternativeNames("part-{1,2}.parquet"), is(Optional.of(Arrays.asList("part-1.parquet", "part-2.parquet"))));
+		assertThat(NakedLocalFileSystem.findGlobAlternativeNames("{a,b{c,d}}x"), is(Optional.of(Arrays.asList("ax", "bcx", "bdx"))));
+		assertThat(NakedLocalFileSystem.findGlobAlternativeNames("{a,b}{c,d}"), is(Optional.of(Arrays.asList("ac", "ad", "bc", "bd"))));
+		assertThat(NakedLocalFileSystem.findGlobAlternativeNames("{a,a,.,..,}"), is(Optional.of(Arrays.asList("a"))));
+		assertThat(NakedLocalFileSystem.findGlobAlternativeNames("{a,b}*"), is(Optional.empty()));
+		assertThat(NakedLocalFileSystem.findGlobAlternativeNames("{a,[bc]}"), is(Optional.empty()));
+		assertThat(NakedLocalFileSystem.findGlobAlternativeNames("\\{a,b}"), is(Optional.empty()));
+		assertThat(NakedLocalFileSystem.findGlobAlternativeNames("{a,b"), is(Optional.empty()));
+		assertThat(NakedLocalFileSystem.findGlobAlternativeNames("a}{b"), is(Optional.empty()));
+	}
+	/** @see NakedLocalFileSystem#invokeInPool(ForkJoinPool, java.util.concurrent.Callable) */
+	@Test
+	void testInvokeInPool() throws IOException {
+		final ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			assertThat(NakedLocalFileSystem.invokeInPool(pool, () -> IntStream.range(0, 100).parallel().sum()), is(4950));
+			final IOException ioException = new FileNotFoundException("foo");
+			assertThat(assertThrows(IOException.class, () -> NakedLocalFileSystem.invokeInPool(pool, () -> {
+				throw ioException;
+			})), is(sameInstance(ioException)));
+			assertThat(assertThrows(IOException.class, () -> NakedLocalFileSystem.invokeInPool(pool, () -> IntStream.range(0, 100).parallel().map(i -> {
+				if(i == 50) {
+					throw new UncheckedIOException(ioException);
+				}
+				return i;
+			}).sum())), is(sameInstance(ioException)));
+			assertThrows(IllegalStateException.class, () -> NakedLocalFileSystem.invokeInPool(pool, () -> {
+				throw new IllegalStateException();
+			}));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
 }
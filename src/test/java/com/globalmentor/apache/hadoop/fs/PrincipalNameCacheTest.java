@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2022 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.apache.hadoop.fs;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.nio.file.attribute.*;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+
+/**
+ * Unit tests of {@link PrincipalNameCache}.
+ * @author Garret Wilson
+ */
+public class PrincipalNameCacheTest {
+
+	/**
+	 * Creates <code>unix</code> view attributes as read for resolving principal names.
+	 * @param uid The user ID.
+	 * @param owner The owner name.
+	 * @param gid The group ID.
+	 * @param group The group name.
+	 * @return The attributes.
+	 */
+	private static Map<String, Object> unixPrincipalAttributes(final int uid, final String owner, final int gid, final String group) {
+		final Map<String, Object> attributes = new HashMap<>();
+		attributes.put("uid", uid);
+		attributes.put("owner", (UserPrincipal)() -> owner);
+		attributes.put("gid", gid);
+		attributes.put("group", (GroupPrincipal)() -> group);
+		return attributes;
+	}
+
+	/** @see PrincipalNameCache#cacheUnixPrincipalNames(Map, int, boolean) */
+	@Test
+	void testCacheUnixPrincipalNames() {
+		final PrincipalNameCache cache = new PrincipalNameCache();
+		assertThat(cache.cacheUnixPrincipalNames(unixPrincipalAttributes(1000, "alice", 100, "users"), 1000, true), is("alice"));
+		assertThat(cache.cacheUnixPrincipalNames(unixPrincipalAttributes(1000, "alice", 100, "users"), 100, false), is("users"));
+	}
+
+	/**
+	 * Verifies that if the ownership of a file changed after its IDs were read, the names read are cached under the IDs read along with them, and the
+	 * requested ID is not associated with another principal's name.
+	 * @see PrincipalNameCache#cacheUnixPrincipalNames(Map, int, boolean)
+	 */
+	@Test
+	void testCacheUnixPrincipalNamesAfterOwnershipChange() {
+		final PrincipalNameCache cache = new PrincipalNameCache();
+		assertThat(cache.cacheUnixPrincipalNames(unixPrincipalAttributes(1001, "bob", 101, "staff"), 1000, true), is("1000"));
+		assertThat(cache.cacheUnixPrincipalNames(unixPrincipalAttributes(1001, "bob", 101, "staff"), 100, false), is("100"));
+		//the names read were nevertheless cached under their own IDs
+		assertThat(cache.cacheUnixPrincipalNames(unixPrincipalAttributes(1002, "carol", 102, "other"), 1001, true), is("bob"));
+		assertThat(cache.cacheUnixPrincipalNames(unixPrincipalAttributes(1002, "carol", 102, "other"), 101, false), is("staff"));
+	}
+
+}